@@ -0,0 +1,129 @@
+package fr.univ_lorraine.battleship.benchmark;
+
+import java.util.Random;
+
+import fr.univ_lorraine.battleship.model.ComputerController;
+import fr.univ_lorraine.battleship.model.EpochXX;
+import fr.univ_lorraine.battleship.model.GameRandom;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.Player;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.Sea;
+
+/**
+ * Méthodes utilitaires pour construire les grilles des benchmarks.
+ */
+final class BenchmarkFixtures {
+
+	private BenchmarkFixtures() {}
+
+	/**
+	 * Retourne les règles d'une grille carrée.
+	 * La grille de 10 cases de côté a la flotte classique,
+	 * les plus grandes ont une flotte d'environ un bateau pour 2000 cases (au moins 10).
+	 * @param gridSize Le côté de la grille.
+	 * @return Les règles.
+	 */
+	static GameRules rules(int gridSize) {
+		if (gridSize == GameRules.DEFAULT_GRID_WIDTH) {
+			return new GameRules();
+		}
+		int[] shipsSizes = new int[Math.max(10, gridSize * gridSize / 2000)];
+		for (int i = 0 ; i < shipsSizes.length ; i++) {
+			shipsSizes[i] = 2 + i % 4;
+		}
+		return new GameRules(gridSize, gridSize, shipsSizes, 1);
+	}
+
+	/**
+	 * Crée une grille dont tous les bateaux sont placés, toujours de la même manière pour des règles données.
+	 * @param rules Les règles.
+	 * @return La grille.
+	 */
+	static Sea placedSea(GameRules rules) {
+		Player player = new Player(new Sea(new EpochXX(), rules), new Sea(new EpochXX(), rules));
+		player.getSelfGrid().putNextShipToPlace();
+		new ComputerController(player, new GameRandom(42)).placeAllShips();
+		return player.getSelfGrid();
+	}
+
+	/**
+	 * Crée une grille dont tous les bateaux sauf le dernier sont placés au hasard,
+	 * le dernier étant en cours de positionnement.
+	 * @param rules Les règles.
+	 * @param seed La graine du tirage des positions.
+	 * @return La grille.
+	 */
+	static Sea partiallyPlacedSea(GameRules rules, long seed) {
+		Random rand = new Random(seed);
+		Player player = new Player(new Sea(new EpochXX(), rules), new Sea(new EpochXX(), rules));
+		Sea sea = player.getSelfGrid();
+		sea.putNextShipToPlace();
+		for (int i = 0 ; i < rules.getNumberOfShips() - 1 ; i++) {
+			if (rand.nextBoolean()) {
+				player.rotateShip();
+			}
+			while (!player.placeShip(Position.of(rand.nextInt(rules.getGridWidth()), rand.nextInt(rules.getGridHeight())))) {
+				// on réessaie ailleurs
+			}
+		}
+		return sea;
+	}
+
+	/**
+	 * Tire sur une proportion des cases sans bateau d'une grille (tirs manqués).
+	 * Les bateaux restent intacts, les stratégies sont donc en phase de recherche.
+	 * @param sea La grille.
+	 * @param fillPercent Le pourcentage des cases sans bateau sur lesquelles tirer.
+	 * @param seed La graine du tirage des cases.
+	 */
+	static void fillWithMisses(Sea sea, int fillPercent, long seed) {
+		int[] water = new int[sea.getGridWidth() * sea.getGridHeight()];
+		int count = 0;
+		for (int x = 0 ; x < sea.getGridWidth() ; x++) {
+			for (int y = 0 ; y < sea.getGridHeight() ; y++) {
+				if (sea.isSeaTileFree(Position.of(x, y))) {
+					water[count++] = x * sea.getGridHeight() + y;
+				}
+			}
+		}
+		shuffle(water, count, new Random(seed));
+		for (int i = 0 ; i < count * fillPercent / 100 ; i++) {
+			sea.receiveShot(Position.of(water[i] / sea.getGridHeight(), water[i] % sea.getGridHeight()));
+		}
+	}
+
+	/**
+	 * Retourne les positions de la grille n'ayant pas reçu de tir, dans un ordre aléatoire.
+	 * @param sea La grille.
+	 * @param seed La graine du mélange.
+	 * @return Les positions.
+	 */
+	static Position[] shuffledNormalPositions(Sea sea, long seed) {
+		Position[] positions = sea.getAllNormalPositions().toArray(new Position[0]);
+		Random rand = new Random(seed);
+		for (int i = positions.length - 1 ; i > 0 ; i--) {
+			int j = rand.nextInt(i + 1);
+			Position tmp = positions[i];
+			positions[i] = positions[j];
+			positions[j] = tmp;
+		}
+		return positions;
+	}
+
+	/**
+	 * Mélange les premiers éléments d'un tableau (Fisher-Yates).
+	 * @param values Le tableau.
+	 * @param count Le nombre d'éléments à mélanger.
+	 * @param rand Le générateur aléatoire.
+	 */
+	private static void shuffle(int[] values, int count, Random rand) {
+		for (int i = count - 1 ; i > 0 ; i--) {
+			int j = rand.nextInt(i + 1);
+			int tmp = values[i];
+			values[i] = values[j];
+			values[j] = tmp;
+		}
+	}
+
+}
@@ -0,0 +1,151 @@
+package fr.univ_lorraine.battleship.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.univ_lorraine.battleship.Utils;
+
+/**
+ * Garde-fou contre les régressions de performance.
+ * Compare des résultats JMH (format CSV, mode temps moyen, avec le profileur gc)
+ * à des résultats de référence, et échoue si un temps par opération
+ * ou une allocation par opération dépasse la référence de plus d'une certaine tolérance,
+ * ou si aucun résultat n'a de référence (le garde-fou ne vérifierait alors rien).
+ *
+ * Usage : BenchmarkRegressionGuard référence.csv résultats.csv [tolérance en %]
+ */
+public final class BenchmarkRegressionGuard {
+
+	/**
+	 * Tolérance par défaut, en pourcentage.
+	 */
+	private static final double DEFAULT_TOLERANCE_PERCENT = 10;
+
+	/**
+	 * Allocation par opération en deçà de laquelle on ne signale pas de régression, en octets.
+	 * Évite les faux positifs lorsque la référence n'alloue rien.
+	 */
+	private static final double ALLOCATION_SLACK_BYTES = 16;
+
+	/**
+	 * Suffixe des lignes d'allocation par opération du profileur gc.
+	 */
+	private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+	private BenchmarkRegressionGuard() {}
+
+	/**
+	 * Compare les résultats à la référence.
+	 * @param args référence.csv résultats.csv [tolérance en %]
+	 * @throws IOException Si un fichier ne peut être lu.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage : BenchmarkRegressionGuard référence.csv résultats.csv [tolérance en %]");
+			System.exit(2);
+		}
+		double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE_PERCENT;
+		Map<String, Double> baseline = readScores(args[0]);
+		Map<String, Double> results = readScores(args[1]);
+
+		List<String> regressions = new ArrayList<String>();
+		int compared = 0;
+		for (Map.Entry<String, Double> result : results.entrySet()) {
+			Double reference = baseline.get(result.getKey());
+			if (reference == null) {
+				continue;	// nouveau benchmark, pas encore de référence
+			}
+			compared++;
+			double limit = reference * (1 + tolerance / 100);
+			if (result.getKey().contains(ALLOCATION_METRIC)) {
+				limit = Math.max(limit, reference + ALLOCATION_SLACK_BYTES);
+			}
+			if (result.getValue() > limit) {
+				regressions.add(String.format("%s : %.3f au lieu de %.3f", result.getKey(), result.getValue(), reference));
+			}
+		}
+
+		if (compared == 0) {	// référence vide ou d'autres benchmarks : le garde-fou ne vérifierait rien
+			System.err.println("Aucune des " + results.size() + " mesures n'a de référence dans " + args[0]);
+			System.exit(1);
+		}
+		if (regressions.isEmpty()) {
+			System.out.println("Aucune régression parmi " + compared + " mesures (tolérance " + tolerance + " %)");
+		} else {
+			System.err.println(regressions.size() + " régression(s) (tolérance " + tolerance + " %) :");
+			for (String regression : regressions) {
+				System.err.println("  " + regression);
+			}
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Lit les scores d'un fichier CSV de JMH.
+	 * Seules les lignes en temps par opération et les allocations par opération sont retenues.
+	 * @param path Le chemin du fichier.
+	 * @return Les scores, indexés par nom du benchmark suivi de ses paramètres.
+	 * @throws IOException Si le fichier ne peut être lu.
+	 */
+	static Map<String, Double> readScores(String path) throws IOException {
+		Map<String, Double> scores = new LinkedHashMap<String, Double>();
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8));
+			List<String> header = parseLine(reader.readLine());
+			int modeColumn = header.indexOf("Mode");
+			int scoreColumn = header.indexOf("Score");
+			int unitColumn = header.indexOf("Unit");
+			String line;
+			while ((line = reader.readLine()) != null) {
+				List<String> fields = parseLine(line);
+				String name = fields.get(0);
+				boolean time = fields.get(modeColumn).equals("avgt") && fields.get(unitColumn).endsWith("/op")
+						&& !name.contains(":");
+				if (!time && !name.endsWith(ALLOCATION_METRIC)) {
+					continue;
+				}
+				StringBuilder key = new StringBuilder(name);
+				for (int i = unitColumn + 1 ; i < fields.size() ; i++) {
+					key.append(' ').append(header.get(i).replace("Param: ", "")).append('=').append(fields.get(i));
+				}
+				scores.put(key.toString(), Double.parseDouble(fields.get(scoreColumn).replace(',', '.')));	// virgule décimale selon la locale
+			}
+		} finally {
+			Utils.closeQuietly(reader);
+		}
+		return scores;
+	}
+
+	/**
+	 * Découpe une ligne CSV (champs éventuellement entre guillemets, sans guillemet échappé).
+	 * @param line La ligne.
+	 * @return Les champs.
+	 */
+	private static List<String> parseLine(String line) {
+		List<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0 ; i < line.length() ; i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			} else if (c == ',' && !quoted) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+}
@@ -0,0 +1,90 @@
+package fr.univ_lorraine.battleship.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.univ_lorraine.battleship.model.EpochXX;
+import fr.univ_lorraine.battleship.model.Game;
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.GameLog;
+import fr.univ_lorraine.battleship.model.GameReplayer;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.RandomPlacement;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+/**
+ * Benchmark de {@link GameReplayer} sur le journal d'une partie complète (grille 10x10).
+ * {@link #replayFull()} rejoue tout le journal ; {@link #replayFromSnapshot()} ne rejoue
+ * que la fin du journal depuis le dernier instantané : il ne devrait jamais être plus lent.
+ * La stratégie de l'ordinateur, recréée à chaque reconstruction, fait varier le coût de la remise en état.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameReplayBenchmark {
+
+	/**
+	 * Nombre d'événements entre deux instantanés.
+	 */
+	private static final int SNAPSHOT_INTERVAL = 64;
+
+	/**
+	 * La stratégie de tir de l'ordinateur.
+	 */
+	@Param({ "RANDOM", "PROBABILITY_DENSITY" })
+	public ShootingStrategyName strategyName;
+
+	/**
+	 * Journal d'une partie terminée.
+	 */
+	private GameLog log;
+
+	/**
+	 * Rejoueur dont les instantanés couvrent tout le journal.
+	 */
+	private GameReplayer snapshotReplayer;
+
+	@Setup
+	public void setUp() {
+		Game game = new Game(new EpochXX(), strategyName.createShootingStrategy(), new RandomPlacement(), new GameRules(), 42);
+		game.setEndTurnAfterShotAnimation(false);
+		game.start(PlayerId.COMPUTER);
+		for (int i = 0 ; i < game.getRules().getNumberOfShips() ; i++) {
+			game.receiveRotateShipEvent();
+			game.receiveClickEventOnPlayerGrid(i * 2, 0);
+		}
+		for (int x = 0 ; x < game.getRules().getGridWidth() ; x++) {
+			for (int y = 0 ; y < game.getRules().getGridHeight() ; y++) {
+				game.receiveClickEventOnComputerGrid(x, y);
+			}
+		}
+		log = game.getLog();
+		snapshotReplayer = new GameReplayer(log, SNAPSHOT_INTERVAL);
+		snapshotReplayer.replay();
+	}
+
+	@Benchmark
+	public Game replayFull() {
+		return new GameReplayer(log).replay();
+	}
+
+	@Benchmark
+	public Game replayFromSnapshot() {
+		return snapshotReplayer.replay();
+	}
+
+}
@@ -0,0 +1,110 @@
+package fr.univ_lorraine.battleship.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.univ_lorraine.battleship.model.ComputerController;
+import fr.univ_lorraine.battleship.model.EpochXX;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.Player;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.Sea;
+import fr.univ_lorraine.battleship.model.Ship;
+import fr.univ_lorraine.battleship.model.Ship.Orientation;
+
+/**
+ * Benchmarks du placement des bateaux :
+ * {@link Sea#isShipOnPlacingInValidPosition()} et {@link ComputerController#placeAllShips()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlacementBenchmark {
+
+	/**
+	 * Nombre de positions testées à tour de rôle.
+	 */
+	private static final int POSITION_COUNT = 1024;
+
+	/**
+	 * Côté de la grille.
+	 */
+	@Param({ "10", "100", "1000" })
+	public int gridSize;
+
+	/**
+	 * Les règles de la grille.
+	 */
+	private GameRules rules;
+
+	/**
+	 * Grille dont le dernier bateau est en cours de positionnement.
+	 */
+	private Sea placingSea;
+
+	/**
+	 * Positions successives du bateau en cours de positionnement.
+	 */
+	private Position[] positions;
+
+	/**
+	 * Orientations successives du bateau en cours de positionnement.
+	 */
+	private Orientation[] orientations;
+
+	/**
+	 * Indice courant dans {@link #positions}.
+	 */
+	private int next;
+
+	@Setup
+	public void setUp() {
+		rules = BenchmarkFixtures.rules(gridSize);
+		placingSea = BenchmarkFixtures.partiallyPlacedSea(rules, 42);
+		Random rand = new Random(43);
+		positions = new Position[POSITION_COUNT];
+		orientations = new Orientation[POSITION_COUNT];
+		for (int i = 0 ; i < POSITION_COUNT ; i++) {
+			positions[i] = Position.of(rand.nextInt(gridSize), rand.nextInt(gridSize));
+			orientations[i] = rand.nextBoolean() ? Orientation.HORIZONTAL : Orientation.VERTICAL;
+		}
+	}
+
+	@Benchmark
+	public boolean isShipOnPlacingInValidPosition() {
+		Ship ship = placingSea.getShipOnPlacing();
+		ship.setOrientation(orientations[next]);
+		ship.setPosition(positions[next]);
+		next = (next + 1) % POSITION_COUNT;
+		return placingSea.isShipOnPlacingInValidPosition();
+	}
+
+	/**
+	 * Place toute la flotte sur une grille vide.
+	 * La création de la grille est incluse dans la mesure.
+	 * @return La grille, pour que le placement ne soit pas éliminé.
+	 */
+	@Benchmark
+	public Sea placeAllShips() {
+		Player player = new Player(new Sea(new EpochXX(), rules), new Sea(new EpochXX(), rules));
+		player.getSelfGrid().putNextShipToPlace();
+		new ComputerController(player).placeAllShips();
+		return player.getSelfGrid();
+	}
+
+}
@@ -0,0 +1,85 @@
+package fr.univ_lorraine.battleship.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.Sea;
+
+/**
+ * Benchmark de {@link Sea#receiveShot(Position)} selon la taille de la grille et son remplissage.
+ * Chaque appel copie la grille de départ puis y effectue {@value #SHOTS_PER_INVOCATION} tirs ;
+ * la copie est légère (masques et bateaux) mais incluse dans la mesure.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SeaBenchmark {
+
+	/**
+	 * Nombre de tirs par appel de {@link #receiveShot(Blackhole)}.
+	 * Inférieur au nombre de cases libres de la plus petite grille la plus remplie.
+	 */
+	private static final int SHOTS_PER_INVOCATION = 16;
+
+	/**
+	 * Côté de la grille.
+	 */
+	@Param({ "10", "100", "1000" })
+	public int gridSize;
+
+	/**
+	 * Pourcentage des cases sans bateau ayant déjà reçu un tir.
+	 */
+	@Param({ "0", "25", "50", "75" })
+	public int fillPercent;
+
+	/**
+	 * Grille de départ.
+	 */
+	private Sea template;
+
+	/**
+	 * Cases n'ayant pas reçu de tir, dans un ordre aléatoire.
+	 */
+	private Position[] targets;
+
+	/**
+	 * Indice du prochain tir dans {@link #targets}.
+	 */
+	private int next;
+
+	@Setup
+	public void setUp() {
+		template = BenchmarkFixtures.placedSea(BenchmarkFixtures.rules(gridSize));
+		BenchmarkFixtures.fillWithMisses(template, fillPercent, 42);
+		targets = BenchmarkFixtures.shuffledNormalPositions(template, 43);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SHOTS_PER_INVOCATION)
+	public void receiveShot(Blackhole bh) {
+		Sea sea = template.fork();
+		for (int i = 0 ; i < SHOTS_PER_INVOCATION ; i++) {
+			bh.consume(sea.receiveShot(targets[next]));
+			next = (next + 1) % targets.length;
+		}
+	}
+
+}
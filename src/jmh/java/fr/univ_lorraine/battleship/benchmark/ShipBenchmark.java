@@ -0,0 +1,79 @@
+package fr.univ_lorraine.battleship.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.univ_lorraine.battleship.model.EpochXX;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.Ship;
+import fr.univ_lorraine.battleship.model.Ship.Orientation;
+
+/**
+ * Benchmark de {@link Ship#checkShot(Position)}, pour un tir touchant le bateau et pour un tir à côté.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShipBenchmark {
+
+	/**
+	 * Taille du bateau.
+	 */
+	@Param({ "2", "5" })
+	public int size;
+
+	/**
+	 * Orientation du bateau.
+	 */
+	@Param({ "HORIZONTAL", "VERTICAL" })
+	public Orientation orientation;
+
+	/**
+	 * Le bateau visé.
+	 */
+	private Ship ship;
+
+	/**
+	 * Une case du bateau.
+	 */
+	private Position hit;
+
+	/**
+	 * Une case voisine du bateau.
+	 */
+	private Position miss;
+
+	@Setup
+	public void setUp() {
+		ship = new Ship(size, new EpochXX());
+		ship.setOrientation(orientation);
+		ship.setPosition(Position.of(3, 3));
+		hit = orientation == Orientation.HORIZONTAL ? Position.of(3 + size - 1, 3) : Position.of(3, 3 + size - 1);
+		miss = Position.of(2, 2);
+	}
+
+	@Benchmark
+	public boolean checkShotHit() {
+		return ship.checkShot(hit);
+	}
+
+	@Benchmark
+	public boolean checkShotMiss() {
+		return ship.checkShot(miss);
+	}
+
+}
@@ -0,0 +1,78 @@
+package fr.univ_lorraine.battleship.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.univ_lorraine.battleship.model.GameRandom;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.Sea;
+import fr.univ_lorraine.battleship.model.ShootingStrategy;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+/**
+ * Benchmark du choix d'un tir ({@link ShootingStrategy#playShoot(Sea)}) pour chaque stratégie,
+ * selon la taille de la grille et son remplissage.
+ * Le tir n'est pas effectué : la grille reste la même d'un appel à l'autre.
+ * La stratégie Monte-Carlo consomme tout son budget de temps à chaque tir.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShootingStrategyBenchmark {
+
+	/**
+	 * La stratégie de tir.
+	 */
+	@Param({ "RANDOM", "SEEK_THEN_DESTROY_RANDOM", "SEEK_THEN_DESTROY_CROSS", "PROBABILITY_DENSITY", "MONTE_CARLO", "EPOCH_AWARE" })
+	public ShootingStrategyName strategyName;
+
+	/**
+	 * Côté de la grille.
+	 */
+	@Param({ "10", "100" })
+	public int gridSize;
+
+	/**
+	 * Pourcentage des cases sans bateau ayant déjà reçu un tir.
+	 */
+	@Param({ "0", "25", "50", "75" })
+	public int fillPercent;
+
+	/**
+	 * La stratégie de tir.
+	 */
+	private ShootingStrategy strategy;
+
+	/**
+	 * La grille visée.
+	 */
+	private Sea sea;
+
+	@Setup
+	public void setUp() {
+		strategy = strategyName.createShootingStrategy();
+		strategy.setRandom(new GameRandom(42));
+		sea = BenchmarkFixtures.placedSea(BenchmarkFixtures.rules(gridSize));
+		BenchmarkFixtures.fillWithMisses(sea, fillPercent, 42);
+	}
+
+	@Benchmark
+	public Position playShoot() {
+		return strategy.playShoot(sea);
+	}
+
+}
@@ -0,0 +1,293 @@
+package fr.univ_lorraine.battleship;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.RandomPlacement;
+import fr.univ_lorraine.battleship.model.Sea;
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
+import fr.univ_lorraine.battleship.network.NetworkListener;
+import fr.univ_lorraine.battleship.network.NetworkMatch;
+import fr.univ_lorraine.battleship.network.NetworkPeer;
+import fr.univ_lorraine.battleship.network.RemoteSea;
+import fr.univ_lorraine.battleship.network.NetworkMatch.MatchState;
+
+/**
+ * Partie en réseau entre deux joueurs humains, en mode texte.
+ * L'hôte attend la connexion de l'adversaire et tire en premier ; chaque joueur lance le programme de son côté.
+ * La flotte est placée aléatoirement, puis les tirs sont lus sur l'entrée standard, une ligne « x y » par tir.
+ *
+ * Usage : NetworkGameRunner host port [--epoch époque] [--salvo]
+ *      ou NetworkGameRunner connect adresse port [--epoch époque] [--salvo]
+ */
+public class NetworkGameRunner implements NetworkListener {
+
+	/**
+	 * L'entrée des tirs.
+	 */
+	private final BufferedReader in;
+
+	/**
+	 * La sortie de l'affichage.
+	 */
+	private final PrintStream out;
+
+	/**
+	 * L'état de la partie lors de la dernière mise à jour, null avant la première.
+	 */
+	private MatchState state;
+
+	/**
+	 * Le nombre de tirs du tour lors de la dernière mise à jour.
+	 */
+	private int shotsThisTurn;
+
+	/**
+	 * Les grilles lors de la dernière mise à jour, mises en texte.
+	 */
+	private String board = "";
+
+	/**
+	 * Vrai une fois la connexion fermée.
+	 */
+	private boolean closed;
+
+	/**
+	 * La cause de la fermeture de la connexion, null si elle a été fermée normalement.
+	 */
+	private Exception closeCause;
+
+	/**
+	 * Crée l'affichage d'une partie.
+	 * @param in L'entrée des tirs.
+	 * @param out La sortie de l'affichage.
+	 */
+	public NetworkGameRunner(BufferedReader in, PrintStream out) {
+		this.in = in;
+		this.out = out;
+	}
+
+	/**
+	 * Copie l'état de la partie, qui ne peut être lue que pendant l'appel (thread réseau).
+	 */
+	@Override
+	public synchronized void onMatchUpdate(NetworkMatch match) {
+		state = match.getState();
+		shotsThisTurn = state == MatchState.SHOOTING ? match.getNumberOfShotsThisTurn() : 0;
+		board = render(match);
+		notifyAll();
+	}
+
+	@Override
+	public synchronized void onClosed(Exception cause) {
+		closed = true;
+		closeCause = cause;
+		notifyAll();
+	}
+
+	/**
+	 * Joue la partie jusqu'à sa fin : place la flotte, puis lit les tirs du joueur à chacun de ses tours.
+	 * La connexion est fermée à la fin de la partie.
+	 * @param peer Le côté local de la partie, créé avec cet objet pour écouteur.
+	 * @return L'état final de la partie, {@link MatchState#WON} ou {@link MatchState#LOST},
+	 * ou null si l'entrée est terminée avant la fin de la partie.
+	 * @throws IOException Si la connexion est perdue ou l'entrée illisible.
+	 * @throws InterruptedException Si le thread est interrompu.
+	 */
+	public MatchState play(NetworkPeer peer) throws IOException, InterruptedException {
+		try {
+			await(peer.placeShips(new RandomPlacement(), new Random()));
+			out.println("Flotte placée, en attente de l'adversaire...");
+			while (true) {
+				MatchState current;
+				int shots;
+				String currentBoard;
+				boolean disconnected;
+				synchronized (this) {
+					while (!closed && state != MatchState.SHOOTING && state != MatchState.WON && state != MatchState.LOST) {
+						wait();
+					}
+					current = state;
+					shots = shotsThisTurn;
+					currentBoard = board;
+					disconnected = closed;
+				}
+				out.println(currentBoard);
+				if (current == MatchState.WON || current == MatchState.LOST) {
+					out.println(current == MatchState.WON ? "Vous avez gagné !" : "Vous avez perdu.");
+					return current;
+				}
+				if (disconnected) {
+					throw new IOException("Connexion perdue", closeCause);
+				}
+				out.println("A vous de tirer : " + shots + " tir(s), une ligne « x y » par tir");
+				List<Position> positions = readShots(shots);
+				if (positions == null) {
+					return null;
+				}
+				try {
+					await(peer.shoot(positions));
+				} catch (IllegalArgumentException e) {
+					out.println(e.getMessage() + ", recommencez");
+				}
+			}
+		} finally {
+			peer.close();
+		}
+	}
+
+	/**
+	 * Attend la fin d'une action du joueur local.
+	 * @param action L'action.
+	 * @throws IOException Si la connexion est fermée avant l'action.
+	 * @throws InterruptedException Si le thread est interrompu.
+	 * @throws IllegalArgumentException Si l'action est invalide.
+	 */
+	private static void await(Future<Void> action) throws IOException, InterruptedException {
+		try {
+			action.get();
+		} catch (CancellationException e) {
+			throw new IOException("Connexion fermée", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IllegalArgumentException) {
+				throw (IllegalArgumentException) e.getCause();
+			}
+			throw new IOException("Action impossible", e.getCause());
+		}
+	}
+
+	/**
+	 * Lit les positions des tirs d'un tour, une ligne « x y » par tir.
+	 * Une ligne mal formée est ignorée.
+	 * @param n Le nombre de tirs.
+	 * @return Les positions, ou null si l'entrée est terminée.
+	 * @throws IOException Si l'entrée est illisible.
+	 */
+	private List<Position> readShots(int n) throws IOException {
+		List<Position> shots = new ArrayList<Position>(n);
+		while (shots.size() < n) {
+			String line = in.readLine();
+			if (line == null) {
+				return null;
+			}
+			String[] coordinates = line.trim().split("\\s+");
+			try {
+				if (coordinates.length != 2) {
+					throw new NumberFormatException(line);
+				}
+				shots.add(new Position(Integer.parseInt(coordinates[0]), Integer.parseInt(coordinates[1])));
+			} catch (NumberFormatException e) {
+				out.println("Tir mal formé « " + line + " », attendu « x y »");
+			}
+		}
+		return shots;
+	}
+
+	/**
+	 * Met en texte la grille du joueur et celle de l'adversaire, côte à côte.
+	 * ~ : eau, # : bateau, X : touché, o : manqué.
+	 * @param match La partie.
+	 * @return Le texte.
+	 */
+	private static String render(NetworkMatch match) {
+		Sea sea = match.getSea();
+		RemoteSea opponentSea = match.getOpponentSea();
+		StringBuilder text = new StringBuilder();
+		text.append("Votre grille").append(spaces(2 * sea.getGridWidth() + 4 - "Votre grille".length()))
+				.append("Grille adverse (").append(opponentSea.getAliveShipCount()).append(" bateau(x) en vie)\n");
+		for (int y = 0 ; y < sea.getGridHeight() ; y++) {	// les deux grilles ont la même taille
+			for (int x = 0 ; x < sea.getGridWidth() ; x++) {
+				SeaTileState tile = sea.getGridTileState(x, y);
+				text.append(tile == SeaTileState.NORMAL ? (sea.isSeaTileFree(Position.of(x, y)) ? '~' : '#') : symbol(tile)).append(' ');
+			}
+			text.append("    ");
+			for (int x = 0 ; x < opponentSea.getGridWidth() ; x++) {
+				text.append(symbol(opponentSea.getGridTileState(x, y))).append(' ');
+			}
+			text.append('\n');
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Retourne le symbole d'une case.
+	 * @param tile L'état de la case.
+	 * @return Le symbole.
+	 */
+	private static char symbol(SeaTileState tile) {
+		switch (tile) {
+			case NORMAL:
+				return '~';
+			case TOUCHED:
+				return 'X';
+			case SHOT:
+				return 'o';
+			default:
+				throw new AssertionError("Etat inconnu " + tile);
+		}
+	}
+
+	/**
+	 * Retourne une suite d'espaces.
+	 * @param n Le nombre d'espaces.
+	 * @return Les espaces.
+	 */
+	private static String spaces(int n) {
+		char[] spaces = new char[Math.max(0, n)];
+		Arrays.fill(spaces, ' ');
+		return new String(spaces);
+	}
+
+	/**
+	 * Lance une partie en réseau depuis la ligne de commande.
+	 * @param args host port [--epoch époque] [--salvo], ou connect adresse port [--epoch époque] [--salvo]
+	 * @throws IOException Si la connexion échoue ou est perdue.
+	 * @throws InterruptedException Si le thread est interrompu.
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		boolean host = args.length >= 2 && args[0].equals("host");
+		boolean connect = args.length >= 3 && args[0].equals("connect");
+		if (!host && !connect) {
+			System.err.println("Usage : NetworkGameRunner host port [--epoch époque] [--salvo]");
+			System.err.println("     ou NetworkGameRunner connect adresse port [--epoch époque] [--salvo]");
+			System.err.println("Epoques : " + Arrays.toString(EpochName.values()));
+			System.exit(1);
+		}
+		EpochName epoch = EpochName.XX_SIECLE;
+		GameRules rules = new GameRules();
+		for (int i = host ? 2 : 3 ; i < args.length ; i++) {
+			if (args[i].equals("--epoch")) {
+				epoch = EpochName.valueOf(args[++i]);
+			} else if (args[i].equals("--salvo")) {
+				rules = GameRules.salvo();
+			} else {
+				throw new IllegalArgumentException("Option inconnue " + args[i]);
+			}
+		}
+
+		NetworkGameRunner runner = new NetworkGameRunner(new BufferedReader(new InputStreamReader(System.in)), System.out);
+		NetworkMatch match = new NetworkMatch(epoch.createEpoch(), rules, host);
+		NetworkPeer peer;
+		if (host) {
+			peer = NetworkPeer.host(new InetSocketAddress(Integer.parseInt(args[1])), match, runner);
+			System.out.println("En attente de l'adversaire sur le port " + peer.getLocalPort() + "...");
+		} else {
+			peer = NetworkPeer.connect(new InetSocketAddress(args[1], Integer.parseInt(args[2])), match, runner);
+		}
+		runner.play(peer);
+	}
+
+}
@@ -0,0 +1,187 @@
+package fr.univ_lorraine.battleship;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import fr.univ_lorraine.battleship.model.GameRandom;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.OpeningBook;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.RandomPlacement;
+import fr.univ_lorraine.battleship.model.Sea;
+import fr.univ_lorraine.battleship.model.ShipPlacement;
+import fr.univ_lorraine.battleship.model.ShootingStrategy;
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+/**
+ * Construction d'un {@link OpeningBook} pour une stratégie, une époque et des règles.
+ * La stratégie joue les premiers tirs d'un grand nombre de parties, contre des flottes placées aléatoirement ;
+ * pour chaque état de grille rencontré suffisamment souvent, le livre retient le tir le plus souvent choisi.
+ *
+ * Le livre n'est consulté que dans les parties jouées avec les mêmes règles : l'option --salvo construit
+ * celui des parties de {@link TournamentRunner} lancées avec --salvo.
+ *
+ * Usage : OpeningBookBuilder stratégie époque profondeur nombreDeParties graine fichier [--salvo]
+ */
+public class OpeningBookBuilder {
+
+	/**
+	 * Nombre minimal de parties passant par un état pour qu'il figure dans le livre.
+	 * Les états plus rares n'ont que peu de chances d'être rencontrés en partie.
+	 */
+	private static final int MIN_OCCURRENCES = 2;
+
+	/**
+	 * La stratégie dont les tirs sont précalculés.
+	 */
+	private final ShootingStrategyName strategyName;
+
+	/**
+	 * L'époque des parties.
+	 */
+	private final EpochName epochName;
+
+	/**
+	 * Les règles des parties.
+	 */
+	private final GameRules rules;
+
+	/**
+	 * Le nombre de tirs couverts par le livre.
+	 */
+	private final int depth;
+
+	/**
+	 * Le nombre de parties simulées.
+	 */
+	private final int numberOfGames;
+
+	/**
+	 * La graine des parties simulées.
+	 */
+	private final long seed;
+
+	/**
+	 * Crée un constructeur de livre d'ouvertures.
+	 * @param strategyName La stratégie dont les tirs sont précalculés.
+	 * @param epochName L'époque des parties.
+	 * @param rules Les règles des parties.
+	 * @param depth Le nombre de tirs couverts par le livre.
+	 * @param numberOfGames Le nombre de parties simulées.
+	 * @param seed La graine des parties simulées.
+	 * @throws IllegalArgumentException Si la profondeur ou le nombre de parties est négatif.
+	 */
+	public OpeningBookBuilder(ShootingStrategyName strategyName, EpochName epochName, GameRules rules,
+			int depth, int numberOfGames, long seed) {
+		if (depth < 0) {
+			throw new IllegalArgumentException("Profondeur invalide " + depth);
+		}
+		if (numberOfGames < 0) {
+			throw new IllegalArgumentException("Nombre de parties invalide " + numberOfGames);
+		}
+		this.strategyName = strategyName;
+		this.epochName = epochName;
+		this.rules = rules;
+		this.depth = depth;
+		this.numberOfGames = numberOfGames;
+		this.seed = seed;
+	}
+
+	/**
+	 * Simule les parties et retient, pour chaque état fréquent, le tir le plus souvent choisi.
+	 * @return Les tirs, indexés par hash de la grille.
+	 */
+	public Map<Long, Position> build() {
+		Map<Long, Map<Position, Integer>> choices = new HashMap<Long, Map<Position, Integer>>();
+		GameRandom random = new GameRandom(seed);
+		for (int i = 0 ; i < numberOfGames ; i++) {
+			GameRandom gameRandom = random.split();
+			Sea sea = new Sea(epochName.createEpoch(), rules);
+			sea.putNextShipToPlace();
+			for (ShipPlacement placement : new RandomPlacement().placeShips(sea, gameRandom)) {
+				sea.getShipOnPlacing().setOrientation(placement.getOrientation());
+				sea.getShipOnPlacing().setPosition(placement.getPosition());
+				sea.validateShipPlacement();
+			}
+			ShootingStrategy strategy = strategyName.createShootingStrategy();
+			strategy.setRandom(gameRandom.split());
+			for (int shot = 0 ; shot < depth && sea.getAliveShipCount() > 0 ; shot++) {
+				Long hash = sea.getZobristHash();
+				Position position = strategy.playShoot(sea);
+				Map<Position, Integer> counts = choices.get(hash);
+				if (counts == null) {
+					counts = new LinkedHashMap<Position, Integer>();
+					choices.put(hash, counts);
+				}
+				Integer count = counts.get(position);
+				counts.put(position, count == null ? 1 : count + 1);
+				sea.receiveShot(position);
+			}
+		}
+
+		Map<Long, Position> shots = new HashMap<Long, Position>();
+		for (Map.Entry<Long, Map<Position, Integer>> state : choices.entrySet()) {
+			int total = 0;
+			int best = 0;
+			Position bestPosition = null;
+			for (Map.Entry<Position, Integer> choice : state.getValue().entrySet()) {
+				total += choice.getValue();
+				if (choice.getValue() > best) {
+					best = choice.getValue();
+					bestPosition = choice.getKey();
+				}
+			}
+			if (total >= MIN_OCCURRENCES) {
+				shots.put(state.getKey(), bestPosition);
+			}
+		}
+		return shots;
+	}
+
+	/**
+	 * Construit le livre et l'écrit dans un fichier.
+	 * @param file Le fichier du livre.
+	 * @return Le nombre d'entrées du livre.
+	 * @throws IOException Si le fichier ne peut être écrit.
+	 */
+	public int write(File file) throws IOException {
+		Map<Long, Position> shots = build();
+		OpeningBook.write(file, strategyName, epochName, rules, depth, shots);
+		return shots.size();
+	}
+
+	/**
+	 * Construit un livre d'ouvertures depuis la ligne de commande.
+	 * @param args stratégie époque profondeur nombreDeParties graine fichier [--salvo]
+	 * @throws IOException Si le fichier ne peut être écrit.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 6) {
+			System.err.println("Usage : OpeningBookBuilder stratégie époque profondeur nombreDeParties graine fichier [--salvo]");
+			System.err.println("Stratégies : " + Arrays.toString(ShootingStrategyName.values()));
+			System.err.println("Epoques : " + Arrays.toString(EpochName.values()));
+			System.exit(1);
+		}
+		GameRules rules = new GameRules();
+		for (int i = 6 ; i < args.length ; i++) {
+			if (args[i].equals("--salvo")) {
+				rules = GameRules.salvo();
+			} else {
+				throw new IllegalArgumentException("Option inconnue " + args[i]);
+			}
+		}
+		OpeningBookBuilder builder = new OpeningBookBuilder(ShootingStrategyName.valueOf(args[0]),
+				EpochName.valueOf(args[1]), rules, Integer.parseInt(args[2]),
+				Integer.parseInt(args[3]), Long.parseLong(args[4]));
+		long start = System.nanoTime();
+		int entries = builder.write(new File(args[5]));
+		System.out.println(entries + " entrées écrites dans " + args[5]
+				+ " en " + (System.nanoTime() - start) / 1000000 + " ms");
+	}
+
+}
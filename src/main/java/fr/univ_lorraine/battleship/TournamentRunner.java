@@ -0,0 +1,687 @@
+package fr.univ_lorraine.battleship;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import fr.univ_lorraine.battleship.model.CachedShootingStrategy;
+import fr.univ_lorraine.battleship.model.ComputerController;
+import fr.univ_lorraine.battleship.model.DecisionCache;
+import fr.univ_lorraine.battleship.model.Game;
+import fr.univ_lorraine.battleship.model.GameRandom;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.OpeningBook;
+import fr.univ_lorraine.battleship.model.OpeningBookShooting;
+import fr.univ_lorraine.battleship.model.Player;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.RandomPlacement;
+import fr.univ_lorraine.battleship.model.Sea;
+import fr.univ_lorraine.battleship.model.ShootingStrategy;
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+import fr.univ_lorraine.battleship.model.Game.GameState;
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+/**
+ * Tournoi sans interface graphique entre deux stratégies de tir de l'ordinateur.
+ * Les parties sont jouées en parallèle sur un pool à vol de tâches (ou sur des threads virtuels),
+ * en passant par l'API publique de {@link Game} : la première stratégie joue à la place du joueur,
+ * la seconde est celle de l'ordinateur.
+ *
+ * Usage : TournamentRunner stratégie1 stratégie2 époque nombreDeParties graine [--threads n] [--virtual] [--cache n] [--book fichier] [--salvo]
+ */
+public class TournamentRunner {
+
+	/**
+	 * Nombre de parties jouées par tâche soumise à l'exécuteur.
+	 */
+	private static final int GAMES_PER_TASK = 64;
+
+	/**
+	 * Stratégie de tir jouant à la place du joueur.
+	 */
+	private final ShootingStrategyName firstStrategy;
+
+	/**
+	 * Stratégie de tir de l'ordinateur.
+	 */
+	private final ShootingStrategyName secondStrategy;
+
+	/**
+	 * L'époque des parties.
+	 */
+	private final EpochName epoch;
+
+	/**
+	 * Les règles des parties.
+	 */
+	private final GameRules rules;
+
+	/**
+	 * Le nombre de parties.
+	 */
+	private final int numberOfGames;
+
+	/**
+	 * La graine du tournoi, dont dérive celle de chaque partie.
+	 */
+	private final long seed;
+
+	/**
+	 * Cache des décisions partagé par toutes les parties, ou null.
+	 */
+	private DecisionCache decisionCache;
+
+	/**
+	 * Livre d'ouvertures partagé par toutes les parties, ou null.
+	 */
+	private OpeningBook openingBook;
+
+	/**
+	 * Crée un tournoi.
+	 * @param firstStrategy La stratégie jouant à la place du joueur.
+	 * @param secondStrategy La stratégie de l'ordinateur.
+	 * @param epoch L'époque des parties.
+	 * @param rules Les règles des parties.
+	 * @param numberOfGames Le nombre de parties.
+	 * @param seed La graine du tournoi.
+	 * @throws IllegalArgumentException Si le nombre de parties est négatif.
+	 */
+	public TournamentRunner(ShootingStrategyName firstStrategy, ShootingStrategyName secondStrategy,
+			EpochName epoch, GameRules rules, int numberOfGames, long seed) {
+		if (numberOfGames < 0) {
+			throw new IllegalArgumentException("Nombre de parties invalide " + numberOfGames);
+		}
+		this.firstStrategy = firstStrategy;
+		this.secondStrategy = secondStrategy;
+		this.epoch = epoch;
+		this.rules = rules;
+		this.numberOfGames = numberOfGames;
+		this.seed = seed;
+	}
+
+	/**
+	 * Partage un cache des décisions entre les stratégies de toutes les parties du tournoi.
+	 * Seules les stratégies dont les décisions peuvent être mises en cache le consultent
+	 * (voir {@link ShootingStrategyName#isCacheable()}).
+	 * @param decisionCache Le cache, ou null pour ne pas mémoriser les décisions.
+	 */
+	public void setDecisionCache(DecisionCache decisionCache) {
+		this.decisionCache = decisionCache;
+	}
+
+	/**
+	 * Partage un livre d'ouvertures entre les stratégies de toutes les parties du tournoi.
+	 * Seule la stratégie pour laquelle le livre a été construit le consulte.
+	 * @param openingBook Le livre, ou null pour ne pas en utiliser.
+	 */
+	public void setOpeningBook(OpeningBook openingBook) {
+		this.openingBook = openingBook;
+	}
+
+	/**
+	 * Joue toutes les parties du tournoi sur un exécuteur.
+	 * L'exécuteur n'est pas arrêté à la fin du tournoi.
+	 * @param executor L'exécuteur.
+	 * @return Le bilan du tournoi.
+	 * @throws InterruptedException Si le thread est interrompu pendant le tournoi.
+	 */
+	public Report run(ExecutorService executor) throws InterruptedException {
+		final int[] results = new int[numberOfGames];
+		final LatencyHistogram firstLatencies = new LatencyHistogram();
+		final LatencyHistogram secondLatencies = new LatencyHistogram();
+
+		long start = System.nanoTime();
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int from = 0 ; from < numberOfGames ; from += GAMES_PER_TASK) {
+			final int first = from;
+			final int last = Math.min(numberOfGames, from + GAMES_PER_TASK);
+			futures.add(executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					LatencyHistogram taskFirstLatencies = new LatencyHistogram();
+					LatencyHistogram taskSecondLatencies = new LatencyHistogram();
+					for (int i = first ; i < last ; i++) {
+						results[i] = playGame(i, taskFirstLatencies, taskSecondLatencies);
+					}
+					firstLatencies.add(taskFirstLatencies);
+					secondLatencies.add(taskSecondLatencies);
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Echec d'une partie du tournoi", e.getCause());
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		return new Report(results, firstLatencies, secondLatencies, elapsed);
+	}
+
+	/**
+	 * Joue une partie.
+	 * @param index L'indice de la partie, dont dérive sa graine.
+	 * @param firstLatencies L'histogramme des temps de décision des tirs de la première stratégie.
+	 * @param secondLatencies L'histogramme des temps de décision des tirs de la seconde stratégie.
+	 * @return Le nombre de tirs du vainqueur, positif si la première stratégie gagne, négatif sinon.
+	 */
+	private int playGame(int index, LatencyHistogram firstLatencies, LatencyHistogram secondLatencies) {
+		ShootingStrategy first = new TimedShootingStrategy(createStrategy(firstStrategy), firstLatencies);
+		ShootingStrategy second = new TimedShootingStrategy(createStrategy(secondStrategy), secondLatencies);
+
+		Game game = new Game(epoch.createEpoch(), second, new RandomPlacement(), rules, seed * 31 + index);
+		game.setEndTurnAfterShotAnimation(false);
+		Player player = game.getPlayer(PlayerId.PLAYER);
+		ComputerController playerController = new ComputerController(player, game.splitRandom());
+		playerController.setShootingStrategy(first);
+
+		game.start();
+		playerController.placeAllShips();
+		game.endTurn();		// l'ordinateur place ses bateaux, et tire s'il a commencé
+
+		Sea target = player.getOpponentGrid();
+		while (game.getGameState() == GameState.RUNNING) {
+			int n = game.getRemainingShotsThisTurn();
+			List<Position> shots = n == 1 ? Collections.singletonList(first.playShoot(target)) : first.playShoots(target, n);
+			for (Position shot : shots) {
+				if (game.getGameState() != GameState.RUNNING) {
+					break;		// flotte adverse détruite avant la fin de la salve
+				}
+				int normalTiles = target.countTiles(SeaTileState.NORMAL);
+				game.receiveClickEventOnComputerGrid(shot.getX(), shot.getY());
+				if (target.countTiles(SeaTileState.NORMAL) == normalTiles) {
+					throw new IllegalStateException("Tir invalide de " + firstStrategy + " en " + shot);
+				}
+			}
+		}
+
+		if (game.getGameState() == GameState.PLAYER_WINS) {
+			return shotsReceived(target);
+		}
+		return -shotsReceived(player.getSelfGrid());
+	}
+
+	/**
+	 * Crée une stratégie de tir, qui consulte le livre d'ouvertures du tournoi s'il lui est destiné
+	 * et mémorise ses décisions si le tournoi a un cache et que la stratégie peut être mise en cache.
+	 * @param name Le nom de la stratégie.
+	 * @return La stratégie.
+	 */
+	private ShootingStrategy createStrategy(ShootingStrategyName name) {
+		ShootingStrategy strategy = name.createShootingStrategy();
+		if (openingBook != null && openingBook.getShootingStrategyName() == name) {
+			strategy = new OpeningBookShooting(strategy, openingBook);
+		}
+		if (decisionCache == null || !name.isCacheable()) {
+			return strategy;
+		}
+		return new CachedShootingStrategy(strategy, decisionCache);
+	}
+
+	/**
+	 * Compte les tirs reçus par une grille.
+	 * @param sea La grille.
+	 * @return Le nombre de tirs reçus.
+	 */
+	private static int shotsReceived(Sea sea) {
+		return sea.getGridWidth() * sea.getGridHeight() - sea.countTiles(SeaTileState.NORMAL);
+	}
+
+	/**
+	 * Lance un tournoi depuis la ligne de commande et affiche son bilan.
+	 * @param args stratégie1 stratégie2 époque nombreDeParties graine [--threads n] [--virtual] [--cache n] [--book fichier] [--salvo]
+	 * @throws InterruptedException Si le thread est interrompu pendant le tournoi.
+	 * @throws IOException Si le livre d'ouvertures ne peut être lu.
+	 */
+	public static void main(String[] args) throws InterruptedException, IOException {
+		if (args.length < 5) {
+			System.err.println("Usage : TournamentRunner stratégie1 stratégie2 époque nombreDeParties graine [--threads n] [--virtual] [--cache n] [--book fichier] [--salvo]");
+			System.err.println("Stratégies : " + Arrays.toString(ShootingStrategyName.values()));
+			System.err.println("Epoques : " + Arrays.toString(EpochName.values()));
+			System.exit(1);
+		}
+		ShootingStrategyName first = ShootingStrategyName.valueOf(args[0]);
+		ShootingStrategyName second = ShootingStrategyName.valueOf(args[1]);
+		EpochName epoch = EpochName.valueOf(args[2]);
+		int games = Integer.parseInt(args[3]);
+		long seed = Long.parseLong(args[4]);
+		int threads = Runtime.getRuntime().availableProcessors();
+		boolean virtual = false;
+		DecisionCache cache = null;
+		OpeningBook book = null;
+		GameRules rules = new GameRules();
+		for (int i = 5 ; i < args.length ; i++) {
+			if (args[i].equals("--threads")) {
+				threads = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("--virtual")) {
+				virtual = true;
+			} else if (args[i].equals("--cache")) {
+				cache = new DecisionCache(Integer.parseInt(args[++i]));
+			} else if (args[i].equals("--book")) {
+				book = OpeningBook.open(new File(args[++i]));
+			} else if (args[i].equals("--salvo")) {
+				rules = GameRules.salvo();
+			} else {
+				throw new IllegalArgumentException("Option inconnue " + args[i]);
+			}
+		}
+
+		if (cache != null && !first.isCacheable() && !second.isCacheable()) {
+			System.err.println("Option --cache ignorée : aucune des stratégies ne peut être mise en cache");
+			cache = null;
+		}
+
+		ExecutorService executor = null;
+		if (virtual) {
+			executor = Utils.newVirtualThreadPerTaskExecutor();
+			if (executor == null) {
+				System.err.println("Threads virtuels non supportés par cette JVM, utilisation d'un pool à vol de tâches");
+			}
+		}
+		if (executor == null) {
+			executor = Executors.newWorkStealingPool(threads);
+		}
+		try {
+			TournamentRunner tournament = new TournamentRunner(first, second, epoch, rules, games, seed);
+			tournament.setDecisionCache(cache);
+			tournament.setOpeningBook(book);
+			Report report = tournament.run(executor);
+			System.out.println(first + " contre " + second + " (" + epoch + ")");
+			System.out.println(report);
+			if (cache != null) {
+				long lookups = cache.getHitCount() + cache.getMissCount();
+				System.out.println(String.format(Locale.ROOT, "Cache des décisions : %d succès sur %d (%.1f %%), %d décisions conservées",
+						cache.getHitCount(), lookups, lookups == 0 ? 0.0 : 100.0 * cache.getHitCount() / lookups, cache.size()));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Bilan d'un tournoi.
+	 */
+	public static class Report {
+
+		/**
+		 * Le nombre de parties.
+		 */
+		private final int numberOfGames;
+
+		/**
+		 * Le bilan de la première stratégie.
+		 */
+		private final StrategyReport first;
+
+		/**
+		 * Le bilan de la seconde stratégie.
+		 */
+		private final StrategyReport second;
+
+		/**
+		 * La durée du tournoi, en nanosecondes.
+		 */
+		private final long elapsedNanos;
+
+		/**
+		 * Crée le bilan.
+		 * @param results Le nombre de tirs du vainqueur de chaque partie, positif si la première stratégie gagne, négatif sinon.
+		 * @param firstLatencies Les temps de décision des tirs de la première stratégie.
+		 * @param secondLatencies Les temps de décision des tirs de la seconde stratégie.
+		 * @param elapsedNanos La durée du tournoi, en nanosecondes.
+		 */
+		Report(int[] results, LatencyHistogram firstLatencies, LatencyHistogram secondLatencies, long elapsedNanos) {
+			this.numberOfGames = results.length;
+			int firstWins = 0;
+			for (int shots : results) {
+				firstWins += shots > 0 ? 1 : 0;
+			}
+			int[] firstShotsToWin = new int[firstWins];
+			int[] secondShotsToWin = new int[results.length - firstWins];
+			int f = 0;
+			int s = 0;
+			for (int shots : results) {
+				if (shots > 0) {
+					firstShotsToWin[f++] = shots;
+				} else {
+					secondShotsToWin[s++] = -shots;
+				}
+			}
+			this.first = new StrategyReport(firstShotsToWin, firstLatencies);
+			this.second = new StrategyReport(secondShotsToWin, secondLatencies);
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		/**
+		 * Retourne le nombre de parties.
+		 * @return Le nombre de parties.
+		 */
+		public int getNumberOfGames() {
+			return numberOfGames;
+		}
+
+		/**
+		 * Retourne le nombre de victoires de la première stratégie.
+		 * @return Le nombre de victoires.
+		 */
+		public int getFirstWins() {
+			return first.getWins();
+		}
+
+		/**
+		 * Retourne le bilan de la première stratégie, celle jouant à la place du joueur.
+		 * @return Le bilan.
+		 */
+		public StrategyReport getFirst() {
+			return first;
+		}
+
+		/**
+		 * Retourne le bilan de la seconde stratégie, celle de l'ordinateur.
+		 * @return Le bilan.
+		 */
+		public StrategyReport getSecond() {
+			return second;
+		}
+
+		/**
+		 * Retourne le nombre de parties jouées par seconde.
+		 * @return Le nombre de parties par seconde.
+		 */
+		public double getGamesPerSecond() {
+			return numberOfGames * 1e9 / Math.max(1, elapsedNanos);
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT,
+					"Parties : %d en %.2f s (%.1f parties/s)%n"
+					+ "Victoires de la première stratégie : %d (%.1f %%)%n"
+					+ "Première stratégie :%n%s%n"
+					+ "Seconde stratégie :%n%s",
+					numberOfGames, elapsedNanos / 1e9, getGamesPerSecond(),
+					getFirstWins(), numberOfGames == 0 ? 0 : 100.0 * getFirstWins() / numberOfGames,
+					first, second);
+		}
+
+	}
+
+	/**
+	 * Bilan d'une des deux stratégies d'un tournoi.
+	 */
+	public static class StrategyReport {
+
+		/**
+		 * Le nombre de tirs de chaque partie gagnée par la stratégie, trié.
+		 */
+		private final int[] shotsToWin;
+
+		/**
+		 * Les temps de décision des tirs de la stratégie.
+		 */
+		private final LatencyHistogram latencies;
+
+		/**
+		 * Crée le bilan.
+		 * @param shotsToWin Le nombre de tirs de chaque partie gagnée par la stratégie.
+		 * @param latencies Les temps de décision des tirs de la stratégie.
+		 */
+		StrategyReport(int[] shotsToWin, LatencyHistogram latencies) {
+			this.shotsToWin = shotsToWin.clone();
+			Arrays.sort(this.shotsToWin);
+			this.latencies = latencies;
+		}
+
+		/**
+		 * Retourne le nombre de victoires de la stratégie.
+		 * @return Le nombre de victoires.
+		 */
+		public int getWins() {
+			return shotsToWin.length;
+		}
+
+		/**
+		 * Retourne le nombre moyen de tirs de la stratégie dans les parties qu'elle a gagnées.
+		 * @return Le nombre moyen de tirs, 0 si elle n'a gagné aucune partie.
+		 */
+		public double getMeanShotsToWin() {
+			long total = 0;
+			for (int shots : shotsToWin) {
+				total += shots;
+			}
+			return shotsToWin.length == 0 ? 0 : (double) total / shotsToWin.length;
+		}
+
+		/**
+		 * Retourne un centile du nombre de tirs de la stratégie dans les parties qu'elle a gagnées.
+		 * @param percentile Le centile, entre 0 et 100.
+		 * @return Le nombre de tirs, 0 si elle n'a gagné aucune partie.
+		 */
+		public int getShotsToWinPercentile(double percentile) {
+			if (shotsToWin.length == 0) {
+				return 0;
+			}
+			int rank = (int) Math.ceil(percentile / 100 * shotsToWin.length) - 1;
+			return shotsToWin[Math.max(0, Math.min(shotsToWin.length - 1, rank))];
+		}
+
+		/**
+		 * Retourne un centile du temps de décision d'un tir de la stratégie.
+		 * @param percentile Le centile, entre 0 et 100.
+		 * @return Le temps de décision, en nanosecondes (à 7% près).
+		 */
+		public long getTurnLatencyPercentile(double percentile) {
+			return latencies.percentile(percentile);
+		}
+
+		/**
+		 * Retourne le temps moyen de décision d'un tir de la stratégie.
+		 * @return Le temps moyen, en nanosecondes.
+		 */
+		public double getMeanTurnLatency() {
+			return latencies.mean();
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT,
+					"  Tirs pour gagner (%d victoires) : moyenne %.2f, p50 %d, p99 %d%n"
+					+ "  Temps de décision d'un tir : moyenne %.1f µs, p50 %.1f µs, p99 %.1f µs",
+					getWins(), getMeanShotsToWin(), getShotsToWinPercentile(50), getShotsToWinPercentile(99),
+					getMeanTurnLatency() / 1e3, getTurnLatencyPercentile(50) / 1e3, getTurnLatencyPercentile(99) / 1e3);
+		}
+
+	}
+
+	/**
+	 * Stratégie de tir mesurant le temps de décision d'une autre stratégie.
+	 */
+	private static class TimedShootingStrategy implements ShootingStrategy {
+
+		/**
+		 * Id pour la serialization.
+		 * @serial
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * La stratégie mesurée.
+		 * @serial
+		 */
+		private final ShootingStrategy strategy;
+
+		/**
+		 * L'histogramme des temps de décision.
+		 */
+		private final transient LatencyHistogram latencies;
+
+		/**
+		 * Crée la stratégie.
+		 * @param strategy La stratégie mesurée.
+		 * @param latencies L'histogramme des temps de décision.
+		 */
+		TimedShootingStrategy(ShootingStrategy strategy, LatencyHistogram latencies) {
+			this.strategy = strategy;
+			this.latencies = latencies;
+		}
+
+		@Override
+		public ShootingStrategyName getShootingStrategyName() {
+			return strategy.getShootingStrategyName();
+		}
+
+		@Override
+		public void setRandom(GameRandom random) {
+			strategy.setRandom(random);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * La copie enregistre ses temps de décision dans le même histogramme.
+		 */
+		@Override
+		public ShootingStrategy copy() {
+			return new TimedShootingStrategy(strategy.copy(), latencies);
+		}
+
+		@Override
+		public Position playShoot(Sea sea) {
+			long start = System.nanoTime();
+			Position position = strategy.playShoot(sea);
+			if (latencies != null) {
+				latencies.record(System.nanoTime() - start);
+			}
+			return position;
+		}
+
+		@Override
+		public List<Position> playShoots(Sea sea, int n) {
+			long start = System.nanoTime();
+			List<Position> positions = strategy.playShoots(sea, n);
+			if (latencies != null) {
+				latencies.record(System.nanoTime() - start);
+			}
+			return positions;
+		}
+
+	}
+
+	/**
+	 * Histogramme de durées à échelle logarithmique :
+	 * chaque puissance de 2 est découpée en 16 intervalles, soit une précision d'environ 7%.
+	 * Sa taille est fixe quel que soit le nombre de durées enregistrées.
+	 */
+	static class LatencyHistogram {
+
+		/**
+		 * Nombre d'intervalles par puissance de 2 (en bits).
+		 */
+		private static final int SUB_BUCKET_BITS = 4;
+
+		/**
+		 * Nombre de durées par intervalle.
+		 */
+		private final long[] counts = new long[(64 - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS];
+
+		/**
+		 * Nombre total de durées.
+		 */
+		private long total;
+
+		/**
+		 * Somme des durées.
+		 */
+		private long sum;
+
+		/**
+		 * Retourne l'intervalle d'une durée.
+		 * @param value La durée.
+		 * @return L'indice de l'intervalle.
+		 */
+		private static int bucketOf(long value) {
+			if (value < (1 << SUB_BUCKET_BITS)) {
+				return (int) value;
+			}
+			int exponent = 63 - Long.numberOfLeadingZeros(value);
+			int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+			return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + sub;
+		}
+
+		/**
+		 * Retourne la plus petite durée d'un intervalle.
+		 * @param bucket L'indice de l'intervalle.
+		 * @return La durée.
+		 */
+		private static long lowerBoundOf(int bucket) {
+			if (bucket < (1 << SUB_BUCKET_BITS)) {
+				return bucket;
+			}
+			int exponent = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+			long sub = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+			return (1L << exponent) | (sub << (exponent - SUB_BUCKET_BITS));
+		}
+
+		/**
+		 * Enregistre une durée.
+		 * @param nanos La durée, en nanosecondes.
+		 */
+		synchronized void record(long nanos) {
+			long value = Math.max(0, nanos);
+			counts[bucketOf(value)]++;
+			total++;
+			sum += value;
+		}
+
+		/**
+		 * Ajoute les durées d'un autre histogramme.
+		 * @param other L'autre histogramme.
+		 */
+		synchronized void add(LatencyHistogram other) {
+			synchronized (other) {
+				for (int i = 0 ; i < counts.length ; i++) {
+					counts[i] += other.counts[i];
+				}
+				total += other.total;
+				sum += other.sum;
+			}
+		}
+
+		/**
+		 * Retourne la durée moyenne.
+		 * @return La durée moyenne, 0 si aucune durée n'a été enregistrée.
+		 */
+		synchronized double mean() {
+			return total == 0 ? 0 : (double) sum / total;
+		}
+
+		/**
+		 * Retourne un centile des durées.
+		 * @param percentile Le centile, entre 0 et 100.
+		 * @return La plus petite durée de l'intervalle contenant le centile, 0 si aucune durée n'a été enregistrée.
+		 */
+		synchronized long percentile(double percentile) {
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+			long seen = 0;
+			for (int i = 0 ; i < counts.length ; i++) {
+				seen += counts[i];
+				if (seen >= rank && counts[i] > 0) {
+					return lowerBoundOf(i);
+				}
+			}
+			return 0;
+		}
+
+	}
+
+}
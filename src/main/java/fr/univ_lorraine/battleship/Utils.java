@@ -1,6 +1,9 @@
 package fr.univ_lorraine.battleship;
 import java.io.Closeable;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Classe static contenant des méthodes utilitaires.
@@ -45,4 +48,18 @@ public class Utils {
         }
     }
 	
+	/**
+	 * Crée un exécuteur lançant chaque tâche dans un nouveau thread virtuel.
+	 * Les threads virtuels n'existant qu'à partir de Java 21, la méthode est appelée par réflexion
+	 * afin que le projet reste compilable avec les versions précédentes.
+	 * @return L'exécuteur, null si la JVM ne supporte pas les threads virtuels.
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			return null;
+		}
+	}
+	
 }
@@ -1,23 +1,23 @@
 package fr.univ_lorraine.battleship.controller;
 
-import fr.univ_lorraine.battleship.model.Game;
-
 /**
  * Listener des animations qui permet de changer de tour seulement à la fin des animations de tir.
+ * Appelé pendant le dessin des animations : la fin du tour est transmise au moteur de jeu,
+ * qui fait jouer l'ordinateur dans son propre thread.
  */
 public class EndShotAnimationListener {
 	
 	/**
-	 * Le jeu afin de changer de tour.
+	 * Le moteur du jeu afin de changer de tour.
 	 */
-	private Game game;
+	private GameEngine engine;
 	
 	/**
 	 * Crée le listener des animations.
-	 * @param game Le jeu.
+	 * @param engine Le moteur du jeu.
 	 */
-	public EndShotAnimationListener(Game game) {
-		this.game = game;
+	public EndShotAnimationListener(GameEngine engine) {
+		this.engine = engine;
 	}
 
 	/**
@@ -26,8 +26,7 @@ public class EndShotAnimationListener {
 	 */
 	public void onEndShotAnimation() {
 		// Si on doit attendre la fin des animations avant de finir le tour et que tous les tirs ont été effecuté
-		if (game.isEndTurnAfterShotAnimation() && game.areAllShotsDone())
-			game.endTurn();
+		engine.endTurnAfterShotAnimation();
 	}
 	
 }
@@ -0,0 +1,29 @@
+package fr.univ_lorraine.battleship.controller;
+
+import java.util.List;
+
+import fr.univ_lorraine.battleship.model.GameSnapshot;
+import fr.univ_lorraine.battleship.model.event.GameEvent;
+
+/**
+ * Ecouteur d'un {@link GameEngine}.
+ * Les méthodes sont appelées dans le thread de l'affichage (EDT).
+ */
+public interface EngineListener {
+
+	/**
+	 * Reçoit les événements d'une action et l'état de la partie à la fin de cette action.
+	 * Les vues ne doivent lire la partie qu'à travers ces paramètres :
+	 * le moteur a pu la faire avancer depuis.
+	 * @param events Les événements de l'action, dans l'ordre.
+	 * @param snapshot L'état de la partie à la fin de l'action.
+	 */
+	public void onGameUpdate(List<GameEvent> events, GameSnapshot snapshot);
+
+	/**
+	 * Indique que le moteur commence ou termine une action pouvant faire jouer l'ordinateur.
+	 * @param thinking Vrai au début de l'action, faux à la fin.
+	 */
+	public void onThinking(boolean thinking);
+
+}
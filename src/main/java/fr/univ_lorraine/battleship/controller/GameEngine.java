@@ -0,0 +1,354 @@
+package fr.univ_lorraine.battleship.controller;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.SwingUtilities;
+
+import fr.univ_lorraine.battleship.model.ComputerController;
+import fr.univ_lorraine.battleship.model.Game;
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.GameSnapshot;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+import fr.univ_lorraine.battleship.model.event.GameEvent;
+import fr.univ_lorraine.battleship.model.event.GameListener;
+
+/**
+ * Moteur faisant avancer une partie dans son propre thread, en dehors du thread de l'affichage (EDT).
+ *
+ * Toutes les actions sur la partie (clics, fins de tour, changement de stratégie, sauvegarde)
+ * sont exécutées l'une après l'autre par un exécuteur à un seul thread :
+ * le tour de l'ordinateur, aussi long soit-il, ne bloque ni les clics ni l'animation de l'affichage.
+ * Les événements de chaque action sont renvoyés à l'EDT avec l'état de la partie à la fin de l'action
+ * ({@link GameSnapshot}), pris dans le thread du moteur.
+ *
+ * Une fois le moteur créé, la partie ne doit plus être modifiée que par lui,
+ * et l'affichage ne la lit plus qu'à travers ces états et les événements, qui ne contiennent que des valeurs.
+ */
+public class GameEngine {
+
+	/**
+	 * La partie.
+	 */
+	private final Game game;
+
+	/**
+	 * L'exécuteur des actions, à un seul thread.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Les écouteurs, appelés dans l'EDT.
+	 */
+	private final List<EngineListener> listeners = new CopyOnWriteArrayList<EngineListener>();
+
+	/**
+	 * Vrai une fois le moteur arrêté : les mises à jour encore en route vers l'EDT sont ignorées.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * L'état de la partie à la fin de la dernière action exécutée.
+	 */
+	private volatile GameSnapshot snapshot;
+
+	/**
+	 * Crée le moteur d'une partie et son thread.
+	 * @param game La partie.
+	 */
+	public GameEngine(Game game) {
+		this.game = game;
+		this.snapshot = game.snapshot();
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "Moteur de jeu");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		// Appelé dans le thread du moteur à la fin de chaque action
+		game.getEventBus().addListener(new GameListener() {
+			@Override
+			public void onEvents(List<GameEvent> events) {
+				snapshot = GameEngine.this.game.snapshot();
+				publish(events, snapshot);
+			}
+		});
+	}
+
+	/**
+	 * Retourne la partie.
+	 * Elle ne doit être lue hors du moteur que tant qu'il n'a reçu aucune action
+	 * (initialisation des vues) ; ensuite, seulement par les tâches exécutées par le moteur.
+	 * @return La partie.
+	 */
+	public Game getGame() {
+		return game;
+	}
+
+	/**
+	 * Retourne l'état de la partie à la fin de la dernière action exécutée par le moteur.
+	 * Peut être appelée depuis n'importe quel thread.
+	 * @return L'état de la partie.
+	 */
+	public GameSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Ajoute un écouteur, appelé dans l'EDT.
+	 * @param listener L'écouteur.
+	 */
+	public void addListener(EngineListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Arrête le moteur : les actions en attente sont abandonnées
+	 * et les écouteurs ne reçoivent plus de mise à jour.
+	 */
+	public void shutdown() {
+		closed = true;
+		listeners.clear();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Démarre la partie.
+	 * @param startingPlayer Le joueur qui commence, null pour le tirer au sort.
+	 * @see Game#start(PlayerId)
+	 */
+	public void start(final PlayerId startingPlayer) {
+		submit(new Runnable() {
+			@Override
+			public void run() {
+				if (startingPlayer == null) {
+					game.start();
+				} else {
+					game.start(startingPlayer);
+				}
+			}
+		}, true);
+	}
+
+	/**
+	 * Reprend la partie.
+	 * @see Game#resume()
+	 */
+	public void resume() {
+		submit(new Runnable() {
+			@Override
+			public void run() {
+				game.resume();
+			}
+		}, true);
+	}
+
+	/**
+	 * Transmet un clic sur une case de la grille du joueur.
+	 * @param x Abscisse de la case.
+	 * @param y Ordonnée de la case.
+	 * @see Game#receiveClickEventOnPlayerGrid(int, int)
+	 */
+	public void receiveClickEventOnPlayerGrid(final int x, final int y) {
+		submit(new Runnable() {
+			@Override
+			public void run() {
+				game.receiveClickEventOnPlayerGrid(x, y);
+			}
+		}, true);	// le dernier placement fait jouer l'ordinateur
+	}
+
+	/**
+	 * Transmet un clic sur une case de la grille de l'ordinateur.
+	 * @param x Abscisse de la case.
+	 * @param y Ordonnée de la case.
+	 * @see Game#receiveClickEventOnComputerGrid(int, int)
+	 */
+	public void receiveClickEventOnComputerGrid(final int x, final int y) {
+		enqueue(new Runnable() {
+			@Override
+			public void run() {
+				// Le drapeau est lu dans le thread du moteur ; s'il est levé, l'ordinateur joue à la fin des animations
+				perform(new Runnable() {
+					@Override
+					public void run() {
+						game.receiveClickEventOnComputerGrid(x, y);
+					}
+				}, !game.isEndTurnAfterShotAnimation());
+			}
+		});
+	}
+
+	/**
+	 * Transmet l'arrivée de la souris sur une case de la grille du joueur.
+	 * @param x Abscisse de la case.
+	 * @param y Ordonnée de la case.
+	 * @see Game#receiveHoverOnEventOnPlayerGrid(int, int)
+	 */
+	public void receiveHoverOnEventOnPlayerGrid(final int x, final int y) {
+		submit(new Runnable() {
+			@Override
+			public void run() {
+				game.receiveHoverOnEventOnPlayerGrid(x, y);
+			}
+		}, false);
+	}
+
+	/**
+	 * Transmet le départ de la souris d'une case de la grille du joueur.
+	 * @param x Abscisse de la case.
+	 * @param y Ordonnée de la case.
+	 * @see Game#receiveHoverOffEventOnPlayerGrid(int, int)
+	 */
+	public void receiveHoverOffEventOnPlayerGrid(final int x, final int y) {
+		submit(new Runnable() {
+			@Override
+			public void run() {
+				game.receiveHoverOffEventOnPlayerGrid(x, y);
+			}
+		}, false);
+	}
+
+	/**
+	 * Transmet la rotation du bateau en cours de placement.
+	 * @see Game#receiveRotateShipEvent()
+	 */
+	public void receiveRotateShipEvent() {
+		submit(new Runnable() {
+			@Override
+			public void run() {
+				game.receiveRotateShipEvent();
+			}
+		}, false);
+	}
+
+	/**
+	 * Termine le tour à la fin d'une animation de tir, si le tour doit se terminer à la fin des animations
+	 * et que tous ses tirs ont été tirés.
+	 * Les conditions sont vérifiées dans le thread du moteur, au moment de terminer le tour.
+	 */
+	public void endTurnAfterShotAnimation() {
+		submit(new Runnable() {
+			@Override
+			public void run() {
+				if (game.isEndTurnAfterShotAnimation() && game.areAllShotsDone()) {
+					game.endTurn();
+				}
+			}
+		}, true);
+	}
+
+	/**
+	 * Change la stratégie de tir de l'ordinateur, si elle est différente de la stratégie courante.
+	 * Le changement est fait dans le thread du moteur, qui peut être en train d'utiliser la stratégie courante.
+	 * @param name Le nom de la nouvelle stratégie.
+	 */
+	public void setComputerShootingStrategy(final ShootingStrategyName name) {
+		submit(new Runnable() {
+			@Override
+			public void run() {
+				ComputerController controller = game.getComputerController();
+				if (controller != null && (controller.getShootingStrategy() == null
+						|| controller.getShootingStrategy().getShootingStrategyName() != name)) {
+					controller.setShootingStrategy(name.createShootingStrategy());
+				}
+			}
+		}, false);
+	}
+
+	/**
+	 * Exécute une tâche quelconque sur la partie dans le thread du moteur
+	 * (changement de stratégie, sauvegarde, etc.).
+	 * @param task La tâche.
+	 */
+	public void execute(Runnable task) {
+		submit(task, false);
+	}
+
+	/**
+	 * Soumet une action au thread du moteur.
+	 * @param action L'action.
+	 * @param thinking Vrai si l'action peut faire jouer l'ordinateur : les écouteurs en sont prévenus.
+	 */
+	private void submit(final Runnable action, final boolean thinking) {
+		enqueue(new Runnable() {
+			@Override
+			public void run() {
+				perform(action, thinking);
+			}
+		});
+	}
+
+	/**
+	 * Ajoute une tâche à la file du thread du moteur, sauf s'il est arrêté.
+	 * @param task La tâche.
+	 */
+	private void enqueue(Runnable task) {
+		if (closed) {
+			return;
+		}
+		executor.execute(task);
+	}
+
+	/**
+	 * Exécute une action dans le thread du moteur, puis prend l'état de la partie.
+	 * @param action L'action.
+	 * @param thinking Vrai si l'action peut faire jouer l'ordinateur : les écouteurs en sont prévenus.
+	 */
+	private void perform(Runnable action, boolean thinking) {
+		if (thinking) {
+			publishThinking(true);
+		}
+		try {
+			action.run();
+		} finally {
+			snapshot = game.snapshot();		// une action sans événement peut changer l'état (stratégie)
+			if (thinking) {
+				publishThinking(false);
+			}
+		}
+	}
+
+	/**
+	 * Renvoie les événements d'une action et l'état de la partie à l'EDT.
+	 * @param events Les événements.
+	 * @param snapshot L'état de la partie.
+	 */
+	private void publish(final List<GameEvent> events, final GameSnapshot snapshot) {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (closed) {
+					return;
+				}
+				for (EngineListener listener : listeners) {
+					listener.onGameUpdate(events, snapshot);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Renvoie le début ou la fin d'une action pouvant faire jouer l'ordinateur à l'EDT.
+	 * @param thinking Vrai au début de l'action.
+	 */
+	private void publishThinking(final boolean thinking) {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (closed) {
+					return;
+				}
+				for (EngineListener listener : listeners) {
+					listener.onThinking(thinking);
+				}
+			}
+		});
+	}
+
+}
@@ -0,0 +1,325 @@
+package fr.univ_lorraine.battleship.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fr.univ_lorraine.battleship.Utils;
+import fr.univ_lorraine.battleship.model.Game;
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.GameSnapshot;
+
+/**
+ * Service hébergeant de nombreuses parties en même temps, sans affichage (tests de charge, parties de bots).
+ *
+ * Chaque partie a sa boîte aux lettres de commandes (placement, tir, rotation, reprise),
+ * exécutées l'une après l'autre par le thread de la partie : une partie n'est jamais modifiée
+ * par deux threads à la fois, et les parties ne partagent aucun état modifiable.
+ * Chaque partie a son propre thread virtuel lorsque la JVM les supporte (Java 21),
+ * ce qui permet d'héberger des dizaines de milliers de parties ;
+ * sinon, un thread classique (démon) par partie.
+ *
+ * Les parties hébergées n'ont pas d'animation : le tour se termine dès le dernier tir,
+ * et le tour de l'ordinateur est joué par la commande qui le déclenche.
+ */
+public class GameHost {
+
+	/**
+	 * Commande exécutée dans le thread d'une partie hébergée.
+	 * @param <T> Le type du résultat de la commande.
+	 */
+	public interface Command<T> {
+
+		/**
+		 * Exécute la commande.
+		 * @param game La partie, qui ne doit pas être conservée hors du thread de la partie.
+		 * @return Le résultat de la commande.
+		 */
+		public T apply(Game game);
+
+	}
+
+	/**
+	 * Une partie hébergée, avec sa boîte aux lettres.
+	 */
+	private static final class HostedGame implements Runnable {
+
+		/**
+		 * Commande marquant la fermeture de la boîte aux lettres.
+		 */
+		private static final Runnable CLOSE = new Runnable() {
+			@Override
+			public void run() {
+			}
+		};
+
+		/**
+		 * La partie, confinée au thread de la partie.
+		 */
+		private final Game game;
+
+		/**
+		 * Les commandes en attente.
+		 */
+		private final BlockingQueue<Runnable> mailbox = new LinkedBlockingQueue<Runnable>();
+
+		/**
+		 * Vrai si la partie est fermée : les commandes encore en attente sont annulées.
+		 */
+		private volatile boolean closed;
+
+		HostedGame(Game game) {
+			this.game = game;
+		}
+
+		/**
+		 * Dépose une commande dans la boîte aux lettres.
+		 * @param command La commande.
+		 */
+		void send(FutureTask<?> command) {
+			mailbox.add(command);
+			if (closed) {		// la boucle a pu s'arrêter avant de voir la commande
+				cancelPending();
+			}
+		}
+
+		/**
+		 * Ferme la partie : les commandes déjà déposées sont exécutées, les suivantes annulées.
+		 */
+		void close() {
+			mailbox.add(CLOSE);
+		}
+
+		/**
+		 * Annule les commandes en attente.
+		 */
+		void cancelPending() {
+			List<Runnable> pending = new ArrayList<Runnable>();
+			mailbox.drainTo(pending);
+			for (Runnable command : pending) {
+				if (command instanceof Future) {
+					((Future<?>) command).cancel(false);
+				}
+			}
+		}
+
+		/**
+		 * Boucle du thread de la partie : exécute les commandes jusqu'à la fermeture.
+		 */
+		@Override
+		public void run() {
+			try {
+				Runnable command;
+				while ((command = mailbox.take()) != CLOSE) {
+					command.run();		// une FutureTask conserve l'éventuelle exception
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				closed = true;
+				cancelPending();
+			}
+		}
+
+	}
+
+	/**
+	 * L'exécuteur lançant le thread de chaque partie.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Les parties hébergées, par identifiant.
+	 */
+	private final Map<Long, HostedGame> games = new ConcurrentHashMap<Long, HostedGame>();
+
+	/**
+	 * Le prochain identifiant de partie.
+	 */
+	private final AtomicLong nextId = new AtomicLong();
+
+	/**
+	 * Crée un hôte, utilisant les threads virtuels si la JVM les supporte.
+	 */
+	public GameHost() {
+		ExecutorService virtualExecutor = Utils.newVirtualThreadPerTaskExecutor();
+		if (virtualExecutor != null) {
+			executor = virtualExecutor;
+		} else {
+			executor = Executors.newCachedThreadPool(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable task) {
+					Thread thread = new Thread(task, "Partie hébergée");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Héberge une partie, qui ne doit plus ensuite être utilisée que par des commandes.
+	 * @param game La partie.
+	 * @return L'identifiant de la partie.
+	 */
+	public long open(Game game) {
+		game.setEndTurnAfterShotAnimation(false);
+		long id = nextId.getAndIncrement();
+		HostedGame hosted = new HostedGame(game);
+		games.put(id, hosted);
+		executor.execute(hosted);
+		return id;
+	}
+
+	/**
+	 * Ferme une partie : les commandes déjà envoyées sont exécutées, puis son thread se termine.
+	 * @param id L'identifiant de la partie.
+	 * @throws IllegalArgumentException Si la partie n'est pas hébergée.
+	 */
+	public void close(long id) {
+		HostedGame hosted = games.remove(id);
+		if (hosted == null) {
+			throw new IllegalArgumentException("Partie inconnue " + id);
+		}
+		hosted.close();
+	}
+
+	/**
+	 * Renvoie le nombre de parties hébergées.
+	 * @return Le nombre de parties.
+	 */
+	public int getGameCount() {
+		return games.size();
+	}
+
+	/**
+	 * Ferme toutes les parties et arrête l'hôte.
+	 */
+	public void shutdown() {
+		for (Long id : new ArrayList<Long>(games.keySet())) {
+			HostedGame hosted = games.remove(id);
+			if (hosted != null) {
+				hosted.close();
+			}
+		}
+		executor.shutdown();
+	}
+
+	/**
+	 * Envoie une commande à une partie.
+	 * @param id L'identifiant de la partie.
+	 * @param command La commande, exécutée dans le thread de la partie après les commandes déjà envoyées.
+	 * @return Le résultat de la commande, annulé si la partie est fermée avant son exécution.
+	 * @throws IllegalArgumentException Si la partie n'est pas hébergée.
+	 */
+	public <T> Future<T> execute(long id, final Command<T> command) {
+		final HostedGame hosted = games.get(id);
+		if (hosted == null) {
+			throw new IllegalArgumentException("Partie inconnue " + id);
+		}
+		FutureTask<T> task = new FutureTask<T>(new Callable<T>() {
+			@Override
+			public T call() {
+				return command.apply(hosted.game);
+			}
+		});
+		hosted.send(task);
+		return task;
+	}
+
+	/**
+	 * Démarre une partie.
+	 * @param id L'identifiant de la partie.
+	 * @param startingPlayer Le joueur qui commence, null pour le tirer au sort.
+	 * @return L'état de la partie après la commande.
+	 */
+	public Future<GameSnapshot> start(long id, final PlayerId startingPlayer) {
+		return execute(id, new Command<GameSnapshot>() {
+			@Override
+			public GameSnapshot apply(Game game) {
+				if (startingPlayer == null) {
+					game.start();
+				} else {
+					game.start(startingPlayer);
+				}
+				return game.snapshot();
+			}
+		});
+	}
+
+	/**
+	 * Reprend une partie chargée.
+	 * @param id L'identifiant de la partie.
+	 * @return L'état de la partie après la commande.
+	 */
+	public Future<GameSnapshot> resume(long id) {
+		return execute(id, new Command<GameSnapshot>() {
+			@Override
+			public GameSnapshot apply(Game game) {
+				game.resume();
+				return game.snapshot();
+			}
+		});
+	}
+
+	/**
+	 * Place le bateau en cours de placement du joueur.
+	 * @param id L'identifiant de la partie.
+	 * @param x L'abscisse de la case.
+	 * @param y L'ordonnée de la case.
+	 * @return L'état de la partie après la commande.
+	 */
+	public Future<GameSnapshot> place(long id, final int x, final int y) {
+		return execute(id, new Command<GameSnapshot>() {
+			@Override
+			public GameSnapshot apply(Game game) {
+				game.receiveClickEventOnPlayerGrid(x, y);
+				return game.snapshot();
+			}
+		});
+	}
+
+	/**
+	 * Tourne le bateau en cours de placement du joueur.
+	 * @param id L'identifiant de la partie.
+	 * @return L'état de la partie après la commande.
+	 */
+	public Future<GameSnapshot> rotate(long id) {
+		return execute(id, new Command<GameSnapshot>() {
+			@Override
+			public GameSnapshot apply(Game game) {
+				game.receiveRotateShipEvent();
+				return game.snapshot();
+			}
+		});
+	}
+
+	/**
+	 * Tire sur la grille de l'ordinateur ; si c'était le dernier tir du tour,
+	 * l'ordinateur joue son tour avant que la commande ne se termine.
+	 * @param id L'identifiant de la partie.
+	 * @param x L'abscisse de la case.
+	 * @param y L'ordonnée de la case.
+	 * @return L'état de la partie après la commande.
+	 */
+	public Future<GameSnapshot> shoot(long id, final int x, final int y) {
+		return execute(id, new Command<GameSnapshot>() {
+			@Override
+			public GameSnapshot apply(Game game) {
+				game.receiveClickEventOnComputerGrid(x, y);
+				return game.snapshot();
+			}
+		});
+	}
+
+}
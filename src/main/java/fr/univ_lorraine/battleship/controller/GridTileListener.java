@@ -5,7 +5,6 @@ import java.awt.event.MouseEvent;
 
 import javax.swing.SwingUtilities;
 
-import fr.univ_lorraine.battleship.model.Game;
 import fr.univ_lorraine.battleship.model.Game.PlayerId;
 import fr.univ_lorraine.battleship.view.GridTileView;
 
@@ -18,9 +17,9 @@ import fr.univ_lorraine.battleship.view.GridTileView;
 public class GridTileListener extends MouseAdapter {
 
 	/**
-	 * Le jeu afin de remonter les événements si nécessaire.
+	 * Le moteur du jeu afin de remonter les événements si nécessaire.
 	 */
-	private Game game;
+	private GameEngine engine;
 	
 	/**
 	 * Abscisse et ordonnée de la case concernée.
@@ -34,13 +33,13 @@ public class GridTileListener extends MouseAdapter {
 	
 	/**
 	 * Crée le listener d'une case.
-	 * @param game Le jeu.
+	 * @param engine Le moteur du jeu.
 	 * @param x L'abscisse de la case.
 	 * @param y L'ordonnée de la case.
 	 * @param gridTileView La vue de la case.
 	 */
-	public GridTileListener(Game game, int x, int y, GridTileView gridTileView) {
-		this.game = game;
+	public GridTileListener(GameEngine engine, int x, int y, GridTileView gridTileView) {
+		this.engine = engine;
 		this.x = x;
 		this.y = y;
 		this.gridTileView = gridTileView;
@@ -54,17 +53,17 @@ public class GridTileListener extends MouseAdapter {
 		if (SwingUtilities.isLeftMouseButton(e)) {			// Clic gauche = click event
 			switch(gridTileView.getPlayerOwner()) {
 				case COMPUTER:								// grille ordi
-					game.receiveClickEventOnComputerGrid(this.x, this.y);
+					engine.receiveClickEventOnComputerGrid(this.x, this.y);
 					break;
 				case PLAYER:								// grille joueur
-					game.receiveClickEventOnPlayerGrid(this.x, this.y);
+					engine.receiveClickEventOnPlayerGrid(this.x, this.y);
 					break;
 				default:
 					throw new AssertionError("Joueur inconnu " + gridTileView.getPlayerOwner());		
 			}
 		}
 		else if (SwingUtilities.isRightMouseButton(e)) {	// Clic droit = rotation
-			game.receiveRotateShipEvent();
+			engine.receiveRotateShipEvent();
 		}
 	}
 
@@ -76,7 +75,7 @@ public class GridTileListener extends MouseAdapter {
 		gridTileView.setIsHover(true);
 		// On remonte les events hover seulement pour la grille du joueur (prévisualisation placement) 
 		if (gridTileView.getPlayerOwner() == PlayerId.PLAYER) {
-			game.receiveHoverOnEventOnPlayerGrid(x, y);
+			engine.receiveHoverOnEventOnPlayerGrid(x, y);
 		}
 	}
 
@@ -88,7 +87,7 @@ public class GridTileListener extends MouseAdapter {
 		gridTileView.setIsHover(false);
 		// On remonte les events hover seulement pour la grille du joueur (prévisualisation placement) 
 		if (gridTileView.getPlayerOwner() == PlayerId.PLAYER) {
-			game.receiveHoverOffEventOnPlayerGrid(x, y);
+			engine.receiveHoverOffEventOnPlayerGrid(x, y);
 		}
 	}
 
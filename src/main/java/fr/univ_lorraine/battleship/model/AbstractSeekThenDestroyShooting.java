@@ -1,7 +1,12 @@
 package fr.univ_lorraine.battleship.model;
 
+import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.Collections;
+import java.util.List;
+
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
 
 /**
  * Classe implémentant une stratégie de tir de type "Recherche puis destruction" ou "Chasse/Cible".
@@ -11,6 +16,13 @@ import java.util.Random;
  * Classe abstraite qui nous permettra d'implémenter deux méthodes différentes pour la phase de chasse/recherche :
  * - tir aléatoire
  * - tir en croix
+ *
+ * En phase de destruction, la stratégie garde une file de cases candidates, mise à jour à partir
+ * du résultat du tir précédent : un touché en phase de chasse ajoute ses quatre voisines en fin de file,
+ * un touché sur une candidate ajoute en tête la case suivante dans la même direction (on prolonge la ligne).
+ * Chaque tir coûte ainsi un temps constant amorti. La file n'est reconstruite à partir des cases touchées
+ * de la grille que lorsqu'un bateau est coulé alors que d'autres sont encore touchés,
+ * ou lorsque l'état connu ne correspond plus à la grille (nouvelle partie, changement de stratégie).
  */
 public abstract class AbstractSeekThenDestroyShooting implements ShootingStrategy {
 
@@ -21,9 +33,98 @@ public abstract class AbstractSeekThenDestroyShooting implements ShootingStrateg
 	private static final long serialVersionUID = 1L;
 	
 	/**
-	 * Booléen indiquant la phase dans laquelle on se trouve (seek ou destroy).
+	 * Directions des cases voisines (abscisse puis ordonnée).
+	 */
+	private static final int[][] DIRECTIONS = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+	
+	
+	/**
+	 * Case candidate de la phase destruction,
+	 * avec la direction dans laquelle elle prolonge une case touchée.
+	 */
+	private static final class Target implements Serializable {
+		
+		/**
+		 * Id pour la serialization.
+		 * @serial
+		 */
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * Abscisse de la case.
+		 * @serial
+		 */
+		private final int x;
+		
+		/**
+		 * Ordonnée de la case.
+		 * @serial
+		 */
+		private final int y;
+		
+		/**
+		 * Direction en abscisse depuis la case touchée.
+		 * @serial
+		 */
+		private final int dx;
+		
+		/**
+		 * Direction en ordonnée depuis la case touchée.
+		 * @serial
+		 */
+		private final int dy;
+		
+		Target(int x, int y, int dx, int dy) {
+			this.x = x;
+			this.y = y;
+			this.dx = dx;
+			this.dy = dy;
+		}
+		
+	}
+	
+	/**
+	 * Générateur aléatoire de la stratégie (ordre des cases candidates et phase de chasse).
+	 * Fourni par la partie, voir {@link GameRandom}.
+	 * @serial
+	 */
+	private GameRandom random = new GameRandom();
+	
+	/**
+	 * Cases candidates de la phase destruction, la plus prometteuse en tête.
+	 * @serial
 	 */
-	private boolean seekPhase = true;
+	private ArrayDeque<Target> targets = new ArrayDeque<Target>();
+	
+	/**
+	 * Dernier tir effectué, null en début de partie.
+	 * La direction est nulle si le tir a été effectué en phase de chasse.
+	 * @serial
+	 */
+	private Target lastShot;
+	
+	/**
+	 * Nombre de bateaux coulés lors du dernier tir.
+	 * @serial
+	 */
+	private int deadShipCount;
+	
+	/**
+	 * Crée la stratégie, en phase de chasse.
+	 */
+	protected AbstractSeekThenDestroyShooting() {
+	}
+	
+	/**
+	 * Crée une copie d'une stratégie, avec sa file de cases candidates et une copie de son générateur aléatoire.
+	 * @param other La stratégie à copier.
+	 */
+	protected AbstractSeekThenDestroyShooting(AbstractSeekThenDestroyShooting other) {
+		this.random = new GameRandom(other.getRandom());
+		this.targets = other.targets == null ? null : new ArrayDeque<Target>(other.targets);	// cases immuables
+		this.lastShot = other.lastShot;
+		this.deadShipCount = other.deadShipCount;
+	}
 	
 	/**
 	 * Méthode de tir quand l'ordinateur est en phase seek.
@@ -33,153 +134,249 @@ public abstract class AbstractSeekThenDestroyShooting implements ShootingStrateg
 	protected abstract Position playShootInSeekPhase(Sea sea);
 	
 	/**
-	 * Méthode de tir quand l'ordinateur est en phase seek.
+	 * Retourne le générateur aléatoire de la stratégie.
+	 * Les parties sauvegardées avant l'ajout du générateur en reçoivent un nouveau.
+	 * @return Le générateur aléatoire.
+	 */
+	protected GameRandom getRandom() {
+		if (random == null) {
+			random = new GameRandom();
+		}
+		return random;
+	}
+	
+	@Override
+	public void setRandom(GameRandom random) {
+		this.random = random;
+	}
+	
+	/**
+	 * Vide l'état de la phase destruction.
+	 */
+	private void reset() {
+		if (targets == null) {	// partie sauvegardée avant l'ajout de la file
+			targets = new ArrayDeque<Target>();
+		}
+		targets.clear();
+		lastShot = null;
+		deadShipCount = 0;
+	}
+	
+	/**
+	 * Regarde si une case est dans la grille et n'a pas reçu de tir.
 	 * @param sea La grille du joueur adverse.
-	 * @return La position de tir choisie.
+	 * @param x L'abscisse de la case.
+	 * @param y L'ordonnée de la case.
+	 * @return Vrai si on peut tirer sur la case.
 	 */
-	private Position playShootInDestroyPhase(Sea sea) {
-		ArrayList<Position> harmed = sea.harmedShipPositions();
-		Position target = harmed.remove(0); //Cible à viser
-		Random rand = new Random();
-		ArrayList<Position> shootablePositions = sea.getShootablePositions(target);
-
-		//Si il n'y a qu'une seule cible
-		if (harmed.isEmpty()){
-			return shootablePositions.get(rand.nextInt(shootablePositions.size())); //Tir au hasard autour de la cible
+	private static boolean isShootable(Sea sea, int x, int y) {
+		return x >= 0 && x < sea.getGridWidth() && y >= 0 && y < sea.getGridHeight()
+				&& sea.getGridTileState(x, y) == SeaTileState.NORMAL;
+	}
+	
+	/**
+	 * Ajoute en fin de file les voisines d'une case touchée, dans un ordre aléatoire.
+	 * @param sea La grille du joueur adverse.
+	 * @param x L'abscisse de la case touchée.
+	 * @param y L'ordonnée de la case touchée.
+	 */
+	private void addNeighbours(Sea sea, int x, int y) {
+		int first = getRandom().nextInt(DIRECTIONS.length);
+		for (int i = 0 ; i < DIRECTIONS.length ; i++) {
+			int[] d = DIRECTIONS[(first + i) % DIRECTIONS.length];
+			if (isShootable(sea, x + d[0], y + d[1])) {
+				targets.addLast(new Target(x + d[0], y + d[1], d[0], d[1]));
+			}
 		}
-		
-		ArrayList<Position> closeOnes = new ArrayList<>(); //Cibles qui sont contigues à la cible de base
-		for (Position p : harmed) {
-			if (p.nextTo(target)){
-				closeOnes.add(p);
-			}			
-		}		
-		//Si la cible est isolée des autres
-		if (closeOnes.isEmpty()){
-			return shootablePositions.get(rand.nextInt(shootablePositions.size()));
+	}
+	
+	/**
+	 * Reconstruit la file à partir des cases touchées des bateaux non coulés.
+	 * Les candidates sont calculées direction par direction sur les masques de la grille :
+	 * les voisines libres des touchés sont le masque des touchés décalé, restreint aux cases sans tir,
+	 * et celles prolongeant deux touchés alignés sont placées en tête.
+	 * L'ordre de départ des directions et des cases est tiré au sort.
+	 * @param sea La grille du joueur adverse.
+	 */
+	private void rebuildTargets(Sea sea) {
+		targets.clear();
+		TileMask harmed = sea.harmedTiles();
+		TileMask untouched = sea.untouchedTiles();
+		int firstDirection = getRandom().nextInt(DIRECTIONS.length);
+		int firstTile = getRandom().nextInt(harmed.size());
+		for (int i = 0 ; i < DIRECTIONS.length ; i++) {
+			int[] d = DIRECTIONS[(firstDirection + i) % DIRECTIONS.length];
+			TileMask next = new TileMask(harmed);
+			sea.shiftTiles(next, d[0], d[1]);		// cases suivant un touché dans la direction
+			TileMask aligned = new TileMask(next);
+			aligned.and(harmed);					// touchés suivant un touché
+			sea.shiftTiles(aligned, d[0], d[1]);	// cases prolongeant deux touchés alignés
+			aligned.and(untouched);
+			next.and(untouched);
+			next.andNot(aligned);
+			addTargets(sea, aligned, d, firstTile, true);
+			addTargets(sea, next, d, firstTile, false);
 		}
-		
-		//Sinon, on cherche à continuer une "ligne" de cibles
-		Position lineTail = tail(target, closeOnes.get(0), sea);
-		//Si ça n'est pas possible
-		if (lineTail == null){
-			return shootablePositions.get(rand.nextInt(shootablePositions.size()));
+	}
+	
+	/**
+	 * Ajoute à la file les cases d'un masque, en parcourant le masque à partir d'une case donnée.
+	 * @param sea La grille du joueur adverse.
+	 * @param tiles Le masque des cases.
+	 * @param d La direction dans laquelle les cases prolongent une case touchée.
+	 * @param firstTile L'indice de la première case parcourue.
+	 * @param first Vrai pour ajouter en tête de file, faux pour ajouter en fin.
+	 */
+	private void addTargets(Sea sea, TileMask tiles, int[] d, int firstTile, boolean first) {
+		int start = tiles.nextSetBit(firstTile);
+		if (start == -1) {
+			start = tiles.nextSetBit(0);
+			if (start == -1) {
+				return;
+			}
 		}
-		
-		return lineTail;
+		int index = start;
+		do {
+			Position p = sea.tilePosition(index);
+			Target target = new Target(p.getX(), p.getY(), d[0], d[1]);
+			if (first) {
+				targets.addFirst(target);
+			} else {
+				targets.addLast(target);
+			}
+			index = tiles.nextSetBit(index + 1);
+			if (index == -1) {	// on reprend au début du masque
+				index = tiles.nextSetBit(0);
+			}
+		} while (index != start);
 	}
 	
 	/**
-	 * Retourne une des positions pouvant continuer une ligne de cases touchées entamées, et null si les deux
-	 * positions possibles ont été déjà touchées / sont out of bounds.
-	 * Ex, grille de 4*4 :
-	 * [      ]
-	 * [   X  ]
-	 * [   X  ]
-	 * [      ]
-	 * Positions possibles : (0,3) et (3,3)
-	 * @param target La position du tir d'origine.
-	 * @param nextOne La position du tir touchant à côté de l'origine.
-	 * @param sea La mer actuelle.
-	 * @return Une deux deux positions possibles, null si aucune possible.
-	 */
-	private Position tail(Position target, Position nextOne, Sea sea){
-		boolean hori = (Math.abs(target.getX() - nextOne.getX()) == 1); //Détermine le sens de la ligne
-		
-		int x = target.getX(), y = target.getY();
-		int xMin = 0, xMax = sea.getGridWidth() - 1, yMin = 0, yMax = sea.getGridHeight()-1;
-		
-		boolean outOfBounds = false;
-		Position aimedAt = new Position(x, y);
-		
-		if (hori) {
-			//Parcours des x vers la droite
-			while (sea.isTileTouched(aimedAt)) {
-				x++;
-				aimedAt = new Position(x, y);
-				if (aimedAt.isOutOfBounds(xMin, xMax, yMin, yMax)) {
-					outOfBounds = true;
-					break;
-				}
-			}			
-			if (!outOfBounds) {
-				if (sea.isTileNormal(aimedAt)) return aimedAt;
+	 * Met à jour la file à partir du résultat du tir précédent.
+	 * @param sea La grille du joueur adverse.
+	 */
+	private void update(Sea sea) {
+		if (targets == null || lastShot == null) {
+			reset();
+			if (sea.isAnyShipHarmed()) {
+				rebuildTargets(sea);
 			}
-			
-			outOfBounds = false;
-			x = target.getX();
-			aimedAt = new Position(x, y);
-			
-			//Parcours des x vers la gauche
-			while (sea.isTileTouched(aimedAt)) {
-				x--;
-				aimedAt = new Position(x, y);
-				if (aimedAt.isOutOfBounds(xMin, xMax, yMin, yMax)) {
-					outOfBounds = true;
-					break;
-				}
-			}			
-			if (!outOfBounds){ 
-				if (sea.isTileNormal(aimedAt)) return aimedAt;
+		} else if (lastShot.x >= sea.getGridWidth() || lastShot.y >= sea.getGridHeight()
+				|| sea.getGridTileState(lastShot.x, lastShot.y) == SeaTileState.NORMAL
+				|| sea.getDeadShipCount() < deadShipCount) {
+			// Le dernier tir n'est pas sur cette grille : nouvelle partie
+			reset();
+			if (sea.isAnyShipHarmed()) {
+				rebuildTargets(sea);
 			}
-		
+		} else if (!sea.isAnyShipHarmed()) {
+			targets.clear();
+		} else if (sea.getDeadShipCount() > deadShipCount) {
+			// Un bateau a coulé mais d'autres sont touchés : les candidates du bateau coulé sont inutiles
+			rebuildTargets(sea);
 		} else {
-			
-			//Parcours des y vers le bas
-			while (sea.isTileTouched(aimedAt)) {
-				y++;
-				aimedAt = new Position(x, y);
-				if (aimedAt.isOutOfBounds(xMin, xMax, yMin, yMax)) {
-					outOfBounds = true;
-					break;
-				}
-			}			
-			if (!outOfBounds) {
-				if (sea.isTileNormal(aimedAt)) return aimedAt;
-			}
-			
-			outOfBounds = false;
-			y = target.getY();
-			aimedAt = new Position(x, y);
-			
-			//Parcours des y vers le haut
-			while (sea.isTileTouched(aimedAt)) {
-				y--;
-				aimedAt = new Position(x, y);
-				if (aimedAt.isOutOfBounds(xMin, xMax, yMin, yMax)) {
-					outOfBounds = true;
-					break;
+			boolean hit = sea.getGridTileState(lastShot.x, lastShot.y) == SeaTileState.TOUCHED;
+			if (lastShot.dx == 0 && lastShot.dy == 0) {
+				if (hit) {
+					addNeighbours(sea, lastShot.x, lastShot.y);
 				}
-			}
-			if (!outOfBounds){
-				if (sea.isTileNormal(aimedAt)) return aimedAt;
+			} else if (hit && isShootable(sea, lastShot.x + lastShot.dx, lastShot.y + lastShot.dy)) {
+				// On prolonge la ligne
+				targets.addFirst(new Target(lastShot.x + lastShot.dx, lastShot.y + lastShot.dy, lastShot.dx, lastShot.dy));
+			} else {
+				// La ligne est bloquée de ce côté, on la reprend par l'autre bout
+				addOppositeEnd(sea, hit);
 			}
 		}
-		
-		return null;
+		deadShipCount = sea.getDeadShipCount();
 	}
 	
 	/**
-	 * Change de phase si les conditions sont remplies.
-	 * @param sea La grille de l'adversaire.
+	 * Ajoute en tête de file l'autre bout de la ligne de cases touchées du dernier tir,
+	 * si la ligne compte au moins deux cases touchées.
+	 * @param sea La grille du joueur adverse.
+	 * @param hit Vrai si le dernier tir a touché.
 	 */
-	private void updatePhase(Sea sea) {
-		if (sea.isAnyShipHarmed()){
-			seekPhase = false;
-		} else {
-			seekPhase = true;
+	private void addOppositeEnd(Sea sea, boolean hit) {
+		int dx = -lastShot.dx, dy = -lastShot.dy;
+		int x = hit ? lastShot.x : lastShot.x + dx;
+		int y = hit ? lastShot.y : lastShot.y + dy;
+		int count = 0;
+		while (x >= 0 && x < sea.getGridWidth() && y >= 0 && y < sea.getGridHeight()
+				&& sea.getGridTileState(x, y) == SeaTileState.TOUCHED) {
+			x += dx;
+			y += dy;
+			count++;
+		}
+		if (count >= 2 && isShootable(sea, x, y)) {
+			targets.addFirst(new Target(x, y, dx, dy));
 		}
 	}
 	
+	/**
+	 * Retire de la file la première case sur laquelle on peut tirer.
+	 * Chaque case étant ajoutée au plus une fois par case touchée voisine, le coût est constant amorti.
+	 * @param sea La grille du joueur adverse.
+	 * @return La case, null si la file est vide.
+	 */
+	private Target pollTarget(Sea sea) {
+		Target target;
+		while ((target = targets.pollFirst()) != null) {
+			if (isShootable(sea, target.x, target.y)) {
+				return target;
+			}
+		}
+		return null;
+	}
+	
 	@Override
 	public Position playShoot(Sea sea) {
-		updatePhase(sea);	// change de phase si nécessaire
-		if (seekPhase) {
-			return playShootInSeekPhase(sea);
+		update(sea);
+		Target target = null;
+		if (sea.isAnyShipHarmed()) {
+			target = pollTarget(sea);
+			if (target == null) {	// file épuisée, on repart des cases touchées de la grille
+				rebuildTargets(sea);
+				target = pollTarget(sea);
+			}
+		}
+		if (target == null) {
+			Position shot = playShootInSeekPhase(sea);
+			target = new Target(shot.getX(), shot.getY(), 0, 0);
 		}
-		else {
-			return playShootInDestroyPhase(sea);
+		lastShot = target;
+		return Position.of(target.x, target.y);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * La file n'est mise à jour qu'une fois : on tire sur les premières cases candidates,
+	 * puis on complète la salve en phase seek, chaque case choisie étant considérée comme manquée.
+	 * Les résultats de la salve étant connus ensemble, la file est reconstruite au tir suivant.
+	 */
+	@Override
+	public List<Position> playShoots(Sea sea, int n) {
+		n = SalvoPlanner.countShots(sea, n);
+		if (n == 1) {	// la file peut alors être mise à jour avec le seul résultat de ce tir
+			return Collections.singletonList(playShoot(sea));
+		}
+		update(sea);
+		List<Position> shots = new ArrayList<Position>(n);
+		Sea planning = sea.fork();
+		boolean rebuilt = false;
+		while (shots.size() < n) {
+			Target target = sea.isAnyShipHarmed() ? pollTarget(planning) : null;
+			if (target == null && sea.isAnyShipHarmed() && !rebuilt) {	// file épuisée, on repart des cases touchées
+				rebuildTargets(planning);
+				rebuilt = true;
+				continue;
+			}
+			Position shot = target != null ? Position.of(target.x, target.y) : playShootInSeekPhase(planning);
+			planning.markPlannedShot(shot);
+			shots.add(shot);
 		}
+		lastShot = null;
+		return shots;
 	}
 
 }
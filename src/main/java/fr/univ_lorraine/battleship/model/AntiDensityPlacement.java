@@ -0,0 +1,158 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stratégie de placement à contre-densité :
+ * les bateaux sont placés là où les stratégies de tir usuelles regardent en dernier.
+ *
+ * En mode chasse, les stratégies par densité de probabilité tirent d'abord sur les cases
+ * recouvertes par le plus grand nombre d'emplacements de la flotte (le centre de la grille),
+ * et les bords sont explorés en dernier. Ces statistiques ne dépendent que des règles :
+ * elles sont calculées une seule fois par règles et mises en cache.
+ *
+ * Pour chaque placement, plusieurs dispositions sont tirées uniformément
+ * (voir {@link FleetLayoutGenerator}) et la moins exposée est retenue,
+ * ce qui garde une part de hasard et évite une disposition prévisible.
+ */
+public class AntiDensityPlacement implements PlacementStrategy {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Nombre de dispositions tirées pour chaque placement.
+	 */
+	private static final int CANDIDATES = 16;
+	
+	/**
+	 * Nombre maximal de règles dont les statistiques sont gardées en cache.
+	 */
+	private static final int MAX_CACHED_RULES = 32;
+	
+	/**
+	 * Statistiques de tir mises en cache, par règles.
+	 */
+	private static final Map<GameRules, HitStatistics> STATISTICS_CACHE = new ConcurrentHashMap<GameRules, HitStatistics>();
+
+	/**
+	 * Exposition des cases d'une grille vide aux tirs de chasse.
+	 * Le nombre d'emplacements de la flotte recouvrant la case (x, y) est la somme
+	 * des emplacements horizontaux, qui ne dépendent que de x, et des emplacements verticaux,
+	 * qui ne dépendent que de y : il suffit de garder un tableau par axe.
+	 */
+	static final class HitStatistics {
+
+		/**
+		 * Nombre d'emplacements horizontaux recouvrant une case de chaque colonne.
+		 */
+		private final long[] columnHeat;
+
+		/**
+		 * Nombre d'emplacements verticaux recouvrant une case de chaque ligne.
+		 */
+		private final long[] rowHeat;
+
+		/**
+		 * Calcule les statistiques des règles.
+		 * @param rules Les règles.
+		 */
+		HitStatistics(GameRules rules) {
+			columnHeat = coverage(rules.getGridWidth(), rules.getShipsSizes());
+			rowHeat = coverage(rules.getGridHeight(), rules.getShipsSizes());
+		}
+
+		/**
+		 * Compte pour chaque case d'une ligne le nombre d'emplacements de la flotte qui la recouvrent.
+		 * @param length La longueur de la ligne.
+		 * @param shipsSizes Les tailles des bateaux.
+		 * @return Le nombre d'emplacements recouvrant chaque case.
+		 */
+		private static long[] coverage(int length, int[] shipsSizes) {
+			long[] heat = new long[length];
+			for (int size : shipsSizes) {
+				for (int i = 0 ; i < length ; i++) {
+					// Débuts possibles entre max(0, i - size + 1) et min(i, length - size)
+					int count = Math.min(i, length - size) - Math.max(0, i - size + 1) + 1;
+					if (count > 0) {
+						heat[i] += count;
+					}
+				}
+			}
+			return heat;
+		}
+
+		/**
+		 * Retourne l'exposition d'une case.
+		 * @param x L'abscisse de la case.
+		 * @param y L'ordonnée de la case.
+		 * @return Le nombre d'emplacements de la flotte recouvrant la case.
+		 */
+		long getHeat(int x, int y) {
+			return columnHeat[x] + rowHeat[y];
+		}
+
+		/**
+		 * Retourne l'exposition d'une disposition, somme des expositions de ses cases.
+		 * @param placements Les placements.
+		 * @return L'exposition.
+		 */
+		long getHeat(List<ShipPlacement> placements) {
+			long heat = 0;
+			for (ShipPlacement placement : placements) {
+				for (int i = 0 ; i < placement.getSize() ; i++) {
+					Position tile = placement.getTile(i);
+					heat += getHeat(tile.getX(), tile.getY());
+				}
+			}
+			return heat;
+		}
+
+	}
+
+	/**
+	 * Retourne les statistiques de tir des règles, en les calculant au premier appel.
+	 * @param rules Les règles.
+	 * @return Les statistiques.
+	 */
+	static HitStatistics getStatistics(GameRules rules) {
+		HitStatistics statistics = STATISTICS_CACHE.get(rules);
+		if (statistics == null) {
+			if (STATISTICS_CACHE.size() >= MAX_CACHED_RULES) {
+				STATISTICS_CACHE.clear();
+			}
+			statistics = new HitStatistics(rules);
+			STATISTICS_CACHE.put(rules, statistics);
+		}
+		return statistics;
+	}
+
+	@Override
+	public PlacementStrategyName getPlacementStrategyName() {
+		return PlacementStrategyName.ANTI_DENSITY;
+	}
+
+	@Override
+	public List<ShipPlacement> placeShips(Sea sea, Random random) {
+		HitStatistics statistics = getStatistics(sea.getRules());
+		FleetLayoutGenerator generator = new FleetLayoutGenerator(random);
+		List<ShipPlacement> best = null;
+		long bestHeat = Long.MAX_VALUE;
+		for (int i = 0 ; i < CANDIDATES ; i++) {
+			List<ShipPlacement> candidate = generator.generate(sea);
+			long heat = statistics.getHeat(candidate);
+			if (heat < bestHeat) {
+				best = candidate;
+				bestHeat = heat;
+			}
+		}
+		return best;
+	}
+	
+}
@@ -0,0 +1,103 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.List;
+
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+
+/**
+ * Stratégie de tir mémorisant les décisions d'une autre stratégie dans un {@link DecisionCache}.
+ * Lorsque la grille visée se trouve dans un état déjà rencontré (même hash de Zobrist),
+ * la position choisie alors est rejouée sans appeler la stratégie.
+ *
+ * Réservée aux stratégies dont la décision ne dépend que de l'état visible de la grille
+ * (voir {@link ShootingStrategyName#isCacheable()}) : pour une stratégie aléatoire, le cache figerait le premier tirage,
+ * et une stratégie gardant un état entre deux tirs ne verrait pas les tirs rejoués depuis le cache.
+ *
+ * Le cache n'est pas sérialisé : une stratégie rechargée n'en a plus et délègue tous ses tirs.
+ */
+public class CachedShootingStrategy implements ShootingStrategy {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * La stratégie dont les décisions sont mémorisées.
+	 * @serial
+	 */
+	private final ShootingStrategy strategy;
+
+	/**
+	 * Le cache des décisions, éventuellement partagé.
+	 */
+	private final transient DecisionCache cache;
+
+	/**
+	 * Crée une stratégie mémorisant les décisions d'une autre.
+	 * @param strategy La stratégie dont les décisions sont mémorisées.
+	 * @param cache Le cache des décisions, qui peut être partagé entre plusieurs stratégies.
+	 * @throws IllegalArgumentException Si les décisions de la stratégie ne peuvent être mises en cache.
+	 */
+	public CachedShootingStrategy(ShootingStrategy strategy, DecisionCache cache) {
+		if (!strategy.getShootingStrategyName().isCacheable()) {
+			throw new IllegalArgumentException("Stratégie de tir non mémorisable " + strategy.getShootingStrategyName());
+		}
+		this.strategy = strategy;
+		this.cache = cache;
+	}
+
+	/**
+	 * Retourne la stratégie dont les décisions sont mémorisées.
+	 * @return La stratégie.
+	 */
+	public ShootingStrategy getStrategy() {
+		return strategy;
+	}
+
+	@Override
+	public ShootingStrategyName getShootingStrategyName() {
+		return strategy.getShootingStrategyName();
+	}
+
+	@Override
+	public void setRandom(GameRandom random) {
+		strategy.setRandom(random);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * La copie partage le cache de décisions.
+	 */
+	@Override
+	public ShootingStrategy copy() {
+		return new CachedShootingStrategy(strategy.copy(), cache);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Les salves ne sont pas mémorisées.
+	 */
+	@Override
+	public List<Position> playShoots(Sea sea, int n) {
+		return strategy.playShoots(sea, n);
+	}
+
+	@Override
+	public Position playShoot(Sea sea) {
+		if (cache == null) {
+			return strategy.playShoot(sea);
+		}
+		EpochName epoch = sea.getEpoch() == null ? null : sea.getEpoch().getEpochName();
+		long hash = sea.getZobristHash();
+		Position position = cache.get(getShootingStrategyName(), epoch, hash);
+		if (position != null && sea.isTileNormal(position)) {	// protège des collisions de hash
+			return position;
+		}
+		position = strategy.playShoot(sea);
+		cache.put(getShootingStrategyName(), epoch, hash, position);
+		return position;
+	}
+
+}
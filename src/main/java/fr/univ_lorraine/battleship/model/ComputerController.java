@@ -1,10 +1,16 @@
 package fr.univ_lorraine.battleship.model;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Random;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
-import fr.univ_lorraine.battleship.model.Ship.Orientation;
 
 
 /**
@@ -31,22 +37,129 @@ public class ComputerController implements Serializable {
 	private ShootingStrategy shootingStrategy;
 	
 	/**
-	 * La stratégie par défaut.
+	 * Stratégie à adopter pour le placement des bateaux de l'ordinateur.
+	 * @serial
+	 */
+	private PlacementStrategy placementStrategy;
+	
+	/**
+	 * Générateur aléatoire de l'ordinateur, dérivé de celui de la partie.
+	 * Sert au placement des bateaux et à dériver le générateur de chaque stratégie de tir.
+	 * @serial
+	 */
+	private GameRandom random;
+	
+	/**
+	 * Vrai si les tirs du tour suivant sont calculés à l'avance, pendant le tour de l'adversaire
+	 * (voir {@link #speculate(int)}).
+	 * @serial
+	 */
+	private boolean speculative;
+	
+	/**
+	 * Le calcul à l'avance des tirs du tour suivant, null s'il n'y en a pas.
+	 */
+	private transient Future<List<Position>> speculation;
+	
+	/**
+	 * La copie de la stratégie de tir utilisée par le calcul à l'avance.
+	 * Elle lui appartient tant qu'il n'est pas terminé.
+	 */
+	private transient ShootingStrategy speculatedStrategy;
+	
+	/**
+	 * La grille visée par le calcul à l'avance.
+	 */
+	private transient Sea speculatedSea;
+	
+	/**
+	 * Le hash de la grille visée au lancement du calcul à l'avance.
+	 */
+	private transient long speculatedHash;
+	
+	/**
+	 * Le nombre de tirs calculés à l'avance.
+	 */
+	private transient int speculatedShots;
+	
+	/**
+	 * L'exécuteur des calculs à l'avance, partagé par toutes les parties.
+	 * Ses threads, démons et de priorité minimale, ne gênent ni l'affichage ni l'arrêt de l'application.
 	 */
-	private static final ShootingStrategy DEFAULT_SHOOTING_STRATEGY = new RandomShooting();
+	private static final ExecutorService SPECULATION_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable task) {
+			Thread thread = new Thread(task, "Calcul à l'avance des tirs");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		}
+	});
 		
 	/**
 	 * Crée un computerController à partir de l'interface du joueur
-	 * et avec la stratégie de tir par défaut.
+	 * et avec les stratégies de tir et de placement par défaut.
 	 * @param iPlayer L'interface du joueur.
 	 */
 	public ComputerController(Player player) {
+		this(player, new GameRandom());
+	}
+	
+	/**
+	 * Crée un computerController à partir de l'interface du joueur et d'un générateur aléatoire
+	 * (dérivé de celui de la partie), avec les stratégies de tir et de placement par défaut.
+	 * @param iPlayer L'interface du joueur.
+	 * @param random Le générateur aléatoire, propre à ce computerController.
+	 */
+	public ComputerController(Player player, GameRandom random) {
+		this.computer = player;
+		this.random = random;
+		setShootingStrategy(new RandomShooting());
+		this.placementStrategy = new RandomPlacement();
+	}
+	
+	/**
+	 * Crée une copie d'un computerController contrôlant un autre joueur
+	 * (le joueur correspondant d'une partie copiée).
+	 * La stratégie de tir et le générateur aléatoire sont copiés afin que leur état ne soit pas partagé,
+	 * la stratégie de placement, sans état, est partagée.
+	 * @param other Le computerController à copier.
+	 * @param player Le joueur contrôlé par la copie.
+	 */
+	ComputerController(ComputerController other, Player player) {
 		this.computer = player;
-		this.shootingStrategy = DEFAULT_SHOOTING_STRATEGY;
+		this.random = new GameRandom(other.getRandom());
+		this.shootingStrategy = other.shootingStrategy == null ? null : other.shootingStrategy.copy();
+		this.placementStrategy = other.placementStrategy;
+		this.speculative = other.speculative;
+	}
+	
+	/**
+	 * Change le joueur contrôlé, dont les grilles ont été remplacées (partie rejouée, voir {@link GameReplayer}).
+	 * Les stratégies sont gardées telles quelles.
+	 * @param player Le joueur contrôlé.
+	 */
+	void setPlayer(Player player) {
+		discardSpeculation();
+		this.computer = player;
+	}
+	
+	/**
+	 * Retourne le générateur aléatoire de l'ordinateur.
+	 * Les parties sauvegardées avant l'ajout du générateur en reçoivent un nouveau.
+	 * @return Le générateur aléatoire.
+	 */
+	private GameRandom getRandom() {
+		if (random == null) {
+			random = new GameRandom();
+		}
+		return random;
 	}
 	
 	/**
 	 * Retourne la stratégie de tir de l'ordinateur.
+	 * Lorsque des tirs calculés à l'avance sont joués, la stratégie est remplacée par la copie qui les a calculés :
+	 * l'instance renvoyée peut donc changer d'un tour à l'autre.
 	 * @return La stratégie de tir de l'ordinateur.
 	 */
 	public ShootingStrategy getShootingStrategy() {
@@ -54,39 +167,47 @@ public class ComputerController implements Serializable {
 	}
 	
 	/**
-	 * Prend la stratégie de tir passé en paramètre.
+	 * Prend la stratégie de tir passé en paramètre
+	 * et lui donne un générateur aléatoire dérivé de celui de l'ordinateur.
 	 * @param shootingStrategy La nouvelle stratégie de tir de l'ordinateur.
 	 */
 	public void setShootingStrategy(ShootingStrategy shootingStrategy) {
+		discardSpeculation();	// calculé par une copie de l'ancienne stratégie, qui n'est plus utilisée
 		this.shootingStrategy = shootingStrategy;
+		if (shootingStrategy != null) {
+			shootingStrategy.setRandom(getRandom().split());
+		}
 	}
 
 	/**
-	 * Place tous les bateaux du joueur (de l'ordinateur) de manière aléatoire.
+	 * Retourne la stratégie de placement de l'ordinateur.
+	 * @return La stratégie de placement de l'ordinateur.
+	 */
+	public PlacementStrategy getPlacementStrategy() {
+		return placementStrategy;
+	}
+	
+	/**
+	 * Prend la stratégie de placement passée en paramètre.
+	 * @param placementStrategy La nouvelle stratégie de placement de l'ordinateur.
+	 */
+	public void setPlacementStrategy(PlacementStrategy placementStrategy) {
+		this.placementStrategy = placementStrategy;
+	}
+
+	/**
+	 * Place tous les bateaux du joueur (de l'ordinateur) selon la stratégie de placement.
+	 * Les parties sauvegardées avant l'ajout des stratégies de placement utilisent la stratégie par défaut.
+	 * @throws IllegalStateException Si la flotte ne peut être placée.
 	 */
 	public void placeAllShips() {
 		Sea sea = this.computer.getSelfGrid();
-		ArrayList<Position> pos = new ArrayList<>(); //Lisye de toutes les positions, diminuant au fil des essais
-		Random randomizer = new Random();
-		while (!sea.areShipsAllPlaced()) {	
-			
-			if (Math.random() < 0.5){
-				sea.getShipOnPlacing().setOrientation(Orientation.VERTICAL);
-			} else {
-				sea.getShipOnPlacing().setOrientation(Orientation.HORIZONTAL);
-			}
-			
-			pos.clear();
-			for (int x = 0; x < sea.getGridWidth(); x++){
-				for (int y = 0; y < sea.getGridHeight(); y++){
-					pos.add(new Position(x, y));
-				}
-			}
-			
-			Position random_pos = pos.get(randomizer.nextInt(pos.size()));
-			while (!computer.placeShip(random_pos)) {
-				pos.remove(random_pos);
-				random_pos = pos.get(randomizer.nextInt(pos.size()));
+		PlacementStrategy strategy = placementStrategy != null ? placementStrategy : new RandomPlacement();
+		sea.putNextShipToPlace();
+		for (ShipPlacement placement : strategy.placeShips(sea, getRandom())) {
+			sea.getShipOnPlacing().setOrientation(placement.getOrientation());
+			if (!computer.placeShip(placement.getPosition())) {
+				throw new AssertionError("Placement invalide " + placement);
 			}
 		}
 	}
@@ -96,8 +217,160 @@ public class ComputerController implements Serializable {
 	 */
 	public void playShoot() {
 		if(shootingStrategy != null) {
-			// Tire à la position renvoyée par la stratégie de tir
-			computer.shoot(shootingStrategy.playShoot(computer.getOpponentGrid()));
+			// Tire à la position renvoyée par la stratégie de tir (ou calculée à l'avance)
+			computer.shoot(chooseShots(1).get(0));
+		}
+	}
+
+	/**
+	 * Effectue une salve pour le joueur (l'ordinateur) : les positions sont choisies ensemble
+	 * par la stratégie de tir, puis les tirs sont effectués.
+	 * @param n Le nombre de tirs de la salve.
+	 * @return Le nombre de tirs effectués (moins de n s'il reste moins de n cases libres).
+	 */
+	public int playShoots(int n) {
+		if (shootingStrategy == null) {
+			return 0;
+		}
+		int shots = 0;
+		for (Position position : chooseShots(n)) {
+			if (computer.shoot(position)) {
+				shots++;
+			}
+		}
+		return shots;
+	}
+	
+	/**
+	 * Choisit les positions des prochains tirs :
+	 * celles calculées à l'avance si la grille visée n'a pas changé depuis, celles de la stratégie sinon.
+	 * Lorsque les tirs calculés à l'avance sont retenus, la copie de la stratégie qui les a calculés,
+	 * dans l'état où elle serait après les avoir choisis, remplace la stratégie.
+	 * @param n Le nombre de tirs.
+	 * @return Les positions de tir.
+	 */
+	private List<Position> chooseShots(int n) {
+		Sea sea = computer.getOpponentGrid();
+		if (speculatedSea == sea && speculatedHash == sea.getZobristHash() && speculatedShots == n) {
+			List<Position> shots = awaitSpeculation();
+			ShootingStrategy strategy = speculatedStrategy;
+			discardSpeculation();
+			if (shots != null) {
+				shootingStrategy = strategy;
+				return shots;
+			}
+		}
+		discardSpeculation();
+		return choose(shootingStrategy, sea, n);
+	}
+	
+	/**
+	 * Demande à une stratégie les positions de n tirs.
+	 * Un tir seul est choisi par {@link ShootingStrategy#playShoot(Sea)}.
+	 * @param strategy La stratégie de tir.
+	 * @param sea La grille visée.
+	 * @param n Le nombre de tirs.
+	 * @return Les positions de tir.
+	 */
+	private static List<Position> choose(ShootingStrategy strategy, Sea sea, int n) {
+		if (n == 1) {
+			return Collections.singletonList(strategy.playShoot(sea));
+		}
+		return strategy.playShoots(sea, n);
+	}
+	
+	/**
+	 * Retourne vrai si les tirs du tour suivant sont calculés à l'avance.
+	 * @return Vrai si les tirs sont calculés à l'avance.
+	 */
+	public boolean isSpeculative() {
+		return speculative;
+	}
+	
+	/**
+	 * Active ou désactive le calcul à l'avance des tirs du tour suivant (voir {@link #speculate(int)}).
+	 * @param speculative Vrai pour calculer les tirs à l'avance.
+	 */
+	public void setSpeculative(boolean speculative) {
+		this.speculative = speculative;
+		if (!speculative) {
+			discardSpeculation();
+		}
+	}
+	
+	/**
+	 * Lance, si l'option est active, le calcul en arrière-plan des tirs du tour suivant de l'ordinateur.
+	 * Appelée à la fin de son tour : la grille visée ne change pas pendant le tour de l'adversaire,
+	 * les tirs sont donc le plus souvent prêts lorsque le tour de l'ordinateur revient.
+	 * Ils sont abandonnés si la grille visée a changé entre-temps (hash de Zobrist différent)
+	 * ou si le nombre de tirs n'est plus le même (salve après la perte d'un bateau).
+	 *
+	 * Le calcul utilise une copie de la stratégie de tir (voir {@link ShootingStrategy#copy()}), sur une copie de la grille :
+	 * les tirs retenus sont ainsi exactement ceux que la stratégie aurait choisis au moment de jouer.
+	 * La stratégie elle-même n'est pas modifiée : si les tirs sont abandonnés, elle n'a consommé aucun tirage aléatoire
+	 * et une partie à graine fixe reste reproductible, que le calcul à l'avance soit actif ou non.
+	 * @param n Le nombre de tirs du tour suivant.
+	 */
+	public void speculate(int n) {
+		final Sea sea = computer.getOpponentGrid();
+		if (!speculative || shootingStrategy == null || n <= 0 || !sea.areShipsAllPlaced() || sea.areShipsAllDead()) {
+			return;
+		}
+		discardSpeculation();
+		final ShootingStrategy strategy = shootingStrategy.copy();
+		final Sea fork = sea.fork();	// le calcul ne lit pas la grille partagée avec l'affichage
+		final int shots = n;
+		speculatedSea = sea;
+		speculatedHash = sea.getZobristHash();
+		speculatedShots = n;
+		speculatedStrategy = strategy;
+		speculation = SPECULATION_EXECUTOR.submit(new Callable<List<Position>>() {
+			@Override
+			public List<Position> call() {
+				return choose(strategy, fork, shots);
+			}
+		});
+	}
+	
+	/**
+	 * Abandonne le calcul à l'avance en cours, s'il y en a un.
+	 * Il n'est pas attendu : il ne modifie que sa copie de la stratégie, qui est oubliée avec lui.
+	 */
+	private void discardSpeculation() {
+		if (speculation != null) {
+			speculation.cancel(false);
+		}
+		speculation = null;
+		speculatedStrategy = null;
+		speculatedSea = null;
+	}
+	
+	/**
+	 * Attend la fin du calcul à l'avance en cours, sans le consommer.
+	 * L'attente n'est pas interrompue : la copie de la stratégie ne doit plus être utilisée par le calcul à son retour.
+	 * @return Les tirs calculés, null s'il n'y a pas de calcul ou s'il a échoué.
+	 */
+	private List<Position> awaitSpeculation() {
+		if (speculation == null) {
+			return null;
+		}
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return speculation.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					return null;	// la stratégie rejouera le tir, et l'erreur, au moment de jouer
+				} catch (CancellationException e) {
+					return null;
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
 		}
 	}
 	
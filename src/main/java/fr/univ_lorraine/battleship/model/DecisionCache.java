@@ -0,0 +1,155 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+/**
+ * Cache borné des décisions de tir, indexé par stratégie, époque et hash de Zobrist de la grille visée
+ * (voir {@link Sea#getZobristHash()}).
+ * Lorsque le cache est plein, la décision la moins récemment utilisée est oubliée.
+ *
+ * Le cache peut être partagé entre plusieurs parties et plusieurs threads (tournois, simulations) :
+ * ses méthodes sont synchronisées.
+ */
+public final class DecisionCache {
+
+	/**
+	 * Capacité par défaut.
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	/**
+	 * Les décisions, dans l'ordre d'accès.
+	 */
+	private final LinkedHashMap<Key, Position> decisions;
+
+	/**
+	 * Nombre de décisions trouvées dans le cache.
+	 */
+	private long hitCount;
+
+	/**
+	 * Nombre de décisions absentes du cache.
+	 */
+	private long missCount;
+
+	/**
+	 * Crée un cache de capacité par défaut.
+	 */
+	public DecisionCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Crée un cache d'une capacité donnée.
+	 * @param capacity Le nombre maximal de décisions conservées.
+	 * @throws IllegalArgumentException Si la capacité n'est pas strictement positive.
+	 */
+	public DecisionCache(final int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacité invalide " + capacity);
+		}
+		this.decisions = new LinkedHashMap<Key, Position>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Position> eldest) {
+				return size() > capacity;
+			}
+
+		};
+	}
+
+	/**
+	 * Retourne la décision enregistrée pour un état.
+	 * @param strategy La stratégie de tir.
+	 * @param epoch L'époque de la grille.
+	 * @param hash Le hash de Zobrist de la grille.
+	 * @return La position de tir, ou null si l'état est absent du cache.
+	 */
+	public synchronized Position get(ShootingStrategyName strategy, EpochName epoch, long hash) {
+		Position position = decisions.get(new Key(strategy, epoch, hash));
+		if (position == null) {
+			missCount++;
+		} else {
+			hitCount++;
+		}
+		return position;
+	}
+
+	/**
+	 * Enregistre la décision prise pour un état.
+	 * @param strategy La stratégie de tir.
+	 * @param epoch L'époque de la grille.
+	 * @param hash Le hash de Zobrist de la grille.
+	 * @param position La position de tir choisie.
+	 */
+	public synchronized void put(ShootingStrategyName strategy, EpochName epoch, long hash, Position position) {
+		decisions.put(new Key(strategy, epoch, hash), position);
+	}
+
+	/**
+	 * Retourne le nombre de décisions conservées.
+	 * @return Le nombre de décisions.
+	 */
+	public synchronized int size() {
+		return decisions.size();
+	}
+
+	/**
+	 * Retourne le nombre de décisions trouvées dans le cache.
+	 * @return Le nombre de succès.
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Retourne le nombre de décisions absentes du cache.
+	 * @return Le nombre d'échecs.
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Clé d'une décision.
+	 */
+	private static final class Key {
+
+		private final ShootingStrategyName strategy;
+
+		private final EpochName epoch;
+
+		private final long hash;
+
+		Key(ShootingStrategyName strategy, EpochName epoch, long hash) {
+			this.strategy = strategy;
+			this.epoch = epoch;
+			this.hash = hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return hash == other.hash && strategy == other.strategy && epoch == other.epoch;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (hash ^ (hash >>> 32)) * 31 + strategy.ordinal() * 7 + (epoch == null ? 0 : epoch.ordinal());
+		}
+
+	}
+
+}
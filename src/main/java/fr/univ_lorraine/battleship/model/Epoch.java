@@ -18,7 +18,26 @@ public abstract class Epoch implements Serializable {
 	 * Enumération de nom d'époques.
 	 * Utile pour changer l'apparence du jeu selon l'époque.
 	 */
-	public enum EpochName { XVI_SIECLE, XX_SIECLE, X_SIECLE }
+	public enum EpochName {
+		XVI_SIECLE, XX_SIECLE, X_SIECLE;
+		
+		/**
+		 * Crée l'époque correspondant à ce nom.
+		 * @return L'époque.
+		 */
+		public Epoch createEpoch() {
+			switch(this) {
+				case XVI_SIECLE:
+					return new EpochXVI();
+				case XX_SIECLE:
+					return new EpochXX();
+				case X_SIECLE:
+					return new EpochX();
+				default:
+					throw new AssertionError("Epoque inconnue " + this);
+			}
+		}
+	}
 		
 	/**
 	 * Retourne le nom de l'époque.
@@ -37,5 +56,19 @@ public abstract class Epoch implements Serializable {
 		// Si le bateau est "touché partout", il est détruit 
 		return size == hitCount;
 	}
+	
+	/**
+	 * Retourne le nombre de "touchés" nécessaires pour détruire un bateau selon l'époque.
+	 * @param size La longueur du bateau.
+	 * @return Le plus petit nombre de "touchés" détruisant le bateau.
+	 */
+	public int getHitsToSink(int size) {
+		for (int hitCount = 1 ; hitCount < size ; hitCount++) {
+			if (takeDamage(size, hitCount)) {
+				return hitCount;
+			}
+		}
+		return size;
+	}
 		
 }
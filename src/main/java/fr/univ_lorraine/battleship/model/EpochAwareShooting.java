@@ -0,0 +1,262 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
+
+/**
+ * Stratégie de tir "Chasse/Cible" tenant compte des règles de l'époque.
+ *
+ * Aux Xème et XVIème siècles, un bateau coule avant d'être touché partout (voir {@link Epoch#getHitsToSink(int)}) :
+ * - en phase de cible, on ne considère que les positions des bateaux en vie passant par les cases touchées
+ *   et dont le nombre de touchés ne suffirait pas à les couler, et on tire sur la case libre
+ *   recouverte par le plus grand nombre de ces positions ;
+ * - les cases des bateaux coulés, touchées ou non, ne sont plus jamais visées.
+ * En phase de chasse, on ne tire qu'une case sur n en diagonale, n étant la taille du plus petit bateau en vie :
+ * toute position de ce bateau contient une de ces cases.
+ */
+public class EpochAwareShooting implements ShootingStrategy {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Case libre, qui n'a pas reçu de tir et n'appartient pas à un bateau coulé.
+	 */
+	private static final byte FREE = 0;
+
+	/**
+	 * Case sur laquelle aucun bateau en vie ne peut se trouver (tir manqué ou bateau coulé).
+	 */
+	private static final byte BLOCKED = 1;
+
+	/**
+	 * Case touchée d'un bateau non coulé.
+	 */
+	private static final byte HARMED = 2;
+
+	/**
+	 * Générateur aléatoire pour départager les cases.
+	 * Fourni par la partie, voir {@link GameRandom}.
+	 * @serial
+	 */
+	private GameRandom random = new GameRandom();
+
+	@Override
+	public ShootingStrategyName getShootingStrategyName() {
+		return ShootingStrategyName.EPOCH_AWARE;
+	}
+
+	@Override
+	public void setRandom(GameRandom random) {
+		this.random = random;
+	}
+
+	@Override
+	public ShootingStrategy copy() {
+		EpochAwareShooting copy = new EpochAwareShooting();
+		copy.random = new GameRandom(random);
+		return copy;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * La stratégie n'ayant pas d'état et étant peu coûteuse, les tirs sont choisis un par un,
+	 * chacun en considérant les précédents comme manqués.
+	 */
+	@Override
+	public List<Position> playShoots(Sea sea, int n) {
+		return SalvoPlanner.planSequentially(this, sea, n);
+	}
+
+	@Override
+	public Position playShoot(Sea sea) {
+		Epoch epoch = null;
+		List<Integer> aliveSizes = new ArrayList<Integer>();
+		for (Ship ship : sea.getShips()) {
+			epoch = ship.getEpoch();
+			if (!ship.isDead()) {
+				aliveSizes.add(ship.getSize());
+			}
+		}
+
+		Position shot = null;
+		if (aliveSizes.isEmpty()) {
+			shot = null;	// grille incohérente (aucun bateau en vie), on tire au hasard
+		} else if (sea.isAnyShipHarmed()) {
+			shot = playShootInDestroyPhase(sea, aliveSizes, epoch);
+		} else {
+			int smallestSize = Integer.MAX_VALUE;
+			for (int size : aliveSizes) {
+				smallestSize = Math.min(smallestSize, size);
+			}
+			shot = playShootInSeekPhase(sea, smallestSize);
+		}
+		if (shot == null) {
+			shot = sea.nthTileWithState(SeaTileState.NORMAL, random.nextInt(sea.countTiles(SeaTileState.NORMAL)));
+		}
+		return shot;
+	}
+
+	/**
+	 * Tire sur une case libre de la diagonale de la taille du plus petit bateau en vie,
+	 * pouvant contenir ce bateau horizontalement ou verticalement.
+	 * Les cases possibles sont calculées sur les masques de la grille.
+	 * @param sea La grille du joueur adverse.
+	 * @param smallestSize La taille du plus petit bateau en vie.
+	 * @return La position de tir, null si aucune case ne convient.
+	 */
+	private Position playShootInSeekPhase(Sea sea, int smallestSize) {
+		TileMask free = sea.untouchedTiles();
+		free.andNot(sea.sunkTiles());
+		TileMask candidates = coverRuns(sea, free, smallestSize, 1, 0);
+		candidates.or(coverRuns(sea, free, smallestSize, 0, 1));
+		candidates.and(sea.diagonalTiles(smallestSize));
+		int count = candidates.cardinality();
+		if (count == 0) {
+			return null;
+		}
+		return sea.tilePosition(candidates.nthSetBit(random.nextInt(count)));
+	}
+
+	/**
+	 * Retourne le masque des cases appartenant à une suite d'au moins {@code size} cases libres
+	 * dans une direction, c'est à dire pouvant contenir un bateau de cette taille dans cette direction.
+	 * @param sea La grille du joueur adverse.
+	 * @param free Le masque des cases libres, non modifié.
+	 * @param size La taille du bateau.
+	 * @param dx La direction en abscisse.
+	 * @param dy La direction en ordonnée.
+	 * @return Le masque des cases.
+	 */
+	private static TileMask coverRuns(Sea sea, TileMask free, int size, int dx, int dy) {
+		// Premières cases des suites : la case et les size - 1 suivantes sont libres
+		TileMask starts = new TileMask(free);
+		for (int i = 1 ; i < size ; i++) {
+			TileMask next = new TileMask(free);
+			sea.shiftTiles(next, -i * dx, -i * dy);
+			starts.and(next);
+		}
+		// Cases recouvertes par ces suites
+		TileMask cover = new TileMask(starts);
+		for (int i = 1 ; i < size ; i++) {
+			TileMask covered = new TileMask(starts);
+			sea.shiftTiles(covered, i * dx, i * dy);
+			cover.or(covered);
+		}
+		return cover;
+	}
+
+	/**
+	 * Tire sur la case libre recouverte par le plus grand nombre de positions possibles
+	 * des bateaux touchés et non coulés.
+	 * Une position est comptée une fois par case touchée qu'elle recouvre,
+	 * ce qui favorise les positions prolongeant une ligne de touchés.
+	 * @param sea La grille du joueur adverse.
+	 * @param aliveSizes Les tailles des bateaux en vie.
+	 * @param epoch L'époque des bateaux.
+	 * @return La position de tir, null si aucune case ne convient.
+	 */
+	private Position playShootInDestroyPhase(Sea sea, List<Integer> aliveSizes, Epoch epoch) {
+		int width = sea.getGridWidth(), height = sea.getGridHeight();
+		byte[] tiles = new byte[width * height];
+		TileMask blocked = sea.untouchedTiles();
+		blocked.not();					// cases ayant reçu un tir
+		blocked.or(sea.sunkTiles());
+		for (int i = blocked.nextSetBit(0) ; i != -1 ; i = blocked.nextSetBit(i + 1)) {
+			tiles[i] = BLOCKED;
+		}
+		List<Position> harmed = sea.harmedShipPositions();
+		for (Position p : harmed) {
+			tiles[p.getX() * height + p.getY()] = HARMED;
+		}
+		int[] score = new int[tiles.length];
+		int maxScore = 0;
+		for (Position target : harmed) {
+			for (int size : aliveSizes) {
+				int hitsToSink = epoch == null ? size : epoch.getHitsToSink(size);
+				for (int offset = 0 ; offset < size ; offset++) {
+					maxScore = Math.max(maxScore, addPlacement(score, tiles, width, height,
+							target.getX() - offset, target.getY(), height, size, hitsToSink, true));
+					maxScore = Math.max(maxScore, addPlacement(score, tiles, width, height,
+							target.getX(), target.getY() - offset, 1, size, hitsToSink, false));
+				}
+			}
+		}
+
+		if (maxScore == 0) {	// aucune position possible, on tire à côté d'une case touchée
+			for (Position target : harmed) {
+				List<Position> shootable = sea.getShootablePositions(target);
+				for (Position p : shootable) {
+					if (tiles[p.getX() * height + p.getY()] == FREE) {
+						return p;
+					}
+				}
+			}
+			return null;
+		}
+
+		// Second passage : on tire au sort parmi les cases de score maximal
+		int count = 0;
+		for (int i = 0 ; i < score.length ; i++) {
+			if (score[i] == maxScore) count++;
+		}
+		int k = random.nextInt(count);
+		for (int i = 0 ; i < score.length ; i++) {
+			if (score[i] == maxScore && k-- == 0) {
+				return Position.of(i / height, i % height);
+			}
+		}
+		throw new AssertionError("Case de cible introuvable");
+	}
+
+	/**
+	 * Ajoute une position possible d'un bateau au score de ses cases libres.
+	 * La position est possible si elle est dans la grille, ne recouvre aucune case bloquée,
+	 * et si ses cases touchées ne suffisent pas à couler le bateau.
+	 * @param score Le score des cases.
+	 * @param tiles L'état des cases.
+	 * @param width La largeur de la grille.
+	 * @param height La hauteur de la grille.
+	 * @param x L'abscisse de la première case.
+	 * @param y L'ordonnée de la première case.
+	 * @param stride L'écart d'indice entre deux cases consécutives du bateau.
+	 * @param size La taille du bateau.
+	 * @param hitsToSink Le nombre de touchés coulant le bateau.
+	 * @param horizontal Vrai si le bateau est horizontal.
+	 * @return Le score maximal des cases de la position, 0 si elle n'est pas possible.
+	 */
+	private static int addPlacement(int[] score, byte[] tiles, int width, int height,
+			int x, int y, int stride, int size, int hitsToSink, boolean horizontal) {
+		if (x < 0 || y < 0 || (horizontal ? x + size > width : y + size > height)) {
+			return 0;
+		}
+		int start = x * height + y;
+		int hits = 0;
+		for (int i = 0 ; i < size ; i++) {
+			byte tile = tiles[start + i * stride];
+			if (tile == BLOCKED) {
+				return 0;
+			}
+			if (tile == HARMED) {
+				hits++;
+			}
+		}
+		if (hits >= hitsToSink) {	// le bateau serait déjà coulé
+			return 0;
+		}
+		int max = 0;
+		for (int i = 0 ; i < size ; i++) {
+			int index = start + i * stride;
+			if (tiles[index] == FREE) {
+				max = Math.max(max, ++score[index]);
+			}
+		}
+		return max;
+	}
+
+}
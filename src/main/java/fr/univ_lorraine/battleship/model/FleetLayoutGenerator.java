@@ -0,0 +1,423 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import fr.univ_lorraine.battleship.model.Ship.Orientation;
+
+/**
+ * Générateur de dispositions aléatoires de la flotte.
+ *
+ * Les bateaux sont placés du plus grand au plus petit. Pour chaque bateau, on compte les emplacements
+ * (x, y, orientation) valides à partir des suites de cases libres de chaque ligne et de chaque colonne,
+ * puis on en tire un uniformément : aucun essai n'est perdu sur un emplacement invalide.
+ * Les nombres d'emplacements par ligne et par colonne sont mis à jour après chaque bateau,
+ * seules les lignes et colonnes traversées par le bateau étant recomptées.
+ *
+ * Si un bateau ne trouve plus d'emplacement, on recommence la disposition un nombre limité de fois,
+ * puis on recherche une disposition par retour arrière. Les bateaux de même taille étant interchangeables,
+ * leurs emplacements y sont choisis dans un ordre croissant (chaque ensemble d'emplacements n'est essayé qu'une fois),
+ * une branche est abandonnée dès que les bateaux restants dépassent le nombre de cases libres,
+ * et la recherche s'arrête après un nombre limité de placements : le générateur échoue vite
+ * plutôt que de parcourir toutes les dispositions d'une flotte impossible à placer.
+ *
+ * Un générateur garde l'état de la disposition en cours : il ne doit pas être partagé entre plusieurs threads.
+ */
+public final class FleetLayoutGenerator {
+
+	/**
+	 * Nombre de dispositions aléatoires tentées avant la recherche par retour arrière.
+	 */
+	private static final int MAX_RESTARTS = 100;
+
+	/**
+	 * Nombre maximal de placements essayés par la recherche par retour arrière.
+	 */
+	private static final int MAX_BACKTRACK_NODES = 200000;
+
+	/**
+	 * Le générateur aléatoire.
+	 */
+	private final Random random;
+
+	/**
+	 * Largeur de la grille en cours.
+	 */
+	private int width;
+
+	/**
+	 * Hauteur de la grille en cours.
+	 */
+	private int height;
+
+	/**
+	 * Cases occupées de la disposition en cours.
+	 */
+	private TileMask occupied;
+
+	/**
+	 * Nombre d'emplacements horizontaux de la taille en cours dans chaque ligne.
+	 */
+	private int[] rowSlots;
+
+	/**
+	 * Nombre d'emplacements verticaux de la taille en cours dans chaque colonne.
+	 */
+	private int[] columnSlots;
+
+	/**
+	 * Rang de départ du parcours des emplacements de chaque bateau de la recherche par retour arrière.
+	 */
+	private int[] slotOffsets;
+
+	/**
+	 * Rang, dans le parcours, de l'emplacement de chaque bateau placé par la recherche par retour arrière.
+	 */
+	private int[] slotRanks;
+
+	/**
+	 * Nombre de placements restant à la recherche par retour arrière.
+	 */
+	private int remainingNodes;
+
+	/**
+	 * Crée un générateur.
+	 * @param random Le générateur aléatoire.
+	 */
+	public FleetLayoutGenerator(Random random) {
+		this.random = random;
+	}
+
+	/**
+	 * Tire une disposition des bateaux restant à placer sur une grille
+	 * (bateau en cours de positionnement puis bateaux à placer), autour des bateaux déjà placés.
+	 * La grille n'est pas modifiée.
+	 * @param sea La grille.
+	 * @return Les placements, dans l'ordre de placement des bateaux de la grille.
+	 * @throws IllegalStateException Si aucune disposition n'est possible ou si aucune n'a été trouvée
+	 * dans la limite de la recherche.
+	 */
+	public List<ShipPlacement> generate(Sea sea) {
+		List<Integer> sizes = new ArrayList<Integer>();
+		if (sea.getShipOnPlacing() != null) {
+			sizes.add(sea.getShipOnPlacing().getSize());
+		}
+		for (Ship ship : sea.getShipsToPlace()) {
+			sizes.add(ship.getSize());
+		}
+		int[] shipsSizes = new int[sizes.size()];
+		for (int i = 0 ; i < shipsSizes.length ; i++) {
+			shipsSizes[i] = sizes.get(i);
+		}
+		return generate(sea.getGridWidth(), sea.getGridHeight(), sea.copyOccupiedTiles(), shipsSizes);
+	}
+
+	/**
+	 * Tire une disposition de la flotte des règles sur une grille vide.
+	 * @param rules Les règles.
+	 * @return Les placements, dans l'ordre des tailles des règles.
+	 * @throws IllegalStateException Si aucune disposition n'est possible ou si aucune n'a été trouvée
+	 * dans la limite de la recherche.
+	 */
+	public List<ShipPlacement> generate(GameRules rules) {
+		return generate(rules.getGridWidth(), rules.getGridHeight(),
+				new TileMask(rules.getGridWidth() * rules.getGridHeight()), rules.getShipsSizes());
+	}
+
+	/**
+	 * Tire une disposition.
+	 * @param width La largeur de la grille.
+	 * @param height La hauteur de la grille.
+	 * @param initial Les cases déjà occupées.
+	 * @param shipsSizes Les tailles des bateaux, dans l'ordre de placement.
+	 * @return Les placements, dans l'ordre des tailles.
+	 */
+	private List<ShipPlacement> generate(int width, int height, TileMask initial, int[] shipsSizes) {
+		this.width = width;
+		this.height = height;
+		Integer[] order = new Integer[shipsSizes.length];
+		for (int i = 0 ; i < order.length ; i++) {
+			order[i] = i;
+		}
+		final int[] sizes = shipsSizes;
+		Arrays.sort(order, new Comparator<Integer>() {	// du plus grand au plus petit
+			@Override
+			public int compare(Integer a, Integer b) {
+				return sizes[b] - sizes[a];
+			}
+		});
+
+		ShipPlacement[] placements = new ShipPlacement[shipsSizes.length];
+		for (int restart = 0 ; restart < MAX_RESTARTS ; restart++) {
+			occupied = new TileMask(initial);
+			if (sample(order, shipsSizes, placements)) {
+				return Arrays.asList(placements);
+			}
+		}
+		occupied = new TileMask(initial);
+		slotOffsets = new int[order.length];
+		slotRanks = new int[order.length];
+		remainingNodes = MAX_BACKTRACK_NODES;
+		int area = 0;
+		for (int size : shipsSizes) {
+			area += size;
+		}
+		if (backtrack(0, order, shipsSizes, placements, area, width * height - initial.cardinality())) {
+			return Arrays.asList(placements);
+		}
+		throw new IllegalStateException("Impossible de placer la flotte " + Arrays.toString(shipsSizes)
+				+ " sur une grille de " + width + "x" + height
+				+ (remainingNodes == 0 ? " (recherche abandonnée après " + MAX_BACKTRACK_NODES + " placements)" : ""));
+	}
+
+	/**
+	 * Tire une disposition en plaçant les bateaux un à un, chacun uniformément parmi ses emplacements valides.
+	 * @param order L'ordre de placement (indices des bateaux).
+	 * @param sizes Les tailles des bateaux.
+	 * @param placements Les placements tirés.
+	 * @return Vrai si tous les bateaux ont été placés.
+	 */
+	private boolean sample(Integer[] order, int[] sizes, ShipPlacement[] placements) {
+		int countedSize = -1;
+		rowSlots = new int[height];
+		columnSlots = new int[width];
+		for (int ship : order) {
+			int size = sizes[ship];
+			if (size != countedSize) {	// nouvelle taille, on recompte tout
+				for (int y = 0 ; y < height ; y++) {
+					rowSlots[y] = countRowSlots(y, size);
+				}
+				for (int x = 0 ; x < width ; x++) {
+					columnSlots[x] = countColumnSlots(x, size);
+				}
+				countedSize = size;
+			}
+
+			long total = 0;
+			for (int count : rowSlots) {
+				total += count;
+			}
+			for (int count : columnSlots) {
+				total += count;
+			}
+			if (total == 0) {
+				return false;
+			}
+
+			placements[ship] = selectSlot((random.nextLong() >>> 1) % total, size);
+			occupy(placements[ship], true);
+			updateSlots(placements[ship]);
+		}
+		return true;
+	}
+
+	/**
+	 * Retrouve un emplacement à partir de son rang parmi tous les emplacements valides
+	 * (horizontaux ligne par ligne, puis verticaux colonne par colonne).
+	 * @param rank Le rang de l'emplacement.
+	 * @param size La taille du bateau.
+	 * @return Le placement.
+	 */
+	private ShipPlacement selectSlot(long rank, int size) {
+		for (int y = 0 ; y < height ; y++) {
+			if (rank < rowSlots[y]) {
+				int x = findSlotInLine(y, height, width, size, (int) rank);
+				return new ShipPlacement(Position.of(x, y), Orientation.HORIZONTAL, size);
+			}
+			rank -= rowSlots[y];
+		}
+		for (int x = 0 ; x < width ; x++) {
+			if (rank < columnSlots[x]) {
+				int y = findSlotInLine(x * height, 1, height, size, (int) rank);
+				return new ShipPlacement(Position.of(x, y), Orientation.VERTICAL, size);
+			}
+			rank -= columnSlots[x];
+		}
+		throw new AssertionError("Emplacement introuvable");
+	}
+
+	/**
+	 * Recompte les emplacements des lignes et colonnes traversées par un bateau qui vient d'être placé.
+	 * @param placement Le placement du bateau.
+	 */
+	private void updateSlots(ShipPlacement placement) {
+		int size = placement.getSize();
+		int x = placement.getPosition().getX(), y = placement.getPosition().getY();
+		switch(placement.getOrientation()) {
+			case HORIZONTAL:
+				rowSlots[y] = countRowSlots(y, size);
+				for (int i = 0 ; i < size ; i++) {
+					columnSlots[x + i] = countColumnSlots(x + i, size);
+				}
+				break;
+			case VERTICAL:
+				columnSlots[x] = countColumnSlots(x, size);
+				for (int i = 0 ; i < size ; i++) {
+					rowSlots[y + i] = countRowSlots(y + i, size);
+				}
+				break;
+			default:
+				throw new AssertionError("Orientation inconnue " + placement.getOrientation());
+		}
+	}
+
+	/**
+	 * Compte les emplacements horizontaux d'une ligne.
+	 * @param y L'ordonnée de la ligne.
+	 * @param size La taille du bateau.
+	 * @return Le nombre d'emplacements.
+	 */
+	private int countRowSlots(int y, int size) {
+		return countLineSlots(y, height, width, size);
+	}
+
+	/**
+	 * Compte les emplacements verticaux d'une colonne.
+	 * @param x L'abscisse de la colonne.
+	 * @param size La taille du bateau.
+	 * @return Le nombre d'emplacements.
+	 */
+	private int countColumnSlots(int x, int size) {
+		return countLineSlots(x * height, 1, height, size);
+	}
+
+	/**
+	 * Compte les emplacements d'une ligne (ou d'une colonne) :
+	 * une suite de n cases libres contient n - taille + 1 emplacements.
+	 * @param start L'indice de la première case de la ligne.
+	 * @param stride L'écart d'indice entre deux cases consécutives de la ligne.
+	 * @param length Le nombre de cases de la ligne.
+	 * @param size La taille du bateau.
+	 * @return Le nombre d'emplacements.
+	 */
+	private int countLineSlots(int start, int stride, int length, int size) {
+		int slots = 0, run = 0;
+		for (int i = 0 ; i < length ; i++) {
+			if (occupied.get(start + i * stride)) {
+				run = 0;
+			} else if (++run >= size) {
+				slots++;
+			}
+		}
+		return slots;
+	}
+
+	/**
+	 * Retrouve le début du k-ième emplacement d'une ligne (ou d'une colonne).
+	 * @param start L'indice de la première case de la ligne.
+	 * @param stride L'écart d'indice entre deux cases consécutives de la ligne.
+	 * @param length Le nombre de cases de la ligne.
+	 * @param size La taille du bateau.
+	 * @param k Le rang de l'emplacement dans la ligne.
+	 * @return Le rang dans la ligne de la première case de l'emplacement.
+	 */
+	private int findSlotInLine(int start, int stride, int length, int size, int k) {
+		int run = 0;
+		for (int i = 0 ; i < length ; i++) {
+			if (occupied.get(start + i * stride)) {
+				run = 0;
+			} else if (++run >= size && k-- == 0) {
+				return i - size + 1;
+			}
+		}
+		throw new AssertionError("Emplacement introuvable dans la ligne");
+	}
+
+	/**
+	 * Marque ou libère les cases d'un placement.
+	 * @param placement Le placement.
+	 * @param value Vrai pour marquer les cases, faux pour les libérer.
+	 */
+	private void occupy(ShipPlacement placement, boolean value) {
+		for (int i = 0 ; i < placement.getSize() ; i++) {
+			Position tile = placement.getTile(i);
+			int index = tile.getX() * height + tile.getY();
+			if (value) {
+				occupied.set(index);
+			} else {
+				occupied.clear(index);
+			}
+		}
+	}
+
+	/**
+	 * Vérifie qu'un placement est dans la grille et sur des cases libres.
+	 * @param x L'abscisse de la première case.
+	 * @param y L'ordonnée de la première case.
+	 * @param orientation L'orientation.
+	 * @param size La taille.
+	 * @return Vrai si le placement est possible.
+	 */
+	private boolean fits(int x, int y, Orientation orientation, int size) {
+		boolean horizontal = orientation == Orientation.HORIZONTAL;
+		if ((horizontal ? x + size : y + size) > (horizontal ? width : height)) {
+			return false;
+		}
+		int index = x * height + y;
+		int stride = horizontal ? height : 1;
+		for (int i = 0 ; i < size ; i++) {
+			if (occupied.get(index + i * stride)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Recherche d'une disposition par retour arrière.
+	 * Les emplacements (orientation puis case) sont parcourus à partir d'un rang aléatoire ;
+	 * un bateau de même taille que le précédent reprend le parcours du précédent après l'emplacement de celui-ci,
+	 * ce qui évite d'essayer les mêmes dispositions dans un autre ordre.
+	 * @param k Le nombre de bateaux déjà placés.
+	 * @param order L'ordre de placement (indices des bateaux).
+	 * @param sizes Les tailles des bateaux.
+	 * @param placements Les placements.
+	 * @param area Le nombre de cases des bateaux restant à placer.
+	 * @param free Le nombre de cases libres.
+	 * @return Vrai si une disposition a été trouvée.
+	 */
+	private boolean backtrack(int k, Integer[] order, int[] sizes, ShipPlacement[] placements, int area, int free) {
+		if (k == order.length) {
+			return true;
+		}
+		if (area > free) {	// plus assez de cases libres
+			return false;
+		}
+		int tiles = width * height;
+		int ship = order[k];
+		int size = sizes[ship];
+		int slots = 2 * tiles;		// emplacements horizontaux puis verticaux
+		int firstRank;
+		if (k > 0 && sizes[order[k - 1]] == size) {
+			slotOffsets[k] = slotOffsets[k - 1];
+			firstRank = slotRanks[k - 1] + 1;
+		} else {
+			slotOffsets[k] = random.nextInt(slots);
+			firstRank = 0;
+		}
+		for (int rank = firstRank ; rank < slots ; rank++) {
+			int slot = (int) (((long) slotOffsets[k] + rank) % slots);
+			Orientation orientation = slot < tiles ? Orientation.HORIZONTAL : Orientation.VERTICAL;
+			int tile = slot % tiles;
+			int x = tile / height, y = tile % height;
+			if (fits(x, y, orientation, size)) {
+				if (remainingNodes == 0) {
+					return false;
+				}
+				remainingNodes--;
+				placements[ship] = new ShipPlacement(Position.of(x, y), orientation, size);
+				slotRanks[k] = rank;
+				occupy(placements[ship], true);
+				if (backtrack(k + 1, order, sizes, placements, area - size, free - size)) {
+					return true;
+				}
+				occupy(placements[ship], false);
+			}
+		}
+		return false;
+	}
+
+}
@@ -1,14 +1,22 @@
 package fr.univ_lorraine.battleship.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.EnumMap;
-import java.util.Observable;
+
+import fr.univ_lorraine.battleship.model.event.EventBus;
+import fr.univ_lorraine.battleship.model.event.GameOver;
+import fr.univ_lorraine.battleship.model.event.PlacementChanged;
+import fr.univ_lorraine.battleship.model.event.TurnChanged;
 
 /**
  * Classe principale du modèle qui contient tous les autres éléments du jeu
  * et qui représente l'état d'une partie.
+ * Les changements sont publiés sur son {@link EventBus} ; les événements d'une même action
+ * (clic, début ou fin de tour) sont transmis ensemble, à la fin de l'action.
  */
-public class Game extends Observable implements Serializable {
+public class Game implements Serializable {
 
 	/**
 	 * Id pour la serialization.
@@ -74,28 +82,197 @@ public class Game extends Observable implements Serializable {
 	 */
 	private int countNumberOfShots;
 	
+	/**
+	 * Les règles de la partie.
+	 * @serial
+	 */
+	private GameRules rules;
+	
+	/**
+	 * La graine de la partie, dont dérivent tous ses tirages aléatoires.
+	 * @serial
+	 */
+	private long seed;
+	
+	/**
+	 * Le générateur aléatoire de la partie.
+	 * @serial
+	 */
+	private GameRandom random;
+	
+	/**
+	 * Le journal des actions de la partie, null pour les parties sauvegardées avant son ajout.
+	 * @serial
+	 */
+	private GameLog log;
+	
+	/**
+	 * Le bus des événements de la partie et de ses grilles, créé à la première utilisation.
+	 */
+	private transient EventBus eventBus;
+	
 	/**
 	 * Crée une partie à partir de l'époque
-	 * et de la stratégie de tir de l'ordinateur choisies au préalable.
+	 * et de la stratégie de tir de l'ordinateur choisies au préalable,
+	 * avec les règles classiques.
 	 * @param epoque L'époque choisie.
 	 * @param shootingStrategy La stratégie de tir de l'ordinateur choisie.
 	 */
 	public Game(Epoch epoch, ShootingStrategy shootingStrategy) {
+		this(epoch, shootingStrategy, new GameRules());
+	}
+	
+	/**
+	 * Crée une partie à partir de l'époque, de la stratégie de tir de l'ordinateur
+	 * et des règles choisies au préalable.
+	 * @param epoque L'époque choisie.
+	 * @param shootingStrategy La stratégie de tir de l'ordinateur choisie.
+	 * @param rules Les règles de la partie (grille, flotte et nombre de tirs par tour).
+	 */
+	public Game(Epoch epoch, ShootingStrategy shootingStrategy, GameRules rules) {
+		this(epoch, shootingStrategy, new RandomPlacement(), rules);
+	}
+	
+	/**
+	 * Crée une partie à partir de l'époque, des stratégies de tir et de placement de l'ordinateur
+	 * et des règles choisies au préalable.
+	 * @param epoque L'époque choisie.
+	 * @param shootingStrategy La stratégie de tir de l'ordinateur choisie.
+	 * @param placementStrategy La stratégie de placement des bateaux de l'ordinateur choisie.
+	 * @param rules Les règles de la partie (grille, flotte et nombre de tirs par tour).
+	 */
+	public Game(Epoch epoch, ShootingStrategy shootingStrategy, PlacementStrategy placementStrategy, GameRules rules) {
+		this(epoch, shootingStrategy, placementStrategy, rules, new GameRandom().nextLong());
+	}
+	
+	/**
+	 * Crée une partie à partir de l'époque, des stratégies de tir et de placement de l'ordinateur,
+	 * des règles et d'une graine choisies au préalable.
+	 * Deux parties créées avec la même graine et jouées de la même manière sont identiques
+	 * (sauf stratégie limitée par le temps, voir {@link MonteCarloShooting}).
+	 * @param epoque L'époque choisie.
+	 * @param shootingStrategy La stratégie de tir de l'ordinateur choisie.
+	 * @param placementStrategy La stratégie de placement des bateaux de l'ordinateur choisie.
+	 * @param rules Les règles de la partie (grille, flotte et nombre de tirs par tour).
+	 * @param seed La graine de la partie.
+	 */
+	public Game(Epoch epoch, ShootingStrategy shootingStrategy, PlacementStrategy placementStrategy, GameRules rules, long seed) {
 		gameState = GameState.RUNNING;
 		this.epoch = epoch;
+		this.rules = rules;
 		
 		players = new EnumMap<PlayerId, Player>(PlayerId.class);
-		Sea playerSea = new Sea(epoch);
-		Sea computerSea = new Sea(epoch);
+		Sea playerSea = new Sea(epoch, rules);
+		Sea computerSea = new Sea(epoch, rules);
 		players.put(PlayerId.PLAYER, new Player(playerSea, computerSea));
 		players.put(PlayerId.COMPUTER, new Player(computerSea, playerSea));
 		
-		computerController = new ComputerController(players.get(PlayerId.COMPUTER));
+		this.seed = seed;
+		random = new GameRandom(seed);
+		computerController = new ComputerController(players.get(PlayerId.COMPUTER), random.split());
 		computerController.setShootingStrategy(shootingStrategy);
+		computerController.setPlacementStrategy(placementStrategy);
 		
 		endTurnAfterShotAnimation = true;
-		numberOfShotsPerTurn = 1;
+		numberOfShotsPerTurn = rules.getNumberOfShotsPerTurn();
 		countNumberOfShots = 0;
+		
+		log = new GameLog(epoch.getEpochName(), rules, seed,
+				shootingStrategy == null ? null : shootingStrategy.getShootingStrategyName(),
+				placementStrategy == null ? null : placementStrategy.getPlacementStrategyName());
+		attachLog();
+	}
+	
+	/**
+	 * Crée une copie détachée d'une partie.
+	 * @param other La partie à copier.
+	 */
+	private Game(Game other) {
+		gameState = other.gameState;
+		playerTurn = other.playerTurn;
+		epoch = other.epoch;
+		rules = other.rules;
+		seed = other.seed;
+		random = other.random == null ? null : new GameRandom(other.random);
+		
+		players = new EnumMap<PlayerId, Player>(PlayerId.class);
+		Sea playerSea = other.getPlayerSea().fork();
+		Sea computerSea = other.getComputerSea().fork();
+		players.put(PlayerId.PLAYER, new Player(playerSea, computerSea));
+		players.put(PlayerId.COMPUTER, new Player(computerSea, playerSea));
+		
+		computerController = new ComputerController(other.computerController, players.get(PlayerId.COMPUTER));
+		
+		endTurnAfterShotAnimation = other.endTurnAfterShotAnimation;
+		numberOfShotsPerTurn = other.numberOfShotsPerTurn;
+		countNumberOfShots = other.countNumberOfShots;
+		
+		log = other.log == null ? null : new GameLog(other.log);
+		attachLog();
+	}
+	
+	/**
+	 * Recharge une partie sauvegardée et relie ses grilles à son journal.
+	 * @param in Le flux de la sauvegarde.
+	 * @throws IOException Si la lecture échoue.
+	 * @throws ClassNotFoundException Si une classe de la sauvegarde est inconnue.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		attachLog();
+	}
+	
+	/**
+	 * Relie les grilles au journal de la partie, qui y ajoutent les placements et les tirs.
+	 */
+	private void attachLog() {
+		if (log != null) {
+			getPlayerSea().setLog(log, PlayerId.PLAYER);
+			getComputerSea().setLog(log, PlayerId.COMPUTER);
+		}
+	}
+	
+	/**
+	 * Crée une copie détachée de la partie, sans écouteur (ni sur la partie, ni sur les grilles).
+	 * Permet de simuler la suite de la partie (recherche, Monte-Carlo, etc.)
+	 * sans modifier la partie en cours ni déclencher de mise à jour de l'affichage.
+	 * @return La copie de la partie.
+	 */
+	public Game fork() {
+		return new Game(this);
+	}
+	
+	/**
+	 * Retourne le bus des événements de la partie, sur lequel s'inscrivent les vues.
+	 * Le bus n'est pas sauvegardé : une partie chargée ou copiée en crée un nouveau, sans écouteur.
+	 * @return Le bus des événements.
+	 */
+	public EventBus getEventBus() {
+		if (eventBus == null) {
+			eventBus = new EventBus();
+			getPlayerSea().setEventBus(eventBus);
+			getComputerSea().setEventBus(eventBus);
+		}
+		return eventBus;
+	}
+	
+	/**
+	 * Retourne le journal des actions de la partie, qui permet de la reconstruire ({@link GameReplayer}).
+	 * Une copie de la partie ({@link #fork()}) a une copie du journal.
+	 * @return Le journal, null pour une partie sauvegardée avant l'ajout du journal.
+	 */
+	public GameLog getLog() {
+		return log;
+	}
+	
+	/**
+	 * Prend l'état courant de la partie, tel qu'affiché par les vues.
+	 * Doit être appelée par le thread qui fait avancer la partie ;
+	 * le résultat, immuable, peut ensuite être transmis à un autre thread.
+	 * @return L'état de la partie.
+	 */
+	public GameSnapshot snapshot() {
+		return new GameSnapshot(this);
 	}
 	
 	/**
@@ -121,6 +298,16 @@ public class Game extends Observable implements Serializable {
 	public boolean isEndTurnAfterShotAnimation() {
 		return endTurnAfterShotAnimation;
 	}
+	
+	/**
+	 * Indique si le tour doit se terminer seulement à la fin des animations de tir.
+	 * Sans interface graphique (parties entre ordinateurs, tests), il faut le mettre à faux
+	 * pour que les tours s'enchaînent sans attendre {@link #endTurn()}.
+	 * @param endTurnAfterShotAnimation Vrai si le tour se termine à la fin des animations.
+	 */
+	public void setEndTurnAfterShotAnimation(boolean endTurnAfterShotAnimation) {
+		this.endTurnAfterShotAnimation = endTurnAfterShotAnimation;
+	}
 
 	/**
 	 * Retourne l'époque à laquelle se déroule cette partie.
@@ -130,6 +317,14 @@ public class Game extends Observable implements Serializable {
 		return epoch;
 	}
 
+	/**
+	 * Retourne les règles de la partie.
+	 * @return Les règles de la partie.
+	 */
+	public GameRules getRules() {
+		return rules;
+	}
+
 	/**
 	 * Retourne l'identifiant du joueur dont c'est le tour de jouer.
 	 * @return L'identifiant du joueur dont c'est le tour de jouer.
@@ -165,10 +360,51 @@ public class Game extends Observable implements Serializable {
 	
 	/**
 	 * Indique si tous les tirs du tour ont été tirés.
+	 * Le tour se termine aussi lorsque tous les bateaux adverses sont détruits avant la fin d'une salve.
 	 * @return Vrai si tous les tirs du tour ont été tirés, faux sinon.
 	 */
 	public boolean areAllShotsDone() {
-		return countNumberOfShots == numberOfShotsPerTurn;
+		Sea targetSea = playerTurn == PlayerId.COMPUTER ? getPlayerSea() : getComputerSea();
+		return countNumberOfShots >= getNumberOfShotsThisTurn() || targetSea.areShipsAllDead();
+	}
+	
+	/**
+	 * Retourne le nombre de tirs du tour en cours :
+	 * le nombre de bateaux en vie du joueur dont c'est le tour en variante salve,
+	 * le nombre de tirs par tour des règles sinon.
+	 * @return Le nombre de tirs du tour.
+	 */
+	public int getNumberOfShotsThisTurn() {
+		return getNumberOfShotsPerTurn(playerTurn);
+	}
+	
+	/**
+	 * Retourne le nombre de tirs d'un tour du joueur passé en paramètre, dans l'état actuel de sa flotte.
+	 * @param shooter Le joueur tirant.
+	 * @return Le nombre de tirs du tour.
+	 */
+	private int getNumberOfShotsPerTurn(PlayerId shooter) {
+		if (rules == null || !rules.isSalvo()) {	// parties sauvegardées avant l'ajout des règles
+			return numberOfShotsPerTurn;
+		}
+		Sea shooterSea = shooter == PlayerId.COMPUTER ? getComputerSea() : getPlayerSea();
+		return rules.getNumberOfShotsPerTurn(shooterSea.getAliveShipCount());
+	}
+	
+	/**
+	 * Retourne le nombre de tirs déjà effectués dans le tour en cours.
+	 * @return Le nombre de tirs effectués.
+	 */
+	int getShotsDoneThisTurn() {
+		return countNumberOfShots;
+	}
+	
+	/**
+	 * Retourne le nombre de tirs restant à effectuer dans le tour en cours.
+	 * @return Le nombre de tirs restants.
+	 */
+	public int getRemainingShotsThisTurn() {
+		return Math.max(0, getNumberOfShotsThisTurn() - countNumberOfShots);
 	}
 	
 	/**
@@ -179,6 +415,35 @@ public class Game extends Observable implements Serializable {
 		return computerController;
 	}
 	
+	/**
+	 * Retourne la graine de la partie.
+	 * Les parties sauvegardées avant l'ajout des graines ont une graine nulle.
+	 * @return La graine de la partie.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Dérive un nouveau générateur aléatoire de celui de la partie,
+	 * pour un composant extérieur à la partie (par exemple le contrôleur du joueur lors d'un tournoi).
+	 * @return Le nouveau générateur.
+	 */
+	public GameRandom splitRandom() {
+		if (random == null) {	// partie sauvegardée avant l'ajout des graines
+			random = new GameRandom();
+		}
+		return random.split();
+	}
+	
+	/**
+	 * Démarre la partie avec un joueur tiré au sort à partir de la graine de la partie.
+	 * @see #start(PlayerId)
+	 */
+	public void start() {
+		start(splitRandom().nextBoolean() ? PlayerId.PLAYER : PlayerId.COMPUTER);
+	}
+	
 	/**
 	 * Démarre la partie.
 	 * Joue le tour de l'ordinateur en plaçant les bateaux 
@@ -187,43 +452,59 @@ public class Game extends Observable implements Serializable {
 	 * @param startingPlayer Le joueur qui commence.
 	 */
 	public void start(PlayerId startingPlayer) {
-		getPlayerSea().putNextShipToPlace();	// On place le premier bateau en phase de positionnement
-		getComputerSea().putNextShipToPlace();	// On place le premier bateau en phase de positionnement
-		switch(startingPlayer) {
-			case PLAYER:
+		getEventBus().beginBatch();
+		try {
+			if (log != null) {
+				log.appendStart(startingPlayer);
+			}
+			getPlayerSea().putNextShipToPlace();	// On place le premier bateau en phase de positionnement
+			getComputerSea().putNextShipToPlace();	// On place le premier bateau en phase de positionnement
+			switch(startingPlayer) {
+				case PLAYER:
+					break;
+				case COMPUTER:
+					playerTurn = PlayerId.COMPUTER;
+					playComputerTurn();
 				break;
-			case COMPUTER:
-				playerTurn = PlayerId.COMPUTER;
-				playComputerTurn();
-			break;
-			default:
-				throw new AssertionError("Joueur inconnu " + startingPlayer);
+				default:
+					throw new AssertionError("Joueur inconnu " + startingPlayer);
+			}
+			playerTurn = PlayerId.PLAYER;
+			getEventBus().post(new TurnChanged(playerTurn));
+		} finally {
+			getEventBus().endBatch();
 		}
-		playerTurn = PlayerId.PLAYER;
-		setChanged();
-		notifyObservers();
 	}
 	
 	/**
 	 * Reprend la partie.
 	 * Utile pour reprendre une sauvegarde.
+	 * Si la partie est terminée, l'événement {@link GameOver} est transmis afin que l'affichage la montre terminée.
 	 */
 	public void resume() {
-		updateGameState();
-		if (gameState == GameState.RUNNING) {
-			switch(playerTurn) {
-				case PLAYER:
+		getEventBus().beginBatch();
+		try {
+			GameState previousState = gameState;
+			updateGameState();
+			if (gameState != GameState.RUNNING && gameState == previousState) {
+				getEventBus().post(new GameOver(gameState));	// déjà terminée : updateGameState n'a rien transmis
+			}
+			if (gameState == GameState.RUNNING) {
+				switch(playerTurn) {
+					case PLAYER:
+						break;
+					case COMPUTER:
+						playComputerTurn();
 					break;
-				case COMPUTER:
-					playComputerTurn();
-				break;
-				default:
-					throw new AssertionError("Joueur inconnu " + playerTurn);
+					default:
+						throw new AssertionError("Joueur inconnu " + playerTurn);
+				}
+				playerTurn = PlayerId.PLAYER;
+				getEventBus().post(new TurnChanged(playerTurn));
 			}
-			playerTurn = PlayerId.PLAYER;
+		} finally {
+			getEventBus().endBatch();
 		}
-		setChanged();
-		notifyObservers();
 	}
 	
 	/**
@@ -232,20 +513,23 @@ public class Game extends Observable implements Serializable {
 	 * @param y Ordonnée de la case.
 	 */
 	public void receiveClickEventOnPlayerGrid(int x, int y) {
-		// Si la partie est terminée ou si c'est le tour de l'ordinateur,
-		if (gameState != GameState.RUNNING || playerTurn == PlayerId.COMPUTER) {
-			return;	// on ne fait rien
-		}
+		getEventBus().beginBatch();
+		try {
+			// Si la partie est terminée ou si c'est le tour de l'ordinateur,
+			if (gameState != GameState.RUNNING || playerTurn == PlayerId.COMPUTER) {
+				return;	// on ne fait rien
+			}
 		
-		// Si la phase de positionnement n'est pas terminée
-		if(!getPlayerSea().areShipsAllPlaced()) {
-			if (players.get(PlayerId.PLAYER).placeShip(new Position(x, y))	// on tente de placer un bateau
-					&& getPlayerSea().areShipsAllPlaced()) {				// et si ils sont tous placés,
-				endTurn();													// on finit le tour
+			// Si la phase de positionnement n'est pas terminée
+			if(!getPlayerSea().areShipsAllPlaced()) {
+				if (players.get(PlayerId.PLAYER).placeShip(Position.of(x, y))	// on tente de placer un bateau
+						&& getPlayerSea().areShipsAllPlaced()) {				// et si ils sont tous placés,
+					endTurn();													// on finit le tour
+				}
 			}
+		} finally {
+			getEventBus().endBatch();
 		}
-		setChanged();
-		notifyObservers();
 	}
 	
 	/**
@@ -254,24 +538,27 @@ public class Game extends Observable implements Serializable {
 	 * @param y Ordonnée de la case.
 	 */
 	public void receiveClickEventOnComputerGrid(int x, int y) {
-		// Si la partie est terminée ou si c'est le tour de l'ordinateur,
-		if (gameState != GameState.RUNNING || playerTurn == PlayerId.COMPUTER) {
-			return;	// on ne fait rien
-		}
+		getEventBus().beginBatch();
+		try {
+			// Si la partie est terminée ou si c'est le tour de l'ordinateur,
+			if (gameState != GameState.RUNNING || playerTurn == PlayerId.COMPUTER) {
+				return;	// on ne fait rien
+			}
 		
-		// Si la phase de positionnement est terminée
-		if(getPlayerSea().areShipsAllPlaced()) {
-			// si tous les tirs n'ont pas été effectué
-			if (!areAllShotsDone() && players.get(PlayerId.PLAYER).shoot(new Position(x, y))) {	// si le tir est validée
-				countNumberOfShots++;
-				// Si tous les tirs ont été effectué et la fin du tour ne se déclenche pas à la fin des animations
-				if (areAllShotsDone() && !endTurnAfterShotAnimation) {
-					endTurn();												// on termine le tour du joueur
+			// Si la phase de positionnement est terminée
+			if(getPlayerSea().areShipsAllPlaced()) {
+				// si tous les tirs n'ont pas été effectué
+				if (!areAllShotsDone() && players.get(PlayerId.PLAYER).shoot(Position.of(x, y))) {	// si le tir est validée
+					countNumberOfShots++;
+					// Si tous les tirs ont été effectué et la fin du tour ne se déclenche pas à la fin des animations
+					if (areAllShotsDone() && !endTurnAfterShotAnimation) {
+						endTurn();												// on termine le tour du joueur
+					}
 				}
 			}
+		} finally {
+			getEventBus().endBatch();
 		}
-		setChanged();
-		notifyObservers();
 	}
 	
 	/**
@@ -288,10 +575,9 @@ public class Game extends Observable implements Serializable {
 		// Si la phase de positionnement n'est pas terminée
 		if(!getPlayerSea().areShipsAllPlaced()) {
 			// On place le bateau en cours de positionnement
-			players.get(PlayerId.PLAYER).getSelfGrid().getShipOnPlacing().setPosition(new Position(x, y));
+			players.get(PlayerId.PLAYER).getSelfGrid().getShipOnPlacing().setPosition(Position.of(x, y));
+			getEventBus().post(new PlacementChanged(getPlayerSea()));
 		}
-		setChanged();
-		notifyObservers();
 	}
 	
 	/**
@@ -309,9 +595,8 @@ public class Game extends Observable implements Serializable {
 		if(!getPlayerSea().areShipsAllPlaced()) {
 			// On place le bateau en cours de positionnement
 			players.get(PlayerId.PLAYER).getSelfGrid().getShipOnPlacing().setPosition(null);
+			getEventBus().post(new PlacementChanged(getPlayerSea()));
 		}
-		setChanged();
-		notifyObservers();
 	}
 	
 	/**
@@ -326,28 +611,35 @@ public class Game extends Observable implements Serializable {
 		// Si la phase de positionnement n'est pas terminée
 		if(!getPlayerSea().areShipsAllPlaced()) {
 			players.get(PlayerId.PLAYER).rotateShip();	// on fait la rotation
+			getEventBus().post(new PlacementChanged(getPlayerSea()));
 		}
-		setChanged();
-		notifyObservers();
 	}
 	
 	/**
 	 * Termine le tour du joueur courant
 	 * et joue le tour de l'ordinateur si c'est à lui de jouer.
 	 * Vérifie l'état du jeu avant de continuer et de changer de tour.
+	 * Si c'est au joueur de jouer, l'ordinateur peut calculer ses prochains tirs pendant son tour
+	 * (voir {@link ComputerController#speculate(int)}).
 	 */
 	public void endTurn() {
-		updateGameState();
-		if (gameState != GameState.RUNNING) {	// Si la partie est terminée,
-			return;		// on ne fait rien
-		}
+		getEventBus().beginBatch();
+		try {
+			updateGameState();
+			if (gameState != GameState.RUNNING) {	// Si la partie est terminée,
+				return;		// on ne fait rien
+			}
 		
-		changeTurn();
-		if (playerTurn == PlayerId.COMPUTER) {	// Si c'est le tour de l'ordinateur,
-			playComputerTurn();					// on le fait jouer
+			changeTurn();
+			if (playerTurn == PlayerId.COMPUTER) {	// Si c'est le tour de l'ordinateur,
+				playComputerTurn();					// on le fait jouer
+			}
+			else {									// sinon il prépare son prochain tour pendant celui du joueur
+				computerController.speculate(getNumberOfShotsPerTurn(PlayerId.COMPUTER));
+			}
+		} finally {
+			getEventBus().endBatch();
 		}
-		setChanged();
-		notifyObservers();
 	}
 	
 	/**
@@ -365,10 +657,12 @@ public class Game extends Observable implements Serializable {
 			endTurn();
 		}
 		else {
-			while(!areAllShotsDone()) {	// tant que tous les tirs n'ont pas été effectués
-				computerController.playShoot();
-				countNumberOfShots++;
+			// Tous les tirs du tour sont choisis ensemble par la stratégie (une salve si plusieurs tirs)
+			int shots = getRemainingShotsThisTurn();
+			if (shots > 0) {
+				computerController.playShoots(shots);
 			}
+			countNumberOfShots += shots;
 			// Si tous les tirs ont été effectué et la fin du tour ne se déclenche pas à la fin des animations
 			if (!endTurnAfterShotAnimation) {
 				endTurn();												// on termine le tour du joueur
@@ -380,17 +674,27 @@ public class Game extends Observable implements Serializable {
 	 * Met à jour l'état du jeu.
 	 */
 	private void updateGameState() {
+		GameState previousState = gameState;
+		gameState = computeGameState();
+		if (gameState != GameState.RUNNING && gameState != previousState) {
+			getEventBus().post(new GameOver(gameState));
+		}
+	}
+	
+	/**
+	 * Calcule l'état du jeu d'après les flottes.
+	 * @return L'état du jeu.
+	 */
+	private GameState computeGameState() {
 		if (getPlayerSea().areShipsAllDead()) {
-			gameState = GameState.COMPUTER_WINS;
+			return GameState.COMPUTER_WINS;
 		}
 		else if (getComputerSea().areShipsAllDead()) {
-			gameState = GameState.PLAYER_WINS;
+			return GameState.PLAYER_WINS;
 		}
 		else {
-			gameState = GameState.RUNNING;
+			return GameState.RUNNING;
 		}
-		setChanged();
-		notifyObservers();
 	}
 	
 	/**
@@ -408,6 +712,86 @@ public class Game extends Observable implements Serializable {
 		default:
 			throw new AssertionError("Joueur inconnu " + playerTurn);
 		}
+		if (log != null) {
+			log.appendTurn(playerTurn);
+		}
+		getEventBus().post(new TurnChanged(playerTurn));
+	}
+	
+	/**
+	 * Installe l'état d'une partie rejouée depuis un instantané ({@link GameReplayer}).
+	 * La partie doit venir d'être créée à partir de l'en-tête du journal : ses stratégies restent celles du début de partie.
+	 * @param playerSea La grille du joueur, qui appartient ensuite à la partie.
+	 * @param computerSea La grille de l'ordinateur, qui appartient ensuite à la partie.
+	 * @param playerTurn Le joueur dont c'est le tour.
+	 * @param countNumberOfShots Le nombre de tirs déjà effectués ce tour.
+	 * @param gameState L'état de la partie.
+	 * @param log Le journal de la partie.
+	 */
+	void restoreReplay(Sea playerSea, Sea computerSea, PlayerId playerTurn, int countNumberOfShots,
+			GameState gameState, GameLog log) {
+		players.put(PlayerId.PLAYER, new Player(playerSea, computerSea));
+		players.put(PlayerId.COMPUTER, new Player(computerSea, playerSea));
+		computerController.setPlayer(players.get(PlayerId.COMPUTER));
+		if (eventBus != null) {
+			playerSea.setEventBus(eventBus);
+			computerSea.setEventBus(eventBus);
+		}
+		this.playerTurn = playerTurn;
+		this.countNumberOfShots = countNumberOfShots;
+		this.gameState = gameState;
+		this.log = log;
+		attachLog();
+	}
+	
+	/**
+	 * Rejoue un événement d'un journal, sans faire jouer l'ordinateur ni publier d'événement.
+	 * L'événement est ajouté au journal de la partie.
+	 * @param source Le journal rejoué.
+	 * @param index L'indice de l'événement.
+	 * @throws IllegalStateException Si l'événement ne peut avoir lieu dans l'état de la partie.
+	 */
+	void replayEvent(GameLog source, int index) {
+		switch (source.getType(index)) {
+			case START:
+				if (log != null) {
+					log.appendStart(source.getPlayer(index));
+				}
+				getPlayerSea().putNextShipToPlace();
+				getComputerSea().putNextShipToPlace();
+				playerTurn = source.getPlayer(index);
+				break;
+			case PLACEMENT:
+				Player owner = getPlayer(source.getPlayer(index));
+				Ship ship = owner.getSelfGrid().getShipOnPlacing();
+				if (ship == null) {
+					throw new IllegalStateException("Journal incohérent : aucun bateau à placer à l'événement " + index);
+				}
+				ship.setOrientation(source.getOrientation(index));
+				if (!owner.placeShip(source.getPosition(index))) {
+					throw new IllegalStateException("Journal incohérent : placement invalide à l'événement " + index);
+				}
+				break;
+			case SHOT:
+				PlayerId shooter = source.getPlayer(index) == PlayerId.PLAYER ? PlayerId.COMPUTER : PlayerId.PLAYER;
+				Position position = source.getPosition(index);
+				if (!getPlayer(shooter).shoot(position)
+						|| getPlayer(source.getPlayer(index)).getSelfGrid().isTileTouched(position) != source.isHit(index)) {
+					throw new IllegalStateException("Journal incohérent : tir invalide à l'événement " + index);
+				}
+				countNumberOfShots++;
+				gameState = computeGameState();
+				break;
+			case TURN:
+				countNumberOfShots = 0;
+				playerTurn = source.getPlayer(index);
+				if (log != null) {
+					log.appendTurn(playerTurn);
+				}
+				break;
+			default:
+				throw new AssertionError("Evénement inconnu " + source.getType(index));
+		}
 	}
 	
 }
@@ -0,0 +1,413 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.PlacementStrategy.PlacementStrategyName;
+import fr.univ_lorraine.battleship.model.Ship.Orientation;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+/**
+ * Journal des actions d'une partie, tenu par la partie elle-même ({@link Game#getLog()}) :
+ * démarrage, placements des bateaux, tirs avec leur résultat et changements de tour.
+ * Le journal ne fait que grandir ; avec l'en-tête (époque, règles, graine, stratégies),
+ * il suffit à reconstruire la partie ({@link GameReplayer}), bien plus vite et de façon bien plus compacte
+ * que la sérialisation de la partie.
+ *
+ * Chaque événement tient dans un long : position compacte ({@link Position#pack()}) sur les 32 bits de poids faible,
+ * puis le type, le joueur et un indicateur (tir au but, bateau vertical).
+ *
+ * Format binaire ({@link #write(DataOutputStream)}, gros-boutiste) :
+ * <pre>
+ * int    MAGIC, int VERSION
+ * UTF    nom de l'époque, UTF nom de la stratégie de tir, UTF nom de la stratégie de placement (vides si aucune)
+ * int    largeur, int hauteur, int tirs par tour, int variante salve (0 ou 1), int nombre de bateaux, int[] tailles des bateaux
+ * long   graine
+ * int    nombre d'événements, long[] événements
+ * </pre>
+ */
+public class GameLog implements Serializable {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Les types d'événements.
+	 */
+	public enum EventType {
+		/**
+		 * La partie démarre ; joueur : celui qui commence.
+		 */
+		START,
+		/**
+		 * Un bateau est placé ; joueur : le propriétaire de la grille, position : la proue du bateau.
+		 * Les bateaux sont placés dans l'ordre de la flotte.
+		 */
+		PLACEMENT,
+		/**
+		 * Un tir est reçu ; joueur : le propriétaire de la grille visée.
+		 */
+		SHOT,
+		/**
+		 * Le tour change ; joueur : celui dont c'est le tour.
+		 */
+		TURN
+	}
+
+	/**
+	 * Identifiant du format ("GLOG").
+	 */
+	private static final int MAGIC = 0x474c4f47;
+
+	/**
+	 * Version du format.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Décalage du type dans un événement.
+	 */
+	private static final int TYPE_SHIFT = 32;
+
+	/**
+	 * Bit du joueur dans un événement.
+	 */
+	private static final long PLAYER_BIT = 1L << 40;
+
+	/**
+	 * Bit de l'indicateur dans un événement : tir au but, ou bateau vertical.
+	 */
+	private static final long FLAG_BIT = 1L << 41;
+
+	/**
+	 * Les types, par valeur.
+	 */
+	private static final EventType[] TYPES = EventType.values();
+
+	/**
+	 * L'époque de la partie.
+	 * @serial
+	 */
+	private final EpochName epochName;
+
+	/**
+	 * Les règles de la partie.
+	 * @serial
+	 */
+	private final GameRules rules;
+
+	/**
+	 * La graine de la partie.
+	 * @serial
+	 */
+	private final long seed;
+
+	/**
+	 * La stratégie de tir de l'ordinateur au début de la partie, null si aucune.
+	 * @serial
+	 */
+	private final ShootingStrategyName shootingStrategyName;
+
+	/**
+	 * La stratégie de placement de l'ordinateur, null si aucune.
+	 * @serial
+	 */
+	private final PlacementStrategyName placementStrategyName;
+
+	/**
+	 * Les événements ; seuls les size premiers sont utilisés.
+	 * @serial
+	 */
+	private long[] events;
+
+	/**
+	 * Le nombre d'événements.
+	 * @serial
+	 */
+	private int size;
+
+	/**
+	 * Crée un journal vide.
+	 * @param epochName L'époque de la partie.
+	 * @param rules Les règles de la partie.
+	 * @param seed La graine de la partie.
+	 * @param shootingStrategyName La stratégie de tir de l'ordinateur, null si aucune.
+	 * @param placementStrategyName La stratégie de placement de l'ordinateur, null si aucune.
+	 */
+	public GameLog(EpochName epochName, GameRules rules, long seed,
+			ShootingStrategyName shootingStrategyName, PlacementStrategyName placementStrategyName) {
+		this(epochName, rules, seed, shootingStrategyName, placementStrategyName, new long[64], 0);
+	}
+
+	/**
+	 * Crée une copie d'un journal, qui évolue ensuite indépendamment.
+	 * @param other Le journal à copier.
+	 */
+	public GameLog(GameLog other) {
+		this(other, other.size);
+	}
+
+	/**
+	 * Crée une copie des premiers événements d'un journal, qui évolue ensuite indépendamment.
+	 * @param other Le journal à copier.
+	 * @param size Le nombre d'événements copiés.
+	 * @throws IllegalArgumentException Si le journal n'a pas autant d'événements.
+	 */
+	GameLog(GameLog other, int size) {
+		this(other.epochName, other.rules, other.seed, other.shootingStrategyName, other.placementStrategyName,
+				Arrays.copyOf(other.events, Math.max(size, 64)), size);
+		if (size < 0 || size > other.size) {
+			throw new IllegalArgumentException("Nombre d'événements invalide " + size);
+		}
+	}
+
+	private GameLog(EpochName epochName, GameRules rules, long seed, ShootingStrategyName shootingStrategyName,
+			PlacementStrategyName placementStrategyName, long[] events, int size) {
+		this.epochName = epochName;
+		this.rules = rules;
+		this.seed = seed;
+		this.shootingStrategyName = shootingStrategyName;
+		this.placementStrategyName = placementStrategyName;
+		this.events = events;
+		this.size = size;
+	}
+
+	/**
+	 * Retourne l'époque de la partie.
+	 * @return Le nom de l'époque.
+	 */
+	public EpochName getEpochName() {
+		return epochName;
+	}
+
+	/**
+	 * Retourne les règles de la partie.
+	 * @return Les règles.
+	 */
+	public GameRules getRules() {
+		return rules;
+	}
+
+	/**
+	 * Retourne la graine de la partie.
+	 * @return La graine.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Retourne la stratégie de tir de l'ordinateur au début de la partie.
+	 * Les changements de stratégie en cours de partie ne sont pas journalisés : les tirs suffisent à la rejouer.
+	 * @return Le nom de la stratégie, null si aucune.
+	 */
+	public ShootingStrategyName getShootingStrategyName() {
+		return shootingStrategyName;
+	}
+
+	/**
+	 * Retourne la stratégie de placement de l'ordinateur.
+	 * @return Le nom de la stratégie, null si aucune.
+	 */
+	public PlacementStrategyName getPlacementStrategyName() {
+		return placementStrategyName;
+	}
+
+	/**
+	 * Retourne le nombre d'événements.
+	 * @return Le nombre d'événements.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Retourne le type d'un événement.
+	 * @param index L'indice de l'événement.
+	 * @return Le type.
+	 */
+	public EventType getType(int index) {
+		return TYPES[(int) (event(index) >>> TYPE_SHIFT) & 0xFF];
+	}
+
+	/**
+	 * Retourne le joueur concerné par un événement (voir {@link EventType}).
+	 * @param index L'indice de l'événement.
+	 * @return Le joueur.
+	 */
+	public PlayerId getPlayer(int index) {
+		return (event(index) & PLAYER_BIT) != 0 ? PlayerId.COMPUTER : PlayerId.PLAYER;
+	}
+
+	/**
+	 * Retourne la position d'un placement ou d'un tir.
+	 * @param index L'indice de l'événement.
+	 * @return La position.
+	 */
+	public Position getPosition(int index) {
+		return Position.unpack((int) event(index));
+	}
+
+	/**
+	 * Indique si un tir a touché un bateau.
+	 * @param index L'indice de l'événement.
+	 * @return Vrai si le tir a touché un bateau.
+	 */
+	public boolean isHit(int index) {
+		return (event(index) & FLAG_BIT) != 0;
+	}
+
+	/**
+	 * Retourne l'orientation d'un bateau placé.
+	 * @param index L'indice de l'événement.
+	 * @return L'orientation.
+	 */
+	public Orientation getOrientation(int index) {
+		return (event(index) & FLAG_BIT) != 0 ? Orientation.VERTICAL : Orientation.HORIZONTAL;
+	}
+
+	/**
+	 * Retourne un événement sous forme compacte.
+	 * @param index L'indice de l'événement.
+	 * @return L'événement.
+	 * @throws IndexOutOfBoundsException Si l'indice n'est pas celui d'un événement.
+	 */
+	private long event(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Evénement inconnu " + index);
+		}
+		return events[index];
+	}
+
+	/**
+	 * Ajoute le démarrage de la partie.
+	 * @param startingPlayer Le joueur qui commence.
+	 */
+	void appendStart(PlayerId startingPlayer) {
+		append(EventType.START, startingPlayer, 0, false);
+	}
+
+	/**
+	 * Ajoute le placement d'un bateau.
+	 * @param owner Le propriétaire de la grille.
+	 * @param ship Le bateau placé.
+	 */
+	void appendPlacement(PlayerId owner, Ship ship) {
+		append(EventType.PLACEMENT, owner, ship.getPosition().pack(), ship.getOrientation() == Orientation.VERTICAL);
+	}
+
+	/**
+	 * Ajoute un tir reçu.
+	 * @param target Le propriétaire de la grille visée.
+	 * @param position La position du tir.
+	 * @param hit Vrai si le tir a touché un bateau.
+	 */
+	void appendShot(PlayerId target, Position position, boolean hit) {
+		append(EventType.SHOT, target, position.pack(), hit);
+	}
+
+	/**
+	 * Ajoute un changement de tour.
+	 * @param player Le joueur dont c'est le tour.
+	 */
+	void appendTurn(PlayerId player) {
+		append(EventType.TURN, player, 0, false);
+	}
+
+	/**
+	 * Ajoute un événement.
+	 * @param type Le type.
+	 * @param player Le joueur concerné.
+	 * @param position La position compacte.
+	 * @param flag L'indicateur.
+	 */
+	private void append(EventType type, PlayerId player, int position, boolean flag) {
+		if (size == events.length) {
+			events = Arrays.copyOf(events, size * 2);
+		}
+		events[size++] = (position & 0xFFFFFFFFL) | ((long) type.ordinal() << TYPE_SHIFT)
+				| (player == PlayerId.COMPUTER ? PLAYER_BIT : 0) | (flag ? FLAG_BIT : 0);
+	}
+
+	/**
+	 * Écrit le journal. Plusieurs journaux peuvent être écrits à la suite dans le même flux.
+	 * @param out Le flux.
+	 * @throws IOException Si l'écriture échoue.
+	 */
+	public void write(DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeUTF(epochName.name());
+		out.writeUTF(shootingStrategyName == null ? "" : shootingStrategyName.name());
+		out.writeUTF(placementStrategyName == null ? "" : placementStrategyName.name());
+		out.writeInt(rules.getGridWidth());
+		out.writeInt(rules.getGridHeight());
+		out.writeInt(rules.getNumberOfShotsPerTurn());
+		out.writeInt(rules.isSalvo() ? 1 : 0);
+		out.writeInt(rules.getNumberOfShips());
+		for (int shipSize : rules.getShipsSizes()) {
+			out.writeInt(shipSize);
+		}
+		out.writeLong(seed);
+		out.writeInt(size);
+		for (int i = 0 ; i < size ; i++) {
+			out.writeLong(events[i]);
+		}
+	}
+
+	/**
+	 * Lit un journal écrit par {@link #write(DataOutputStream)}.
+	 * @param in Le flux.
+	 * @return Le journal.
+	 * @throws IOException Si la lecture échoue ou si le flux n'est pas un journal.
+	 */
+	public static GameLog read(DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Pas un journal de partie");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Version de journal non supportée " + version);
+		}
+		try {
+			EpochName epochName = EpochName.valueOf(in.readUTF());
+			String shootingName = in.readUTF();
+			String placementName = in.readUTF();
+			int width = in.readInt();
+			int height = in.readInt();
+			int shotsPerTurn = in.readInt();
+			boolean salvo = in.readInt() != 0;
+			int[] shipsSizes = new int[in.readInt()];
+			for (int i = 0 ; i < shipsSizes.length ; i++) {
+				shipsSizes[i] = in.readInt();
+			}
+			long seed = in.readLong();
+			int size = in.readInt();
+			if (size < 0) {
+				throw new IOException("Journal invalide : " + size + " événements");
+			}
+			long[] events = new long[Math.max(size, 64)];
+			for (int i = 0 ; i < size ; i++) {
+				events[i] = in.readLong();
+				if (((events[i] >>> TYPE_SHIFT) & 0xFF) >= TYPES.length) {
+					throw new IOException("Evénement invalide " + i);
+				}
+			}
+			return new GameLog(epochName, new GameRules(width, height, shipsSizes, shotsPerTurn, salvo), seed,
+					shootingName.isEmpty() ? null : ShootingStrategyName.valueOf(shootingName),
+					placementName.isEmpty() ? null : PlacementStrategyName.valueOf(placementName),
+					events, size);
+		} catch (IllegalArgumentException e) {	// nom inconnu ou règles incohérentes
+			throw new IOException("Journal invalide", e);
+		}
+	}
+
+}
@@ -0,0 +1,149 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Générateur aléatoire d'une partie.
+ *
+ * Reprend l'algorithme SplitMix64 de {@link java.util.SplittableRandom}, qui n'est pas sérialisable :
+ * la partie crée un générateur à partir de sa graine, puis en dérive un générateur indépendant
+ * pour chacun de ses composants (contrôleur de l'ordinateur, stratégies, tâches parallèles)
+ * avec {@link #split()}. Une partie peut ainsi être rejouée à l'identique à partir de sa graine,
+ * et aucun générateur n'est partagé entre plusieurs threads.
+ *
+ * Hérite de {@link Random} afin d'être utilisable partout où un Random est attendu.
+ * Un générateur n'est pas thread-safe : chaque thread doit utiliser le sien.
+ */
+public final class GameRandom extends Random {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Incrément par défaut (partie fractionnaire du nombre d'or).
+	 */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * Graines des générateurs créés sans graine.
+	 */
+	private static final AtomicLong DEFAULT_SEEDS = new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+	/**
+	 * État du générateur.
+	 * @serial
+	 */
+	private long state;
+
+	/**
+	 * Incrément de l'état, impair.
+	 * @serial
+	 */
+	private long gamma;
+
+	/**
+	 * Crée un générateur à partir d'une graine.
+	 * Deux générateurs créés avec la même graine produisent la même suite.
+	 * @param seed La graine.
+	 */
+	public GameRandom(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Crée un générateur dont la graine est différente à chaque appel.
+	 */
+	public GameRandom() {
+		this(mix64(DEFAULT_SEEDS.getAndAdd(2 * GOLDEN_GAMMA)));
+	}
+
+	/**
+	 * Crée un générateur à partir de son état.
+	 * @param state L'état.
+	 * @param gamma L'incrément, impair.
+	 */
+	private GameRandom(long state, long gamma) {
+		super(0L);
+		this.state = state;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * Crée une copie d'un générateur, qui produira la même suite que lui.
+	 * @param other Le générateur à copier.
+	 */
+	GameRandom(GameRandom other) {
+		this(other.state, other.gamma);
+	}
+
+	/**
+	 * Crée un nouveau générateur, indépendant de celui-ci,
+	 * dont la suite est entièrement déterminée par l'état de celui-ci.
+	 * @return Le nouveau générateur.
+	 */
+	public GameRandom split() {
+		return new GameRandom(mix64(nextState()), mixGamma(nextState()));
+	}
+
+	/**
+	 * Réinitialise le générateur à partir d'une graine.
+	 * @param seed La graine.
+	 */
+	@Override
+	public void setSeed(long seed) {
+		this.state = seed;
+		this.gamma = GOLDEN_GAMMA;
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int) (mix64(nextState()) >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (mix64(nextState()) >>> 32);
+	}
+
+	@Override
+	public long nextLong() {
+		return mix64(nextState());
+	}
+
+	/**
+	 * Fait avancer l'état.
+	 * @return Le nouvel état.
+	 */
+	private long nextState() {
+		return state += gamma;
+	}
+
+	/**
+	 * Fonction de mélange de SplitMix64 (variante 13 de Stafford).
+	 * @param z La valeur à mélanger.
+	 * @return La valeur mélangée.
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Calcule un incrément impair ayant suffisamment de transitions de bits.
+	 * @param z La valeur à mélanger.
+	 * @return L'incrément.
+	 */
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+
+}
@@ -0,0 +1,186 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.univ_lorraine.battleship.model.Game.GameState;
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+
+/**
+ * Reconstruit une partie à partir de son journal ({@link GameLog}).
+ *
+ * Les événements sont appliqués directement aux grilles, sans faire jouer les stratégies de l'ordinateur
+ * ni publier d'événement : rejouer un journal ne coûte que la mise à jour des grilles.
+ * La partie reconstruite peut être reprise ({@link Game#resume()}) ; l'état interne des stratégies
+ * et des générateurs aléatoires n'étant pas journalisé, la suite peut différer de la partie d'origine.
+ *
+ * Le journal pouvant grandir pendant qu'on l'analyse, le rejoueur garde des instantanés de la partie
+ * tous les {@code snapshotInterval} événements : une reconstruction repart du dernier instantané atteint
+ * plutôt que du début. Un instantané ne garde que l'état rejoué (copies des grilles, qui partagent le placement
+ * des bateaux, tour, tirs du tour, état et longueur du journal) : les stratégies, qui ne sont pas rejouées,
+ * sont recréées à partir de l'en-tête du journal plutôt que copiées.
+ * Un rejoueur n'est pas thread-safe.
+ */
+public class GameReplayer {
+
+	/**
+	 * Le journal rejoué.
+	 */
+	private final GameLog log;
+
+	/**
+	 * Le nombre d'événements entre deux instantanés, 0 pour ne pas en garder.
+	 */
+	private final int snapshotInterval;
+
+	/**
+	 * Les instantanés : le i-ème est la partie après (i + 1) * snapshotInterval événements.
+	 */
+	private final List<Snapshot> snapshots = new ArrayList<Snapshot>();
+
+	/**
+	 * L'état rejoué d'une partie après un certain nombre d'événements.
+	 */
+	private static final class Snapshot {
+
+		/**
+		 * La grille du joueur.
+		 */
+		private final Sea playerSea;
+
+		/**
+		 * La grille de l'ordinateur.
+		 */
+		private final Sea computerSea;
+
+		/**
+		 * Le joueur dont c'est le tour.
+		 */
+		private final PlayerId playerTurn;
+
+		/**
+		 * Le nombre de tirs déjà effectués dans le tour.
+		 */
+		private final int shotsDoneThisTurn;
+
+		/**
+		 * L'état de la partie.
+		 */
+		private final GameState gameState;
+
+		/**
+		 * Le nombre d'événements rejoués.
+		 */
+		private final int eventCount;
+
+		/**
+		 * Prend l'état rejoué d'une partie.
+		 * @param game La partie.
+		 * @param eventCount Le nombre d'événements rejoués.
+		 */
+		private Snapshot(Game game, int eventCount) {
+			this.playerSea = game.getPlayer(PlayerId.PLAYER).getSelfGrid().fork();
+			this.computerSea = game.getPlayer(PlayerId.COMPUTER).getSelfGrid().fork();
+			this.playerTurn = game.getPlayerTurn();
+			this.shotsDoneThisTurn = game.getShotsDoneThisTurn();
+			this.gameState = game.getGameState();
+			this.eventCount = eventCount;
+		}
+
+		/**
+		 * Reconstruit la partie dans l'état de l'instantané.
+		 * @param log Le journal rejoué.
+		 * @return La partie, qui n'est pas partagée avec l'instantané.
+		 */
+		private Game restore(GameLog log) {
+			Game game = newGame(log);
+			game.restoreReplay(playerSea.fork(), computerSea.fork(), playerTurn, shotsDoneThisTurn, gameState,
+					new GameLog(log, eventCount));
+			return game;
+		}
+
+	}
+
+	/**
+	 * Crée un rejoueur ne gardant pas d'instantané.
+	 * @param log Le journal à rejouer.
+	 */
+	public GameReplayer(GameLog log) {
+		this(log, 0);
+	}
+
+	/**
+	 * Crée un rejoueur.
+	 * @param log Le journal à rejouer.
+	 * @param snapshotInterval Le nombre d'événements entre deux instantanés, 0 pour ne pas en garder.
+	 * @throws IllegalArgumentException Si l'intervalle est négatif.
+	 */
+	public GameReplayer(GameLog log, int snapshotInterval) {
+		if (snapshotInterval < 0) {
+			throw new IllegalArgumentException("Intervalle entre instantanés invalide " + snapshotInterval);
+		}
+		this.log = log;
+		this.snapshotInterval = snapshotInterval;
+	}
+
+	/**
+	 * Retourne le nombre d'instantanés gardés.
+	 * @return Le nombre d'instantanés.
+	 */
+	public int getSnapshotCount() {
+		return snapshots.size();
+	}
+
+	/**
+	 * Reconstruit la partie après tous les événements du journal.
+	 * @return La partie.
+	 * @throws IllegalStateException Si le journal est incohérent.
+	 */
+	public Game replay() {
+		return replay(log.size());
+	}
+
+	/**
+	 * Reconstruit la partie après les premiers événements du journal.
+	 * @param eventCount Le nombre d'événements à rejouer.
+	 * @return La partie, qui n'est partagée avec aucun instantané.
+	 * @throws IllegalArgumentException Si le journal n'a pas autant d'événements.
+	 * @throws IllegalStateException Si le journal est incohérent.
+	 */
+	public Game replay(int eventCount) {
+		if (eventCount < 0 || eventCount > log.size()) {
+			throw new IllegalArgumentException("Nombre d'événements invalide " + eventCount);
+		}
+		Game game;
+		int from;
+		int snapshot = snapshotInterval == 0 ? 0 : Math.min(eventCount / snapshotInterval, snapshots.size());
+		if (snapshot > 0) {
+			game = snapshots.get(snapshot - 1).restore(log);
+			from = snapshot * snapshotInterval;
+		} else {
+			game = newGame(log);
+			from = 0;
+		}
+		for (int i = from ; i < eventCount ; i++) {
+			game.replayEvent(log, i);
+			if (snapshotInterval != 0 && i + 1 == (snapshots.size() + 1) * snapshotInterval) {
+				snapshots.add(new Snapshot(game, i + 1));
+			}
+		}
+		return game;
+	}
+
+	/**
+	 * Crée la partie décrite par l'en-tête d'un journal, avant son démarrage.
+	 * @param log Le journal.
+	 * @return La partie.
+	 */
+	private static Game newGame(GameLog log) {
+		ShootingStrategy shootingStrategy = log.getShootingStrategyName() == null ? null
+				: log.getShootingStrategyName().createShootingStrategy();
+		PlacementStrategy placementStrategy = log.getPlacementStrategyName() == null ? null
+				: log.getPlacementStrategyName().createPlacementStrategy();
+		return new Game(log.getEpochName().createEpoch(), shootingStrategy, placementStrategy, log.getRules(), log.getSeed());
+	}
+
+}
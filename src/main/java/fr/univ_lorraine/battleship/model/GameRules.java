@@ -0,0 +1,212 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Règles d'une partie : dimensions de la grille, composition de la flotte
+ * et nombre de tirs par tour, fixe ou égal au nombre de bateaux en vie du tireur (variante salve).
+ * Les règles sont immuables et peuvent donc être partagées entre plusieurs parties.
+ */
+public class GameRules implements Serializable {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Largeur de la grille classique.
+	 */
+	public static final int DEFAULT_GRID_WIDTH = 10;
+
+	/**
+	 * Hauteur de la grille classique.
+	 */
+	public static final int DEFAULT_GRID_HEIGHT = 10;
+
+	/**
+	 * Tailles des bateaux de la flotte classique.
+	 */
+	private static final int[] DEFAULT_SHIPS_SIZES = { 5, 4, 3, 3, 2};
+
+	/**
+	 * Largeur de la grille.
+	 * @serial
+	 */
+	private final int gridWidth;
+
+	/**
+	 * Hauteur de la grille.
+	 * @serial
+	 */
+	private final int gridHeight;
+
+	/**
+	 * Tailles des bateaux de la flotte, dans l'ordre de placement.
+	 * @serial
+	 */
+	private final int[] shipsSizes;
+
+	/**
+	 * Le nombre de tirs par tour.
+	 * @serial
+	 */
+	private final int numberOfShotsPerTurn;
+
+	/**
+	 * Vrai pour la variante salve, où le nombre de tirs par tour est le nombre de bateaux en vie du tireur.
+	 * Faux pour les règles sauvegardées avant l'ajout de la variante.
+	 * @serial
+	 */
+	private final boolean salvo;
+
+	/**
+	 * Crée les règles de la bataille navale classique :
+	 * grille de 10x10, bateaux de tailles 5, 4, 3, 3 et 2 et un tir par tour.
+	 */
+	public GameRules() {
+		this(DEFAULT_GRID_WIDTH, DEFAULT_GRID_HEIGHT, DEFAULT_SHIPS_SIZES, 1);
+	}
+
+	/**
+	 * Crée des règles personnalisées.
+	 * @param gridWidth La largeur de la grille.
+	 * @param gridHeight La hauteur de la grille.
+	 * @param shipsSizes Les tailles des bateaux de la flotte, dans l'ordre de placement.
+	 * @param numberOfShotsPerTurn Le nombre de tirs par tour.
+	 * @throws IllegalArgumentException Si les règles sont incohérentes
+	 * (dimension ou taille de bateau nulle, bateau plus grand que la grille, flotte trop grande, etc.).
+	 */
+	public GameRules(int gridWidth, int gridHeight, int[] shipsSizes, int numberOfShotsPerTurn) {
+		this(gridWidth, gridHeight, shipsSizes, numberOfShotsPerTurn, false);
+	}
+
+	/**
+	 * Crée des règles personnalisées, éventuellement en variante salve.
+	 * @param gridWidth La largeur de la grille.
+	 * @param gridHeight La hauteur de la grille.
+	 * @param shipsSizes Les tailles des bateaux de la flotte, dans l'ordre de placement.
+	 * @param numberOfShotsPerTurn Le nombre de tirs par tour, ignoré en variante salve.
+	 * @param salvo Vrai pour la variante salve : autant de tirs par tour que de bateaux en vie du tireur.
+	 * @throws IllegalArgumentException Si les règles sont incohérentes
+	 * (dimension ou taille de bateau nulle, bateau plus grand que la grille, flotte trop grande, etc.).
+	 */
+	public GameRules(int gridWidth, int gridHeight, int[] shipsSizes, int numberOfShotsPerTurn, boolean salvo) {
+		if (gridWidth <= 0 || gridHeight <= 0) {
+			throw new IllegalArgumentException("Dimensions de grille invalides " + gridWidth + "x" + gridHeight);
+		}
+		if (gridWidth > Short.MAX_VALUE || gridHeight > Short.MAX_VALUE
+				|| (long) gridWidth * gridHeight > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Grille trop grande " + gridWidth + "x" + gridHeight);
+		}
+		if (numberOfShotsPerTurn <= 0) {
+			throw new IllegalArgumentException("Nombre de tirs par tour invalide " + numberOfShotsPerTurn);
+		}
+		long fleetArea = 0;
+		for (int size : shipsSizes) {
+			if (size <= 0 || size > Math.max(gridWidth, gridHeight)) {
+				throw new IllegalArgumentException("Taille de bateau invalide " + size);
+			}
+			fleetArea += size;
+		}
+		if (fleetArea > (long) gridWidth * gridHeight) {
+			throw new IllegalArgumentException("La flotte ne tient pas sur la grille");
+		}
+
+		this.gridWidth = gridWidth;
+		this.gridHeight = gridHeight;
+		this.shipsSizes = shipsSizes.clone();
+		this.numberOfShotsPerTurn = numberOfShotsPerTurn;
+		this.salvo = salvo;
+	}
+
+	/**
+	 * Crée les règles de la variante salve de la bataille navale classique :
+	 * grille de 10x10, bateaux de tailles 5, 4, 3, 3 et 2,
+	 * et autant de tirs par tour que de bateaux en vie du tireur.
+	 * @return Les règles.
+	 */
+	public static GameRules salvo() {
+		return new GameRules(DEFAULT_GRID_WIDTH, DEFAULT_GRID_HEIGHT, DEFAULT_SHIPS_SIZES, 1, true);
+	}
+
+	/**
+	 * Retourne la largeur de la grille.
+	 * @return La largeur de la grille.
+	 */
+	public int getGridWidth() {
+		return gridWidth;
+	}
+
+	/**
+	 * Retourne la hauteur de la grille.
+	 * @return La hauteur de la grille.
+	 */
+	public int getGridHeight() {
+		return gridHeight;
+	}
+
+	/**
+	 * Retourne les tailles des bateaux de la flotte, dans l'ordre de placement.
+	 * @return Une copie du tableau des tailles des bateaux.
+	 */
+	public int[] getShipsSizes() {
+		return shipsSizes.clone();
+	}
+
+	/**
+	 * Retourne le nombre de bateaux de la flotte.
+	 * @return Le nombre de bateaux.
+	 */
+	public int getNumberOfShips() {
+		return shipsSizes.length;
+	}
+
+	/**
+	 * Retourne le nombre de tirs par tour hors variante salve.
+	 * @return Le nombre de tirs par tour.
+	 */
+	public int getNumberOfShotsPerTurn() {
+		return numberOfShotsPerTurn;
+	}
+
+	/**
+	 * Indique si les règles sont celles de la variante salve.
+	 * @return Vrai en variante salve.
+	 */
+	public boolean isSalvo() {
+		return salvo;
+	}
+
+	/**
+	 * Retourne le nombre de tirs d'un tour.
+	 * @param aliveShipCount Le nombre de bateaux en vie du tireur.
+	 * @return Le nombre de bateaux en vie en variante salve, le nombre de tirs par tour sinon.
+	 */
+	public int getNumberOfShotsPerTurn(int aliveShipCount) {
+		return salvo ? aliveShipCount : numberOfShotsPerTurn;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GameRules)) {
+			return false;
+		}
+		GameRules other = (GameRules) obj;
+		return gridWidth == other.gridWidth && gridHeight == other.gridHeight
+				&& numberOfShotsPerTurn == other.numberOfShotsPerTurn && salvo == other.salvo
+				&& Arrays.equals(shipsSizes, other.shipsSizes);
+	}
+
+	@Override
+	public int hashCode() {
+		return (((gridWidth * 31 + gridHeight) * 31 + numberOfShotsPerTurn) * 31 + Arrays.hashCode(shipsSizes)) * 2
+				+ (salvo ? 1 : 0);
+	}
+
+}
@@ -0,0 +1,147 @@
+package fr.univ_lorraine.battleship.model;
+
+import fr.univ_lorraine.battleship.model.Game.GameState;
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+/**
+ * Etat d'une partie à un instant donné, tel qu'affiché par les vues.
+ * Immuable : pris par le thread qui fait avancer la partie,
+ * il peut être lu par un autre thread (celui de l'affichage) pendant que la partie continue.
+ * Il ne contient que des valeurs, aucune référence vers le modèle.
+ */
+public final class GameSnapshot {
+
+	/**
+	 * Le joueur dont c'est le tour, null avant le début de la partie.
+	 */
+	private final PlayerId playerTurn;
+
+	/**
+	 * L'état de la partie.
+	 */
+	private final GameState gameState;
+
+	/**
+	 * Vrai si les bateaux des deux joueurs sont placés.
+	 */
+	private final boolean positionningPhaseOver;
+
+	/**
+	 * Vrai si tous les tirs du tour ont été tirés.
+	 */
+	private final boolean allShotsDone;
+
+	/**
+	 * Vrai si tous les bateaux de chaque joueur sont placés, indicé par {@link PlayerId#ordinal()}.
+	 */
+	private final boolean[] shipsAllPlaced;
+
+	/**
+	 * L'état du bateau en cours de positionnement de chaque joueur, indicé par {@link PlayerId#ordinal()}.
+	 */
+	private final ShipSnapshot[] shipsOnPlacing;
+
+	/**
+	 * Vrai si le bateau en cours de positionnement de chaque joueur est à un emplacement valide,
+	 * indicé par {@link PlayerId#ordinal()}.
+	 */
+	private final boolean[] shipsOnPlacingValid;
+
+	/**
+	 * Le nom de la stratégie de tir de l'ordinateur, null s'il n'en a pas.
+	 */
+	private final ShootingStrategyName computerShootingStrategy;
+
+	/**
+	 * Prend l'état d'une partie.
+	 * @param game La partie.
+	 */
+	GameSnapshot(Game game) {
+		playerTurn = game.getPlayerTurn();
+		gameState = game.getGameState();
+		positionningPhaseOver = game.isPositionningPhaseOver();
+		allShotsDone = game.areAllShotsDone();
+		PlayerId[] ids = PlayerId.values();
+		shipsAllPlaced = new boolean[ids.length];
+		shipsOnPlacing = new ShipSnapshot[ids.length];
+		shipsOnPlacingValid = new boolean[ids.length];
+		for (PlayerId id : ids) {
+			Sea sea = game.getPlayer(id).getSelfGrid();
+			shipsAllPlaced[id.ordinal()] = sea.areShipsAllPlaced();
+			shipsOnPlacing[id.ordinal()] = sea.getShipOnPlacingSnapshot();
+			shipsOnPlacingValid[id.ordinal()] = sea.isShipOnPlacingInValidPosition();
+		}
+		ComputerController controller = game.getComputerController();
+		computerShootingStrategy = controller == null || controller.getShootingStrategy() == null ?
+				null : controller.getShootingStrategy().getShootingStrategyName();
+	}
+
+	/**
+	 * Retourne le joueur dont c'est le tour.
+	 * @return Le joueur, null avant le début de la partie.
+	 */
+	public PlayerId getPlayerTurn() {
+		return playerTurn;
+	}
+
+	/**
+	 * Retourne l'état de la partie.
+	 * @return L'état de la partie.
+	 */
+	public GameState getGameState() {
+		return gameState;
+	}
+
+	/**
+	 * Indique si la phase de positionnement est terminée.
+	 * @return Vrai si les bateaux des deux joueurs sont placés.
+	 */
+	public boolean isPositionningPhaseOver() {
+		return positionningPhaseOver;
+	}
+
+	/**
+	 * Indique si tous les tirs du tour ont été tirés.
+	 * @return Vrai si tous les tirs du tour ont été tirés.
+	 */
+	public boolean areAllShotsDone() {
+		return allShotsDone;
+	}
+
+	/**
+	 * Indique si tous les bateaux d'un joueur sont placés.
+	 * @param player Le joueur.
+	 * @return Vrai si tous ses bateaux sont placés.
+	 */
+	public boolean areShipsAllPlaced(PlayerId player) {
+		return shipsAllPlaced[player.ordinal()];
+	}
+
+	/**
+	 * Retourne l'état du bateau en cours de positionnement d'un joueur.
+	 * @param player Le joueur.
+	 * @return L'état du bateau, null s'il n'y en a pas.
+	 */
+	public ShipSnapshot getShipOnPlacing(PlayerId player) {
+		return shipsOnPlacing[player.ordinal()];
+	}
+
+	/**
+	 * Indique si le bateau en cours de positionnement d'un joueur est à un emplacement valide.
+	 * @param player Le joueur.
+	 * @return Vrai si l'emplacement est valide, faux sinon ou s'il n'y a pas de bateau en cours de positionnement.
+	 */
+	public boolean isShipOnPlacingValid(PlayerId player) {
+		return shipsOnPlacingValid[player.ordinal()];
+	}
+
+	/**
+	 * Retourne le nom de la stratégie de tir de l'ordinateur.
+	 * @return Le nom de la stratégie, null si l'ordinateur n'en a pas.
+	 */
+	public ShootingStrategyName getComputerShootingStrategy() {
+		return computerShootingStrategy;
+	}
+
+}
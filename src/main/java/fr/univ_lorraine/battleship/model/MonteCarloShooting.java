@@ -0,0 +1,451 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
+
+/**
+ * Stratégie de tir par échantillonnage (méthode de Monte-Carlo).
+ * On tire au hasard des dispositions des bateaux encore en vie compatibles avec les tirs déjà effectués :
+ * aucun bateau sur une case manquée ou sur un bateau coulé, et toutes les cases touchées des bateaux
+ * non coulés recouvertes. On tire ensuite sur la case libre la plus souvent occupée.
+ *
+ * L'échantillonnage est réparti sur tous les cœurs (pool fork/join commun) et limité par un budget de temps :
+ * une fois le budget écoulé, on renvoie la meilleure case trouvée avec les échantillons obtenus.
+ * Chaque tâche a son propre générateur aléatoire, dérivé de celui de la stratégie ; le nombre d'échantillons
+ * dépendant du temps, les tirs ne sont toutefois pas reproductibles à partir de la graine de la partie.
+ */
+public class MonteCarloShooting implements ShootingStrategy {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Budget de temps par défaut d'un tir, en millisecondes.
+	 */
+	public static final long DEFAULT_TIME_BUDGET_MILLIS = 20;
+
+	/**
+	 * Nombre maximal d'essais pour placer un bateau dans un échantillon.
+	 */
+	private static final int MAX_PLACEMENT_ATTEMPTS = 100;
+
+	/**
+	 * Générateur aléatoire pour les tirs de secours, dont dérivent ceux des tâches d'échantillonnage.
+	 * Fourni par la partie, voir {@link GameRandom}.
+	 * @serial
+	 */
+	private GameRandom random = new GameRandom();
+
+	/**
+	 * Budget de temps d'un tir, en millisecondes.
+	 * @serial
+	 */
+	private final long timeBudgetMillis;
+
+	/**
+	 * Crée la stratégie avec le budget de temps par défaut.
+	 */
+	public MonteCarloShooting() {
+		this(DEFAULT_TIME_BUDGET_MILLIS);
+	}
+
+	/**
+	 * Crée la stratégie avec un budget de temps.
+	 * @param timeBudgetMillis Le budget de temps d'un tir, en millisecondes.
+	 * @throws IllegalArgumentException Si le budget est négatif.
+	 */
+	public MonteCarloShooting(long timeBudgetMillis) {
+		if (timeBudgetMillis < 0) {
+			throw new IllegalArgumentException("Budget de temps invalide " + timeBudgetMillis);
+		}
+		this.timeBudgetMillis = timeBudgetMillis;
+	}
+
+	/**
+	 * Retourne le budget de temps d'un tir.
+	 * @return Le budget de temps, en millisecondes.
+	 */
+	public long getTimeBudgetMillis() {
+		return timeBudgetMillis;
+	}
+
+	@Override
+	public ShootingStrategyName getShootingStrategyName() {
+		return ShootingStrategyName.MONTE_CARLO;
+	}
+
+	@Override
+	public void setRandom(GameRandom random) {
+		this.random = random;
+	}
+
+	@Override
+	public ShootingStrategy copy() {
+		MonteCarloShooting copy = new MonteCarloShooting(timeBudgetMillis);
+		copy.random = new GameRandom(random);
+		return copy;
+	}
+
+	@Override
+	public Position playShoot(Sea sea) {
+		Observation observation = new Observation(sea);
+		AtomicIntegerArray occupancy = new AtomicIntegerArray(observation.tiles.length);
+		int samples = sample(observation, occupancy);
+
+		// Case la plus souvent occupée, tirée au sort parmi les ex aequo (échantillonnage par réservoir)
+		int best = -1, bestCount = 0, ties = 0;
+		for (int i = 0 ; i < observation.tiles.length ; i++) {
+			if (observation.tiles[i] != Observation.FREE) {
+				continue;
+			}
+			int count = occupancy.get(i);
+			if (count > bestCount) {
+				best = i;
+				bestCount = count;
+				ties = 1;
+			} else if (count == bestCount && count > 0 && random.nextInt(++ties) == 0) {
+				best = i;
+			}
+		}
+		if (samples == 0 || best == -1) {
+			return playFallbackShoot(sea);
+		}
+		return Position.of(best / observation.height, best % observation.height);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Un seul échantillonnage, dans le budget de temps d'un tir, sert à toute la salve :
+	 * on tire sur les cases libres les plus souvent occupées par les échantillons.
+	 */
+	@Override
+	public List<Position> playShoots(Sea sea, int n) {
+		n = SalvoPlanner.countShots(sea, n);
+		Observation observation = new Observation(sea);
+		AtomicIntegerArray occupancy = new AtomicIntegerArray(observation.tiles.length);
+		if (n <= 1 || sample(observation, occupancy) == 0) {
+			return SalvoPlanner.planSequentially(this, sea, n);
+		}
+		int[] scores = new int[observation.tiles.length];
+		for (int i = 0 ; i < scores.length ; i++) {
+			scores[i] = observation.tiles[i] == Observation.FREE ? occupancy.get(i) : -1;
+		}
+		List<Position> shots = SalvoPlanner.bestTiles(scores, observation.height, n, random);
+		if (shots.size() < n) {		// cases libres incompatibles avec les bateaux restants
+			Sea planning = sea.fork();
+			for (Position shot : shots) {
+				planning.markPlannedShot(shot);
+			}
+			shots.addAll(SalvoPlanner.planSequentially(this, planning, n - shots.size()));
+		}
+		return shots;
+	}
+
+	/**
+	 * Échantillonne des placements de la flotte compatibles avec l'observation, en parallèle et dans le budget de temps.
+	 * @param observation L'observation de la grille.
+	 * @param occupancy Le nombre d'échantillons occupant chaque case, complété par l'échantillonnage.
+	 * @return Le nombre d'échantillons obtenus.
+	 */
+	private int sample(Observation observation, AtomicIntegerArray occupancy) {
+		long deadline = System.nanoTime() + timeBudgetMillis * 1000000L;
+		List<ForkJoinTask<Integer>> tasks = new ArrayList<ForkJoinTask<Integer>>();
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		for (int i = 0 ; i < pool.getParallelism() ; i++) {
+			tasks.add(pool.submit(new SamplingTask(observation, occupancy, deadline, random.split())));
+		}
+		int samples = 0;
+		for (ForkJoinTask<Integer> task : tasks) {
+			samples += task.join();
+		}
+		return samples;
+	}
+
+	/**
+	 * Tir de secours lorsqu'aucun échantillon n'a pu être obtenu dans le budget :
+	 * à côté d'une case touchée s'il y en a, au hasard sinon.
+	 * @param sea La grille du joueur adverse.
+	 * @return La position de tir.
+	 */
+	private Position playFallbackShoot(Sea sea) {
+		for (Position harmed : sea.harmedShipPositions()) {
+			List<Position> shootable = sea.getShootablePositions(harmed);
+			if (!shootable.isEmpty()) {
+				return shootable.get(random.nextInt(shootable.size()));
+			}
+		}
+		return sea.nthTileWithState(SeaTileState.NORMAL, random.nextInt(sea.countTiles(SeaTileState.NORMAL)));
+	}
+
+	/**
+	 * Ce que l'on sait de la grille adverse au moment du tir.
+	 * Immuable, partagé par les tâches d'échantillonnage.
+	 */
+	private static final class Observation {
+
+		/**
+		 * Case sur laquelle un bateau peut se trouver et qui n'a pas reçu de tir.
+		 */
+		static final byte FREE = 0;
+
+		/**
+		 * Case sur laquelle aucun bateau en vie ne peut se trouver (tir manqué ou bateau coulé).
+		 */
+		static final byte BLOCKED = 1;
+
+		/**
+		 * Case touchée d'un bateau non coulé.
+		 */
+		static final byte HARMED = 2;
+
+		/**
+		 * Largeur de la grille.
+		 */
+		final int width;
+
+		/**
+		 * Hauteur de la grille.
+		 */
+		final int height;
+
+		/**
+		 * État de chaque case (indice x * hauteur + y).
+		 */
+		final byte[] tiles;
+
+		/**
+		 * Indices des cases touchées des bateaux non coulés.
+		 */
+		final int[] harmed;
+
+		/**
+		 * Tailles des bateaux en vie, par ordre décroissant.
+		 */
+		final int[] aliveSizes;
+
+		/**
+		 * Relève l'état de la grille.
+		 * @param sea La grille du joueur adverse.
+		 */
+		Observation(Sea sea) {
+			width = sea.getGridWidth();
+			height = sea.getGridHeight();
+			tiles = new byte[width * height];
+			for (int w = 0 ; w < sea.tileWordCount() ; w++) {
+				long word = sea.tileStateWord(SeaTileState.SHOT, w) | sea.tileStateWord(SeaTileState.TOUCHED, w);
+				while (word != 0) {
+					tiles[(w << 6) + Long.numberOfTrailingZeros(word)] = BLOCKED;
+					word &= word - 1;
+				}
+			}
+			List<Position> harmedPositions = sea.harmedShipPositions();
+			harmed = new int[harmedPositions.size()];
+			for (int i = 0 ; i < harmed.length ; i++) {
+				harmed[i] = harmedPositions.get(i).getX() * height + harmedPositions.get(i).getY();
+				tiles[harmed[i]] = HARMED;
+			}
+			List<Integer> sizes = new ArrayList<Integer>();
+			for (Ship ship : sea.getShips()) {
+				if (ship.isDead()) {
+					for (Position p : ship.getSeaTilesOccupied()) {
+						tiles[p.getX() * height + p.getY()] = BLOCKED;
+					}
+				} else {
+					sizes.add(ship.getSize());
+				}
+			}
+			aliveSizes = new int[sizes.size()];
+			for (int i = 0 ; i < aliveSizes.length ; i++) {
+				aliveSizes[i] = sizes.get(i);
+			}
+			Arrays.sort(aliveSizes);	// puis on inverse l'ordre
+			for (int i = 0 ; i < aliveSizes.length / 2 ; i++) {
+				int tmp = aliveSizes[i];
+				aliveSizes[i] = aliveSizes[aliveSizes.length - 1 - i];
+				aliveSizes[aliveSizes.length - 1 - i] = tmp;
+			}
+		}
+
+	}
+
+	/**
+	 * Tâche d'échantillonnage : tire des dispositions jusqu'à l'échéance
+	 * et ajoute les cases libres occupées par les bateaux au compteur partagé.
+	 */
+	private static final class SamplingTask extends RecursiveTask<Integer> {
+
+		/**
+		 * Id pour la serialization.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * L'état de la grille.
+		 */
+		private final Observation observation;
+
+		/**
+		 * Nombre d'échantillons occupant chaque case.
+		 */
+		private final AtomicIntegerArray occupancy;
+
+		/**
+		 * Échéance, en temps de {@link System#nanoTime()}.
+		 */
+		private final long deadline;
+
+		/**
+		 * Générateur aléatoire propre à la tâche.
+		 */
+		private final GameRandom random;
+
+		/**
+		 * Crée la tâche.
+		 * @param observation L'état de la grille.
+		 * @param occupancy Le compteur partagé.
+		 * @param deadline L'échéance.
+		 * @param random Le générateur aléatoire propre à la tâche.
+		 */
+		SamplingTask(Observation observation, AtomicIntegerArray occupancy, long deadline, GameRandom random) {
+			this.observation = observation;
+			this.occupancy = occupancy;
+			this.deadline = deadline;
+			this.random = random;
+		}
+
+		@Override
+		protected Integer compute() {
+			int[] owner = new int[observation.tiles.length];	// numéro de l'échantillon occupant la case
+			int[] placed = new int[observation.aliveSizes.length * 3];	// (début, pas, taille) de chaque bateau
+			int samples = 0, attempts = 0;
+			while (System.nanoTime() < deadline) {
+				attempts++;
+				if (sample(random, owner, attempts, placed)) {
+					samples++;
+					for (int i = 0 ; i < placed.length ; i += 3) {
+						for (int j = 0 ; j < placed[i + 2] ; j++) {
+							int index = placed[i] + j * placed[i + 1];
+							if (observation.tiles[index] == Observation.FREE) {
+								occupancy.incrementAndGet(index);
+							}
+						}
+					}
+				}
+			}
+			return samples;
+		}
+
+		/**
+		 * Tire une disposition des bateaux en vie.
+		 * Les cases touchées sont d'abord recouvertes, chacune par un bateau restant pris au hasard,
+		 * puis les autres bateaux sont placés au hasard, du plus grand au plus petit.
+		 * @param rand Le générateur aléatoire.
+		 * @param owner Le numéro de l'échantillon occupant chaque case.
+		 * @param mark Le numéro de cet échantillon.
+		 * @param placed Les placements tirés.
+		 * @return Vrai si la disposition est compatible avec la grille.
+		 */
+		private boolean sample(Random rand, int[] owner, int mark, int[] placed) {
+			int[] sizes = observation.aliveSizes;
+			boolean[] used = new boolean[sizes.length];
+			int count = 0;
+
+			// Recouvrement des cases touchées
+			for (int h : observation.harmed) {
+				if (owner[h] == mark) {
+					continue;
+				}
+				int remaining = sizes.length - count;
+				if (remaining == 0) {
+					return false;
+				}
+				int pick = rand.nextInt(remaining);
+				int ship = -1;
+				while (pick >= 0) {
+					if (!used[++ship]) {
+						pick--;
+					}
+				}
+				int size = sizes[ship];
+				boolean horizontal = rand.nextBoolean();
+				int offset = rand.nextInt(size);
+				int hx = h / observation.height, hy = h % observation.height;
+				if (!tryPlace(horizontal ? hx - offset : hx, horizontal ? hy : hy - offset, horizontal, size, owner, mark, placed, count)) {
+					return false;
+				}
+				used[ship] = true;
+				count++;
+			}
+
+			// Placement des autres bateaux
+			for (int ship = 0 ; ship < sizes.length ; ship++) {
+				if (used[ship]) {
+					continue;
+				}
+				boolean ok = false;
+				for (int attempt = 0 ; attempt < MAX_PLACEMENT_ATTEMPTS && !ok ; attempt++) {
+					boolean horizontal = rand.nextBoolean();
+					int xCount = horizontal ? observation.width - sizes[ship] + 1 : observation.width;
+					int yCount = horizontal ? observation.height : observation.height - sizes[ship] + 1;
+					if (xCount <= 0 || yCount <= 0) {	// le bateau ne tient pas dans ce sens
+						continue;
+					}
+					ok = tryPlace(rand.nextInt(xCount), rand.nextInt(yCount), horizontal, sizes[ship], owner, mark, placed, count);
+				}
+				if (!ok) {
+					return false;
+				}
+				count++;
+			}
+			return true;
+		}
+
+		/**
+		 * Place un bateau dans l'échantillon si toutes ses cases sont dans la grille,
+		 * ne sont pas bloquées et ne sont pas déjà occupées dans l'échantillon.
+		 * @param x L'abscisse de la première case.
+		 * @param y L'ordonnée de la première case.
+		 * @param horizontal Vrai si le bateau est horizontal.
+		 * @param size La taille du bateau.
+		 * @param owner Le numéro de l'échantillon occupant chaque case.
+		 * @param mark Le numéro de cet échantillon.
+		 * @param placed Les placements tirés.
+		 * @param count Le nombre de bateaux déjà placés.
+		 * @return Vrai si le bateau a été placé.
+		 */
+		private boolean tryPlace(int x, int y, boolean horizontal, int size, int[] owner, int mark, int[] placed, int count) {
+			int lastX = horizontal ? x + size - 1 : x, lastY = horizontal ? y : y + size - 1;
+			if (x < 0 || y < 0 || lastX >= observation.width || lastY >= observation.height) {
+				return false;
+			}
+			int start = x * observation.height + y;
+			int step = horizontal ? observation.height : 1;
+			for (int i = 0 ; i < size ; i++) {
+				int index = start + i * step;
+				if (observation.tiles[index] == Observation.BLOCKED || owner[index] == mark) {
+					return false;
+				}
+			}
+			for (int i = 0 ; i < size ; i++) {
+				owner[start + i * step] = mark;
+			}
+			placed[count * 3] = start;
+			placed[count * 3 + 1] = step;
+			placed[count * 3 + 2] = size;
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,291 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import fr.univ_lorraine.battleship.Utils;
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+/**
+ * Livre d'ouvertures : tirs précalculés d'une stratégie pour les premiers coups d'une partie,
+ * indexés par le hash de Zobrist de la grille visée (voir {@link Sea#getZobristHash()}).
+ * Un livre est propre à une stratégie, une époque et des règles.
+ *
+ * Le fichier est projeté en mémoire ({@link FileChannel#map}) à l'ouverture :
+ * il n'est pas lu en entier, et les pages sont partagées entre les processus qui l'utilisent.
+ * Format (gros-boutiste) :
+ * <pre>
+ * int    MAGIC, int VERSION
+ * short  longueur, octets : nom de la stratégie (ASCII)
+ * short  longueur, octets : nom de l'époque (ASCII)
+ * int    largeur, int hauteur, int tirs par tour, int variante salve (0 ou 1), int nombre de bateaux, int[] tailles des bateaux
+ * int    profondeur (nombre de tirs couverts)
+ * int    nombre d'entrées
+ * (long hash, int position compacte, voir {@link Position#pack()}) * nombre d'entrées, triées par hash croissant
+ * </pre>
+ * Un livre ouvert est immuable et peut être consulté par plusieurs threads.
+ */
+public final class OpeningBook {
+
+	/**
+	 * Identifiant du format ("OPBK").
+	 */
+	private static final int MAGIC = 0x4f50424b;
+
+	/**
+	 * Version du format.
+	 */
+	private static final int VERSION = 2;
+
+	/**
+	 * Taille d'une entrée, en octets.
+	 */
+	private static final int ENTRY_BYTES = 12;
+
+	/**
+	 * La stratégie dont les tirs sont précalculés.
+	 */
+	private final ShootingStrategyName strategyName;
+
+	/**
+	 * L'époque des parties.
+	 */
+	private final EpochName epochName;
+
+	/**
+	 * Les règles des parties.
+	 */
+	private final GameRules rules;
+
+	/**
+	 * Le nombre de tirs couverts par le livre.
+	 */
+	private final int depth;
+
+	/**
+	 * Le fichier projeté, en lecture seule.
+	 */
+	private final ByteBuffer entries;
+
+	/**
+	 * Position de la première entrée dans le fichier.
+	 */
+	private final int entriesOffset;
+
+	/**
+	 * Le nombre d'entrées.
+	 */
+	private final int entryCount;
+
+	private OpeningBook(ShootingStrategyName strategyName, EpochName epochName, GameRules rules, int depth,
+			ByteBuffer entries, int entriesOffset, int entryCount) {
+		this.strategyName = strategyName;
+		this.epochName = epochName;
+		this.rules = rules;
+		this.depth = depth;
+		this.entries = entries;
+		this.entriesOffset = entriesOffset;
+		this.entryCount = entryCount;
+	}
+
+	/**
+	 * Ouvre un livre en projetant son fichier en mémoire.
+	 * @param file Le fichier du livre.
+	 * @return Le livre.
+	 * @throws IOException Si le fichier ne peut être lu ou n'est pas un livre d'ouvertures valide.
+	 */
+	public static OpeningBook open(File file) throws IOException {
+		RandomAccessFile raf = null;
+		MappedByteBuffer buffer;
+		try {
+			raf = new RandomAccessFile(file, "r");
+			FileChannel channel = raf.getChannel();
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());	// reste valide après la fermeture
+		} finally {
+			Utils.closeQuietly(raf);
+		}
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				throw new IOException("Livre d'ouvertures invalide " + file);
+			}
+			ShootingStrategyName strategyName = ShootingStrategyName.valueOf(readName(buffer));
+			EpochName epochName = EpochName.valueOf(readName(buffer));
+			int width = buffer.getInt();
+			int height = buffer.getInt();
+			int shotsPerTurn = buffer.getInt();
+			boolean salvo = buffer.getInt() != 0;
+			int[] shipsSizes = new int[buffer.getInt()];
+			for (int i = 0 ; i < shipsSizes.length ; i++) {
+				shipsSizes[i] = buffer.getInt();
+			}
+			GameRules rules = new GameRules(width, height, shipsSizes, shotsPerTurn, salvo);
+			int depth = buffer.getInt();
+			int entryCount = buffer.getInt();
+			int entriesOffset = buffer.position();
+			if (entryCount < 0 || buffer.remaining() != (long) entryCount * ENTRY_BYTES) {
+				throw new IOException("Livre d'ouvertures tronqué " + file);
+			}
+			return new OpeningBook(strategyName, epochName, rules, depth, buffer, entriesOffset, entryCount);
+		} catch (BufferUnderflowException | IllegalArgumentException e) {	// en-tête tronqué, nom ou règles invalides
+			throw new IOException("Livre d'ouvertures invalide " + file, e);
+		}
+	}
+
+	/**
+	 * Lit un nom (longueur puis caractères ASCII).
+	 * @param buffer Le fichier projeté.
+	 * @return Le nom.
+	 */
+	private static String readName(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getShort()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Écrit un livre d'ouvertures.
+	 * @param file Le fichier du livre.
+	 * @param strategyName La stratégie dont les tirs sont précalculés.
+	 * @param epochName L'époque des parties.
+	 * @param rules Les règles des parties.
+	 * @param depth Le nombre de tirs couverts par le livre.
+	 * @param shots Les tirs, indexés par hash de la grille.
+	 * @throws IOException Si le fichier ne peut être écrit.
+	 */
+	public static void write(File file, ShootingStrategyName strategyName, EpochName epochName, GameRules rules,
+			int depth, Map<Long, Position> shots) throws IOException {
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeName(out, strategyName.name());
+			writeName(out, epochName.name());
+			out.writeInt(rules.getGridWidth());
+			out.writeInt(rules.getGridHeight());
+			out.writeInt(rules.getNumberOfShotsPerTurn());
+			out.writeInt(rules.isSalvo() ? 1 : 0);
+			out.writeInt(rules.getNumberOfShips());
+			for (int size : rules.getShipsSizes()) {
+				out.writeInt(size);
+			}
+			out.writeInt(depth);
+			out.writeInt(shots.size());
+			for (Map.Entry<Long, Position> shot : new TreeMap<Long, Position>(shots).entrySet()) {
+				out.writeLong(shot.getKey());
+				out.writeInt(shot.getValue().pack());
+			}
+		} finally {
+			Utils.closeQuietly(out);
+		}
+	}
+
+	/**
+	 * Écrit un nom (longueur puis caractères ASCII).
+	 * @param out Le flux.
+	 * @param name Le nom.
+	 * @throws IOException Si l'écriture échoue.
+	 */
+	private static void writeName(DataOutputStream out, String name) throws IOException {
+		out.writeShort(name.length());
+		out.writeBytes(name);
+	}
+
+	/**
+	 * Retourne la stratégie dont les tirs sont précalculés.
+	 * @return Le nom de la stratégie.
+	 */
+	public ShootingStrategyName getShootingStrategyName() {
+		return strategyName;
+	}
+
+	/**
+	 * Retourne l'époque des parties.
+	 * @return Le nom de l'époque.
+	 */
+	public EpochName getEpochName() {
+		return epochName;
+	}
+
+	/**
+	 * Retourne les règles des parties.
+	 * @return Les règles.
+	 */
+	public GameRules getRules() {
+		return rules;
+	}
+
+	/**
+	 * Retourne le nombre de tirs couverts par le livre.
+	 * @return La profondeur du livre.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Retourne le nombre d'entrées du livre.
+	 * @return Le nombre d'entrées.
+	 */
+	public int size() {
+		return entryCount;
+	}
+
+	/**
+	 * Indique si le livre s'applique à une grille : même époque, mêmes règles,
+	 * et pas plus de tirs reçus que la profondeur du livre.
+	 * @param sea La grille visée.
+	 * @return Vrai si la grille est dans le livre.
+	 */
+	public boolean covers(Sea sea) {
+		return sea.getEpoch() != null && sea.getEpoch().getEpochName() == epochName
+				&& sea.getGridWidth() * sea.getGridHeight() - sea.countTiles(Sea.SeaTileState.NORMAL) < depth
+				&& rules.equals(sea.getRules());
+	}
+
+	/**
+	 * Cherche le tir précalculé pour une grille, par recherche dichotomique dans le fichier projeté.
+	 * @param sea La grille visée.
+	 * @return La position du tir, ou null si la grille n'est pas dans le livre.
+	 */
+	public Position lookup(Sea sea) {
+		if (!covers(sea)) {
+			return null;
+		}
+		long hash = sea.getZobristHash();
+		int low = 0;
+		int high = entryCount - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long middleHash = entries.getLong(entriesOffset + middle * ENTRY_BYTES);
+			if (middleHash < hash) {
+				low = middle + 1;
+			} else if (middleHash > hash) {
+				high = middle - 1;
+			} else {
+				return Position.unpack(entries.getInt(entriesOffset + middle * ENTRY_BYTES + 8));
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return "OpeningBook[" + strategyName + ", " + epochName + ", " + rules.getGridWidth() + "x" + rules.getGridHeight()
+				+ " " + Arrays.toString(rules.getShipsSizes()) + ", profondeur " + depth + ", " + entryCount + " entrées]";
+	}
+
+}
@@ -0,0 +1,104 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.List;
+
+/**
+ * Stratégie de tir jouant les tirs d'un {@link OpeningBook} tant que la grille visée est dans le livre,
+ * puis ceux d'une autre stratégie.
+ * Les premiers tirs d'une stratégie coûteuse ne coûtent alors qu'une recherche dans le fichier projeté.
+ *
+ * Le livre n'est consulté que s'il a été construit pour la stratégie, l'époque et les règles de la partie.
+ * Il n'est pas sérialisé : une stratégie rechargée n'en a plus et délègue tous ses tirs.
+ */
+public class OpeningBookShooting implements ShootingStrategy {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * La stratégie jouant hors du livre.
+	 * @serial
+	 */
+	private final ShootingStrategy strategy;
+
+	/**
+	 * Le livre d'ouvertures, partagé.
+	 */
+	private final transient OpeningBook book;
+
+	/**
+	 * Crée une stratégie jouant les tirs d'un livre d'ouvertures.
+	 * @param strategy La stratégie jouant hors du livre.
+	 * @param book Le livre d'ouvertures, qui peut être partagé entre plusieurs stratégies.
+	 * @throws IllegalArgumentException Si le livre a été construit pour une autre stratégie.
+	 */
+	public OpeningBookShooting(ShootingStrategy strategy, OpeningBook book) {
+		if (book.getShootingStrategyName() != strategy.getShootingStrategyName()) {
+			throw new IllegalArgumentException("Livre d'ouvertures de " + book.getShootingStrategyName()
+					+ " inutilisable par " + strategy.getShootingStrategyName());
+		}
+		this.strategy = strategy;
+		this.book = book;
+	}
+
+	/**
+	 * Crée une stratégie sans livre (stratégie rechargée dont le livre n'a pas été rouvert),
+	 * qui joue toujours comme la stratégie hors du livre.
+	 * @param strategy La stratégie jouant hors du livre.
+	 */
+	private OpeningBookShooting(ShootingStrategy strategy) {
+		this.strategy = strategy;
+		this.book = null;
+	}
+
+	/**
+	 * Retourne la stratégie jouant hors du livre.
+	 * @return La stratégie.
+	 */
+	public ShootingStrategy getStrategy() {
+		return strategy;
+	}
+
+	@Override
+	public ShootingStrategyName getShootingStrategyName() {
+		return strategy.getShootingStrategyName();
+	}
+
+	@Override
+	public void setRandom(GameRandom random) {
+		strategy.setRandom(random);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * La copie partage le livre d'ouvertures.
+	 */
+	@Override
+	public ShootingStrategy copy() {
+		return book == null ? new OpeningBookShooting(strategy.copy()) : new OpeningBookShooting(strategy.copy(), book);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Le livre ne couvrant que les tirs un par un, les salves sont choisies par la stratégie.
+	 */
+	@Override
+	public List<Position> playShoots(Sea sea, int n) {
+		return strategy.playShoots(sea, n);
+	}
+
+	@Override
+	public Position playShoot(Sea sea) {
+		if (book != null) {
+			Position position = book.lookup(sea);
+			if (position != null && sea.isTileNormal(position)) {	// protège des collisions de hash
+				return position;
+			}
+		}
+		return strategy.playShoot(sea);
+	}
+
+}
@@ -0,0 +1,54 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Stratégie de placement des bateaux de l'ordinateur.
+ */
+public interface PlacementStrategy extends Serializable {
+
+	/**
+	 * Les noms des différentes stratégies de placement.
+	 */
+	public enum PlacementStrategyName {
+		RANDOM, ANTI_DENSITY;
+		
+		/**
+		 * Crée une nouvelle stratégie de placement correspondant à ce nom.
+		 * @return La stratégie de placement.
+		 */
+		public PlacementStrategy createPlacementStrategy() {
+			switch(this) {
+				case RANDOM:
+					return new RandomPlacement();
+				case ANTI_DENSITY:
+					return new AntiDensityPlacement();
+				default:
+					throw new AssertionError("Stratégie de placement inconnue " + this);
+			}
+		}
+	}
+	
+	/**
+	 * Renvoie le nom de la stratégie.
+	 * Utile pour l'UI.
+	 * @return Le nom de la stratégie.
+	 */
+	public PlacementStrategyName getPlacementStrategyName();
+	
+	/**
+	 * Choisit une disposition des bateaux restant à placer sur la grille
+	 * (bateau en cours de positionnement puis bateaux à placer), autour des bateaux déjà placés.
+	 * La grille n'est pas modifiée et les placements doivent toujours être valides.
+	 * Les stratégies de placement n'ont pas d'état : le générateur aléatoire, dérivé de celui de la partie,
+	 * est passé à chaque placement.
+	 * @param sea La grille du joueur.
+	 * @param random Le générateur aléatoire.
+	 * @return Les placements, dans l'ordre de placement des bateaux de la grille.
+	 * @throws IllegalStateException Si aucune disposition n'est possible.
+	 */
+	public List<ShipPlacement> placeShips(Sea sea, Random random);
+	
+}
@@ -4,6 +4,10 @@ import java.io.Serializable;
 
 /**
  * Simple classe conteneur pour les coordonnées d'une position (avec des entiers). 
+ * 
+ * Les positions sont immuables : les positions courantes (coordonnées positives et inférieures à
+ * {@link #CACHE_SIZE}) sont pré-allouées et partagées via {@link #of(int, int)}
+ * afin d'éviter de créer de nombreux objets dans les boucles des stratégies.
  */
 public class Position implements Serializable {
 	
@@ -13,22 +17,64 @@ public class Position implements Serializable {
 	 */
 	private static final long serialVersionUID = 1L;
 	
+	/**
+	 * Borne (exclue) des coordonnées des positions pré-allouées.
+	 * Couvre les grilles jusqu'à 128x128, au-delà les positions sont allouées à la demande.
+	 */
+	private static final int CACHE_SIZE = 128;
+	
+	/**
+	 * Table des positions pré-allouées, rangées par abscisse puis ordonnée.
+	 */
+	private static final Position[] CACHE = new Position[CACHE_SIZE * CACHE_SIZE];
+	
+	static {
+		for (int x = 0 ; x < CACHE_SIZE ; x++) {
+			for (int y = 0 ; y < CACHE_SIZE ; y++) {
+				CACHE[x * CACHE_SIZE + y] = new Position(x, y);
+			}
+		}
+	}
+	
 	/**
 	 * Abscisse.
 	 * @serial
 	 */
-	private int x;
+	private final int x;
 	
 	/**
 	 * Ordonnée.
 	 * @serial
 	 */
-	private int y;
+	private final int y;
 	
 	public Position(int x, int y) {
 		this.x = x;
 		this.y = y;
 	}
+	
+	/**
+	 * Retourne la position canonique de ces coordonnées.
+	 * Aucune allocation n'est faite si les coordonnées sont dans la table pré-allouée.
+	 * @param x L'abscisse.
+	 * @param y L'ordonnée.
+	 * @return La position.
+	 */
+	public static Position of(int x, int y) {
+		if (x >= 0 && x < CACHE_SIZE && y >= 0 && y < CACHE_SIZE) {
+			return CACHE[x * CACHE_SIZE + y];
+		}
+		return new Position(x, y);
+	}
+	
+	/**
+	 * Retourne la position correspondant à une forme compacte obtenue avec {@link #pack()}.
+	 * @param packed La position sous forme compacte.
+	 * @return La position.
+	 */
+	public static Position unpack(int packed) {
+		return of(packed >> 16, (short) packed);
+	}
 
 	public int getX() {
 		return x;
@@ -65,9 +111,43 @@ public class Position implements Serializable {
 		return this.x < xMin || this.x > xMax || this.y < yMin || this.y > yMax;
 	}
 	
+	/**
+	 * Retourne la position sous forme compacte dans un entier :
+	 * l'abscisse dans les 16 bits de poids fort et l'ordonnée dans les 16 bits de poids faible.
+	 * Les coordonnées doivent tenir sur 16 bits signés.
+	 * @return La position sous forme compacte.
+	 */
+	public int pack() {
+		return (x << 16) | (y & 0xFFFF);
+	}
+	
 	@Override
 	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Position)) {
+			return false;
+		}
 		return this.x == ((Position) obj).x && this.y == ((Position) obj).y;
 	}
 	
+	@Override
+	public int hashCode() {
+		return pack();
+	}
+	
+	@Override
+	public String toString() {
+		return "(" + x + ", " + y + ")";
+	}
+	
+	/**
+	 * Remplace la position désérialisée par la position canonique.
+	 * @return La position canonique.
+	 */
+	private Object readResolve() {
+		return of(x, y);
+	}
+	
 }
@@ -0,0 +1,529 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
+
+/**
+ * Stratégie de tir par densité de probabilité (carte de chaleur).
+ * Pour chaque case, on compte le nombre de placements possibles des bateaux encore en vie qui la recouvrent,
+ * et l'on tire sur la case la plus recouverte.
+ *
+ * En phase de recherche, une case est bloquante dès qu'elle a reçu un tir ou qu'elle appartient à un bateau coulé.
+ * La carte est mise à jour incrémentalement : seules les cases ayant changé depuis le tir précédent
+ * (et les bateaux coulés entre-temps) sont prises en compte, ce qui reste rapide sur les grandes grilles.
+ *
+ * Lorsqu'un bateau est touché mais pas coulé, on ne compte que les placements passant par les cases touchées,
+ * ce qui se calcule localement autour de ces cases.
+ *
+ * La carte n'est pas sérialisée : elle est reconstruite au premier tir après un chargement,
+ * ou lorsque la grille visée ne correspond plus à celle connue (nouvelle partie).
+ */
+public class ProbabilityDensityShooting implements ShootingStrategy {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Générateur aléatoire pour départager les cases de même densité.
+	 * Fourni par la partie, voir {@link GameRandom}.
+	 * @serial
+	 */
+	private GameRandom random = new GameRandom();
+
+	/**
+	 * Largeur de la grille connue.
+	 */
+	private transient int width;
+
+	/**
+	 * Hauteur de la grille connue.
+	 */
+	private transient int height;
+
+	/**
+	 * Densité de chaque case (indice x * hauteur + y) :
+	 * somme, pour chaque bateau en vie, du nombre de ses placements possibles recouvrant la case.
+	 */
+	private transient int[] density;
+
+	/**
+	 * Les cases ayant reçu un tir lors de la dernière mise à jour.
+	 */
+	private transient TileMask knownShots;
+
+	/**
+	 * Les cases bloquantes : cases ayant reçu un tir et cases des bateaux coulés.
+	 */
+	private transient TileMask blocked;
+
+	/**
+	 * Nombre de bateaux en vie pour chaque taille.
+	 */
+	private transient int[] aliveCountBySize;
+
+	@Override
+	public ShootingStrategyName getShootingStrategyName() {
+		return ShootingStrategyName.PROBABILITY_DENSITY;
+	}
+
+	@Override
+	public void setRandom(GameRandom random) {
+		this.random = random;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * La carte des densités est copiée avec la stratégie, la copie n'a donc pas à la reconstruire.
+	 */
+	@Override
+	public ShootingStrategy copy() {
+		ProbabilityDensityShooting copy = new ProbabilityDensityShooting();
+		copy.random = new GameRandom(random);
+		if (density != null) {
+			copy.width = width;
+			copy.height = height;
+			copy.density = density.clone();
+			copy.knownShots = new TileMask(knownShots);
+			copy.blocked = new TileMask(blocked);
+			copy.aliveCountBySize = aliveCountBySize.clone();
+		}
+		return copy;
+	}
+
+	@Override
+	public Position playShoot(Sea sea) {
+		update(sea);
+		if (sea.isAnyShipHarmed()) {
+			Position target = playShootInTargetMode(sea);
+			if (target != null) {
+				return target;
+			}
+		}
+		return playShootInHuntMode(sea);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * La carte n'est mise à jour qu'une fois pour toute la salve. En phase de destruction,
+	 * on tire d'abord sur les cases de meilleur score autour des cases touchées. Les autres tirs sont choisis
+	 * en phase de recherche, chaque case choisie étant bloquée (comme après un tir) avant de choisir la suivante,
+	 * ce qui met à jour localement la densité et écarte les tirs redondants.
+	 * La carte reflète ainsi la grille après la salve ; si la salve n'est pas tirée, elle est reconstruite au tir suivant.
+	 */
+	@Override
+	public List<Position> playShoots(Sea sea, int n) {
+		n = SalvoPlanner.countShots(sea, n);
+		update(sea);
+		List<Position> shots = new ArrayList<Position>(n);
+		if (sea.isAnyShipHarmed()) {
+			List<Map.Entry<Position, Integer>> scores = new ArrayList<Map.Entry<Position, Integer>>(targetScores(sea).entrySet());
+			Collections.shuffle(scores, random);	// ordre aléatoire entre les cases de même score
+			Collections.sort(scores, new Comparator<Map.Entry<Position, Integer>>() {
+				@Override
+				public int compare(Map.Entry<Position, Integer> a, Map.Entry<Position, Integer> b) {
+					return Integer.compare(b.getValue(), a.getValue());
+				}
+			});
+			for (int i = 0 ; i < scores.size() && shots.size() < n ; i++) {
+				shots.add(scores.get(i).getKey());
+			}
+			for (Position shot : shots) {
+				planShot(shot);
+			}
+		}
+		while (shots.size() < n) {
+			Position shot = playShootInHuntMode(sea);
+			if (blocked.get(shot.getX() * height + shot.getY())) {	// plus de case non bloquée, on complète au hasard
+				Sea planning = sea.fork();
+				for (Position planned : shots) {
+					planning.markPlannedShot(planned);
+				}
+				RandomShooting fallback = new RandomShooting();
+				fallback.setRandom(random.split());
+				shots.addAll(fallback.playShoots(planning, n - shots.size()));
+				return shots;
+			}
+			planShot(shot);
+			shots.add(shot);
+		}
+		return shots;
+	}
+
+	/**
+	 * Considère une case choisie pour la salve comme ayant reçu un tir.
+	 * @param shot La position de la case.
+	 */
+	private void planShot(Position shot) {
+		int index = shot.getX() * height + shot.getY();
+		knownShots.set(index);
+		if (!blocked.get(index)) {
+			block(index);
+		}
+	}
+
+	/**
+	 * Retourne la densité d'une case, telle que calculée lors du dernier tir.
+	 * Utile pour les tests.
+	 * @param x L'abscisse de la case.
+	 * @param y L'ordonnée de la case.
+	 * @return La densité de la case.
+	 */
+	int getDensity(int x, int y) {
+		return density[x * height + y];
+	}
+
+	/**
+	 * Met à jour la carte de densité avec l'état de la grille.
+	 * @param sea La grille du joueur adverse.
+	 */
+	void update(Sea sea) {
+		if (density == null || width != sea.getGridWidth() || height != sea.getGridHeight()
+				|| !isStillConsistent(sea)) {
+			rebuild(sea);
+			return;
+		}
+
+		// Nouvelles cases ayant reçu un tir
+		for (int w = 0 ; w < sea.tileWordCount() ; w++) {
+			long word = ~sea.tileStateWord(SeaTileState.NORMAL, w) & knownShots.validBits(w) & ~knownShots.word(w);
+			while (word != 0) {
+				int index = (w << 6) + Long.numberOfTrailingZeros(word);
+				knownShots.set(index);
+				if (!blocked.get(index)) {
+					block(index);
+				}
+				word &= word - 1;
+			}
+		}
+
+		// Cases des bateaux coulés n'ayant pas reçu de tir (époques où un bateau coule avant d'être touché partout)
+		blockDeadShips(sea);
+
+		// Bateaux coulés depuis la dernière mise à jour
+		int[] alive = countAliveShips(sea, aliveCountBySize.length);
+		for (int size = 1 ; size < alive.length ; size++) {
+			if (alive[size] != aliveCountBySize[size]) {
+				addCoverage(size, alive[size] - aliveCountBySize[size]);
+				aliveCountBySize[size] = alive[size];
+			}
+		}
+	}
+
+	/**
+	 * Vérifie que la grille est la suite de celle connue :
+	 * toutes les cases connues comme ayant reçu un tir doivent l'avoir reçu,
+	 * et aucun bateau ne doit dépasser la taille maximale connue.
+	 * @param sea La grille du joueur adverse.
+	 * @return Vrai si la carte peut être mise à jour incrémentalement.
+	 */
+	private boolean isStillConsistent(Sea sea) {
+		for (int w = 0 ; w < sea.tileWordCount() ; w++) {
+			if ((knownShots.word(w) & sea.tileStateWord(SeaTileState.NORMAL, w)) != 0) {
+				return false;
+			}
+		}
+		for (Ship ship : sea.getShips()) {
+			if (ship.getSize() >= aliveCountBySize.length) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reconstruit entièrement la carte de densité.
+	 * @param sea La grille du joueur adverse.
+	 */
+	private void rebuild(Sea sea) {
+		width = sea.getGridWidth();
+		height = sea.getGridHeight();
+		density = new int[width * height];
+		knownShots = new TileMask(width * height);
+		for (int w = 0 ; w < sea.tileWordCount() ; w++) {
+			long word = ~sea.tileStateWord(SeaTileState.NORMAL, w) & knownShots.validBits(w);
+			while (word != 0) {
+				knownShots.set((w << 6) + Long.numberOfTrailingZeros(word));
+				word &= word - 1;
+			}
+		}
+		blocked = new TileMask(knownShots);
+		int maxSize = 0;
+		for (Ship ship : sea.getShips()) {
+			maxSize = Math.max(maxSize, ship.getSize());
+		}
+		aliveCountBySize = new int[maxSize + 1];	// aucun placement à retirer en bloquant les bateaux coulés
+		blockDeadShips(sea);
+		aliveCountBySize = countAliveShips(sea, maxSize + 1);
+		for (int size = 1 ; size < aliveCountBySize.length ; size++) {
+			if (aliveCountBySize[size] > 0) {
+				addCoverage(size, aliveCountBySize[size]);
+			}
+		}
+	}
+
+	/**
+	 * Compte les bateaux en vie de la grille pour chaque taille.
+	 * @param sea La grille du joueur adverse.
+	 * @param length La taille du tableau à renvoyer (taille maximale + 1).
+	 * @return Le nombre de bateaux en vie, indicé par taille.
+	 */
+	private static int[] countAliveShips(Sea sea, int length) {
+		int[] alive = new int[length];
+		for (Ship ship : sea.getShips()) {
+			if (!ship.isDead()) {
+				alive[ship.getSize()]++;
+			}
+		}
+		return alive;
+	}
+
+	/**
+	 * Bloque les cases des bateaux coulés qui ne le sont pas encore.
+	 * @param sea La grille du joueur adverse.
+	 */
+	private void blockDeadShips(Sea sea) {
+		for (Ship ship : sea.getShips()) {
+			if (ship.isDead()) {
+				for (Position p : ship.getSeaTilesOccupied()) {
+					int index = p.getX() * height + p.getY();
+					if (!blocked.get(index)) {
+						block(index);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Ajoute à la densité les recouvrements de tous les placements possibles d'un bateau d'une certaine taille,
+	 * multipliés par un facteur (négatif pour les retirer).
+	 * @param size La taille du bateau.
+	 * @param factor Le facteur.
+	 */
+	private void addCoverage(int size, int factor) {
+		for (int y = 0 ; y < height ; y++) {	// placements horizontaux
+			addLineCoverage(y, height, width, size, factor);
+		}
+		for (int x = 0 ; x < width ; x++) {		// placements verticaux
+			addLineCoverage(x * height, 1, height, size, factor);
+		}
+	}
+
+	/**
+	 * Ajoute à la densité les recouvrements des placements d'un bateau sur une ligne (ou une colonne).
+	 * Dans une suite de n cases libres, la case d'indice j est recouverte par
+	 * min(j, n - taille) - max(0, j - taille + 1) + 1 placements.
+	 * @param start L'indice de la première case de la ligne.
+	 * @param stride L'écart d'indice entre deux cases consécutives de la ligne.
+	 * @param length Le nombre de cases de la ligne.
+	 * @param size La taille du bateau.
+	 * @param factor Le facteur.
+	 */
+	private void addLineCoverage(int start, int stride, int length, int size, int factor) {
+		int runStart = 0;
+		for (int i = 0 ; i <= length ; i++) {
+			if (i < length && !blocked.get(start + i * stride)) {
+				continue;
+			}
+			int runLength = i - runStart;
+			for (int j = 0 ; j < runLength && runLength >= size ; j++) {
+				int count = Math.min(j, runLength - size) - Math.max(0, j - size + 1) + 1;
+				density[start + (runStart + j) * stride] += factor * count;
+			}
+			runStart = i + 1;
+		}
+	}
+
+	/**
+	 * Bloque une case et retire de la densité tous les placements possibles qui la recouvraient.
+	 * Seules les cases à moins d'une longueur de bateau de la case bloquée sont modifiées.
+	 * @param index L'indice de la case.
+	 */
+	private void block(int index) {
+		int x = index / height, y = index % height;
+		int reach = aliveCountBySize.length - 2;	// taille maximale - 1
+
+		// Placements horizontaux
+		int left = 0, right = 0;
+		while (left < reach && x - left - 1 >= 0 && !blocked.get(index - (left + 1) * height)) {
+			left++;
+		}
+		while (right < reach && x + right + 1 < width && !blocked.get(index + (right + 1) * height)) {
+			right++;
+		}
+		removeLinePlacements(index, height, left, right);
+
+		// Placements verticaux
+		left = 0;
+		right = 0;
+		while (left < reach && y - left - 1 >= 0 && !blocked.get(index - left - 1)) {
+			left++;
+		}
+		while (right < reach && y + right + 1 < height && !blocked.get(index + right + 1)) {
+			right++;
+		}
+		removeLinePlacements(index, 1, left, right);
+
+		blocked.set(index);
+	}
+
+	/**
+	 * Retire de la densité les placements d'une ligne (ou d'une colonne) recouvrant une case.
+	 * Les positions sont relatives à la case : les cases libres vont de -left à right.
+	 * @param index L'indice de la case.
+	 * @param stride L'écart d'indice entre deux cases consécutives de la ligne.
+	 * @param left Le nombre de cases libres avant la case.
+	 * @param right Le nombre de cases libres après la case.
+	 */
+	private void removeLinePlacements(int index, int stride, int left, int right) {
+		for (int size = 1 ; size < aliveCountBySize.length ; size++) {
+			int count = aliveCountBySize[size];
+			// Débuts des placements recouvrant la case
+			int firstStart = Math.max(-left, 1 - size);
+			int lastStart = Math.min(0, right - size + 1);
+			if (count == 0 || firstStart > lastStart) {
+				continue;
+			}
+			for (int t = firstStart ; t < lastStart + size ; t++) {
+				int covering = Math.min(t, lastStart) - Math.max(t - size + 1, firstStart) + 1;
+				density[index + t * stride] -= count * covering;
+			}
+		}
+	}
+
+	/**
+	 * Tir en phase de recherche : case non bloquée de densité maximale,
+	 * au hasard parmi les cases de même densité (sans tirage pour chaque égalité).
+	 * @param sea La grille du joueur adverse.
+	 * @return La position de tir.
+	 */
+	private Position playShootInHuntMode(Sea sea) {
+		// Premier passage : densité maximale et nombre de cases l'atteignant
+		int bestDensity = -1, ties = 0;
+		for (int w = 0 ; w < blocked.wordCount() ; w++) {
+			long word = ~blocked.word(w) & blocked.validBits(w);
+			while (word != 0) {
+				int d = density[(w << 6) + Long.numberOfTrailingZeros(word)];
+				if (d > bestDensity) {
+					bestDensity = d;
+					ties = 1;
+				} else if (d == bestDensity) {
+					ties++;
+				}
+				word &= word - 1;
+			}
+		}
+		if (ties == 0) {	// ne devrait pas arriver tant qu'il reste un bateau en vie
+			return sea.nthTileWithState(SeaTileState.NORMAL, random.nextInt(sea.countTiles(SeaTileState.NORMAL)));
+		}
+
+		// Second passage : on retrouve la case tirée au sort parmi les meilleures
+		int k = random.nextInt(ties);
+		for (int w = 0 ; w < blocked.wordCount() ; w++) {
+			long word = ~blocked.word(w) & blocked.validBits(w);
+			while (word != 0) {
+				int index = (w << 6) + Long.numberOfTrailingZeros(word);
+				if (density[index] == bestDensity && k-- == 0) {
+					return Position.of(index / height, index % height);
+				}
+				word &= word - 1;
+			}
+		}
+		throw new AssertionError("Case de densité maximale introuvable");
+	}
+
+	/**
+	 * Tir en phase de destruction : on compte, pour chaque case libre,
+	 * les placements possibles des bateaux en vie passant par une case touchée d'un bateau non coulé.
+	 * Un placement passant par plusieurs cases touchées est compté autant de fois,
+	 * ce qui favorise le prolongement des alignements.
+	 * @param sea La grille du joueur adverse.
+	 * @return La position de tir, null si aucun placement n'est possible.
+	 */
+	private Position playShootInTargetMode(Sea sea) {
+		Position best = null;
+		int bestScore = 0, ties = 0;
+		for (Map.Entry<Position, Integer> entry : targetScores(sea).entrySet()) {
+			int score = entry.getValue();
+			if (score > bestScore) {
+				best = entry.getKey();
+				bestScore = score;
+				ties = 1;
+			} else if (score == bestScore && random.nextInt(++ties) == 0) {
+				best = entry.getKey();
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Calcule les scores de la phase de destruction, voir {@link #playShootInTargetMode(Sea)}.
+	 * @param sea La grille du joueur adverse.
+	 * @return Le score de chaque case libre recouverte par un placement possible.
+	 */
+	private Map<Position, Integer> targetScores(Sea sea) {
+		List<Position> harmed = sea.harmedShipPositions();
+		Set<Position> harmedSet = new HashSet<Position>(harmed);
+		Map<Position, Integer> scores = new HashMap<Position, Integer>();
+
+		for (Position h : harmed) {
+			for (int size = 2 ; size < aliveCountBySize.length ; size++) {
+				int count = aliveCountBySize[size];
+				if (count == 0) {
+					continue;
+				}
+				for (int start = 1 - size ; start <= 0 ; start++) {
+					scorePlacement(h.getX() + start, h.getY(), 1, 0, size, count, harmedSet, scores);
+					scorePlacement(h.getX(), h.getY() + start, 0, 1, size, count, harmedSet, scores);
+				}
+			}
+		}
+		return scores;
+	}
+
+	/**
+	 * Ajoute un placement aux scores de la phase de destruction s'il est possible :
+	 * toutes ses cases doivent être dans la grille et être libres ou touchées d'un bateau non coulé.
+	 * @param x L'abscisse de la première case.
+	 * @param y L'ordonnée de la première case.
+	 * @param dx Le déplacement en abscisse entre deux cases.
+	 * @param dy Le déplacement en ordonnée entre deux cases.
+	 * @param size La taille du placement.
+	 * @param weight Le poids du placement.
+	 * @param harmed Les cases touchées des bateaux non coulés.
+	 * @param scores Les scores des cases libres.
+	 */
+	private void scorePlacement(int x, int y, int dx, int dy, int size, int weight,
+			Set<Position> harmed, Map<Position, Integer> scores) {
+		int lastX = x + dx * (size - 1), lastY = y + dy * (size - 1);
+		if (x < 0 || y < 0 || lastX >= width || lastY >= height) {
+			return;
+		}
+		for (int i = 0 ; i < size ; i++) {
+			int tx = x + dx * i, ty = y + dy * i;
+			if (blocked.get(tx * height + ty) && !harmed.contains(Position.of(tx, ty))) {
+				return;
+			}
+		}
+		for (int i = 0 ; i < size ; i++) {
+			int tx = x + dx * i, ty = y + dy * i;
+			if (!blocked.get(tx * height + ty)) {
+				Position p = Position.of(tx, ty);
+				Integer score = scores.get(p);
+				scores.put(p, score == null ? weight : score + weight);
+			}
+		}
+	}
+
+}
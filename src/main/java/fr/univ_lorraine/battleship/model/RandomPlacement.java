@@ -0,0 +1,28 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Stratégie de placement aléatoire :
+ * chaque bateau est tiré uniformément parmi ses emplacements valides (voir {@link FleetLayoutGenerator}).
+ */
+public class RandomPlacement implements PlacementStrategy {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	@Override
+	public PlacementStrategyName getPlacementStrategyName() {
+		return PlacementStrategyName.RANDOM;
+	}
+
+	@Override
+	public List<ShipPlacement> placeShips(Sea sea, Random random) {
+		return new FleetLayoutGenerator(random).generate(sea);
+	}
+	
+}
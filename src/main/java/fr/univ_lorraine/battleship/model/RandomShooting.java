@@ -1,7 +1,11 @@
 package fr.univ_lorraine.battleship.model;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Set;
+
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
 
 /**
  * Stratégie de tir aléatoire.
@@ -16,19 +20,64 @@ public class RandomShooting implements ShootingStrategy {
 	
 	/**
 	 * Générateur aléatoire pour générer la position du tir.
+	 * Fourni par la partie, voir {@link GameRandom}.
+	 * @serial
 	 */
-    private static final Random RNG = new Random();
+	private GameRandom random = new GameRandom();
     
 	@Override
 	public ShootingStrategyName getShootingStrategyName() {
 		return ShootingStrategyName.RANDOM;
 	}
+
+	@Override
+	public void setRandom(GameRandom random) {
+		this.random = random;
+	}
+	
+	/**
+	 * Retourne le générateur aléatoire de la stratégie.
+	 * Les parties sauvegardées avant l'ajout du générateur en reçoivent un nouveau.
+	 * @return Le générateur aléatoire.
+	 */
+	private GameRandom getRandom() {
+		if (random == null) {
+			random = new GameRandom();
+		}
+		return random;
+	}
+	
+	@Override
+	public ShootingStrategy copy() {
+		RandomShooting copy = new RandomShooting();
+		copy.random = new GameRandom(getRandom());
+		return copy;
+	}
     
 	@Override
 	public Position playShoot(Sea sea) {
-		List<Position> possibleShots = sea.getAllNormalPositions();
-		int randomIndex = RNG.nextInt(possibleShots.size());
-		return possibleShots.get(randomIndex);
+		// Tirage d'une case normale sans construire la liste des cases possibles
+		int randomIndex = getRandom().nextInt(sea.countTiles(SeaTileState.NORMAL));
+		return sea.nthTileWithState(SeaTileState.NORMAL, randomIndex);
+	}
+
+	@Override
+	public List<Position> playShoots(Sea sea, int n) {
+		n = SalvoPlanner.countShots(sea, n);
+		// Tirage de n rangs distincts parmi les cases normales (algorithme de Floyd)
+		int normalTiles = sea.countTiles(SeaTileState.NORMAL);
+		Set<Integer> ranks = new HashSet<Integer>();
+		for (int j = normalTiles - n ; j < normalTiles ; j++) {
+			int rank = getRandom().nextInt(j + 1);
+			if (!ranks.add(rank)) {
+				ranks.add(j);
+			}
+		}
+		List<Position> shots = new ArrayList<Position>(n);
+		for (int rank : ranks) {
+			shots.add(sea.nthTileWithState(SeaTileState.NORMAL, rank));
+		}
+		return shots;
 	}
 	
 }
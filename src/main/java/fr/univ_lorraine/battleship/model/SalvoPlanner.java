@@ -0,0 +1,101 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
+
+/**
+ * Méthodes communes aux stratégies de tir pour planifier une salve ({@link ShootingStrategy#playShoots(Sea, int)}).
+ */
+final class SalvoPlanner {
+
+	private SalvoPlanner() {}
+
+	/**
+	 * Vérifie le nombre de tirs demandé et le limite au nombre de cases libres de la grille.
+	 * @param sea La grille du joueur adverse.
+	 * @param n Le nombre de tirs demandé.
+	 * @return Le nombre de tirs à planifier.
+	 * @throws IllegalArgumentException Si le nombre de tirs n'est pas strictement positif.
+	 */
+	static int countShots(Sea sea, int n) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("Nombre de tirs invalide " + n);
+		}
+		return Math.min(n, sea.countTiles(SeaTileState.NORMAL));
+	}
+
+	/**
+	 * Planifie une salve en appelant la stratégie une fois par tir :
+	 * le premier sur la grille, les suivants sur une copie où les cases déjà choisies sont marquées manquées
+	 * (voir {@link Sea#markPlannedShot(Position)}).
+	 * Réservé aux stratégies peu coûteuses, qui n'ont pas de calcul à partager entre les tirs d'une salve.
+	 * @param strategy La stratégie.
+	 * @param sea La grille du joueur adverse.
+	 * @param n Le nombre de tirs.
+	 * @return Les positions de tir, toutes différentes.
+	 */
+	static List<Position> planSequentially(ShootingStrategy strategy, Sea sea, int n) {
+		n = countShots(sea, n);
+		List<Position> shots = new ArrayList<Position>(n);
+		Sea planning = sea;
+		for (int i = 0 ; i < n ; i++) {
+			Position shot = strategy.playShoot(planning);
+			if (planning == sea) {
+				planning = sea.fork();
+			}
+			planning.markPlannedShot(shot);
+			shots.add(shot);
+		}
+		return shots;
+	}
+
+	/**
+	 * Choisit les cases de meilleur score, au hasard parmi les cases de même score.
+	 * @param scores Le score de chaque case (indice x * hauteur + y), négatif pour les cases à exclure.
+	 * @param height La hauteur de la grille.
+	 * @param n Le nombre de cases à choisir.
+	 * @param random Le générateur aléatoire.
+	 * @return Au plus n positions, par score décroissant.
+	 */
+	static List<Position> bestTiles(final int[] scores, int height, int n, Random random) {
+		// Parcours des cases dans un ordre aléatoire : à score égal, la première rencontrée est conservée
+		int[] order = new int[scores.length];
+		for (int i = 0 ; i < order.length ; i++) {
+			int j = random.nextInt(i + 1);
+			order[i] = order[j];
+			order[j] = i;
+		}
+		Comparator<Integer> byScore = new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return Integer.compare(scores[a], scores[b]);
+			}
+		};
+		PriorityQueue<Integer> best = new PriorityQueue<Integer>(Math.max(1, n), byScore);	// le moins bon en tête
+		for (int index : order) {
+			if (scores[index] < 0) {
+				continue;
+			}
+			if (best.size() < n) {
+				best.add(index);
+			} else if (n > 0 && scores[index] > scores[best.peek()]) {
+				best.poll();
+				best.add(index);
+			}
+		}
+		List<Integer> indices = new ArrayList<Integer>(best);
+		Collections.sort(indices, Collections.reverseOrder(byScore));
+		List<Position> tiles = new ArrayList<Position>(indices.size());
+		for (int index : indices) {
+			tiles.add(Position.of(index / height, index % height));
+		}
+		return tiles;
+	}
+
+}
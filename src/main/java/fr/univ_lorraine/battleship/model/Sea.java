@@ -1,12 +1,21 @@
 package fr.univ_lorraine.battleship.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.*;
 
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.event.EventBus;
+import fr.univ_lorraine.battleship.model.event.GameEvent;
+import fr.univ_lorraine.battleship.model.event.ShipPlaced;
+import fr.univ_lorraine.battleship.model.event.ShipSunk;
+import fr.univ_lorraine.battleship.model.event.ShotResolved;
+
 /**
  * Classe représentant la grille d'un joueur.
  */
-public class Sea extends Observable implements Serializable {
+public class Sea implements Serializable {
 
 	/**
 	 * Id pour la serialization.
@@ -14,31 +23,109 @@ public class Sea extends Observable implements Serializable {
 	 */
 	private static final long serialVersionUID = 1L;
 	
+	/**
+	 * Enumération des états d'une case de la grille.
+	 */
+	public enum SeaTileState { NORMAL, SHOT, TOUCHED }
+	
+	/**
+	 * Visiteur des cases de la grille.
+	 * Permet de parcourir les cases sans créer de liste intermédiaire.
+	 */
+	public interface TileVisitor {
+		
+		/**
+		 * Méthode appelée pour chaque case visitée.
+		 * @param x L'abscisse de la case.
+		 * @param y L'ordonnée de la case.
+		 */
+		void visitTile(int x, int y);
+		
+	}
+	
+	/**
+	 * Clé d'une case manquée.
+	 */
+	private static final int ZOBRIST_MISSED = 0;
+	
+	/**
+	 * Clé d'une case touchée.
+	 */
+	private static final int ZOBRIST_TOUCHED = 1;
+	
+	/**
+	 * Clé d'une case d'un bateau coulé.
+	 */
+	private static final int ZOBRIST_SUNK = 2;
+	
+	/**
+	 * Clé d'un bateau placé (indice et taille).
+	 */
+	private static final int ZOBRIST_PLACED = 3;
+	
+	/**
+	 * Directions des cases voisines (abscisse puis ordonnée).
+	 */
+	private static final int[][] NEIGHBOUR_DIRECTIONS = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+	
+	/**
+	 * Les règles de la partie (dimensions de la grille et flotte).
+	 * @serial
+	 */
+	private GameRules rules;
+	
 	/**
 	 * Largeur de la grille.
+	 * @serial
 	 */
-	private static final int GRID_WIDTH = 10;
+	private int width;
 	
 	/**
 	 * Hauteur de la grille.
+	 * @serial
 	 */
-	private static final int GRID_HEIGHT = 10;
+	private int height;
 	
 	/**
-	 * Ensemble des tailles des bateaux présents sur la grille.
+	 * Masque des cases ayant reçu un tir (manqué ou touché).
+	 * La case (x, y) correspond au bit d'indice {@link #tileIndex(int, int)}.
+	 * Pour une grille de 10x10, le masque tient sur deux long.
+	 * @serial
 	 */
-	private static final int[] SHIPS_SIZES = { 5, 4, 3, 3, 2};
+	private TileMask shotTiles;
 	
 	/**
-	 * Enumération des états d'une case de la grille.
+	 * Masque des cases ayant reçu un tir touchant un bateau.
+	 * Toujours inclus dans {@link #shotTiles}.
+	 * @serial
 	 */
-	public enum SeaTileState { NORMAL, SHOT, TOUCHED }
+	private TileMask touchedTiles;
+	
+	/**
+	 * Masque des cases occupées par les bateaux placés sur la grille.
+	 * @serial
+	 */
+	private TileMask occupiedTiles;
 	
 	/**
-	 * Etats des cases de la grille.
+	 * Le nombre de cases ayant reçu un tir.
 	 * @serial
 	 */
-	private SeaTileState[][] grid;
+	private int shotCount;
+	
+	/**
+	 * Le nombre de cases ayant reçu un tir touchant un bateau.
+	 * @serial
+	 */
+	private int touchedCount;
+	
+	/**
+	 * Index des bateaux occupant chaque case de la grille.
+	 * Contient, pour la case d'indice {@link #tileIndex(int, int)}, l'indice du bateau
+	 * dans {@link #ships} augmenté de 1, ou 0 si la case est libre.
+	 * @serial
+	 */
+	private int[] shipIndexGrid;
 	
 	/**
 	 * Les bateaux qui ne sont pas encore placé sur la grille.
@@ -59,22 +146,373 @@ public class Sea extends Observable implements Serializable {
 	private List<Ship> ships;
 	
 	/**
-	 * Crée une grille à partir de l'époque associée.
+	 * Les bateaux placés touchés mais pas encore détruits.
+	 * @serial
+	 */
+	private List<Ship> harmedShips;
+	
+	/**
+	 * Le nombre de bateaux placés détruits.
+	 * @serial
+	 */
+	private int deadShipCount;
+	
+	/**
+	 * L'époque des bateaux de la grille.
+	 * @serial
+	 */
+	private Epoch epoch;
+	
+	/**
+	 * Hash de Zobrist de l'état visible de la grille, voir {@link #getZobristHash()}.
+	 * Recalculé au chargement d'une sauvegarde.
+	 */
+	private transient long zobristHash;
+	
+	/**
+	 * Masque des cases de la première ligne (ordonnée 0), pour décaler les masques d'une ligne
+	 * sans passer d'une colonne à l'autre. Jamais modifié, partagé avec les copies.
+	 */
+	private transient TileMask firstRowTiles;
+	
+	/**
+	 * Masque des cases de la dernière ligne. Jamais modifié, partagé avec les copies.
+	 */
+	private transient TileMask lastRowTiles;
+	
+	/**
+	 * Le bus sur lequel sont publiés les tirs, placements et destructions de bateaux,
+	 * celui de la partie ; null pour une grille détachée.
+	 */
+	private transient EventBus eventBus;
+	
+	/**
+	 * Le journal de la partie, auquel sont ajoutés les placements et les tirs reçus ;
+	 * null pour une grille détachée.
+	 */
+	private transient GameLog log;
+	
+	/**
+	 * Le propriétaire de la grille dans le journal.
+	 */
+	private transient PlayerId owner;
+	
+	/**
+	 * Crée une grille à partir de l'époque associée
+	 * avec les règles classiques.
 	 * @param epoch L'époque.
 	 */
 	public Sea(Epoch epoch) {
-		// Initialisation de la grille
-		this.grid = new SeaTileState[GRID_WIDTH][GRID_HEIGHT];
-		for (int i = 0 ; i < grid.length ; i++) {
-			Arrays.fill(this.grid[i], SeaTileState.NORMAL);
-		}
+		this(epoch, new GameRules());
+	}
+	
+	/**
+	 * Crée une grille à partir de l'époque et des règles de la partie.
+	 * @param epoch L'époque.
+	 * @param rules Les règles donnant les dimensions de la grille et la flotte.
+	 */
+	public Sea(Epoch epoch, GameRules rules) {
+		this.rules = rules;
+		this.epoch = epoch;
+		
+		// Initialisation de la grille (toutes les cases à l'état NORMAL)
+		this.width = rules.getGridWidth();
+		this.height = rules.getGridHeight();
+		this.shotTiles = new TileMask(width * height);
+		this.touchedTiles = new TileMask(width * height);
+		this.occupiedTiles = new TileMask(width * height);
+		this.shipIndexGrid = new int[width * height];
 		
 		// Initialisation des bateaux
-		shipsToPlace = new ArrayList<Ship>(SHIPS_SIZES.length);
-		ships = new ArrayList<Ship>(SHIPS_SIZES.length);
-		for (int i = 0 ; i < SHIPS_SIZES.length ; i++) {
-			shipsToPlace.add(new Ship(SHIPS_SIZES[i], epoch));
+		int[] shipsSizes = rules.getShipsSizes();
+		shipsToPlace = new ArrayList<Ship>(shipsSizes.length);
+		ships = new ArrayList<Ship>(shipsSizes.length);
+		harmedShips = new ArrayList<Ship>();
+		for (int i = 0 ; i < shipsSizes.length ; i++) {
+			shipsToPlace.add(new Ship(shipsSizes[i], epoch));
+		}
+		zobristHash = computeZobristHash();
+		initRowTiles();
+	}
+	
+	/**
+	 * Crée une copie détachée d'une grille.
+	 * Les masques des tirs sont copiés. Une fois tous les bateaux placés, l'occupation des cases
+	 * ne change plus : elle est alors partagée entre les deux grilles plutôt que copiée.
+	 * La grille copiée n'est pas modifiée, la copie peut donc être faite depuis un autre thread
+	 * tant que la grille n'est pas modifiée pendant la copie.
+	 * @param other La grille à copier.
+	 */
+	private Sea(Sea other) {
+		this.rules = other.rules;
+		this.width = other.width;
+		this.height = other.height;
+		this.shotTiles = new TileMask(other.shotTiles);
+		this.touchedTiles = new TileMask(other.touchedTiles);
+		if (other.areShipsAllPlaced()) {	// occupation immuable, partagée
+			this.occupiedTiles = other.occupiedTiles;
+			this.shipIndexGrid = other.shipIndexGrid;
+		} else {
+			this.occupiedTiles = new TileMask(other.occupiedTiles);
+			this.shipIndexGrid = other.shipIndexGrid.clone();
+		}
+		this.shotCount = other.shotCount;
+		this.touchedCount = other.touchedCount;
+		this.deadShipCount = other.deadShipCount;
+		this.epoch = other.epoch;
+		this.zobristHash = other.zobristHash;
+		this.firstRowTiles = other.firstRowTiles;
+		this.lastRowTiles = other.lastRowTiles;
+		
+		this.ships = new ArrayList<Ship>(other.ships.size());
+		for (Ship ship : other.ships) {
+			this.ships.add(new Ship(ship));
+		}
+		this.harmedShips = new ArrayList<Ship>(other.harmedShips.size());
+		for (Ship ship : other.harmedShips) {
+			this.harmedShips.add(this.ships.get(other.ships.indexOf(ship)));
+		}
+		this.shipsToPlace = new ArrayList<Ship>(other.shipsToPlace.size());
+		for (Ship ship : other.shipsToPlace) {
+			this.shipsToPlace.add(new Ship(ship));
+		}
+		this.shipOnPlacing = other.shipOnPlacing == null ? null : new Ship(other.shipOnPlacing);
+	}
+	
+	/**
+	 * Recharge une grille sauvegardée et recalcule son hash.
+	 * Les sauvegardes antérieures aux masques n'ont que la matrice des états des cases ;
+	 * les masques, l'index des bateaux et les compteurs en sont reconstruits.
+	 * Les sauvegardes antérieures à l'ajout de l'époque la retrouvent à partir des bateaux.
+	 * @param in Le flux de la sauvegarde.
+	 * @throws IOException Si la lecture échoue.
+	 * @throws ClassNotFoundException Si une classe de la sauvegarde est inconnue.
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		shipsToPlace = (List<Ship>) fields.get("shipsToPlace", null);
+		shipOnPlacing = (Ship) fields.get("shipOnPlacing", null);
+		ships = (List<Ship>) fields.get("ships", null);
+		epoch = (Epoch) fields.get("epoch", null);
+		if (fields.getObjectStreamClass().getField("grid") != null) {	// sauvegarde antérieure aux masques
+			readTileStates((SeaTileState[][]) fields.get("grid", null));
+		} else {
+			rules = (GameRules) fields.get("rules", null);
+			width = fields.get("width", 0);
+			height = fields.get("height", 0);
+			shotTiles = (TileMask) fields.get("shotTiles", null);
+			touchedTiles = (TileMask) fields.get("touchedTiles", null);
+			occupiedTiles = (TileMask) fields.get("occupiedTiles", null);
+			shotCount = fields.get("shotCount", 0);
+			touchedCount = fields.get("touchedCount", 0);
+			shipIndexGrid = (int[]) fields.get("shipIndexGrid", null);
+			harmedShips = (List<Ship>) fields.get("harmedShips", null);
+			deadShipCount = fields.get("deadShipCount", 0);
+		}
+		if (epoch == null) {
+			List<Ship> allShips = new ArrayList<Ship>(ships);
+			allShips.addAll(shipsToPlace);
+			if (shipOnPlacing != null) {
+				allShips.add(shipOnPlacing);
+			}
+			if (!allShips.isEmpty()) {
+				epoch = allShips.get(0).getEpoch();
+			}
 		}
+		zobristHash = computeZobristHash();
+		initRowTiles();
+	}
+	
+	/**
+	 * Reconstruit l'état d'une grille sauvegardée avant l'ajout des masques,
+	 * à partir de la matrice des états des cases (indicée par abscisse puis ordonnée) et des bateaux.
+	 * Les règles sont celles de l'époque : dimensions de la matrice, flotte sauvegardée et un tir par tour.
+	 * @param grid La matrice des états des cases.
+	 */
+	private void readTileStates(SeaTileState[][] grid) {
+		width = grid.length;
+		height = grid[0].length;
+		int[] shipsSizes = new int[ships.size() + (shipOnPlacing == null ? 0 : 1) + shipsToPlace.size()];
+		int n = 0;
+		for (Ship ship : ships) {
+			shipsSizes[n++] = ship.getSize();
+		}
+		if (shipOnPlacing != null) {
+			shipsSizes[n++] = shipOnPlacing.getSize();
+		}
+		for (Ship ship : shipsToPlace) {
+			shipsSizes[n++] = ship.getSize();
+		}
+		rules = new GameRules(width, height, shipsSizes, 1);
+		
+		shotTiles = new TileMask(width * height);
+		touchedTiles = new TileMask(width * height);
+		for (int x = 0 ; x < width ; x++) {
+			for (int y = 0 ; y < height ; y++) {
+				if (grid[x][y] != SeaTileState.NORMAL) {
+					shotTiles.set(tileIndex(x, y));
+					shotCount++;
+				}
+				if (grid[x][y] == SeaTileState.TOUCHED) {
+					touchedTiles.set(tileIndex(x, y));
+					touchedCount++;
+				}
+			}
+		}
+		
+		occupiedTiles = new TileMask(width * height);
+		shipIndexGrid = new int[width * height];
+		harmedShips = new ArrayList<Ship>();
+		for (int i = 0 ; i < ships.size() ; i++) {
+			Ship ship = ships.get(i);
+			for (Position tile : ship.getSeaTilesOccupied()) {
+				if (isInside(tile)) {
+					occupiedTiles.set(tileIndex(tile.getX(), tile.getY()));
+					shipIndexGrid[tileIndex(tile.getX(), tile.getY())] = i + 1;
+				}
+			}
+			if (ship.isDead()) {
+				deadShipCount++;
+			} else if (ship.getHitCount() > 0) {
+				harmedShips.add(ship);
+			}
+		}
+	}
+	
+	/**
+	 * Calcule les masques de la première et de la dernière ligne.
+	 */
+	private void initRowTiles() {
+		firstRowTiles = new TileMask(width * height);
+		lastRowTiles = new TileMask(width * height);
+		for (int x = 0 ; x < width ; x++) {
+			firstRowTiles.set(tileIndex(x, 0));
+			lastRowTiles.set(tileIndex(x, height - 1));
+		}
+	}
+	
+	/**
+	 * Crée une copie détachée de la grille, sans bus d'événements,
+	 * utile pour simuler des tirs sans modifier la partie en cours.
+	 * Les deux grilles évoluent ensuite indépendamment.
+	 * @return La copie de la grille.
+	 */
+	public Sea fork() {
+		return new Sea(this);
+	}
+	
+	/**
+	 * Relie la grille au bus d'événements de sa partie.
+	 * @param eventBus Le bus, null pour ne plus publier d'événements.
+	 */
+	void setEventBus(EventBus eventBus) {
+		this.eventBus = eventBus;
+	}
+	
+	/**
+	 * Relie la grille au journal de sa partie.
+	 * @param log Le journal, null pour ne plus journaliser.
+	 * @param owner Le propriétaire de la grille.
+	 */
+	void setLog(GameLog log, PlayerId owner) {
+		this.log = log;
+		this.owner = owner;
+	}
+	
+	/**
+	 * Publie un événement sur le bus de la partie, s'il y en a un.
+	 * @param event L'événement.
+	 */
+	private void post(GameEvent event) {
+		if (eventBus != null) {
+			eventBus.post(event);
+		}
+	}
+	
+	/**
+	 * Retourne l'époque des bateaux de la grille.
+	 * @return L'époque.
+	 */
+	public Epoch getEpoch() {
+		return epoch;
+	}
+	
+	/**
+	 * Retourne le hash de Zobrist de l'état visible de la grille :
+	 * règles, bateaux placés (nombre et tailles), cases manquées, cases touchées et cases des bateaux coulés.
+	 * Deux grilles dans le même état visible ont le même hash, quel que soit l'ordre des tirs.
+	 * Le hash est mis à jour à chaque tir et à chaque placement, en temps constant
+	 * (sauf lorsqu'un bateau coule, en temps proportionnel à sa taille).
+	 * @return Le hash sur 64 bits.
+	 */
+	public long getZobristHash() {
+		return zobristHash;
+	}
+	
+	/**
+	 * Retourne la clé de Zobrist d'un élément de l'état de la grille.
+	 * Les clés sont calculées par une fonction de mélange plutôt que tirées dans une table,
+	 * afin de ne pas dépendre de la taille de la grille.
+	 * @param kind La nature de l'élément (case manquée, touchée, coulée, bateau placé).
+	 * @param value L'élément (indice de la case, du bateau).
+	 * @return La clé.
+	 */
+	private static long zobristKey(int kind, long value) {
+		long z = (value * 4 + kind + 1) * 0x9e3779b97f4a7c15L;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+	
+	/**
+	 * Retourne la clé d'un bateau placé.
+	 * @param shipIndex L'indice du bateau dans {@link #ships}.
+	 * @param size La taille du bateau.
+	 * @return La clé.
+	 */
+	private static long placedShipKey(int shipIndex, int size) {
+		return zobristKey(ZOBRIST_PLACED, ((long) shipIndex << 32) | size);
+	}
+	
+	/**
+	 * Calcule entièrement le hash de Zobrist de la grille.
+	 * @return Le hash.
+	 */
+	private long computeZobristHash() {
+		long hash = zobristKey(ZOBRIST_PLACED, -1 - rules.hashCode());	// les règles
+		for (int w = 0 ; w < shotTiles.wordCount() ; w++) {
+			long touched = touchedTiles.word(w);
+			long missed = shotTiles.word(w) & ~touched;
+			for (; missed != 0 ; missed &= missed - 1) {
+				hash ^= zobristKey(ZOBRIST_MISSED, (w << 6) + Long.numberOfTrailingZeros(missed));
+			}
+			for (; touched != 0 ; touched &= touched - 1) {
+				hash ^= zobristKey(ZOBRIST_TOUCHED, (w << 6) + Long.numberOfTrailingZeros(touched));
+			}
+		}
+		for (int i = 0 ; i < ships.size() ; i++) {
+			hash ^= placedShipKey(i, ships.get(i).getSize());
+			if (ships.get(i).isDead()) {
+				hash ^= sunkShipKey(ships.get(i));
+			}
+		}
+		return hash;
+	}
+	
+	/**
+	 * Retourne la clé des cases d'un bateau coulé.
+	 * @param ship Le bateau.
+	 * @return La clé.
+	 */
+	private long sunkShipKey(Ship ship) {
+		long key = 0;
+		for (Position tile : ship.getSeaTilesOccupied()) {
+			if (isInside(tile)) {
+				key ^= zobristKey(ZOBRIST_SUNK, tileIndex(tile.getX(), tile.getY()));
+			}
+		}
+		return key;
 	}
 	
 	/**
@@ -82,7 +520,7 @@ public class Sea extends Observable implements Serializable {
 	 * @return La largeur de la grille.
 	 */
 	public int getGridWidth() {
-		return grid.length;
+		return width;
 	}
 	
 	/**
@@ -90,15 +528,23 @@ public class Sea extends Observable implements Serializable {
 	 * @return La hauteur de la grille.
 	 */
 	public int getGridHeight() {
-		return grid[0].length;
+		return height;
+	}
+	
+	/**
+	 * Retourne les règles de la partie.
+	 * @return Les règles de la partie.
+	 */
+	public GameRules getRules() {
+		return rules;
 	}
 	
 	/**
 	 * Retourn l'ensemble de la taille des bateaux présents sur la grille.
 	 * @return Un tableau contenant l'ensemble de la taille des bateaux.
 	 */
-	public static int[] getShipsSizes() {
-		return SHIPS_SIZES;
+	public int[] getShipsSizes() {
+		return rules.getShipsSizes();
 	}
 	
 	/**
@@ -108,7 +554,34 @@ public class Sea extends Observable implements Serializable {
 	 * @return L'état de la case.
 	 */
 	public SeaTileState getGridTileState(int x, int y) {
-		return grid[x][y];
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			throw new ArrayIndexOutOfBoundsException("Case hors de la grille (" + x + ", " + y + ")");
+		}
+		int index = tileIndex(x, y);
+		if (touchedTiles.get(index)) {
+			return SeaTileState.TOUCHED;
+		}
+		return shotTiles.get(index) ? SeaTileState.SHOT : SeaTileState.NORMAL;
+	}
+	
+	/**
+	 * Retourne l'indice du bit correspondant à une case dans les masques de la grille.
+	 * Les cases sont rangées colonne par colonne (même ordre que le parcours abscisse puis ordonnée).
+	 * @param x L'abscisse de la case.
+	 * @param y L'ordonnée de la case.
+	 * @return L'indice de la case dans les masques.
+	 */
+	int tileIndex(int x, int y) {
+		return x * height + y;
+	}
+	
+	/**
+	 * Regarde si la position est dans les limites de la grille.
+	 * @param p La position.
+	 * @return Vrai si la position est dans la grille, faux sinon.
+	 */
+	private boolean isInside(Position p) {
+		return p.getX() >= 0 && p.getX() < width && p.getY() >= 0 && p.getY() < height;
 	}
 
 	/**
@@ -117,9 +590,7 @@ public class Sea extends Observable implements Serializable {
 	 * @return Si oui ou non la case est à l'état "NORMAL"
 	 */
 	public boolean isTileNormal(Position p) {
-		if(getGridTileState(p.getX(), p.getY()).equals(SeaTileState.NORMAL)) return true;
-
-		return false;
+		return getGridTileState(p.getX(), p.getY()) == SeaTileState.NORMAL;
 	}
 	
 	/**
@@ -128,9 +599,7 @@ public class Sea extends Observable implements Serializable {
 	 * @return Si oui ou non la case est à l'état "SHOT"
 	 */
 	public boolean isTileShot(Position p) {
-		if(getGridTileState(p.getX(), p.getY()).equals(SeaTileState.SHOT)) return true;
-
-		return false;
+		return getGridTileState(p.getX(), p.getY()) == SeaTileState.SHOT;
 	}
 	
 	/**
@@ -139,9 +608,7 @@ public class Sea extends Observable implements Serializable {
 	 * @return Si oui ou non la case est à l'état "TOUCHED"
 	 */
 	public boolean isTileTouched(Position p) {
-		if(getGridTileState(p.getX(), p.getY()).equals(SeaTileState.TOUCHED)) return true;
-
-		return false;
+		return getGridTileState(p.getX(), p.getY()) == SeaTileState.TOUCHED;
 	}
 	
 	/**
@@ -152,6 +619,27 @@ public class Sea extends Observable implements Serializable {
 		return ships;
 	}
 	
+	/**
+	 * Retourne l'état des bateaux placés sur la grille, dans leur ordre de placement.
+	 * Les états sont immuables et peuvent être lus par un autre thread (affichage).
+	 * @return Les états des bateaux placés.
+	 */
+	public List<ShipSnapshot> getShipSnapshots() {
+		List<ShipSnapshot> snapshots = new ArrayList<ShipSnapshot>(ships.size());
+		for (int i = 0 ; i < ships.size() ; i++) {
+			snapshots.add(new ShipSnapshot(ships.get(i), i));
+		}
+		return snapshots;
+	}
+	
+	/**
+	 * Retourne l'état du bateau en cours de placement.
+	 * @return L'état du bateau, null s'il n'y a pas de bateau en cours de placement.
+	 */
+	ShipSnapshot getShipOnPlacingSnapshot() {
+		return shipOnPlacing == null ? null : new ShipSnapshot(shipOnPlacing, ships.size());
+	}
+	
 	/**
 	 * Retourne la liste des bateaux à placer sur la grille.
 	 * @return La liste des bateaux à placer sur la grille.
@@ -184,14 +672,31 @@ public class Sea extends Observable implements Serializable {
 		if (!areShipsAllPlaced()) {	// S'il reste des bateaux à placer,
 			return false;			// les bateaux ne peuvent pas être tous détruits
 		}
-		
-		boolean allDead = true;
-		Iterator<Ship> iter = ships.iterator();
-		while (iter.hasNext() && allDead) {	// On regarde si tous les bateaux sont détruits
-			Ship ship = iter.next();
-			allDead = ship.isDead();
-		}
-		return allDead;
+		return deadShipCount == ships.size();
+	}
+	
+	/**
+	 * Retourne le nombre de bateaux placés qui ne sont pas détruits.
+	 * @return Le nombre de bateaux placés en vie.
+	 */
+	public int getAliveShipCount() {
+		return ships.size() - deadShipCount;
+	}
+	
+	/**
+	 * Retourne le nombre de bateaux touchés mais pas encore détruits.
+	 * @return Le nombre de bateaux blessés.
+	 */
+	public int getHarmedShipCount() {
+		return harmedShips.size();
+	}
+	
+	/**
+	 * Retourne le nombre de bateaux placés détruits.
+	 * @return Le nombre de bateaux détruits.
+	 */
+	public int getDeadShipCount() {
+		return deadShipCount;
 	}
 	
 	/**
@@ -199,14 +704,7 @@ public class Sea extends Observable implements Serializable {
 	 * @return Vrai si il existe au moins un bateau blessé, faux sinon.
 	 */
 	public boolean isAnyShipHarmed(){
-		for (Ship s : ships){
-			if (!s.isDead()){
-				if (s.getHitCount() != 0){
-					return true;
-				}
-			}
-		}
-		return false;
+		return !harmedShips.isEmpty();
 	}
 
 	/**
@@ -216,10 +714,8 @@ public class Sea extends Observable implements Serializable {
 	public ArrayList<Position> harmedShipPositions() {
 		ArrayList<Position> harmedShipPositions = new ArrayList<>();
 
-		for(Ship s : ships) {
-			if(!s.isDead()) {
-				harmedShipPositions.addAll(s.harmedPositions());
-			}
+		for(Ship s : harmedShips) {
+			harmedShipPositions.addAll(s.harmedPositions());
 		}
 
 		return harmedShipPositions;
@@ -232,18 +728,10 @@ public class Sea extends Observable implements Serializable {
 	 * @return Vrai si la case à cette position est libre, faux sinon.
 	 */
 	public boolean isSeaTileFree(Position position) {
-		if (position.isOutOfBounds(0, grid.length-1, 0, grid[0].length-1)) {
+		if (!isInside(position)) {
 			return false;
 		}
-		
-		boolean tileFree = true;
-		Iterator<Ship> iter = ships.iterator();
-		while (iter.hasNext() && tileFree) {
-			Ship ship = iter.next();
-			tileFree = !Arrays.asList(ship.getSeaTilesOccupied()).contains(position);
-			// On vérifie si la case est occupée par le bateau
-		}
-		return tileFree;
+		return shipIndexGrid[tileIndex(position.getX(), position.getY())] == 0;
 	}
 	
 	/**
@@ -254,19 +742,36 @@ public class Sea extends Observable implements Serializable {
 	public boolean isShipOnPlacingInValidPosition() {
 		if (shipOnPlacing == null					// Si il n'y a pas de bateau en cours de positionnement
 			|| shipOnPlacing.getPosition() == null	// ou que sa position n'est pas défini ou hors-limites,
-			|| shipOnPlacing.getPosition().isOutOfBounds(0, grid.length-1, 0, grid[0].length-1)) {
+			|| !isInside(shipOnPlacing.getPosition())) {
 			return false;							// le positionnement est invalide
 		}
 		
-		Position[] tilesOccupied = shipOnPlacing.getSeaTilesOccupied();	// et on récupère les cases qu'il occupe
-		boolean validPlace = true;
-		int i = 0;											// on regarde pour chaque case occupée par le bateau
-		while (i < tilesOccupied.length && validPlace) {
-			validPlace = this.isSeaTileFree(tilesOccupied[i]);	// si elle est libre
-			i++;
+		int x = shipOnPlacing.getPosition().getX();
+		int y = shipOnPlacing.getPosition().getY();
+		int size = shipOnPlacing.getSize();
+		switch(shipOnPlacing.getOrientation()) {
+			case HORIZONTAL:
+				if (x + size > width) {		// le bateau dépasse de la grille
+					return false;
+				}
+				// Les cases d'une ligne sont espacées de la hauteur de la grille dans le masque
+				for (int i = 0 ; i < size ; i++) {
+					if (occupiedTiles.get(tileIndex(x + i, y))) {
+						return false;
+					}
+				}
+				return true;
+			case VERTICAL:
+				if (y + size > height) {	// le bateau dépasse de la grille
+					return false;
+				}
+				// Les cases d'une colonne sont contiguës dans le masque
+				int from = tileIndex(x, y);
+				int firstOccupied = occupiedTiles.nextSetBit(from);
+				return firstOccupied == -1 || firstOccupied >= from + size;
+			default:
+				throw new AssertionError("Orientation inconnue " + shipOnPlacing.getOrientation());
 		}
-		
-		return validPlace;
 	}
 	
 	/**
@@ -274,15 +779,237 @@ public class Sea extends Observable implements Serializable {
 	 * @return La liste des positions où aucun tir n'a été effectué.
 	 */
 	public List<Position> getAllNormalPositions() {
-		List<Position> possibleShots = new ArrayList<Position>(grid.length * grid[0].length);
-		for (int i = 0 ; i < grid.length ; i++) {
-			for (int j = 0 ; j < grid[0].length ; j++) {
-				if (grid[i][j] == SeaTileState.NORMAL) {
-					possibleShots.add(new Position(i, j));
+		List<Position> possibleShots = new ArrayList<Position>(countTiles(SeaTileState.NORMAL));
+		// On parcourt directement les bits à 0 du masque des tirs
+		for (int i = shotTiles.nextClearBit(0) ; i != -1 ; i = shotTiles.nextClearBit(i + 1)) {
+			possibleShots.add(Position.of(i / height, i % height));
+		}
+		return possibleShots;
+	}
+	
+	/**
+	 * Compte les cases de la grille dans un certain état.
+	 * @param state L'état des cases à compter.
+	 * @return Le nombre de cases dans cet état.
+	 */
+	public int countTiles(SeaTileState state) {
+		switch(state) {
+			case NORMAL:
+				return width * height - shotCount;
+			case SHOT:
+				return shotCount - touchedCount;
+			case TOUCHED:
+				return touchedCount;
+			default:
+				throw new AssertionError("Etat inconnu " + state);
+		}
+	}
+	
+	/**
+	 * Visite toutes les cases de la grille dans un certain état,
+	 * dans l'ordre du parcours abscisse puis ordonnée.
+	 * Aucune liste n'est créée.
+	 * @param state L'état des cases à visiter.
+	 * @param visitor Le visiteur appelé pour chaque case.
+	 */
+	public void forEachTile(SeaTileState state, TileVisitor visitor) {
+		for (int w = 0 ; w < shotTiles.wordCount() ; w++) {
+			long word = tileStateWord(state, w);
+			while (word != 0) {
+				int index = (w << 6) + Long.numberOfTrailingZeros(word);
+				visitor.visitTile(index / height, index % height);
+				word &= word - 1;
+			}
+		}
+	}
+	
+	/**
+	 * Retourne la k-ième case (à partir de 0) dans un certain état,
+	 * dans l'ordre du parcours abscisse puis ordonnée.
+	 * Les mots des masques sont comptés 64 cases à la fois.
+	 * @param state L'état de la case.
+	 * @param k Le rang de la case, compris entre 0 et {@link #countTiles(SeaTileState)} exclu.
+	 * @return La position de la case.
+	 * @throws IndexOutOfBoundsException Si k est hors limites.
+	 */
+	public Position nthTileWithState(SeaTileState state, int k) {
+		if (k < 0 || k >= countTiles(state)) {
+			throw new IndexOutOfBoundsException("Rang de case invalide " + k);
+		}
+		int w = 0;
+		long word = tileStateWord(state, w);
+		int count = Long.bitCount(word);
+		while (k >= count) {	// on saute les mots entiers
+			k -= count;
+			word = tileStateWord(state, ++w);
+			count = Long.bitCount(word);
+		}
+		int index = (w << 6) + TileMask.selectInWord(word, k);
+		return Position.of(index / height, index % height);
+	}
+	
+	/**
+	 * Retourne une copie du masque des cases occupées par les bateaux placés.
+	 * La case (x, y) correspond au bit (x * hauteur + y).
+	 * @return La copie du masque.
+	 */
+	TileMask copyOccupiedTiles() {
+		return new TileMask(occupiedTiles);
+	}
+	
+	/**
+	 * Retourne le nombre de mots de 64 cases des masques de la grille.
+	 * La case (x, y) correspond au bit (x * hauteur + y).
+	 * @return Le nombre de mots.
+	 */
+	int tileWordCount() {
+		return shotTiles.wordCount();
+	}
+	
+	/**
+	 * Retourne le mot de 64 cases des masques correspondant à un état :
+	 * le bit i est à 1 si la case (64 * wordIndex + i) est dans cet état.
+	 * Les bits au-delà de la dernière case sont à 0.
+	 * @param state L'état.
+	 * @param wordIndex L'indice du mot, inférieur à {@link #tileWordCount()}.
+	 * @return Le mot des cases dans cet état.
+	 */
+	long tileStateWord(SeaTileState state, int wordIndex) {
+		switch(state) {
+			case NORMAL:
+				return ~shotTiles.word(wordIndex) & shotTiles.validBits(wordIndex);
+			case SHOT:
+				return shotTiles.word(wordIndex) & ~touchedTiles.word(wordIndex);
+			case TOUCHED:
+				return touchedTiles.word(wordIndex);
+			default:
+				throw new AssertionError("Etat inconnu " + state);
+		}
+	}
+	
+	/**
+	 * Retourne la position de la case correspondant à un bit des masques de la grille.
+	 * @param index L'indice du bit, voir {@link #tileIndex(int, int)}.
+	 * @return La position de la case.
+	 */
+	Position tilePosition(int index) {
+		return Position.of(index / height, index % height);
+	}
+	
+	/**
+	 * Crée un masque vide aux dimensions de la grille.
+	 * @return Le masque.
+	 */
+	TileMask newTileMask() {
+		return new TileMask(width * height);
+	}
+	
+	/**
+	 * Retourne le masque des cases n'ayant reçu aucun tir.
+	 * @return Un nouveau masque, que l'appelant peut modifier.
+	 */
+	TileMask untouchedTiles() {
+		TileMask untouched = new TileMask(shotTiles);
+		untouched.not();
+		return untouched;
+	}
+	
+	/**
+	 * Retourne le masque des cases touchées des bateaux blessés mais pas détruits.
+	 * @return Un nouveau masque, que l'appelant peut modifier.
+	 */
+	TileMask harmedTiles() {
+		TileMask harmed = newTileMask();
+		for (Ship ship : harmedShips) {
+			markShipTiles(harmed, ship);
+		}
+		harmed.and(touchedTiles);
+		return harmed;
+	}
+	
+	/**
+	 * Retourne le masque des cases des bateaux détruits, touchées ou non.
+	 * Aucun bateau en vie ne peut s'y trouver.
+	 * @return Un nouveau masque, que l'appelant peut modifier.
+	 */
+	TileMask sunkTiles() {
+		TileMask sunk = newTileMask();
+		if (deadShipCount > 0) {
+			for (Ship ship : ships) {
+				if (ship.isDead()) {
+					markShipTiles(sunk, ship);
 				}
 			}
 		}
-		return possibleShots;
+		return sunk;
+	}
+	
+	/**
+	 * Met à 1 les bits des cases d'un bateau dans un masque.
+	 * @param mask Le masque.
+	 * @param ship Le bateau.
+	 */
+	private void markShipTiles(TileMask mask, Ship ship) {
+		for (Position tile : ship.getSeaTilesOccupied()) {
+			if (isInside(tile)) {
+				mask.set(tileIndex(tile.getX(), tile.getY()));
+			}
+		}
+	}
+	
+	/**
+	 * Décale un masque de cases : la case (x, y) passe en (x + dx, y + dy).
+	 * Les cases sortant de la grille sont perdues, une colonne ne déborde jamais sur sa voisine.
+	 * En abscisse, le décalage est un multiple de la hauteur de la grille ;
+	 * en ordonnée, chaque pas efface la ligne qui déborderait puis décale de 1.
+	 * @param tiles Le masque, modifié.
+	 * @param dx Le décalage en abscisse.
+	 * @param dy Le décalage en ordonnée.
+	 */
+	void shiftTiles(TileMask tiles, int dx, int dy) {
+		tiles.shift(dx * height);
+		for (; dy > 0 ; dy--) {
+			tiles.andNot(lastRowTiles);
+			tiles.shift(1);
+		}
+		for (; dy < 0 ; dy++) {
+			tiles.andNot(firstRowTiles);
+			tiles.shift(-1);
+		}
+	}
+	
+	/**
+	 * Retourne le masque des cases voisines (horizontalement ou verticalement) d'un ensemble de cases.
+	 * Les touchés voisins d'une case s'obtiennent ainsi par intersection avec les cases touchées,
+	 * les cases à viser autour des touchés par intersection avec {@link #untouchedTiles()}.
+	 * @param tiles Le masque des cases, non modifié.
+	 * @return Un nouveau masque, que l'appelant peut modifier.
+	 */
+	TileMask neighbourTiles(TileMask tiles) {
+		TileMask neighbours = newTileMask();
+		for (int[] d : NEIGHBOUR_DIRECTIONS) {
+			TileMask shifted = new TileMask(tiles);
+			shiftTiles(shifted, d[0], d[1]);
+			neighbours.or(shifted);
+		}
+		return neighbours;
+	}
+	
+	/**
+	 * Retourne le masque des cases (x, y) telles que x + y est un multiple d'un pas,
+	 * c'est à dire une case sur {@code step} en diagonale :
+	 * toute position d'un bateau de taille {@code step} contient une de ces cases.
+	 * @param step Le pas, strictement positif.
+	 * @return Un nouveau masque, que l'appelant peut modifier.
+	 */
+	TileMask diagonalTiles(int step) {
+		TileMask diagonal = newTileMask();
+		for (int x = 0 ; x < width ; x++) {
+			for (int y = (step - x % step) % step ; y < height ; y += step) {
+				diagonal.set(tileIndex(x, y));
+			}
+		}
+		return diagonal;
 	}
 	
 	/**
@@ -301,13 +1028,27 @@ public class Sea extends Observable implements Serializable {
 	 * et met le bateau suivant en cours de positionnement.
 	 */
 	public void validateShipPlacement() {
+		Ship placed = shipOnPlacing;
 		if (shipOnPlacing != null) {
 			ships.add(shipOnPlacing);
+			int shipIndex = ships.size();		// indice du bateau augmenté de 1
+			zobristHash ^= placedShipKey(shipIndex - 1, shipOnPlacing.getSize());
+			for (Position tile : shipOnPlacing.getSeaTilesOccupied()) {	// on marque les cases occupées
+				if (isInside(tile)) {
+					int index = tileIndex(tile.getX(), tile.getY());
+					occupiedTiles.set(index);
+					shipIndexGrid[index] = shipIndex;
+				}
+			}
 		}
 		shipOnPlacing = null;
 		putNextShipToPlace();
-		setChanged();
-		notifyObservers();
+		if (placed != null) {
+			if (log != null) {
+				log.appendPlacement(owner, placed);
+			}
+			post(new ShipPlaced(this, new ShipSnapshot(placed, ships.size() - 1)));
+		}
 	}
 
 	/**
@@ -317,23 +1058,69 @@ public class Sea extends Observable implements Serializable {
 	 */
 	public boolean receiveShot(Position shotPos) {
 		// Coordonnées du tir non valide ou tir déjà effectué à cette position
-		if (shotPos.isOutOfBounds(0, grid.length-1, 0, grid[0].length-1)
-				|| grid[shotPos.getX()][shotPos.getY()] != SeaTileState.NORMAL) {
+		if (!isInside(shotPos) || shotTiles.get(tileIndex(shotPos.getX(), shotPos.getY()))) {
 			return false;
 		}
 		
 		boolean touched = false;
-		Iterator<Ship> iter = ships.iterator();
-		while (iter.hasNext() && !touched) {	// Pour chaque bateau,
-			Ship ship = iter.next();
-			touched = ship.checkShot(shotPos);	// on regarde si il est touché
+		Ship sunk = null;
+		int shipIndex = shipIndexGrid[tileIndex(shotPos.getX(), shotPos.getY())];
+		if (shipIndex != 0) {					// Si un bateau occupe la case,
+			Ship ship = ships.get(shipIndex - 1);
+			boolean wasDead = ship.isDead();
+			touched = ship.checkShot(shotPos);	// il est touché
+			updateFleetStatus(ship, wasDead);	// et on met à jour l'état de la flotte
+			if (!wasDead && ship.isDead()) {
+				sunk = ship;
+			}
 		}
 		updateTileState(shotPos, touched);		// on met à jour l'état de la position du tir
-		setChanged();
-		notifyObservers();
+		if (log != null) {
+			log.appendShot(owner, shotPos, touched);
+		}
+		post(new ShotResolved(this, shotPos.getX(), shotPos.getY(), touched));
+		if (sunk != null) {
+			post(new ShipSunk(this, new ShipSnapshot(sunk, shipIndex - 1)));
+		}
 
 		return true;							// on indique que le tir est valide
 	}
+
+	/**
+	 * Marque une case comme manquée sans consulter les bateaux.
+	 * Sert à planifier une salve sur une copie de la grille ({@link #fork()}) :
+	 * les cases déjà choisies ne sont plus libres, sans que la stratégie apprenne si elles sont occupées.
+	 * Ne doit pas être utilisé sur la grille d'une partie.
+	 * @param position La position de la case.
+	 * @return Vrai si la case était libre, faux sinon.
+	 */
+	boolean markPlannedShot(Position position) {
+		if (!isInside(position) || shotTiles.get(tileIndex(position.getX(), position.getY()))) {
+			return false;
+		}
+		updateTileState(position, false);
+		return true;
+	}
+
+	/**
+	 * Met à jour les compteurs de bateaux blessés et détruits
+	 * après qu'un bateau a été touché.
+	 * @param ship Le bateau touché.
+	 * @param wasDead Vrai si le bateau était déjà détruit avant le tir.
+	 */
+	private void updateFleetStatus(Ship ship, boolean wasDead) {
+		if (wasDead) {
+			return;
+		}
+		if (ship.isDead()) {
+			deadShipCount++;
+			harmedShips.remove(ship);
+			zobristHash ^= sunkShipKey(ship);
+		}
+		else if (ship.getHitCount() == 1) {	// premier tir touchant le bateau
+			harmedShips.add(ship);
+		}
+	}
 	
 	/**
 	 * Met à jour l'état de la case de la grille selon si un bateau se trouve
@@ -342,7 +1129,14 @@ public class Sea extends Observable implements Serializable {
 	 * @param touched A vrai si un bateau est touché à cette position, à faux sinon.
 	 */
 	private void updateTileState(Position position, boolean touched) {
-		grid[position.getX()][position.getY()] = touched ? SeaTileState.TOUCHED : SeaTileState.SHOT; 
+		int index = tileIndex(position.getX(), position.getY());
+		shotTiles.set(index);
+		shotCount++;
+		if (touched) {
+			touchedTiles.set(index);
+			touchedCount++;
+		}
+		zobristHash ^= zobristKey(touched ? ZOBRIST_TOUCHED : ZOBRIST_MISSED, index);
 	}
 
 	/** Renvoie les positions sur lesquelles on peut tirer (positions ni touchées ni hors de la grille) autour d'une position donnée
@@ -354,10 +1148,10 @@ public class Sea extends Observable implements Serializable {
         ArrayList<Position> shootablePositions = new ArrayList<>();
         Position[] testedPositions = new Position[4];
 
-        testedPositions[0] = new Position(p.getX() + 1, p.getY());
-        testedPositions[1] = new Position(p.getX() - 1, p.getY());
-        testedPositions[2] = new Position(p.getX(), p.getY() + 1);
-        testedPositions[3] = new Position(p.getX(), p.getY() - 1);
+        testedPositions[0] = Position.of(p.getX() + 1, p.getY());
+        testedPositions[1] = Position.of(p.getX() - 1, p.getY());
+        testedPositions[2] = Position.of(p.getX(), p.getY() + 1);
+        testedPositions[3] = Position.of(p.getX(), p.getY() - 1);
 
         for (int i = 0; i < 4; i++) {
             if (!testedPositions[i].isOutOfBounds(0, getGridWidth()-1, 0, getGridHeight()-1)) {
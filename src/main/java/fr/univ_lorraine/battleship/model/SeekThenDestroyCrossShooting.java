@@ -1,8 +1,5 @@
 package fr.univ_lorraine.battleship.model;
 
-import java.util.ArrayList;
-import java.util.Random;
-
 /**
  * Stratégie de tir "Recherche puis destruction" avec une phase de recherche
  * reposant sur des tirs en croix.
@@ -15,6 +12,44 @@ public class SeekThenDestroyCrossShooting extends AbstractSeekThenDestroyShootin
 	 */
 	private static final long serialVersionUID = 1L;
 	
+	/**
+	 * Masque des cases de la croix (une case sur deux en diagonale) de la dernière grille visée,
+	 * recalculé si les dimensions de la grille changent.
+	 */
+	private transient TileMask crossTiles;
+	
+	/**
+	 * Largeur de la grille de {@link #crossTiles}.
+	 */
+	private transient int crossWidth;
+	
+	/**
+	 * Hauteur de la grille de {@link #crossTiles}.
+	 */
+	private transient int crossHeight;
+	
+	/**
+	 * Crée la stratégie.
+	 */
+	public SeekThenDestroyCrossShooting() {
+	}
+	
+	/**
+	 * Crée une copie d'une stratégie, qui partage son masque de la croix (jamais modifié).
+	 * @param other La stratégie à copier.
+	 */
+	private SeekThenDestroyCrossShooting(SeekThenDestroyCrossShooting other) {
+		super(other);
+		this.crossTiles = other.crossTiles;
+		this.crossWidth = other.crossWidth;
+		this.crossHeight = other.crossHeight;
+	}
+	
+	@Override
+	public ShootingStrategy copy() {
+		return new SeekThenDestroyCrossShooting(this);
+	}
+	
 	@Override
 	public ShootingStrategyName getShootingStrategyName() {
 		return ShootingStrategyName.SEEK_THEN_DESTROY_CROSS;
@@ -22,20 +57,19 @@ public class SeekThenDestroyCrossShooting extends AbstractSeekThenDestroyShootin
 
 	@Override
 	protected Position playShootInSeekPhase(Sea sea) {
-
-		ArrayList<Position> shootablePositions = new ArrayList<>();
-		Random rand = new Random();
-		int xInit = 0;
-		Position p;
-
-		for(int y = 0; y < sea.getGridHeight(); y+= 1) {
-			for(int x = xInit; x < sea.getGridWidth(); x+=2) {
-				p = new Position(x, y);
-				if(sea.isTileNormal(p)) shootablePositions.add(p);
-			}
-			xInit = (xInit+1)%2; // Pour commencer à la case 2 (en x) une ligne sur deux
+		if (crossTiles == null || crossWidth != sea.getGridWidth() || crossHeight != sea.getGridHeight()) {
+			crossTiles = sea.diagonalTiles(2);
+			crossWidth = sea.getGridWidth();
+			crossHeight = sea.getGridHeight();
+		}
+		// Cases de la croix sans tir
+		TileMask candidates = sea.untouchedTiles();
+		candidates.and(crossTiles);
+		int count = candidates.cardinality();
+		if (count == 0) {	// Toutes les cases de la croix ont été visées
+			candidates = sea.untouchedTiles();
+			count = candidates.cardinality();
 		}
-		
-		return shootablePositions.get(rand.nextInt(shootablePositions.size()));
+		return sea.tilePosition(candidates.nthSetBit(getRandom().nextInt(count)));
 	}
 }
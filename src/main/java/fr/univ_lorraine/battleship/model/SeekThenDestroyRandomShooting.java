@@ -1,5 +1,7 @@
 package fr.univ_lorraine.battleship.model;
 
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
+
 /**
  * Stratégie de tir "Recherche puis destruction" avec une phase de recherche
  * reposant sur des tirs au hasard.
@@ -13,9 +15,23 @@ public class SeekThenDestroyRandomShooting extends AbstractSeekThenDestroyShooti
 	private static final long serialVersionUID = 1L;
 	
 	/**
-	 * Utilisation de la stratégie de tir aléatoire pour générer les tirs de la phase de recherche.
+	 * Crée la stratégie.
+	 */
+	public SeekThenDestroyRandomShooting() {
+	}
+	
+	/**
+	 * Crée une copie d'une stratégie.
+	 * @param other La stratégie à copier.
 	 */
-	private static final RandomShooting randomShooting = new RandomShooting();
+	private SeekThenDestroyRandomShooting(SeekThenDestroyRandomShooting other) {
+		super(other);
+	}
+	
+	@Override
+	public ShootingStrategy copy() {
+		return new SeekThenDestroyRandomShooting(this);
+	}
 	
 	@Override
 	public ShootingStrategyName getShootingStrategyName() {
@@ -24,7 +40,8 @@ public class SeekThenDestroyRandomShooting extends AbstractSeekThenDestroyShooti
 
 	@Override
 	protected Position playShootInSeekPhase(Sea sea) {
-		return randomShooting.playShoot(sea);
+		// Même tirage que la stratégie de tir aléatoire, avec le générateur de cette stratégie
+		return sea.nthTileWithState(SeaTileState.NORMAL, getRandom().nextInt(sea.countTiles(SeaTileState.NORMAL)));
 	}
 
 }
@@ -1,13 +1,14 @@
 package fr.univ_lorraine.battleship.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Observable;
 
 /**
  * Classe représentant un bateau.
  */
-public class Ship extends Observable implements Serializable {
+public class Ship implements Serializable {
 	
 	/**
 	 * Id pour la serialization.
@@ -44,6 +45,12 @@ public class Ship extends Observable implements Serializable {
 	 */
 	private boolean[] hits;
 	
+	/**
+	 * Le nombre de cases touchées du bateau, tenu à jour à chaque tir.
+	 * Recompté au chargement d'une sauvegarde, celles antérieures à ce compteur ne l'ayant pas.
+	 */
+	private int hitCount;
+	
 	/**
 	 * L'époque du bateau.
 	 */
@@ -61,6 +68,36 @@ public class Ship extends Observable implements Serializable {
 		this.hits = new boolean[size];
 	}
 	
+	/**
+	 * Crée une copie d'un bateau.
+	 * @param other Le bateau à copier.
+	 */
+	public Ship(Ship other) {
+		this.position = other.position;
+		this.size = other.size;
+		this.orientation = other.orientation;
+		this.dead = other.dead;
+		this.hits = other.hits.clone();
+		this.hitCount = other.hitCount;
+		this.epoch = other.epoch;
+	}
+	
+	/**
+	 * Recharge un bateau sauvegardé et recompte ses cases touchées.
+	 * @param in Le flux de la sauvegarde.
+	 * @throws IOException Si la lecture échoue.
+	 * @throws ClassNotFoundException Si une classe de la sauvegarde est inconnue.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		hitCount = 0;
+		for (boolean hit : hits) {
+			if (hit) {
+				hitCount++;
+			}
+		}
+	}
+	
 	/**
 	 * Retourne la longueur du bateau.
 	 * @return La longueur du bateau.
@@ -140,13 +177,7 @@ public class Ship extends Observable implements Serializable {
 	 * @return Le nombre de "touchés".
 	 */
 	public int getHitCount() {
-		int count = 0;
-		for (int i = 0 ; i < hits.length ; i++) {
-			if (hits[i]){
-				count++;
-			}
-		}
-		return count;
+		return hitCount;
 	}
 	
 	/**
@@ -163,10 +194,10 @@ public class Ship extends Observable implements Serializable {
 		for (int i = 0 ; i < size ; i++) {
 			switch(orientation) {
 				case HORIZONTAL:
-					tilesOccupied[i] = new Position(position.getX()+i, position.getY());
+					tilesOccupied[i] = Position.of(position.getX()+i, position.getY());
 					break;
 				case VERTICAL:
-					tilesOccupied[i] = new Position(position.getX(), position.getY()+i);
+					tilesOccupied[i] = Position.of(position.getX(), position.getY()+i);
 					break;
 				default:
 					throw new AssertionError("Orientation inconnue " + orientation);
@@ -175,27 +206,48 @@ public class Ship extends Observable implements Serializable {
 		return tilesOccupied;
 	}
 	
+	/**
+	 * Retourne l'indice de la case du bateau se trouvant à cette position,
+	 * c'est-à-dire sa distance à la proue du bateau.
+	 * @param tile La position de la case.
+	 * @return L'indice de la case dans le bateau, -1 si le bateau n'occupe pas cette position.
+	 */
+	public int getTileOffset(Position tile) {
+		if (position == null) {
+			return -1;
+		}
+		
+		int offset;
+		switch(orientation) {
+			case HORIZONTAL:
+				offset = tile.getY() == position.getY() ? tile.getX() - position.getX() : -1;
+				break;
+			case VERTICAL:
+				offset = tile.getX() == position.getX() ? tile.getY() - position.getY() : -1;
+				break;
+			default:
+				throw new AssertionError("Orientation inconnue " + orientation);
+		}
+		return offset >= 0 && offset < size ? offset : -1;
+	}
+	
 	/**
 	 * Vérifie si le bateau est touché par le tir et agit en conséquence.
 	 * @param shotPosition La position du tir.
 	 * @return Vrai si le bateau est touché, faux sinon.
 	 */
 	public boolean checkShot(Position shotPosition) {
-		int i = 0;
-		boolean touched = false;
-		Position[] tilesOccupied = getSeaTilesOccupied();
-		while (i < size && !touched) {
-			touched = tilesOccupied[i].equals(shotPosition);
-			i++;
-		}
+		int i = getTileOffset(shotPosition);
+		boolean touched = i != -1;
 		if(touched) {			// Si le bateau est touché,
-			hits[i-1] = true;	// on enregistre les dégâts
+			if (!hits[i]) {		// on enregistre les dégâts
+				hits[i] = true;
+				hitCount++;
+			}
 			if (!dead) {		// et si le bateau n'est pas déjà détruit,
 				this.dead = epoch.takeDamage(size, getHitCount());
 			}					// on délègue la gestion de l'état du bateau à l'époque
 		}
-		setChanged();
-		notifyObservers();
 		return touched;
 	}
 
@@ -0,0 +1,111 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.io.Serializable;
+
+import fr.univ_lorraine.battleship.model.Ship.Orientation;
+
+/**
+ * Placement d'un bateau sur la grille : position de sa première case, orientation et taille.
+ * Immuable.
+ */
+public final class ShipPlacement implements Serializable {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Position de la première case du bateau (la plus en haut à gauche).
+	 * @serial
+	 */
+	private final Position position;
+
+	/**
+	 * Orientation du bateau.
+	 * @serial
+	 */
+	private final Orientation orientation;
+
+	/**
+	 * Taille du bateau.
+	 * @serial
+	 */
+	private final int size;
+
+	/**
+	 * Crée un placement.
+	 * @param position La position de la première case du bateau.
+	 * @param orientation L'orientation du bateau.
+	 * @param size La taille du bateau.
+	 */
+	public ShipPlacement(Position position, Orientation orientation, int size) {
+		this.position = position;
+		this.orientation = orientation;
+		this.size = size;
+	}
+
+	/**
+	 * Retourne la position de la première case du bateau.
+	 * @return La position.
+	 */
+	public Position getPosition() {
+		return position;
+	}
+
+	/**
+	 * Retourne l'orientation du bateau.
+	 * @return L'orientation.
+	 */
+	public Orientation getOrientation() {
+		return orientation;
+	}
+
+	/**
+	 * Retourne la taille du bateau.
+	 * @return La taille.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Retourne la position d'une case du bateau.
+	 * @param i Le rang de la case, de 0 à la taille exclue.
+	 * @return La position de la case.
+	 */
+	public Position getTile(int i) {
+		switch(orientation) {
+			case HORIZONTAL:
+				return Position.of(position.getX() + i, position.getY());
+			case VERTICAL:
+				return Position.of(position.getX(), position.getY() + i);
+			default:
+				throw new AssertionError("Orientation inconnue " + orientation);
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ShipPlacement)) {
+			return false;
+		}
+		ShipPlacement other = (ShipPlacement) obj;
+		return size == other.size && orientation == other.orientation && position.equals(other.position);
+	}
+
+	@Override
+	public int hashCode() {
+		return (position.hashCode() * 31 + orientation.ordinal()) * 31 + size;
+	}
+
+	@Override
+	public String toString() {
+		return position + " " + orientation + " " + size;
+	}
+
+}
@@ -0,0 +1,112 @@
+package fr.univ_lorraine.battleship.model;
+
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+import fr.univ_lorraine.battleship.model.Ship.Orientation;
+
+/**
+ * Etat d'un bateau à un instant donné, tel que dessiné par les vues.
+ * Immuable : pris par le thread qui fait avancer la partie,
+ * il peut être lu par un autre thread (celui de l'affichage) pendant que le bateau est modifié.
+ */
+public final class ShipSnapshot {
+
+	/**
+	 * L'indice du bateau parmi les bateaux placés de sa grille,
+	 * ou le nombre de bateaux placés pour le bateau en cours de positionnement.
+	 */
+	private final int index;
+
+	/**
+	 * La longueur du bateau.
+	 */
+	private final int size;
+
+	/**
+	 * La position du bateau, null si le bateau en cours de positionnement n'est pas sur la grille.
+	 */
+	private final Position position;
+
+	/**
+	 * L'orientation du bateau.
+	 */
+	private final Orientation orientation;
+
+	/**
+	 * Vrai si le bateau est détruit.
+	 */
+	private final boolean dead;
+
+	/**
+	 * L'époque du bateau.
+	 */
+	private final EpochName epochName;
+
+	/**
+	 * Prend l'état d'un bateau.
+	 * @param ship Le bateau.
+	 * @param index L'indice du bateau dans sa grille.
+	 */
+	ShipSnapshot(Ship ship, int index) {
+		this.index = index;
+		this.size = ship.getSize();
+		this.position = ship.getPosition();
+		this.orientation = ship.getOrientation();
+		this.dead = ship.isDead();
+		this.epochName = ship.getEpoch().getEpochName();
+	}
+
+	/**
+	 * Retourne l'indice du bateau parmi les bateaux placés de sa grille.
+	 * Permet de reconnaître le même bateau d'un état à l'autre.
+	 * @return L'indice du bateau.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Retourne la longueur du bateau.
+	 * @return La longueur.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Retourne la position du bateau.
+	 * @return La position, null si le bateau n'est pas sur la grille.
+	 */
+	public Position getPosition() {
+		return position;
+	}
+
+	/**
+	 * Retourne l'orientation du bateau.
+	 * @return L'orientation.
+	 */
+	public Orientation getOrientation() {
+		return orientation;
+	}
+
+	/**
+	 * Indique si le bateau est détruit.
+	 * @return Vrai si le bateau est détruit.
+	 */
+	public boolean isDead() {
+		return dead;
+	}
+
+	/**
+	 * Retourne l'époque du bateau.
+	 * @return Le nom de l'époque.
+	 */
+	public EpochName getEpochName() {
+		return epochName;
+	}
+
+	@Override
+	public String toString() {
+		return size + " en " + position;
+	}
+
+}
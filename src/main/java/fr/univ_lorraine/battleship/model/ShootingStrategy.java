@@ -1,6 +1,7 @@
 package fr.univ_lorraine.battleship.model;
 
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * Stratégie de tir de l'ordinateur.
@@ -10,7 +11,54 @@ public interface ShootingStrategy extends Serializable {
 	/**
 	 * Les noms des différentes stratégies de tir.
 	 */
-	public enum ShootingStrategyName { RANDOM, SEEK_THEN_DESTROY_RANDOM, SEEK_THEN_DESTROY_CROSS}
+	public enum ShootingStrategyName {
+		RANDOM(false), SEEK_THEN_DESTROY_RANDOM(false), SEEK_THEN_DESTROY_CROSS(false),
+		PROBABILITY_DENSITY(true), MONTE_CARLO(false), EPOCH_AWARE(true);
+		
+		/**
+		 * Vrai si la décision de la stratégie ne dépend que de l'état visible de la grille visée.
+		 */
+		private final boolean cacheable;
+		
+		private ShootingStrategyName(boolean cacheable) {
+			this.cacheable = cacheable;
+		}
+		
+		/**
+		 * Indique si les décisions de la stratégie peuvent être mémorisées par un {@link CachedShootingStrategy}.
+		 * C'est le cas lorsque la décision ne dépend que de l'état visible de la grille visée :
+		 * les stratégies gardant un état entre deux tirs (cibles à détruire, dernier tir)
+		 * ou tirant au hasard parmi toutes les cases seraient figées par le cache.
+		 * @return Vrai si la stratégie peut être mise en cache.
+		 */
+		public boolean isCacheable() {
+			return cacheable;
+		}
+		
+		/**
+		 * Crée une nouvelle stratégie de tir correspondant à ce nom.
+		 * Les stratégies pouvant avoir un état, chaque partie doit avoir la sienne.
+		 * @return La stratégie de tir.
+		 */
+		public ShootingStrategy createShootingStrategy() {
+			switch(this) {
+				case RANDOM:
+					return new RandomShooting();
+				case SEEK_THEN_DESTROY_RANDOM:
+					return new SeekThenDestroyRandomShooting();
+				case SEEK_THEN_DESTROY_CROSS:
+					return new SeekThenDestroyCrossShooting();
+				case PROBABILITY_DENSITY:
+					return new ProbabilityDensityShooting();
+				case MONTE_CARLO:
+					return new MonteCarloShooting();
+				case EPOCH_AWARE:
+					return new EpochAwareShooting();
+				default:
+					throw new AssertionError("Stratégie de tir inconnue " + this);
+			}
+		}
+	}
 		
 	/**
 	 * Renvoie le nom de la stratégie.
@@ -19,6 +67,24 @@ public interface ShootingStrategy extends Serializable {
 	 */
 	public ShootingStrategyName getShootingStrategyName();
 	
+	/**
+	 * Donne à la stratégie le générateur aléatoire à utiliser pour ses tirs.
+	 * Le générateur est dérivé de celui de la partie, ce qui permet de rejouer la partie
+	 * à partir de sa graine ; il ne doit pas être partagé avec un autre composant.
+	 * @param random Le générateur aléatoire.
+	 */
+	public void setRandom(GameRandom random);
+	
+	/**
+	 * Crée une copie indépendante de la stratégie, dans le même état :
+	 * l'état interne et le générateur aléatoire sont copiés, de sorte que la copie et la stratégie
+	 * font ensuite les mêmes choix sans s'influencer. Les ressources immuables ou prévues pour être partagées
+	 * (livre d'ouvertures, cache de décisions) sont partagées.
+	 * Utilisée pour copier une partie ({@link Game#fork()}) ou pour calculer des tirs sans modifier la stratégie.
+	 * @return La copie de la stratégie.
+	 */
+	public ShootingStrategy copy();
+	
 	/**
 	 * Choisit et renvoie une position afin d'y effectuer un tir.
 	 * La position de tir doit toujours être valide.
@@ -26,5 +92,17 @@ public interface ShootingStrategy extends Serializable {
 	 * @return La position de tir sur la grille.
 	 */
 	public Position playShoot(Sea sea);
-	
+
+	/**
+	 * Choisit les positions de plusieurs tirs tirés ensemble (variante salve) :
+	 * les résultats ne sont connus qu'une fois tous les tirs effectués.
+	 * Les positions sont choisies en une fois, sans recalculer la stratégie pour chaque tir,
+	 * et sont toutes valides et différentes.
+	 * @param sea La grille du joueur adverse.
+	 * @param n Le nombre de tirs.
+	 * @return Les positions de tir, au plus n (moins s'il reste moins de n cases libres).
+	 * @throws IllegalArgumentException Si le nombre de tirs n'est pas strictement positif.
+	 */
+	public List<Position> playShoots(Sea sea, int n);
+
 }
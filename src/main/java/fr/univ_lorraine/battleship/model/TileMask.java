@@ -0,0 +1,280 @@
+package fr.univ_lorraine.battleship.model;
+
+import java.io.Serializable;
+
+/**
+ * Masque de bits de taille fixe représentant un ensemble de cases d'une grille.
+ * Équivalent simplifié de {@link java.util.BitSet} qui donne accès aux mots de 64 bits
+ * afin de pouvoir combiner plusieurs masques et compter/sélectionner des cases sans allocation.
+ */
+final class TileMask implements Serializable {
+
+	/**
+	 * Id pour la serialization.
+	 * @serial
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Nombre de bits du masque.
+	 * @serial
+	 */
+	private final int size;
+
+	/**
+	 * Les mots du masque, le bit i est le bit (i % 64) du mot (i / 64).
+	 * @serial
+	 */
+	private final long[] words;
+
+	/**
+	 * Crée un masque vide.
+	 * @param size Le nombre de bits du masque.
+	 */
+	TileMask(int size) {
+		this.size = size;
+		this.words = new long[(size + 63) >>> 6];
+	}
+
+	/**
+	 * Crée une copie d'un masque.
+	 * @param other Le masque à copier.
+	 */
+	TileMask(TileMask other) {
+		this.size = other.size;
+		this.words = other.words.clone();
+	}
+
+	/**
+	 * Retourne le nombre de bits du masque.
+	 * @return Le nombre de bits du masque.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Retourne le nombre de mots de 64 bits du masque.
+	 * @return Le nombre de mots.
+	 */
+	int wordCount() {
+		return words.length;
+	}
+
+	/**
+	 * Retourne un mot du masque.
+	 * @param wordIndex L'indice du mot.
+	 * @return Le mot.
+	 */
+	long word(int wordIndex) {
+		return words[wordIndex];
+	}
+
+	/**
+	 * Retourne le masque des bits valides d'un mot (les bits au-delà de la taille du masque sont à 0).
+	 * @param wordIndex L'indice du mot.
+	 * @return Le masque des bits valides.
+	 */
+	long validBits(int wordIndex) {
+		int remaining = size - (wordIndex << 6);
+		return remaining >= 64 ? -1L : (1L << remaining) - 1;
+	}
+
+	/**
+	 * Retourne la valeur d'un bit.
+	 * @param index L'indice du bit.
+	 * @return Vrai si le bit est à 1.
+	 */
+	boolean get(int index) {
+		return (words[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Met un bit à 1.
+	 * @param index L'indice du bit.
+	 */
+	void set(int index) {
+		words[index >>> 6] |= 1L << index;
+	}
+
+	/**
+	 * Met un bit à 0.
+	 * @param index L'indice du bit.
+	 */
+	void clear(int index) {
+		words[index >>> 6] &= ~(1L << index);
+	}
+
+	/**
+	 * Garde les bits à 1 dans les deux masques (intersection).
+	 * @param other Un masque de même taille.
+	 */
+	void and(TileMask other) {
+		for (int i = 0 ; i < words.length ; i++) {
+			words[i] &= other.words[i];
+		}
+	}
+
+	/**
+	 * Met à 1 les bits à 1 de l'autre masque (union).
+	 * @param other Un masque de même taille.
+	 */
+	void or(TileMask other) {
+		for (int i = 0 ; i < words.length ; i++) {
+			words[i] |= other.words[i];
+		}
+	}
+
+	/**
+	 * Met à 0 les bits à 1 de l'autre masque (différence).
+	 * @param other Un masque de même taille.
+	 */
+	void andNot(TileMask other) {
+		for (int i = 0 ; i < words.length ; i++) {
+			words[i] &= ~other.words[i];
+		}
+	}
+
+	/**
+	 * Inverse tous les bits du masque (complément), sans toucher aux bits au-delà de sa taille.
+	 */
+	void not() {
+		for (int i = 0 ; i < words.length ; i++) {
+			words[i] = ~words[i] & validBits(i);
+		}
+	}
+
+	/**
+	 * Décale les bits du masque : le bit i passe à l'indice i + offset.
+	 * Les bits sortant du masque (indice négatif ou au-delà de la taille) sont perdus,
+	 * les bits libérés sont à 0.
+	 * @param offset Le décalage, positif vers les indices croissants.
+	 */
+	void shift(int offset) {
+		if (offset == 0) {
+			return;
+		}
+		int wordShift = Math.abs(offset) >>> 6;
+		int bitShift = Math.abs(offset) & 63;
+		if (offset > 0) {
+			for (int i = words.length - 1 ; i >= 0 ; i--) {
+				int source = i - wordShift;
+				long word = source >= 0 ? words[source] << bitShift : 0;
+				if (bitShift != 0 && source > 0) {
+					word |= words[source - 1] >>> (64 - bitShift);
+				}
+				words[i] = word;
+			}
+			words[words.length - 1] &= validBits(words.length - 1);
+		} else {
+			for (int i = 0 ; i < words.length ; i++) {
+				int source = i + wordShift;
+				long word = source < words.length ? words[source] >>> bitShift : 0;
+				if (bitShift != 0 && source + 1 < words.length) {
+					word |= words[source + 1] << (64 - bitShift);
+				}
+				words[i] = word;
+			}
+		}
+	}
+
+	/**
+	 * Retourne vrai si aucun bit n'est à 1.
+	 * @return Vrai si le masque est vide.
+	 */
+	boolean isEmpty() {
+		for (long word : words) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Retourne l'indice du k-ième bit à 1 (à partir de 0).
+	 * Les mots sont comptés 64 bits à la fois.
+	 * @param k Le rang du bit, inférieur à {@link #cardinality()}.
+	 * @return L'indice du bit.
+	 * @throws IndexOutOfBoundsException Si k est hors limites.
+	 */
+	int nthSetBit(int k) {
+		if (k >= 0) {
+			for (int w = 0 ; w < words.length ; w++) {
+				int count = Long.bitCount(words[w]);
+				if (k < count) {
+					return (w << 6) + selectInWord(words[w], k);
+				}
+				k -= count;
+			}
+		}
+		throw new IndexOutOfBoundsException("Rang de bit invalide " + k);
+	}
+
+	/**
+	 * Retourne le nombre de bits à 1.
+	 * @return Le nombre de bits à 1.
+	 */
+	int cardinality() {
+		int count = 0;
+		for (long word : words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Retourne l'indice du premier bit à 1 à partir d'un indice (inclus).
+	 * @param from L'indice de départ.
+	 * @return L'indice du bit, -1 s'il n'y en a pas.
+	 */
+	int nextSetBit(int from) {
+		if (from >= size) {
+			return -1;
+		}
+		int wordIndex = from >>> 6;
+		long word = words[wordIndex] & (-1L << from);
+		while (word == 0) {
+			if (++wordIndex == words.length) {
+				return -1;
+			}
+			word = words[wordIndex];
+		}
+		return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * Retourne l'indice du premier bit à 0 à partir d'un indice (inclus).
+	 * @param from L'indice de départ.
+	 * @return L'indice du bit, -1 s'il n'y en a pas.
+	 */
+	int nextClearBit(int from) {
+		if (from >= size) {
+			return -1;
+		}
+		int wordIndex = from >>> 6;
+		long word = ~words[wordIndex] & (-1L << from);
+		while (word == 0) {
+			if (++wordIndex == words.length) {
+				return -1;
+			}
+			word = ~words[wordIndex];
+		}
+		int index = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+		return index < size ? index : -1;
+	}
+
+	/**
+	 * Retourne la position du k-ième bit à 1 (à partir de 0) d'un mot.
+	 * @param word Le mot.
+	 * @param k Le rang du bit, inférieur au nombre de bits à 1 du mot.
+	 * @return La position du bit dans le mot.
+	 */
+	static int selectInWord(long word, int k) {
+		for (int i = 0 ; i < k ; i++) {
+			word &= word - 1;	// on retire le bit à 1 de poids faible
+		}
+		return Long.numberOfTrailingZeros(word);
+	}
+
+}
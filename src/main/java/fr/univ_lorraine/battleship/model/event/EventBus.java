@@ -0,0 +1,121 @@
+package fr.univ_lorraine.battleship.model.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bus des événements d'une partie.
+ *
+ * Les événements publiés pendant un lot ({@link #beginBatch()}, {@link #endBatch()}) sont regroupés
+ * et transmis aux écouteurs en un seul appel à la fin du lot le plus externe :
+ * une action de l'utilisateur ne provoque qu'une mise à jour de l'affichage,
+ * quel que soit le nombre de tirs, de bateaux détruits ou de changements de tour qu'elle entraîne.
+ * Hors lot, chaque événement est transmis immédiatement.
+ *
+ * Sans écouteur (parties entre ordinateurs, simulations), les événements sont ignorés dès leur publication.
+ * Non thread-safe : une partie n'est utilisée que par un thread à la fois.
+ */
+public class EventBus {
+
+	/**
+	 * Les écouteurs.
+	 * Copiés à l'écriture afin qu'un écouteur puisse se retirer pendant la transmission.
+	 */
+	private final List<GameListener> listeners = new CopyOnWriteArrayList<GameListener>();
+
+	/**
+	 * Les événements du lot en cours, pas encore transmis.
+	 */
+	private List<GameEvent> pending = new ArrayList<GameEvent>();
+
+	/**
+	 * Le nombre de lots imbriqués en cours.
+	 */
+	private int batchDepth;
+
+	/**
+	 * Ajoute un écouteur.
+	 * @param listener L'écouteur.
+	 */
+	public void addListener(GameListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Retire un écouteur.
+	 * @param listener L'écouteur.
+	 */
+	public void removeListener(GameListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Retire tous les écouteurs.
+	 */
+	public void removeAllListeners() {
+		listeners.clear();
+	}
+
+	/**
+	 * Retourne vrai si le bus a au moins un écouteur.
+	 * @return Vrai s'il y a un écouteur.
+	 */
+	public boolean hasListeners() {
+		return !listeners.isEmpty();
+	}
+
+	/**
+	 * Commence un lot : les événements suivants sont retenus jusqu'à la fin du lot.
+	 * Les lots peuvent être imbriqués.
+	 */
+	public void beginBatch() {
+		batchDepth++;
+	}
+
+	/**
+	 * Termine un lot et, s'il s'agit du lot le plus externe,
+	 * transmet les événements retenus aux écouteurs.
+	 * @throws IllegalStateException Si aucun lot n'est en cours.
+	 */
+	public void endBatch() {
+		if (batchDepth == 0) {
+			throw new IllegalStateException("Aucun lot d'événements en cours");
+		}
+		batchDepth--;
+		if (batchDepth == 0) {
+			flush();
+		}
+	}
+
+	/**
+	 * Publie un événement.
+	 * @param event L'événement.
+	 */
+	public void post(GameEvent event) {
+		if (listeners.isEmpty()) {
+			return;
+		}
+		pending.add(event);
+		if (batchDepth == 0) {
+			flush();
+		}
+	}
+
+	/**
+	 * Transmet les événements retenus aux écouteurs.
+	 * Les événements publiés par un écouteur pendant la transmission forment un nouvel envoi.
+	 */
+	private void flush() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		List<GameEvent> events = Collections.unmodifiableList(pending);
+		pending = new ArrayList<GameEvent>();
+		for (GameListener listener : listeners) {
+			listener.onEvents(events);
+		}
+	}
+
+}
@@ -0,0 +1,10 @@
+package fr.univ_lorraine.battleship.model.event;
+
+/**
+ * Evénement de la partie, publié sur son {@link EventBus}.
+ * Les événements sont immuables et décrivent précisément ce qui a changé,
+ * les vues n'ont ainsi à mettre à jour que les éléments concernés.
+ */
+public abstract class GameEvent {
+
+}
@@ -0,0 +1,18 @@
+package fr.univ_lorraine.battleship.model.event;
+
+import java.util.List;
+
+/**
+ * Ecouteur des événements d'une partie.
+ */
+public interface GameListener {
+
+	/**
+	 * Reçoit les événements produits par une action (clic, fin de tour, etc.),
+	 * en une seule fois et dans l'ordre où ils se sont produits.
+	 * L'état de la partie est celui de la fin de l'action.
+	 * @param events Les événements, jamais vide ; la liste n'est pas modifiable.
+	 */
+	public void onEvents(List<GameEvent> events);
+
+}
@@ -0,0 +1,37 @@
+package fr.univ_lorraine.battleship.model.event;
+
+import fr.univ_lorraine.battleship.model.Game.GameState;
+
+/**
+ * La partie est terminée.
+ * Immuable.
+ */
+public final class GameOver extends GameEvent {
+
+	/**
+	 * L'état final de la partie (le vainqueur).
+	 */
+	private final GameState gameState;
+
+	/**
+	 * Crée l'événement.
+	 * @param gameState L'état final de la partie.
+	 */
+	public GameOver(GameState gameState) {
+		this.gameState = gameState;
+	}
+
+	/**
+	 * Retourne l'état final de la partie.
+	 * @return L'état final.
+	 */
+	public GameState getGameState() {
+		return gameState;
+	}
+
+	@Override
+	public String toString() {
+		return "GameOver(" + gameState + ")";
+	}
+
+}
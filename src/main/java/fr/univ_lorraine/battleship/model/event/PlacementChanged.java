@@ -0,0 +1,38 @@
+package fr.univ_lorraine.battleship.model.event;
+
+import fr.univ_lorraine.battleship.model.Sea;
+
+/**
+ * Le bateau en cours de positionnement d'une grille a été déplacé ou pivoté.
+ * Immuable.
+ */
+public final class PlacementChanged extends GameEvent {
+
+	/**
+	 * La grille du bateau.
+	 * Sert seulement à reconnaître la grille concernée : elle ne doit pas être lue hors du thread de la partie.
+	 */
+	private final Sea sea;
+
+	/**
+	 * Crée l'événement.
+	 * @param sea La grille du bateau en cours de positionnement.
+	 */
+	public PlacementChanged(Sea sea) {
+		this.sea = sea;
+	}
+
+	/**
+	 * Retourne la grille du bateau en cours de positionnement.
+	 * @return La grille.
+	 */
+	public Sea getSea() {
+		return sea;
+	}
+
+	@Override
+	public String toString() {
+		return "PlacementChanged";
+	}
+
+}
@@ -0,0 +1,55 @@
+package fr.univ_lorraine.battleship.model.event;
+
+import fr.univ_lorraine.battleship.model.Sea;
+import fr.univ_lorraine.battleship.model.ShipSnapshot;
+
+/**
+ * Un bateau vient d'être détruit.
+ * Publié juste après le {@link ShotResolved} du tir l'ayant détruit.
+ * Immuable.
+ */
+public final class ShipSunk extends GameEvent {
+
+	/**
+	 * La grille du bateau.
+	 * Sert seulement à reconnaître la grille concernée : elle ne doit pas être lue hors du thread de la partie.
+	 */
+	private final Sea sea;
+
+	/**
+	 * L'état du bateau détruit, pris au moment de l'événement.
+	 */
+	private final ShipSnapshot ship;
+
+	/**
+	 * Crée l'événement.
+	 * @param sea La grille du bateau.
+	 * @param ship L'état du bateau détruit.
+	 */
+	public ShipSunk(Sea sea, ShipSnapshot ship) {
+		this.sea = sea;
+		this.ship = ship;
+	}
+
+	/**
+	 * Retourne la grille du bateau.
+	 * @return La grille.
+	 */
+	public Sea getSea() {
+		return sea;
+	}
+
+	/**
+	 * Retourne l'état du bateau détruit.
+	 * @return L'état du bateau.
+	 */
+	public ShipSnapshot getShip() {
+		return ship;
+	}
+
+	@Override
+	public String toString() {
+		return "ShipSunk(" + ship.getSize() + " en " + ship.getPosition() + ")";
+	}
+
+}
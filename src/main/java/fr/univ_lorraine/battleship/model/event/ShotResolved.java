@@ -0,0 +1,83 @@
+package fr.univ_lorraine.battleship.model.event;
+
+import fr.univ_lorraine.battleship.model.Sea;
+
+/**
+ * Un tir a été reçu par une grille.
+ * Immuable.
+ */
+public final class ShotResolved extends GameEvent {
+
+	/**
+	 * La grille visée.
+	 * Sert seulement à reconnaître la grille concernée : elle ne doit pas être lue hors du thread de la partie.
+	 */
+	private final Sea sea;
+
+	/**
+	 * L'abscisse du tir.
+	 */
+	private final int x;
+
+	/**
+	 * L'ordonnée du tir.
+	 */
+	private final int y;
+
+	/**
+	 * Vrai si le tir a touché un bateau.
+	 */
+	private final boolean hit;
+
+	/**
+	 * Crée l'événement.
+	 * @param sea La grille visée.
+	 * @param x L'abscisse du tir.
+	 * @param y L'ordonnée du tir.
+	 * @param hit Vrai si le tir a touché un bateau.
+	 */
+	public ShotResolved(Sea sea, int x, int y, boolean hit) {
+		this.sea = sea;
+		this.x = x;
+		this.y = y;
+		this.hit = hit;
+	}
+
+	/**
+	 * Retourne la grille visée.
+	 * @return La grille.
+	 */
+	public Sea getSea() {
+		return sea;
+	}
+
+	/**
+	 * Retourne l'abscisse du tir.
+	 * @return L'abscisse.
+	 */
+	public int getX() {
+		return x;
+	}
+
+	/**
+	 * Retourne l'ordonnée du tir.
+	 * @return L'ordonnée.
+	 */
+	public int getY() {
+		return y;
+	}
+
+	/**
+	 * Retourne vrai si le tir a touché un bateau.
+	 * @return Vrai si le tir a touché un bateau.
+	 */
+	public boolean isHit() {
+		return hit;
+	}
+
+	@Override
+	public String toString() {
+		return "ShotResolved(" + x + ", " + y + ", " + hit + ")";
+	}
+
+}
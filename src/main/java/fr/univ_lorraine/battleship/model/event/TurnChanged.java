@@ -0,0 +1,37 @@
+package fr.univ_lorraine.battleship.model.event;
+
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+
+/**
+ * Le tour a changé de joueur.
+ * Immuable.
+ */
+public final class TurnChanged extends GameEvent {
+
+	/**
+	 * Le joueur dont c'est le tour.
+	 */
+	private final PlayerId playerTurn;
+
+	/**
+	 * Crée l'événement.
+	 * @param playerTurn Le joueur dont c'est le tour.
+	 */
+	public TurnChanged(PlayerId playerTurn) {
+		this.playerTurn = playerTurn;
+	}
+
+	/**
+	 * Retourne le joueur dont c'est le tour.
+	 * @return Le joueur.
+	 */
+	public PlayerId getPlayerTurn() {
+		return playerTurn;
+	}
+
+	@Override
+	public String toString() {
+		return "TurnChanged(" + playerTurn + ")";
+	}
+
+}
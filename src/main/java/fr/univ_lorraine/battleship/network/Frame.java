@@ -0,0 +1,218 @@
+package fr.univ_lorraine.battleship.network;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Trame du protocole de jeu en réseau.
+ * Toutes les trames ont la même taille ({@link #SIZE} octets, entiers gros-boutistes) :
+ * <pre>
+ * type (1) | résultat (1) | x (2) | y (2) | bateau (2)
+ * </pre>
+ * Le sens des champs dépend du type ; les champs inutilisés valent 0.
+ * Immuable.
+ */
+public final class Frame {
+
+	/**
+	 * Les types de trames.
+	 */
+	public enum Type {
+		/**
+		 * Première trame de chaque joueur, décrivant ses règles :
+		 * x et y la taille de la grille, bateau le nombre de bateaux,
+		 * résultat le nombre de tirs par tour (0 en variante salve).
+		 * Elle est suivie d'une trame {@link #FLEET} par bateau.
+		 */
+		HELLO,
+		/**
+		 * Le joueur a placé toute sa flotte.
+		 */
+		READY,
+		/**
+		 * Un tir en (x, y).
+		 */
+		SHOT,
+		/**
+		 * Le résultat d'un tir reçu en (x, y) : résultat {@link #MISS}, {@link #HIT} ou {@link #SUNK},
+		 * bateau l'indice du bateau coulé.
+		 */
+		RESULT,
+		/**
+		 * Fin des tirs du tour (ou de leurs résultats) : les trames d'un tour sont envoyées ensemble.
+		 */
+		END_OF_TURN,
+		/**
+		 * La taille d'un bateau de la flotte, envoyée après {@link #HELLO} pour chaque bateau dans l'ordre :
+		 * bateau l'indice du bateau, x sa taille.
+		 */
+		FLEET
+	}
+
+	/**
+	 * La taille d'une trame en octets.
+	 */
+	public static final int SIZE = 8;
+
+	/**
+	 * Résultat d'un tir manqué.
+	 */
+	public static final int MISS = 0;
+
+	/**
+	 * Résultat d'un tir touchant un bateau.
+	 */
+	public static final int HIT = 1;
+
+	/**
+	 * Résultat d'un tir coulant un bateau.
+	 */
+	public static final int SUNK = 2;
+
+	/**
+	 * Les types, par valeur.
+	 */
+	private static final Type[] TYPES = Type.values();
+
+	/**
+	 * Le type de la trame.
+	 */
+	private final Type type;
+
+	/**
+	 * Le résultat, entre 0 et 255.
+	 */
+	private final int result;
+
+	/**
+	 * L'abscisse, entre 0 et 65535.
+	 */
+	private final int x;
+
+	/**
+	 * L'ordonnée, entre 0 et 65535.
+	 */
+	private final int y;
+
+	/**
+	 * L'indice du bateau, entre 0 et 65535.
+	 */
+	private final int ship;
+
+	/**
+	 * Crée une trame.
+	 * @param type Le type de la trame.
+	 * @param result Le résultat, entre 0 et 255.
+	 * @param x L'abscisse, entre 0 et 65535.
+	 * @param y L'ordonnée, entre 0 et 65535.
+	 * @param ship L'indice du bateau, entre 0 et 65535.
+	 * @throws IllegalArgumentException Si un champ ne tient pas dans la trame.
+	 */
+	public Frame(Type type, int result, int x, int y, int ship) {
+		if ((result & ~0xFF) != 0 || (x & ~0xFFFF) != 0 || (y & ~0xFFFF) != 0 || (ship & ~0xFFFF) != 0) {
+			throw new IllegalArgumentException("Trame invalide " + type + " " + result + " " + x + " " + y + " " + ship);
+		}
+		this.type = type;
+		this.result = result;
+		this.x = x;
+		this.y = y;
+		this.ship = ship;
+	}
+
+	/**
+	 * Crée une trame sans autre champ que son type.
+	 * @param type Le type de la trame.
+	 */
+	public Frame(Type type) {
+		this(type, 0, 0, 0, 0);
+	}
+
+	/**
+	 * Lit une trame.
+	 * @param buffer Le tampon, contenant au moins {@link #SIZE} octets.
+	 * @return La trame.
+	 * @throws IllegalArgumentException Si le type de la trame est inconnu.
+	 */
+	public static Frame read(ByteBuffer buffer) {
+		int type = buffer.get() & 0xFF;
+		int result = buffer.get() & 0xFF;
+		int x = buffer.getShort() & 0xFFFF;
+		int y = buffer.getShort() & 0xFFFF;
+		int ship = buffer.getShort() & 0xFFFF;
+		if (type >= TYPES.length) {
+			throw new IllegalArgumentException("Type de trame inconnu " + type);
+		}
+		return new Frame(TYPES[type], result, x, y, ship);
+	}
+
+	/**
+	 * Écrit la trame.
+	 * @param buffer Le tampon, ayant au moins {@link #SIZE} octets libres.
+	 */
+	public void write(ByteBuffer buffer) {
+		buffer.put((byte) type.ordinal());
+		buffer.put((byte) result);
+		buffer.putShort((short) x);
+		buffer.putShort((short) y);
+		buffer.putShort((short) ship);
+	}
+
+	/**
+	 * Retourne le type de la trame.
+	 * @return Le type.
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Retourne le résultat.
+	 * @return Le résultat.
+	 */
+	public int getResult() {
+		return result;
+	}
+
+	/**
+	 * Retourne l'abscisse.
+	 * @return L'abscisse.
+	 */
+	public int getX() {
+		return x;
+	}
+
+	/**
+	 * Retourne l'ordonnée.
+	 * @return L'ordonnée.
+	 */
+	public int getY() {
+		return y;
+	}
+
+	/**
+	 * Retourne l'indice du bateau.
+	 * @return L'indice du bateau.
+	 */
+	public int getShip() {
+		return ship;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof Frame)) {
+			return false;
+		}
+		Frame other = (Frame) obj;
+		return type == other.type && result == other.result && x == other.x && y == other.y && ship == other.ship;
+	}
+
+	@Override
+	public int hashCode() {
+		return (((type.ordinal() * 31 + result) * 31 + x) * 31 + y) * 31 + ship;
+	}
+
+	@Override
+	public String toString() {
+		return type + "(" + result + ", " + x + ", " + y + ", " + ship + ")";
+	}
+
+}
@@ -0,0 +1,122 @@
+package fr.univ_lorraine.battleship.network;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+
+/**
+ * Connexion non bloquante échangeant des trames ({@link Frame}).
+ *
+ * Les trames envoyées sont accumulées dans un tampon et écrites ensemble par {@link #flush()} :
+ * les tirs d'une salve partent dans un seul paquet.
+ * La connexion ne possède pas de sélecteur : c'est à l'appelant de la surveiller
+ * (un seul thread peut ainsi gérer de nombreuses connexions).
+ * Elle n'est pas thread-safe.
+ */
+public class FrameChannel implements Closeable {
+
+	/**
+	 * Taille initiale des tampons, en trames.
+	 */
+	private static final int BUFFER_FRAMES = 64;
+
+	/**
+	 * Le canal.
+	 */
+	private final SocketChannel channel;
+
+	/**
+	 * Les octets reçus pas encore décodés (en écriture).
+	 */
+	private final ByteBuffer input = ByteBuffer.allocate(BUFFER_FRAMES * Frame.SIZE);
+
+	/**
+	 * Les octets à envoyer (en écriture).
+	 */
+	private ByteBuffer output = ByteBuffer.allocate(BUFFER_FRAMES * Frame.SIZE);
+
+	/**
+	 * Crée une connexion à partir d'un canal connecté, passé en mode non bloquant.
+	 * Désactive l'algorithme de Nagle : les trames partent dès qu'elles sont écrites.
+	 * @param channel Le canal.
+	 * @throws IOException Si le canal ne peut être configuré.
+	 */
+	public FrameChannel(SocketChannel channel) throws IOException {
+		this.channel = channel;
+		channel.configureBlocking(false);
+		channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+	}
+
+	/**
+	 * Retourne le canal, pour l'enregistrer auprès d'un sélecteur.
+	 * @return Le canal.
+	 */
+	public SocketChannel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Ajoute une trame à envoyer au prochain {@link #flush()}.
+	 * @param frame La trame.
+	 */
+	public void send(Frame frame) {
+		if (output.remaining() < Frame.SIZE) {
+			ByteBuffer larger = ByteBuffer.allocate(output.capacity() * 2);
+			output.flip();
+			larger.put(output);
+			output = larger;
+		}
+		frame.write(output);
+	}
+
+	/**
+	 * Écrit autant de trames en attente que le canal le permet.
+	 * @return Vrai si tout a été écrit, faux s'il faut attendre que le canal soit prêt en écriture.
+	 * @throws IOException En cas d'erreur d'écriture.
+	 */
+	public boolean flush() throws IOException {
+		output.flip();
+		try {
+			channel.write(output);
+		} finally {
+			output.compact();
+		}
+		return output.position() == 0;
+	}
+
+	/**
+	 * Indique s'il reste des trames à écrire.
+	 * @return Vrai s'il reste des trames à écrire.
+	 */
+	public boolean hasPendingOutput() {
+		return output.position() > 0;
+	}
+
+	/**
+	 * Lit les octets disponibles sans bloquer et décode les trames complètes.
+	 * @param frames La liste à laquelle ajouter les trames reçues.
+	 * @return Faux si le pair a fermé la connexion, vrai sinon.
+	 * @throws IOException En cas d'erreur de lecture.
+	 * @throws IllegalArgumentException Si une trame est invalide.
+	 */
+	public boolean receive(List<Frame> frames) throws IOException {
+		int read;
+		while ((read = channel.read(input)) > 0) {
+			input.flip();
+			while (input.remaining() >= Frame.SIZE) {
+				frames.add(Frame.read(input));
+			}
+			input.compact();
+		}
+		return read >= 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
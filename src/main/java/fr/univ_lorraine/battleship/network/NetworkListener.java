@@ -0,0 +1,24 @@
+package fr.univ_lorraine.battleship.network;
+
+/**
+ * Ecouteur d'une partie en réseau.
+ * Les méthodes sont appelées dans le thread réseau du {@link NetworkPeer} :
+ * un affichage doit repasser dans son propre thread avant de se mettre à jour.
+ */
+public interface NetworkListener {
+
+	/**
+	 * La partie a changé (connexion, placement, tirs ou résultats reçus).
+	 * La partie ne doit être lue que pendant l'appel.
+	 * @param match La partie.
+	 */
+	public void onMatchUpdate(NetworkMatch match);
+
+	/**
+	 * La connexion est fermée.
+	 * @param cause La cause de la fermeture, null si elle a été fermée normalement
+	 * (localement, ou par l'adversaire une fois la partie terminée).
+	 */
+	public void onClosed(Exception cause);
+
+}
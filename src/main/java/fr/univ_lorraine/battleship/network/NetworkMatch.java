@@ -0,0 +1,421 @@
+package fr.univ_lorraine.battleship.network;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import fr.univ_lorraine.battleship.model.Epoch;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.PlacementStrategy;
+import fr.univ_lorraine.battleship.model.Player;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.Sea;
+import fr.univ_lorraine.battleship.model.Ship;
+import fr.univ_lorraine.battleship.model.ShipPlacement;
+import fr.univ_lorraine.battleship.network.Frame.Type;
+
+/**
+ * Partie entre deux joueurs humains dont l'adversaire est dans un autre processus.
+ *
+ * Chaque côté fait autorité sur sa propre grille : il y place sa flotte, y résout les tirs reçus
+ * et renvoie leurs résultats ; de la grille adverse, il ne connaît que ces résultats ({@link RemoteSea}).
+ * La partie ne fait aucune entrée-sortie : chaque action renvoie les trames à transmettre à l'adversaire
+ * et chaque trame reçue est passée à {@link #receive(Frame)}.
+ * Deux parties peuvent ainsi être reliées directement, dans le même processus,
+ * ou par le réseau ({@link NetworkPeer}).
+ *
+ * Le joueur ayant ouvert la partie (l'hôte) tire en premier.
+ * Les tirs d'un tour, et leurs résultats, sont envoyés ensemble, suivis d'une trame {@link Type#END_OF_TURN}.
+ * Une trame contraire au protocole lève une {@link IllegalStateException} : la connexion doit alors être fermée.
+ * Elle n'est pas thread-safe.
+ */
+public class NetworkMatch {
+
+	/**
+	 * Les états de la partie, du point de vue du joueur local.
+	 */
+	public enum MatchState { PLACING, SHOOTING, WAITING_RESULTS, OPPONENT_SHOOTING, WON, LOST }
+
+	/**
+	 * Les règles de la partie.
+	 */
+	private final GameRules rules;
+
+	/**
+	 * Le joueur local, dont la grille fait autorité.
+	 */
+	private final Player player;
+
+	/**
+	 * La grille de l'adversaire, telle que connue par les résultats de nos tirs.
+	 */
+	private final RemoteSea opponentSea;
+
+	/**
+	 * Vrai si le joueur local tire en premier.
+	 */
+	private final boolean first;
+
+	/**
+	 * L'état de la partie.
+	 */
+	private MatchState state = MatchState.PLACING;
+
+	/**
+	 * Vrai si les règles de l'adversaire ont été reçues.
+	 */
+	private boolean helloReceived;
+
+	/**
+	 * Le nombre de tailles de bateaux de l'adversaire reçues et vérifiées.
+	 */
+	private int fleetReceived;
+
+	/**
+	 * Vrai si l'adversaire a placé sa flotte.
+	 */
+	private boolean opponentReady;
+
+	/**
+	 * Nos tirs attendant leur résultat, dans l'ordre d'envoi.
+	 */
+	private final List<Position> pendingShots = new ArrayList<Position>();
+
+	/**
+	 * Le nombre de résultats reçus pour nos tirs du tour.
+	 */
+	private int receivedResults;
+
+	/**
+	 * Les résultats des tirs reçus pendant le tour de l'adversaire, envoyés à la fin de son tour.
+	 */
+	private final List<Frame> pendingResults = new ArrayList<Frame>();
+
+	/**
+	 * Crée une partie.
+	 * @param epoch L'époque de la flotte locale.
+	 * @param rules Les règles de la partie, qui doivent être les mêmes des deux côtés.
+	 * @param first Vrai si le joueur local tire en premier (l'hôte).
+	 */
+	public NetworkMatch(Epoch epoch, GameRules rules, boolean first) {
+		this.rules = rules;
+		this.first = first;
+		Sea sea = new Sea(epoch, rules);
+		sea.putNextShipToPlace();
+		player = new Player(sea, null);
+		opponentSea = new RemoteSea(rules);
+	}
+
+	/**
+	 * Retourne l'état de la partie.
+	 * @return L'état de la partie.
+	 */
+	public MatchState getState() {
+		return state;
+	}
+
+	/**
+	 * Retourne les règles de la partie.
+	 * @return Les règles.
+	 */
+	public GameRules getRules() {
+		return rules;
+	}
+
+	/**
+	 * Retourne la grille du joueur local.
+	 * @return La grille.
+	 */
+	public Sea getSea() {
+		return player.getSelfGrid();
+	}
+
+	/**
+	 * Retourne la grille de l'adversaire, telle que connue localement.
+	 * @return La grille de l'adversaire.
+	 */
+	public RemoteSea getOpponentSea() {
+		return opponentSea;
+	}
+
+	/**
+	 * Retourne les trames à envoyer à l'ouverture de la connexion :
+	 * les règles, puis la taille de chaque bateau de la flotte.
+	 * @return Les trames.
+	 */
+	public List<Frame> open() {
+		int[] shipsSizes = rules.getShipsSizes();
+		List<Frame> frames = new ArrayList<Frame>(shipsSizes.length + 1);
+		frames.add(hello());
+		for (int i = 0 ; i < shipsSizes.length ; i++) {
+			frames.add(new Frame(Type.FLEET, 0, shipsSizes[i], 0, i));
+		}
+		return frames;
+	}
+
+	/**
+	 * Retourne la trame décrivant les règles de la partie.
+	 * @return La trame.
+	 */
+	private Frame hello() {
+		int shots = rules.isSalvo() ? 0 : rules.getNumberOfShotsPerTurn();
+		return new Frame(Type.HELLO, shots, rules.getGridWidth(), rules.getGridHeight(), rules.getShipsSizes().length);
+	}
+
+	/**
+	 * Tourne le bateau en cours de placement.
+	 */
+	public void rotateShip() {
+		player.rotateShip();
+	}
+
+	/**
+	 * Tente de placer le bateau en cours de placement.
+	 * @param position La position du bateau.
+	 * @return Les trames à envoyer, vides si le placement est invalide.
+	 */
+	public List<Frame> placeShip(Position position) {
+		if (state != MatchState.PLACING || getSea().areShipsAllPlaced() || !player.placeShip(position)) {
+			return Collections.emptyList();
+		}
+		return onShipPlaced();
+	}
+
+	/**
+	 * Place tous les bateaux restants selon une stratégie de placement.
+	 * @param strategy La stratégie de placement.
+	 * @param random Le générateur aléatoire de la stratégie.
+	 * @return Les trames à envoyer.
+	 */
+	public List<Frame> placeShips(PlacementStrategy strategy, Random random) {
+		if (state != MatchState.PLACING || getSea().areShipsAllPlaced()) {
+			return Collections.emptyList();
+		}
+		for (ShipPlacement placement : strategy.placeShips(getSea(), random)) {
+			getSea().getShipOnPlacing().setOrientation(placement.getOrientation());
+			if (!player.placeShip(placement.getPosition())) {
+				throw new AssertionError("Placement invalide " + placement);
+			}
+		}
+		return onShipPlaced();
+	}
+
+	/**
+	 * Annonce la flotte placée à l'adversaire quand le dernier bateau a été placé.
+	 * @return Les trames à envoyer.
+	 */
+	private List<Frame> onShipPlaced() {
+		if (!getSea().areShipsAllPlaced()) {
+			return Collections.emptyList();
+		}
+		startIfReady();
+		return Collections.singletonList(new Frame(Type.READY));
+	}
+
+	/**
+	 * Commence les tirs si les deux flottes sont placées.
+	 */
+	private void startIfReady() {
+		if (state == MatchState.PLACING && opponentReady && getSea().areShipsAllPlaced()) {
+			state = first ? MatchState.SHOOTING : MatchState.OPPONENT_SHOOTING;
+		}
+	}
+
+	/**
+	 * Retourne le nombre de tirs du tour du joueur local.
+	 * @return Le nombre de tirs.
+	 */
+	public int getNumberOfShotsThisTurn() {
+		return Math.min(getNumberOfShotsPerTurn(getSea().getAliveShipCount()), opponentSea.countNormalTiles());
+	}
+
+	/**
+	 * Retourne le nombre de tirs d'un tour.
+	 * @param aliveShips Le nombre de bateaux en vie du tireur.
+	 * @return Le nombre de tirs.
+	 */
+	private int getNumberOfShotsPerTurn(int aliveShips) {
+		return rules.isSalvo() ? rules.getNumberOfShotsPerTurn(aliveShips) : rules.getNumberOfShotsPerTurn();
+	}
+
+	/**
+	 * Tire sur la grille de l'adversaire : tous les tirs du tour, envoyés ensemble.
+	 * @param shots Les positions des tirs, autant que {@link #getNumberOfShotsThisTurn()}.
+	 * @return Les trames à envoyer.
+	 * @throws IllegalStateException Si ce n'est pas au joueur local de tirer.
+	 * @throws IllegalArgumentException Si le nombre de tirs est incorrect
+	 * ou si une position est hors de la grille, déjà visée ou répétée.
+	 */
+	public List<Frame> shoot(List<Position> shots) {
+		if (state != MatchState.SHOOTING) {
+			throw new IllegalStateException("Ce n'est pas au joueur de tirer");
+		}
+		if (shots.size() != getNumberOfShotsThisTurn()) {
+			throw new IllegalArgumentException("Nombre de tirs invalide " + shots.size());
+		}
+		Set<Position> distinct = new HashSet<Position>();
+		for (Position shot : shots) {
+			if (!opponentSea.isTileNormal(shot) || !distinct.add(shot)) {
+				throw new IllegalArgumentException("Tir invalide " + shot);
+			}
+		}
+		List<Frame> frames = new ArrayList<Frame>(shots.size() + 1);
+		for (Position shot : shots) {
+			frames.add(new Frame(Type.SHOT, 0, shot.getX(), shot.getY(), 0));
+		}
+		frames.add(new Frame(Type.END_OF_TURN));
+		pendingShots.addAll(shots);
+		receivedResults = 0;
+		state = MatchState.WAITING_RESULTS;
+		return frames;
+	}
+
+	/**
+	 * Traite une trame reçue de l'adversaire.
+	 * @param frame La trame.
+	 * @return Les trames à envoyer en réponse.
+	 * @throws IllegalStateException Si la trame est contraire au protocole.
+	 */
+	public List<Frame> receive(Frame frame) {
+		if (!helloReceived && frame.getType() != Type.HELLO) {
+			throw new IllegalStateException("Trame reçue avant les règles " + frame);
+		}
+		if (helloReceived && fleetReceived < rules.getShipsSizes().length && frame.getType() != Type.FLEET) {
+			throw new IllegalStateException("Trame reçue avant la flotte " + frame);
+		}
+		switch (frame.getType()) {
+			case HELLO:
+				receiveHello(frame);
+				return Collections.emptyList();
+			case FLEET:
+				receiveFleet(frame);
+				return Collections.emptyList();
+			case READY:
+				if (opponentReady) {
+					throw new IllegalStateException("Flotte adverse déjà placée");
+				}
+				opponentReady = true;
+				startIfReady();
+				return Collections.emptyList();
+			case SHOT:
+				receiveShot(frame);
+				return Collections.emptyList();
+			case RESULT:
+				receiveResult(frame);
+				return Collections.emptyList();
+			case END_OF_TURN:
+				return receiveEndOfTurn();
+			default:
+				throw new AssertionError("Type de trame inconnu " + frame.getType());
+		}
+	}
+
+	/**
+	 * Vérifie que l'adversaire joue avec les mêmes règles.
+	 * @param frame La trame des règles de l'adversaire.
+	 */
+	private void receiveHello(Frame frame) {
+		if (helloReceived) {
+			throw new IllegalStateException("Règles déjà reçues");
+		}
+		if (!hello().equals(frame)) {
+			throw new IllegalStateException("Règles incompatibles " + frame);
+		}
+		helloReceived = true;
+	}
+
+	/**
+	 * Vérifie que le bateau suivant de la flotte de l'adversaire a la même taille que le nôtre.
+	 * @param frame La trame de la taille du bateau.
+	 */
+	private void receiveFleet(Frame frame) {
+		int[] shipsSizes = rules.getShipsSizes();
+		if (fleetReceived >= shipsSizes.length) {
+			throw new IllegalStateException("Flotte déjà reçue");
+		}
+		if (frame.getShip() != fleetReceived || frame.getX() != shipsSizes[fleetReceived]
+				|| frame.getResult() != 0 || frame.getY() != 0) {
+			throw new IllegalStateException("Flotte incompatible " + frame);
+		}
+		fleetReceived++;
+	}
+
+	/**
+	 * Résout un tir de l'adversaire sur la grille locale.
+	 * @param frame La trame du tir.
+	 */
+	private void receiveShot(Frame frame) {
+		if (state != MatchState.OPPONENT_SHOOTING) {
+			throw new IllegalStateException("Tir reçu hors du tour de l'adversaire");
+		}
+		if (pendingResults.size() >= getNumberOfShotsPerTurn(opponentSea.getAliveShipCount())) {
+			throw new IllegalStateException("Trop de tirs reçus");
+		}
+		Position position = Position.of(frame.getX(), frame.getY());
+		Sea sea = getSea();
+		int deadShips = sea.getDeadShipCount();
+		if (!sea.receiveShot(position)) {
+			throw new IllegalStateException("Tir invalide " + position);
+		}
+		int result = sea.isTileTouched(position) ? Frame.HIT : Frame.MISS;
+		int shipIndex = 0;
+		if (sea.getDeadShipCount() > deadShips) {	// selon l'époque, un bateau peut couler avant d'être entièrement touché
+			result = Frame.SUNK;
+			List<Ship> ships = sea.getShips();
+			while (ships.get(shipIndex).getTileOffset(position) < 0) {
+				shipIndex++;
+			}
+		}
+		pendingResults.add(new Frame(Type.RESULT, result, position.getX(), position.getY(), shipIndex));
+	}
+
+	/**
+	 * Enregistre le résultat d'un de nos tirs.
+	 * @param frame La trame du résultat.
+	 */
+	private void receiveResult(Frame frame) {
+		if (state != MatchState.WAITING_RESULTS || receivedResults >= pendingShots.size()) {
+			throw new IllegalStateException("Résultat inattendu " + frame);
+		}
+		Position shot = pendingShots.get(receivedResults);
+		if (shot.getX() != frame.getX() || shot.getY() != frame.getY() || frame.getResult() > Frame.SUNK) {
+			throw new IllegalStateException("Résultat invalide " + frame + " pour le tir " + shot);
+		}
+		opponentSea.recordShot(shot, frame.getResult() != Frame.MISS, frame.getResult() == Frame.SUNK ? frame.getShip() : -1);
+		receivedResults++;
+	}
+
+	/**
+	 * Termine le tour en cours : renvoie les résultats des tirs de l'adversaire,
+	 * ou passe la main après avoir reçu ceux de nos tirs.
+	 * @return Les trames à envoyer.
+	 */
+	private List<Frame> receiveEndOfTurn() {
+		switch (state) {
+			case OPPONENT_SHOOTING:
+				int expected = Math.min(getNumberOfShotsPerTurn(opponentSea.getAliveShipCount()),
+						pendingResults.size() + getSea().countTiles(Sea.SeaTileState.NORMAL));
+				if (pendingResults.size() != expected) {
+					throw new IllegalStateException("Nombre de tirs reçus invalide " + pendingResults.size());
+				}
+				List<Frame> frames = new ArrayList<Frame>(pendingResults);
+				frames.add(new Frame(Type.END_OF_TURN));
+				pendingResults.clear();
+				state = getSea().areShipsAllDead() ? MatchState.LOST : MatchState.SHOOTING;
+				return frames;
+			case WAITING_RESULTS:
+				if (receivedResults != pendingShots.size()) {
+					throw new IllegalStateException("Résultats manquants");
+				}
+				pendingShots.clear();
+				state = opponentSea.areShipsAllDead() ? MatchState.WON : MatchState.OPPONENT_SHOOTING;
+				return Collections.emptyList();
+			default:
+				throw new IllegalStateException("Fin de tour inattendue dans l'état " + state);
+		}
+	}
+
+}
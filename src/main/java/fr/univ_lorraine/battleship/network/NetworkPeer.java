@@ -0,0 +1,420 @@
+package fr.univ_lorraine.battleship.network;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import fr.univ_lorraine.battleship.Utils;
+import fr.univ_lorraine.battleship.model.PlacementStrategy;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.network.NetworkMatch.MatchState;
+
+/**
+ * Un côté d'une partie en réseau : relie une {@link NetworkMatch} à l'adversaire par une connexion TCP non bloquante.
+ *
+ * Un seul thread (démon) gère la connexion avec un sélecteur, et exécute aussi les actions du joueur local :
+ * la partie n'est jamais utilisée par deux threads à la fois.
+ * Les actions renvoient un {@link Future}, qui transmet l'éventuelle erreur (action invalide, etc.).
+ * Les trames produites par une action ou par la réception d'un paquet sont envoyées ensemble.
+ */
+public class NetworkPeer implements Closeable {
+
+	/**
+	 * Action du joueur local sur la partie.
+	 */
+	private interface Action {
+
+		/**
+		 * Exécute l'action.
+		 * @param match La partie.
+		 * @return Les trames à envoyer.
+		 */
+		public List<Frame> apply(NetworkMatch match);
+
+	}
+
+	/**
+	 * La partie.
+	 */
+	private final NetworkMatch match;
+
+	/**
+	 * L'écouteur de la partie.
+	 */
+	private final NetworkListener listener;
+
+	/**
+	 * Le sélecteur surveillant la connexion.
+	 */
+	private final Selector selector;
+
+	/**
+	 * Le port local de la connexion (port d'écoute pour l'hôte).
+	 */
+	private final int localPort;
+
+	/**
+	 * Le canal d'écoute de l'hôte, fermé dès que l'adversaire est connecté.
+	 */
+	private ServerSocketChannel server;
+
+	/**
+	 * Le canal de l'invité, s'il était connecté dès sa création, en attendant le démarrage du thread réseau.
+	 */
+	private SocketChannel connectedClient;
+
+	/**
+	 * La connexion avec l'adversaire, null tant qu'elle n'est pas établie.
+	 */
+	private FrameChannel connection;
+
+	/**
+	 * La clé de la connexion auprès du sélecteur.
+	 */
+	private SelectionKey connectionKey;
+
+	/**
+	 * Les trames produites avant l'établissement de la connexion.
+	 */
+	private final List<Frame> earlyFrames = new ArrayList<Frame>();
+
+	/**
+	 * Les actions du joueur local en attente.
+	 */
+	private final Queue<FutureTask<Void>> actions = new ConcurrentLinkedQueue<FutureTask<Void>>();
+
+	/**
+	 * Vrai une fois la connexion fermée (ou en cours de fermeture).
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Crée un côté de la partie, sans le démarrer.
+	 * @param match La partie.
+	 * @param listener L'écouteur de la partie.
+	 * @param server Le canal d'écoute de l'hôte, null pour l'invité.
+	 * @param client Le canal de l'invité en cours de connexion, null pour l'hôte.
+	 * @throws IOException Si le sélecteur ne peut être créé.
+	 */
+	private NetworkPeer(NetworkMatch match, NetworkListener listener, ServerSocketChannel server, SocketChannel client)
+			throws IOException {
+		this.match = match;
+		this.listener = listener;
+		this.selector = Selector.open();
+		this.server = server;
+		if (server != null) {
+			localPort = server.socket().getLocalPort();
+			server.register(selector, SelectionKey.OP_ACCEPT);
+		} else {
+			localPort = client.socket().getLocalPort();
+			if (client.isConnected()) {		// connexion locale immédiate
+				connectedClient = client;
+			} else {
+				client.register(selector, SelectionKey.OP_CONNECT);
+			}
+		}
+	}
+
+	/**
+	 * Ouvre une partie en attendant la connexion de l'adversaire.
+	 * Le joueur local tire en premier.
+	 * @param address L'adresse d'écoute (port 0 pour un port libre, voir {@link #getLocalPort()}).
+	 * @param match La partie, créée avec le joueur local tirant en premier.
+	 * @param listener L'écouteur de la partie.
+	 * @return Le côté local de la partie, déjà démarré.
+	 * @throws IOException Si l'adresse ne peut être écoutée.
+	 */
+	public static NetworkPeer host(InetSocketAddress address, NetworkMatch match, NetworkListener listener)
+			throws IOException {
+		ServerSocketChannel server = ServerSocketChannel.open();
+		try {
+			server.configureBlocking(false);
+			server.bind(address);
+			return new NetworkPeer(match, listener, server, null).start();
+		} catch (IOException e) {
+			Utils.closeQuietly(server);
+			throw e;
+		}
+	}
+
+	/**
+	 * Rejoint une partie ouverte par un hôte.
+	 * @param address L'adresse de l'hôte.
+	 * @param match La partie, créée avec l'adversaire tirant en premier.
+	 * @param listener L'écouteur de la partie.
+	 * @return Le côté local de la partie, déjà démarré.
+	 * @throws IOException Si la connexion ne peut être tentée.
+	 */
+	public static NetworkPeer connect(InetSocketAddress address, NetworkMatch match, NetworkListener listener)
+			throws IOException {
+		SocketChannel client = SocketChannel.open();
+		try {
+			client.configureBlocking(false);
+			client.connect(address);
+			return new NetworkPeer(match, listener, null, client).start();
+		} catch (IOException e) {
+			Utils.closeQuietly(client);
+			throw e;
+		}
+	}
+
+	/**
+	 * Démarre le thread réseau.
+	 * @return Ce côté de la partie.
+	 */
+	private NetworkPeer start() {
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				loop();
+			}
+		}, "Réseau");
+		thread.setDaemon(true);
+		thread.start();
+		return this;
+	}
+
+	/**
+	 * Retourne le port local : le port d'écoute pour l'hôte.
+	 * @return Le port local.
+	 */
+	public int getLocalPort() {
+		return localPort;
+	}
+
+	/**
+	 * Tourne le bateau en cours de placement.
+	 * @return La fin de l'action.
+	 */
+	public Future<Void> rotateShip() {
+		return submit(new Action() {
+			@Override
+			public List<Frame> apply(NetworkMatch match) {
+				match.rotateShip();
+				return new ArrayList<Frame>();
+			}
+		});
+	}
+
+	/**
+	 * Tente de placer le bateau en cours de placement.
+	 * @param position La position du bateau.
+	 * @return La fin de l'action.
+	 */
+	public Future<Void> placeShip(final Position position) {
+		return submit(new Action() {
+			@Override
+			public List<Frame> apply(NetworkMatch match) {
+				return match.placeShip(position);
+			}
+		});
+	}
+
+	/**
+	 * Place tous les bateaux restants selon une stratégie de placement.
+	 * @param strategy La stratégie de placement.
+	 * @param random Le générateur aléatoire de la stratégie.
+	 * @return La fin de l'action.
+	 */
+	public Future<Void> placeShips(final PlacementStrategy strategy, final Random random) {
+		return submit(new Action() {
+			@Override
+			public List<Frame> apply(NetworkMatch match) {
+				return match.placeShips(strategy, random);
+			}
+		});
+	}
+
+	/**
+	 * Tire sur la grille de l'adversaire, voir {@link NetworkMatch#shoot(List)}.
+	 * @param shots Les positions des tirs du tour.
+	 * @return La fin de l'action, en échec si les tirs sont invalides.
+	 */
+	public Future<Void> shoot(final List<Position> shots) {
+		return submit(new Action() {
+			@Override
+			public List<Frame> apply(NetworkMatch match) {
+				return match.shoot(shots);
+			}
+		});
+	}
+
+	/**
+	 * Ferme la connexion. L'écouteur en est averti dans le thread réseau.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		selector.wakeup();
+	}
+
+	/**
+	 * Confie une action au thread réseau.
+	 * @param action L'action.
+	 * @return La fin de l'action, annulée si la connexion est fermée avant son exécution.
+	 */
+	private Future<Void> submit(final Action action) {
+		FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {
+			@Override
+			public Void call() {
+				send(action.apply(match));
+				listener.onMatchUpdate(match);
+				return null;
+			}
+		});
+		actions.add(task);
+		if (closed) {
+			cancelActions();
+		} else {
+			selector.wakeup();
+		}
+		return task;
+	}
+
+	/**
+	 * Annule les actions en attente.
+	 */
+	private void cancelActions() {
+		FutureTask<Void> task;
+		while ((task = actions.poll()) != null) {
+			task.cancel(false);
+		}
+	}
+
+	/**
+	 * Boucle du thread réseau, jusqu'à la fermeture de la connexion.
+	 */
+	private void loop() {
+		Exception cause = null;
+		try {
+			if (connectedClient != null) {
+				connected(connectedClient);
+			}
+			while (!closed) {
+				selector.select();
+				FutureTask<Void> task;
+				while ((task = actions.poll()) != null) {
+					task.run();		// l'erreur d'une action est transmise par son Future
+				}
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if (!key.isValid()) {
+						continue;
+					}
+					if (key.isAcceptable()) {
+						SocketChannel client = server.accept();
+						if (client != null) {
+							server.close();		// un seul adversaire
+							server = null;
+							connected(client);
+						}
+					} else if (key.isConnectable()) {
+						SocketChannel client = (SocketChannel) key.channel();
+						if (client.finishConnect()) {
+							connected(client);
+						}
+					} else if (key.isReadable()) {
+						read();
+					}
+				}
+				flush();
+			}
+		} catch (IOException | RuntimeException e) {
+			cause = e;
+		} finally {
+			closed = true;
+			cancelActions();
+			if (connection != null) {
+				if (cause == null) {
+					try {
+						connection.flush();		// dernières trames, sans attendre
+					} catch (IOException e) {
+						// l'adversaire est déjà parti
+					}
+				}
+				Utils.closeQuietly(connection);
+			}
+			Utils.closeQuietly(server);
+			Utils.closeQuietly(selector);
+			listener.onClosed(cause);
+		}
+	}
+
+	/**
+	 * Met en place la connexion avec l'adversaire et lui envoie les trames d'ouverture.
+	 * @param client Le canal connecté.
+	 * @throws IOException Si le canal ne peut être configuré.
+	 */
+	private void connected(SocketChannel client) throws IOException {
+		connection = new FrameChannel(client);
+		connectionKey = client.register(selector, SelectionKey.OP_READ);
+		send(match.open());
+		send(earlyFrames);
+		earlyFrames.clear();
+		listener.onMatchUpdate(match);
+	}
+
+	/**
+	 * Traite les trames reçues et y répond.
+	 * @throws IOException En cas d'erreur de lecture, ou si l'adversaire s'est déconnecté avant la fin de la partie.
+	 */
+	private void read() throws IOException {
+		List<Frame> frames = new ArrayList<Frame>();
+		boolean open = connection.receive(frames);
+		for (Frame frame : frames) {
+			send(match.receive(frame));
+		}
+		if (!frames.isEmpty()) {
+			listener.onMatchUpdate(match);
+		}
+		if (!open) {
+			closed = true;
+			if (match.getState() != MatchState.WON && match.getState() != MatchState.LOST) {
+				throw new EOFException("Connexion fermée par l'adversaire");
+			}
+		}
+	}
+
+	/**
+	 * Envoie des trames, ou les garde jusqu'à l'établissement de la connexion.
+	 * @param frames Les trames.
+	 */
+	private void send(List<Frame> frames) {
+		if (connection == null) {
+			earlyFrames.addAll(frames);
+			return;
+		}
+		for (Frame frame : frames) {
+			connection.send(frame);
+		}
+	}
+
+	/**
+	 * Écrit les trames en attente, et surveille le canal en écriture s'il n'a pas pu tout écrire.
+	 * @throws IOException En cas d'erreur d'écriture.
+	 */
+	private void flush() throws IOException {
+		if (connection == null || closed) {
+			return;
+		}
+		boolean flushed = !connection.hasPendingOutput() || connection.flush();
+		connectionKey.interestOps(flushed ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+	}
+
+}
@@ -0,0 +1,171 @@
+package fr.univ_lorraine.battleship.network;
+
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
+
+/**
+ * Ce que l'on sait de la grille de l'adversaire distant : l'état des cases visées et les bateaux coulés.
+ * La position des bateaux n'est connue que du processus de l'adversaire.
+ */
+public class RemoteSea {
+
+	/**
+	 * La largeur de la grille.
+	 */
+	private final int width;
+
+	/**
+	 * La hauteur de la grille.
+	 */
+	private final int height;
+
+	/**
+	 * Les tailles des bateaux de la flotte.
+	 */
+	private final int[] shipsSizes;
+
+	/**
+	 * L'état de chaque case (indice x * hauteur + y).
+	 */
+	private final SeaTileState[] tiles;
+
+	/**
+	 * Vrai pour chaque bateau coulé.
+	 */
+	private final boolean[] sunk;
+
+	/**
+	 * Le nombre de cases visées.
+	 */
+	private int shotCount;
+
+	/**
+	 * Le nombre de bateaux coulés.
+	 */
+	private int sunkCount;
+
+	/**
+	 * Crée la grille d'un adversaire, encore intacte.
+	 * @param rules Les règles de la partie.
+	 */
+	public RemoteSea(GameRules rules) {
+		width = rules.getGridWidth();
+		height = rules.getGridHeight();
+		shipsSizes = rules.getShipsSizes();
+		tiles = new SeaTileState[width * height];
+		for (int i = 0 ; i < tiles.length ; i++) {
+			tiles[i] = SeaTileState.NORMAL;
+		}
+		sunk = new boolean[shipsSizes.length];
+	}
+
+	/**
+	 * Retourne la largeur de la grille.
+	 * @return La largeur.
+	 */
+	public int getGridWidth() {
+		return width;
+	}
+
+	/**
+	 * Retourne la hauteur de la grille.
+	 * @return La hauteur.
+	 */
+	public int getGridHeight() {
+		return height;
+	}
+
+	/**
+	 * Retourne l'état d'une case.
+	 * @param x L'abscisse de la case.
+	 * @param y L'ordonnée de la case.
+	 * @return L'état de la case.
+	 */
+	public SeaTileState getGridTileState(int x, int y) {
+		return tiles[x * height + y];
+	}
+
+	/**
+	 * Indique si une case est dans la grille et n'a pas encore été visée.
+	 * @param position La position de la case.
+	 * @return Vrai si on peut y tirer.
+	 */
+	public boolean isTileNormal(Position position) {
+		return isInside(position) && tiles[position.getX() * height + position.getY()] == SeaTileState.NORMAL;
+	}
+
+	/**
+	 * Indique si une position est dans la grille.
+	 * @param position La position.
+	 * @return Vrai si la position est dans la grille.
+	 */
+	public boolean isInside(Position position) {
+		return position.getX() >= 0 && position.getX() < width && position.getY() >= 0 && position.getY() < height;
+	}
+
+	/**
+	 * Retourne le nombre de cases pas encore visées.
+	 * @return Le nombre de cases.
+	 */
+	public int countNormalTiles() {
+		return tiles.length - shotCount;
+	}
+
+	/**
+	 * Indique si un bateau a été coulé.
+	 * @param ship L'indice du bateau dans la flotte.
+	 * @return Vrai si le bateau est coulé.
+	 */
+	public boolean isShipSunk(int ship) {
+		return sunk[ship];
+	}
+
+	/**
+	 * Retourne la taille d'un bateau.
+	 * @param ship L'indice du bateau dans la flotte.
+	 * @return La taille du bateau.
+	 */
+	public int getShipSize(int ship) {
+		return shipsSizes[ship];
+	}
+
+	/**
+	 * Retourne le nombre de bateaux en vie.
+	 * @return Le nombre de bateaux.
+	 */
+	public int getAliveShipCount() {
+		return sunk.length - sunkCount;
+	}
+
+	/**
+	 * Indique si tous les bateaux ont été coulés.
+	 * @return Vrai si tous les bateaux sont coulés.
+	 */
+	public boolean areShipsAllDead() {
+		return sunkCount == sunk.length;
+	}
+
+	/**
+	 * Enregistre le résultat d'un tir, donné par l'adversaire.
+	 * @param position La position du tir.
+	 * @param hit Vrai si le tir a touché un bateau.
+	 * @param sunkShip L'indice du bateau coulé par le tir, -1 s'il n'en a coulé aucun.
+	 * @throws IllegalStateException Si la case a déjà été visée ou si le bateau est déjà coulé.
+	 */
+	void recordShot(Position position, boolean hit, int sunkShip) {
+		if (!isTileNormal(position)) {
+			throw new IllegalStateException("Case déjà visée " + position);
+		}
+		if (sunkShip >= 0 && (!hit || sunkShip >= sunk.length || sunk[sunkShip])) {
+			throw new IllegalStateException("Bateau coulé invalide " + sunkShip);
+		}
+		tiles[position.getX() * height + position.getY()] = hit ? SeaTileState.TOUCHED : SeaTileState.SHOT;
+		shotCount++;
+		if (sunkShip >= 0) {
+			sunk[sunkShip] = true;
+			sunkCount++;
+		}
+	}
+
+}
@@ -7,7 +7,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
@@ -19,13 +18,13 @@ import javax.swing.SwingConstants;
 import fr.univ_lorraine.battleship.model.Epoch;
 import fr.univ_lorraine.battleship.model.EpochXVI;
 import fr.univ_lorraine.battleship.model.EpochXX;
-import fr.univ_lorraine.battleship.model.RandomShooting;
-import fr.univ_lorraine.battleship.model.SeekThenDestroyCrossShooting;
-import fr.univ_lorraine.battleship.model.SeekThenDestroyRandomShooting;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.PlacementStrategy;
 import fr.univ_lorraine.battleship.model.ShootingStrategy;
 import fr.univ_lorraine.battleship.model.Epoch.EpochName;
 import fr.univ_lorraine.battleship.model.EpochX;
 import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.PlacementStrategy.PlacementStrategyName;
 import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
 
 
@@ -62,9 +61,10 @@ public class ChooseGameOptionsPanel extends JPanel {
 	private final JToggleButton epochXButton;
 	
 	/**
-	 * Map liant les actions des boutons à leur stratégie de tir correspondante.
+	 * Map liant les actions des boutons au nom de leur stratégie de tir correspondante.
+	 * Une stratégie pouvant avoir un état, chaque partie reçoit une nouvelle instance.
 	 */
-	private static final Map<String, ShootingStrategy> ACTION_SHOOT_MAP = new HashMap<String, ShootingStrategy>();
+	private final Map<String, ShootingStrategyName> actionShootMap = new HashMap<String, ShootingStrategyName>();
 
 	/**
 	 * Groupe de boutons des stratégies de tir.
@@ -87,6 +87,73 @@ public class ChooseGameOptionsPanel extends JPanel {
 	 */
 	private final JToggleButton SAndDCrossShotButton;
 
+	/**
+	 * Bouton de la stratégie de tir par densité de probabilité.
+	 */
+	private final JToggleButton densityShotButton;
+
+	/**
+	 * Bouton de la stratégie de tir par échantillonnage (Monte-Carlo).
+	 */
+	private final JToggleButton monteCarloShotButton;
+
+	/**
+	 * Bouton de la stratégie de tir tenant compte de l'époque.
+	 */
+	private final JToggleButton epochAwareShotButton;
+	
+	/**
+	 * Map liant les actions des boutons au nom de leur stratégie de placement correspondante.
+	 */
+	private final Map<String, PlacementStrategyName> actionPlacementMap = new HashMap<String, PlacementStrategyName>();
+
+	/**
+	 * Groupe de boutons des stratégies de placement.
+	 * Permet de rendre seulement un toggleBouton sélectionnable.
+	 */
+	private final ButtonGroup placementGroup;
+	
+	/**
+	 * Bouton de la stratégie de placement aléatoire.
+	 */
+	private final JToggleButton randPlacementButton;
+	
+	/**
+	 * Bouton de la stratégie de placement à contre-densité.
+	 */
+	private final JToggleButton antiDensityPlacementButton;
+	
+	/**
+	 * Map liant les actions des boutons à leurs règles correspondantes.
+	 */
+	private static final Map<String, GameRules> ACTION_RULES_MAP = new HashMap<String, GameRules>();
+	
+	/**
+	 * Action du bouton des règles classiques.
+	 */
+	private static final String CLASSIC_RULES_ACTION = "CLASSIC";
+	
+	/**
+	 * Action du bouton de la variante salve.
+	 */
+	private static final String SALVO_RULES_ACTION = "SALVO";
+
+	/**
+	 * Groupe de boutons des règles.
+	 * Permet de rendre seulement un toggleBouton sélectionnable.
+	 */
+	private final ButtonGroup rulesGroup;
+	
+	/**
+	 * Bouton des règles classiques.
+	 */
+	private final JToggleButton classicRulesButton;
+	
+	/**
+	 * Bouton de la variante salve.
+	 */
+	private final JToggleButton salvoRulesButton;
+
 	
 	/**
 	 * Enumerations des choix possibles du joueur qui débutera la partie.
@@ -96,12 +163,7 @@ public class ChooseGameOptionsPanel extends JPanel {
 		RANDOM {
 			@Override
 			public PlayerId mapToPlayerId() {
-				if(RNG.nextBoolean()) {
-					return PlayerId.PLAYER;
-				}
-				else {
-					return PlayerId.COMPUTER;
-				}
+				return null;	// tiré au sort par la partie, à partir de sa graine
 			}
 		},
 		
@@ -119,11 +181,9 @@ public class ChooseGameOptionsPanel extends JPanel {
 			}
 		};
 		
-		private static Random RNG = new Random();
-		
 		/**
 		 * Retourne l'id du joueur correspondant à cette valeur de l'énumeration.
-		 * @return L'id du joueur correspondant.
+		 * @return L'id du joueur correspondant, null s'il doit être tiré au sort.
 		 */
 		public abstract PlayerId mapToPlayerId();
 	}
@@ -215,9 +275,12 @@ public class ChooseGameOptionsPanel extends JPanel {
 		epochGroup.add(epochXXButton);
 		
 		// Choix stratégie de tir de l'ordi
-		ACTION_SHOOT_MAP.put(ShootingStrategyName.RANDOM.name(), new RandomShooting());
-		ACTION_SHOOT_MAP.put(ShootingStrategyName.SEEK_THEN_DESTROY_RANDOM.name(), new SeekThenDestroyRandomShooting());
-		ACTION_SHOOT_MAP.put(ShootingStrategyName.SEEK_THEN_DESTROY_CROSS.name(), new SeekThenDestroyCrossShooting());
+		actionShootMap.put(ShootingStrategyName.RANDOM.name(), ShootingStrategyName.RANDOM);
+		actionShootMap.put(ShootingStrategyName.SEEK_THEN_DESTROY_RANDOM.name(), ShootingStrategyName.SEEK_THEN_DESTROY_RANDOM);
+		actionShootMap.put(ShootingStrategyName.SEEK_THEN_DESTROY_CROSS.name(), ShootingStrategyName.SEEK_THEN_DESTROY_CROSS);
+		actionShootMap.put(ShootingStrategyName.PROBABILITY_DENSITY.name(), ShootingStrategyName.PROBABILITY_DENSITY);
+		actionShootMap.put(ShootingStrategyName.MONTE_CARLO.name(), ShootingStrategyName.MONTE_CARLO);
+		actionShootMap.put(ShootingStrategyName.EPOCH_AWARE.name(), ShootingStrategyName.EPOCH_AWARE);
 		
 		JLabel shotStrategyLabel = new JLabel("Choisissez la technique de tir de l'ordinateur :", SwingConstants.CENTER);
 		gbc.gridy++;
@@ -253,15 +316,116 @@ public class ChooseGameOptionsPanel extends JPanel {
 				"Lorsqu’il a touché, il s’acharne sur les cases adjacentes.<br>" +
 				"Une fois le navire coulé, la chasse reprend jusqu’à l’acquisition d’une nouvelle cible.</html>");
 		SAndDCrossShotButton.setActionCommand(ShootingStrategyName.SEEK_THEN_DESTROY_CROSS.name());
-		gbc.insets = new Insets(0, 0, 0, 0);
+		gbc.insets = new Insets(0, 0, 0, 10);
 		gbc.gridx++;
 		gbc.weightx = 1/3;
 		container.add(SAndDCrossShotButton, gbc);
 
+		densityShotButton = new JToggleButton("<html><center>Densité de<br>probabilité</center></html>");
+		densityShotButton.setToolTipText("<html>Avec cette stratégie, l’ordinateur compte pour chaque case le nombre de positions possibles<br>" +
+				"des bateaux restants qui la recouvrent, et tire sur la case la plus probable.<br>" +
+				"Lorsqu’il a touché, il ne considère que les positions passant par les cases touchées.</html>");
+		densityShotButton.setActionCommand(ShootingStrategyName.PROBABILITY_DENSITY.name());
+		gbc.insets = new Insets(0, 0, 0, 10);
+		gbc.gridx++;
+		gbc.weightx = 1/3;
+		container.add(densityShotButton, gbc);
+
+		monteCarloShotButton = new JToggleButton("<html><center>Monte-Carlo</center></html>");
+		monteCarloShotButton.setToolTipText("<html>Avec cette stratégie, l’ordinateur imagine un grand nombre de positions des bateaux restants<br>" +
+				"compatibles avec les tirs déjà effectués, et tire sur la case la plus souvent occupée.</html>");
+		monteCarloShotButton.setActionCommand(ShootingStrategyName.MONTE_CARLO.name());
+		gbc.insets = new Insets(0, 0, 0, 10);
+		gbc.gridx++;
+		gbc.weightx = 1/3;
+		container.add(monteCarloShotButton, gbc);
+
+		epochAwareShotButton = new JToggleButton("<html><center>Chasse/Cible<br>selon l'époque</center></html>");
+		epochAwareShotButton.setToolTipText("<html>Avec cette stratégie, l’ordinateur chasse selon la taille du plus petit bateau restant.<br>" +
+				"Lorsqu’il a touché, il tient compte du nombre de touchés qui coulent un bateau à cette époque<br>" +
+				"et abandonne la cible dès que le bateau est coulé.</html>");
+		epochAwareShotButton.setActionCommand(ShootingStrategyName.EPOCH_AWARE.name());
+		gbc.insets = new Insets(0, 0, 0, 0);
+		gbc.gridx++;
+		gbc.weightx = 1/3;
+		container.add(epochAwareShotButton, gbc);
+
 		shotGroup = new ButtonGroup();
 		shotGroup.add(randShotButton);
 		shotGroup.add(SAndDRandShotButton);
 		shotGroup.add(SAndDCrossShotButton);
+		shotGroup.add(densityShotButton);
+		shotGroup.add(monteCarloShotButton);
+		shotGroup.add(epochAwareShotButton);
+		
+		// Choix stratégie de placement de l'ordi
+		actionPlacementMap.put(PlacementStrategyName.RANDOM.name(), PlacementStrategyName.RANDOM);
+		actionPlacementMap.put(PlacementStrategyName.ANTI_DENSITY.name(), PlacementStrategyName.ANTI_DENSITY);
+		
+		JLabel placementStrategyLabel = new JLabel("Choisissez le placement des bateaux de l'ordinateur :", SwingConstants.CENTER);
+		gbc.insets = new Insets(30, 0, 5, 0);
+		gbc.gridwidth = GridBagConstraints.REMAINDER;
+		gbc.fill = GridBagConstraints.BOTH;
+		gbc.gridx = 0;
+		gbc.gridy++;
+		container.add(placementStrategyLabel, gbc);
+		
+		randPlacementButton = new JToggleButton("Placement aléatoire");
+		randPlacementButton.setToolTipText("Bateaux placés entièrement au hasard.");
+		randPlacementButton.setActionCommand(PlacementStrategyName.RANDOM.name());
+		gbc.fill = GridBagConstraints.BOTH;
+		gbc.insets = new Insets(0, 0, 0, 10);
+		gbc.gridwidth = 1;
+		gbc.gridy++;
+		gbc.weightx = 1/3;
+		container.add(randPlacementButton, gbc);
+		
+		antiDensityPlacementButton = new JToggleButton("<html><center>Placement<br>à contre-densité</center></html>");
+		antiDensityPlacementButton.setToolTipText("<html>Avec cette stratégie, l’ordinateur place ses bateaux au hasard<br>" +
+				"en privilégiant les cases que les stratégies de tir explorent en dernier.</html>");
+		antiDensityPlacementButton.setActionCommand(PlacementStrategyName.ANTI_DENSITY.name());
+		gbc.insets = new Insets(0, 0, 0, 0);
+		gbc.gridx++;
+		gbc.weightx = 1/3;
+		container.add(antiDensityPlacementButton, gbc);
+		
+		placementGroup = new ButtonGroup();
+		placementGroup.add(randPlacementButton);
+		placementGroup.add(antiDensityPlacementButton);
+		
+		// Choix des règles
+		ACTION_RULES_MAP.put(CLASSIC_RULES_ACTION, new GameRules());
+		ACTION_RULES_MAP.put(SALVO_RULES_ACTION, GameRules.salvo());
+		
+		JLabel rulesLabel = new JLabel("Choisissez les règles de la partie :", SwingConstants.CENTER);
+		gbc.insets = new Insets(30, 0, 5, 0);
+		gbc.gridwidth = GridBagConstraints.REMAINDER;
+		gbc.fill = GridBagConstraints.BOTH;
+		gbc.gridx = 0;
+		gbc.gridy++;
+		container.add(rulesLabel, gbc);
+		
+		classicRulesButton = new JToggleButton("Classiques");
+		classicRulesButton.setToolTipText("Un tir par tour.");
+		classicRulesButton.setActionCommand(CLASSIC_RULES_ACTION);
+		gbc.fill = GridBagConstraints.BOTH;
+		gbc.insets = new Insets(0, 0, 0, 10);
+		gbc.gridwidth = 1;
+		gbc.gridy++;
+		gbc.weightx = 1/3;
+		container.add(classicRulesButton, gbc);
+		
+		salvoRulesButton = new JToggleButton("Salve");
+		salvoRulesButton.setToolTipText("Autant de tirs par tour que de bateaux encore en vie.");
+		salvoRulesButton.setActionCommand(SALVO_RULES_ACTION);
+		gbc.insets = new Insets(0, 0, 0, 0);
+		gbc.gridx++;
+		gbc.weightx = 1/3;
+		container.add(salvoRulesButton, gbc);
+		
+		rulesGroup = new ButtonGroup();
+		rulesGroup.add(classicRulesButton);
+		rulesGroup.add(salvoRulesButton);
 		
 		// Choix joueur qui commence
 		ACTION_STARTING_PLAYER_MAP.put(StartingPlayer.RANDOM.name(), StartingPlayer.RANDOM);
@@ -309,7 +473,7 @@ public class ChooseGameOptionsPanel extends JPanel {
 		startGameButton.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				gameFrame.newGame(getChosenEpoch(), getChosenShootingStrategy(), getChosenStartingPlayer());
+				gameFrame.newGame(getChosenEpoch(), getChosenShootingStrategy(), getChosenPlacementStrategy(), getChosenRules(), getChosenStartingPlayer());
 				setToDefaultChoices();
 			}
 		});
@@ -342,6 +506,8 @@ public class ChooseGameOptionsPanel extends JPanel {
 	private void setToDefaultChoices() {
 		epochXXButton.setSelected(true);
 		randShotButton.setSelected(true);
+		randPlacementButton.setSelected(true);
+		classicRulesButton.setSelected(true);
 		randStartButton.setSelected(true);
 	}
 	
@@ -354,16 +520,32 @@ public class ChooseGameOptionsPanel extends JPanel {
 	}
 	
 	/**
-	 * Récupère la stratégie de tir de l'ordinateur sélectionnée.
-	 * @return La stratégie de tir de l'ordinateur sélectionnée.
+	 * Crée la stratégie de tir de l'ordinateur sélectionnée.
+	 * @return Une nouvelle instance de la stratégie de tir de l'ordinateur sélectionnée.
 	 */
 	private ShootingStrategy getChosenShootingStrategy() {
-        return ACTION_SHOOT_MAP.get(shotGroup.getSelection().getActionCommand());
+        return actionShootMap.get(shotGroup.getSelection().getActionCommand()).createShootingStrategy();
+	}
+	
+	/**
+	 * Crée la stratégie de placement de l'ordinateur sélectionnée.
+	 * @return Une nouvelle instance de la stratégie de placement de l'ordinateur sélectionnée.
+	 */
+	private PlacementStrategy getChosenPlacementStrategy() {
+        return actionPlacementMap.get(placementGroup.getSelection().getActionCommand()).createPlacementStrategy();
+	}
+	
+	/**
+	 * Récupère les règles sélectionnées.
+	 * @return Les règles sélectionnées.
+	 */
+	private GameRules getChosenRules() {
+		return ACTION_RULES_MAP.get(rulesGroup.getSelection().getActionCommand());
 	}
 	
 	/**
 	 * Récupère le choix du joueur qui commencera la partie.
-	 * @return Le choix du joueur qui commencera la partie.
+	 * @return Le choix du joueur qui commencera la partie, null s'il doit être tiré au sort.
 	 */
 	private PlayerId getChosenStartingPlayer() {
 		return ACTION_STARTING_PLAYER_MAP.get(startingPlayerGroup.getSelection().getActionCommand()).mapToPlayerId();
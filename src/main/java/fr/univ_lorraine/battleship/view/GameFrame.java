@@ -7,11 +7,15 @@ import java.io.IOException;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 import fr.univ_lorraine.battleship.Utils;
+import fr.univ_lorraine.battleship.controller.GameEngine;
 import fr.univ_lorraine.battleship.model.Epoch;
 import fr.univ_lorraine.battleship.model.Game;
 import fr.univ_lorraine.battleship.model.GameLoader;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.PlacementStrategy;
 import fr.univ_lorraine.battleship.model.ShootingStrategy;
 import fr.univ_lorraine.battleship.model.Game.PlayerId;
 
@@ -97,28 +101,33 @@ public class GameFrame extends JFrame {
 	 * Initialise les composants graphiques concernés et affiche le panel de jeu.
 	 * @param epoch L'époque de la nouvelle partie.
 	 * @param shootingStrategy La stratégie de tir de l'ordinateur.
-	 * @param startingPlayer Le joueur débutant la partie.
+	 * @param placementStrategy La stratégie de placement des bateaux de l'ordinateur.
+	 * @param rules Les règles de la partie.
+	 * @param startingPlayer Le joueur débutant la partie, null pour le tirer au sort.
 	 */
-	public void newGame(Epoch epoch, ShootingStrategy shootingStrategy, PlayerId startingPlayer) {
-		Game game = new Game(epoch, shootingStrategy);
-		gamePanel.setGame(game);
-		gameOptionsPanel.setGame(game);
+	public void newGame(Epoch epoch, ShootingStrategy shootingStrategy, PlacementStrategy placementStrategy, GameRules rules, PlayerId startingPlayer) {
+		Game game = new Game(epoch, shootingStrategy, placementStrategy, rules);
+		game.getComputerController().setSpeculative(true);	// l'ordinateur réfléchit pendant le tour du joueur
+		GameEngine engine = new GameEngine(game);
+		gamePanel.setEngine(engine);
+		gameOptionsPanel.setEngine(engine);
 		showPanel(PanelId.GAME_PANEL);
-		game.start(startingPlayer);
+		engine.start(startingPlayer);
 	}
 
 	/**
 	 * Sauvegarde la partie en cours dans le fichier dont le chemin est passé en paramétre
 	 * si il y a une partie en cours
-	 * et revient à l'écran de jeu une fois la sauvegarde effectuée.
+	 * et revient à l'écran de jeu une fois la sauvegarde demandée.
+	 * La partie est écrite par le moteur de jeu, entre deux actions ; une erreur est signalée ensuite.
 	 * 
 	 * Demande confirmation si le fichier de sauvegarde est un fichier existant.
 	 * Ajoute l'extension de sauvegarde si elle est manquante au chemin du fichier.
 	 * @param filePath Le chemin du fichier de sauvegarde.
 	 */
 	public void saveGame(String filePath) {
-		Game game = gamePanel.getGame();
-		if (game == null) {
+		final GameEngine engine = gamePanel.getEngine();
+		if (engine == null) {
 			return;
 		}
 		
@@ -141,14 +150,25 @@ public class GameFrame extends JFrame {
 		}
 		
 		if (save) {	// si la sauvegarde est confirmée, on sauvegarde
-			try {
-				GameLoader.saveGame(game, file);
-			} catch (IOException e) {
-				JOptionPane.showMessageDialog(this,
-					    "Une erreur est survenue lors de la sauvegarde de la partie et celle-ci n'a pas pu être sauvegardée correctement.",
-					    "Sauvegarde impossible",
-					    JOptionPane.ERROR_MESSAGE);
-			}
+			final File saveFile = file;
+			engine.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						GameLoader.saveGame(engine.getGame(), saveFile);
+					} catch (IOException e) {
+						SwingUtilities.invokeLater(new Runnable() {
+							@Override
+							public void run() {
+								JOptionPane.showMessageDialog(GameFrame.this,
+									    "Une erreur est survenue lors de la sauvegarde de la partie et celle-ci n'a pas pu être sauvegardée correctement.",
+									    "Sauvegarde impossible",
+									    JOptionPane.ERROR_MESSAGE);
+							}
+						});
+					}
+				}
+			});
 			showPanel(PanelId.GAME_PANEL);
 		}
 	}
@@ -161,11 +181,13 @@ public class GameFrame extends JFrame {
 	public void loadGame(String filePath) {
 		try {
 			Game game = GameLoader.loadGame(new File(filePath));
-			gamePanel.setGame(game);
-			gameOptionsPanel.setGame(game);
+			game.getComputerController().setSpeculative(true);
+			GameEngine engine = new GameEngine(game);
+			gamePanel.setEngine(engine);
+			gameOptionsPanel.setEngine(engine);
 			gamePanel.setNonLoopingAnimationsToEnd();
 			showPanel(PanelId.GAME_PANEL);
-			game.resume();
+			engine.resume();
 		} catch (ClassNotFoundException | IOException e) {
 			JOptionPane.showMessageDialog(this,
 				    "Ce fichier n'est pas un fichier de sauvegarde valide ou n'est pas accessible en lecture.",
@@ -19,12 +19,7 @@ import javax.swing.JToggleButton;
 import javax.swing.KeyStroke;
 import javax.swing.SwingConstants;
 
-import fr.univ_lorraine.battleship.model.ComputerController;
-import fr.univ_lorraine.battleship.model.Game;
-import fr.univ_lorraine.battleship.model.RandomShooting;
-import fr.univ_lorraine.battleship.model.SeekThenDestroyCrossShooting;
-import fr.univ_lorraine.battleship.model.SeekThenDestroyRandomShooting;
-import fr.univ_lorraine.battleship.model.ShootingStrategy;
+import fr.univ_lorraine.battleship.controller.GameEngine;
 import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
 
 
@@ -35,14 +30,15 @@ import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
 public class GameOptionsMenuPanel extends JPanel {
 	
 	/**
-	 * Partie en cours.
+	 * Moteur de la partie en cours.
 	 */
-	private Game game;
+	private GameEngine engine;
 		
 	/**
-	 * Map liant les actions des boutons à leur stratégie de tir correspondante.
+	 * Map liant les actions des boutons au nom de leur stratégie de tir correspondante.
+	 * Une stratégie pouvant avoir un état, chaque changement crée une nouvelle instance.
 	 */
-	private static final Map<String, ShootingStrategy> ACTION_SHOOT_MAP = new HashMap<String, ShootingStrategy>();
+	private final Map<String, ShootingStrategyName> actionShootMap = new HashMap<String, ShootingStrategyName>();
 
 	/**
 	 * Groupe de boutons des stratégies de tir.
@@ -64,6 +60,21 @@ public class GameOptionsMenuPanel extends JPanel {
 	 * Bouton de la stratégie de tir en seek then destroy en croix.
 	 */
 	private final JToggleButton SAndDCrossShotButton;
+
+	/**
+	 * Bouton de la stratégie de tir par densité de probabilité.
+	 */
+	private final JToggleButton densityShotButton;
+
+	/**
+	 * Bouton de la stratégie de tir par échantillonnage (Monte-Carlo).
+	 */
+	private final JToggleButton monteCarloShotButton;
+
+	/**
+	 * Bouton de la stratégie de tir tenant compte de l'époque.
+	 */
+	private final JToggleButton epochAwareShotButton;
 	
 	/**
 	 * Construit le panel.
@@ -103,9 +114,12 @@ public class GameOptionsMenuPanel extends JPanel {
 		container.add(resumeGameButton, gbc);
 
 		// Choix stratégie de tir de l'ordi
-		ACTION_SHOOT_MAP.put(ShootingStrategyName.RANDOM.name(), new RandomShooting());
-		ACTION_SHOOT_MAP.put(ShootingStrategyName.SEEK_THEN_DESTROY_RANDOM.name(), new SeekThenDestroyRandomShooting());
-		ACTION_SHOOT_MAP.put(ShootingStrategyName.SEEK_THEN_DESTROY_CROSS.name(), new SeekThenDestroyCrossShooting());
+		actionShootMap.put(ShootingStrategyName.RANDOM.name(), ShootingStrategyName.RANDOM);
+		actionShootMap.put(ShootingStrategyName.SEEK_THEN_DESTROY_RANDOM.name(), ShootingStrategyName.SEEK_THEN_DESTROY_RANDOM);
+		actionShootMap.put(ShootingStrategyName.SEEK_THEN_DESTROY_CROSS.name(), ShootingStrategyName.SEEK_THEN_DESTROY_CROSS);
+		actionShootMap.put(ShootingStrategyName.PROBABILITY_DENSITY.name(), ShootingStrategyName.PROBABILITY_DENSITY);
+		actionShootMap.put(ShootingStrategyName.MONTE_CARLO.name(), ShootingStrategyName.MONTE_CARLO);
+		actionShootMap.put(ShootingStrategyName.EPOCH_AWARE.name(), ShootingStrategyName.EPOCH_AWARE);
 		
 		JLabel shotStrategyLabel = new JLabel("Changer la technique de tir de l'ordinateur :", SwingConstants.CENTER);
 		gbc.gridy++;
@@ -141,15 +155,50 @@ public class GameOptionsMenuPanel extends JPanel {
 				"Une fois le navire coulé, la chasse reprend jusqu’à l’acquisition d’une nouvelle cible.</html>");
 		SAndDCrossShotButton.setActionCommand(ShootingStrategyName.SEEK_THEN_DESTROY_CROSS.name());
 		SAndDCrossShotButton.addActionListener(optionChangedAction);
-		gbc.insets = new Insets(0, 0, 0, 0);
+		gbc.insets = new Insets(0, 0, 0, 10);
 		gbc.gridx++;
 		gbc.weightx = 1/3;
 		container.add(SAndDCrossShotButton, gbc);
+
+		densityShotButton = new JToggleButton("<html><center>Densité de<br>probabilité</center></html>");
+		densityShotButton.setToolTipText("<html>Avec cette stratégie, l’ordinateur compte pour chaque case le nombre de positions possibles<br>" +
+				"des bateaux restants qui la recouvrent, et tire sur la case la plus probable.<br>" +
+				"Lorsqu’il a touché, il ne considère que les positions passant par les cases touchées.</html>");
+		densityShotButton.setActionCommand(ShootingStrategyName.PROBABILITY_DENSITY.name());
+		densityShotButton.addActionListener(optionChangedAction);
+		gbc.insets = new Insets(0, 0, 0, 10);
+		gbc.gridx++;
+		gbc.weightx = 1/3;
+		container.add(densityShotButton, gbc);
+
+		monteCarloShotButton = new JToggleButton("<html><center>Monte-Carlo</center></html>");
+		monteCarloShotButton.setToolTipText("<html>Avec cette stratégie, l’ordinateur imagine un grand nombre de positions des bateaux restants<br>" +
+				"compatibles avec les tirs déjà effectués, et tire sur la case la plus souvent occupée.</html>");
+		monteCarloShotButton.setActionCommand(ShootingStrategyName.MONTE_CARLO.name());
+		monteCarloShotButton.addActionListener(optionChangedAction);
+		gbc.insets = new Insets(0, 0, 0, 10);
+		gbc.gridx++;
+		gbc.weightx = 1/3;
+		container.add(monteCarloShotButton, gbc);
+
+		epochAwareShotButton = new JToggleButton("<html><center>Chasse/Cible<br>selon l'époque</center></html>");
+		epochAwareShotButton.setToolTipText("<html>Avec cette stratégie, l’ordinateur chasse selon la taille du plus petit bateau restant.<br>" +
+				"Lorsqu’il a touché, il tient compte du nombre de touchés qui coulent un bateau à cette époque<br>" +
+				"et abandonne la cible dès que le bateau est coulé.</html>");
+		epochAwareShotButton.setActionCommand(ShootingStrategyName.EPOCH_AWARE.name());
+		epochAwareShotButton.addActionListener(optionChangedAction);
+		gbc.insets = new Insets(0, 0, 0, 0);
+		gbc.gridx++;
+		gbc.weightx = 1/3;
+		container.add(epochAwareShotButton, gbc);
 		
 		shotGroup = new ButtonGroup();
 		shotGroup.add(randShotButton);
 		shotGroup.add(SAndDRandShotButton);
 		shotGroup.add(SAndDCrossShotButton);
+		shotGroup.add(densityShotButton);
+		shotGroup.add(monteCarloShotButton);
+		shotGroup.add(epochAwareShotButton);
 		
 		// Bouton sauvegarder
 		JButton saveGameButton = new JButton("Sauvegarder la partie");
@@ -188,11 +237,11 @@ public class GameOptionsMenuPanel extends JPanel {
 	}
 	
 	/**
-	 * Place le jeu courant afin de pouvoir modifier ses caractéristiques.
-	 * @param game Le jeu courant.
+	 * Place le moteur du jeu courant afin de pouvoir modifier ses caractéristiques.
+	 * @param engine Le moteur du jeu courant.
 	 */
-	public void setGame(Game game) {
-		this.game = game;
+	public void setEngine(GameEngine engine) {
+		this.engine = engine;
 	}
 	
 	/**
@@ -200,9 +249,12 @@ public class GameOptionsMenuPanel extends JPanel {
 	 * (les options sélectionnées/désélectionnées).
 	 */
 	private void updateCurrentOptionsSelected() {
-		if (game != null) {
-			ShootingStrategy shootingStrategy = game.getComputerController().getShootingStrategy();
-			switch (shootingStrategy.getShootingStrategyName()) {
+		if (engine != null) {
+			ShootingStrategyName shootingStrategy = engine.getSnapshot().getComputerShootingStrategy();
+			if (shootingStrategy == null) {
+				return;
+			}
+			switch (shootingStrategy) {
 			case RANDOM:
 				randShotButton.setSelected(true);
 				break;
@@ -212,8 +264,17 @@ public class GameOptionsMenuPanel extends JPanel {
 			case SEEK_THEN_DESTROY_RANDOM:
 				SAndDRandShotButton.setSelected(true);
 				break;
+			case PROBABILITY_DENSITY:
+				densityShotButton.setSelected(true);
+				break;
+			case MONTE_CARLO:
+				monteCarloShotButton.setSelected(true);
+				break;
+			case EPOCH_AWARE:
+				epochAwareShotButton.setSelected(true);
+				break;
 			default:
-				throw new AssertionError("Stratégie de tir inconnue " + shootingStrategy.getShootingStrategyName());
+				throw new AssertionError("Stratégie de tir inconnue " + shootingStrategy);
 			}
 		}
 	}
@@ -222,12 +283,9 @@ public class GameOptionsMenuPanel extends JPanel {
 	 * Change les caractéristiques du jeu courant par rapport aux options choisies.
 	 */
 	private void changeGameOptions() {
-		if (game != null) {
-			ComputerController compController = game.getComputerController();
-			ShootingStrategy chosenShootingStrategy = ACTION_SHOOT_MAP.get(shotGroup.getSelection().getActionCommand());
-			if (compController != null && compController.getShootingStrategy() != chosenShootingStrategy) {
-				compController.setShootingStrategy(chosenShootingStrategy);
-			}
+		if (engine != null) {
+			// Le changement est fait par le moteur, qui peut être en train d'utiliser la stratégie courante
+			engine.setComputerShootingStrategy(actionShootMap.get(shotGroup.getSelection().getActionCommand()));
 		}
 
 	}
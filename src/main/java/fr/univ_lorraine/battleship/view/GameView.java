@@ -6,8 +6,7 @@ import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.List;
 
 import javax.swing.AbstractAction;
 import javax.swing.BorderFactory;
@@ -22,8 +21,11 @@ import javax.swing.OverlayLayout;
 import javax.swing.SwingConstants;
 import javax.swing.Timer;
 
-import fr.univ_lorraine.battleship.model.Game;
+import fr.univ_lorraine.battleship.controller.EngineListener;
+import fr.univ_lorraine.battleship.controller.GameEngine;
+import fr.univ_lorraine.battleship.model.GameSnapshot;
 import fr.univ_lorraine.battleship.model.Game.GameState;
+import fr.univ_lorraine.battleship.model.event.GameEvent;
 
 
 
@@ -31,10 +33,10 @@ import fr.univ_lorraine.battleship.model.Game.GameState;
  * Panel étant la vue principale du jeu contenant les grilles des deux joueurs
  * ainsi que d'autres informations (tour courant, etc.).
  * 
- * Observer de Game.
+ * Ecouteur du moteur de jeu.
  */
 @SuppressWarnings("serial")
-public class GameView extends JPanel implements Observer {
+public class GameView extends JPanel implements EngineListener {
 
 	/**
 	 * Label indiquant le tour courant.
@@ -57,9 +59,14 @@ public class GameView extends JPanel implements Observer {
 	private SeaView computerGridView;
 	
 	/**
-	 * Le jeu (modèle).
+	 * Le moteur du jeu courant.
 	 */
-	private Game game;
+	private GameEngine engine;
+	
+	/**
+	 * Le dernier état du jeu transmis par le moteur.
+	 */
+	private GameSnapshot snapshot;
 	
 	/**
 	 * Panel à afficher quand la partie est terminée
@@ -76,6 +83,8 @@ public class GameView extends JPanel implements Observer {
 	
 	private static final String LOSE_MESSAGE = "Vous avez perdu !";
 	
+	private static final String THINKING_MESSAGE = "L'ORDINATEUR RÉFLÉCHIT...";
+	
 	/**
 	 * Construit le panel.
 	 * Utilise la fenêtre principale pour certains listeners.
@@ -117,7 +126,7 @@ public class GameView extends JPanel implements Observer {
 		JPanel mainPanel = new JPanel();
 		this.add(mainPanel, 1);
 		mainPanel.setLayout(new GridBagLayout());		
-		turnLabel = new JLabel("TOUR DE L'ORDINATEUR");
+		turnLabel = new JLabel(THINKING_MESSAGE);	// le texte le plus long donne la taille du label
 		turnLabel.setHorizontalAlignment(SwingConstants.CENTER);
 		turnLabel.setVerticalAlignment(SwingConstants.CENTER);
 		turnLabel.setMinimumSize(turnLabel.getPreferredSize());
@@ -187,52 +196,75 @@ public class GameView extends JPanel implements Observer {
     }
 	
 	/**
-	 * Retourne le jeu courant.
-	 * @return Le jeu courant.
+	 * Retourne le moteur du jeu courant.
+	 * @return Le moteur du jeu courant, null s'il n'y a pas de partie.
 	 */
-	public Game getGame() {
-		return game;
+	public GameEngine getEngine() {
+		return engine;
 	}
 	
 	/**
-	 * Place le jeu courant et initialise les vues.
-	 * @param game Le jeu.
+	 * Place le moteur du jeu courant, arrête celui du jeu précédent et initialise les vues.
+	 * @param engine Le moteur du jeu, qui n'a encore reçu aucune action.
 	 */
-	public void setGame(Game game) {
-		if (this.game != null) {
-			this.game.deleteObservers();
+	public void setEngine(GameEngine engine) {
+		if (this.engine != null) {
+			this.engine.shutdown();
 		}
-		this.game = game;
-		game.addObserver(this);
-		playerGridView.initialize(game);
-		computerGridView.initialize(game);
+		this.engine = engine;
+		engine.addListener(this);
+		playerGridView.initialize(engine);
+		computerGridView.initialize(engine);
 		// Cache le panel de fin de partie
 		gameOverPanel.setVisible(false);
+		snapshot = engine.getSnapshot();
+		updateLabels(false);
 	}
 	
+	/**
+	 * Met à jour les labels une seule fois pour tous les événements d'une action.
+	 */
 	@Override
-	public void update(Observable o, Object arg) {
-		Game game = (Game) o;
-		
+	public void onGameUpdate(List<GameEvent> events, GameSnapshot snapshot) {
+		this.snapshot = snapshot;
+		updateLabels(false);
+	}
+	
+	/**
+	 * Indique dans le label du tour que l'ordinateur réfléchit.
+	 */
+	@Override
+	public void onThinking(boolean thinking) {
+		updateLabels(thinking);
+	}
+	
+	/**
+	 * Met à jour le label du tour, les instructions et le panel de fin de partie.
+	 * @param thinking Vrai si l'ordinateur réfléchit.
+	 */
+	private void updateLabels(boolean thinking) {
 		// Si la partie est terminée
-		if (game.getGameState() == GameState.COMPUTER_WINS) {
+		if (snapshot.getGameState() == GameState.COMPUTER_WINS) {
 			gameOverLabel.setText(LOSE_MESSAGE);
 			gameOverPanel.setVisible(true);
 		}
-		else if (game.getGameState() == GameState.PLAYER_WINS) {
+		else if (snapshot.getGameState() == GameState.PLAYER_WINS) {
 			gameOverLabel.setText(WIN_MESSAGE);
 			gameOverPanel.setVisible(true);
 		}
 		
-		// Selon le tour du joueur
-		switch(game.getPlayerTurn()) {
+		// Selon le tour du joueur (pas encore de tour avant le début de la partie)
+		if (snapshot.getPlayerTurn() == null) {
+			return;
+		}
+		switch(snapshot.getPlayerTurn()) {
 			case COMPUTER:
-				turnLabel.setText("TOUR DE L'ORDINATEUR");
+				turnLabel.setText(thinking ? THINKING_MESSAGE : "TOUR DE L'ORDINATEUR");
 				instructionLabel.setText("");
 				break;
 			case PLAYER:
-				turnLabel.setText("TOUR DU JOUEUR");
-				if (!game.isPositionningPhaseOver()) {
+				turnLabel.setText(thinking ? THINKING_MESSAGE : "TOUR DU JOUEUR");
+				if (!snapshot.isPositionningPhaseOver()) {
 					instructionLabel.setText("<html>Veuillez placer vos bateaux.<br>Clic gauche pour placer.<br>Clic droit pour pivoter.");
 				}
 				else {
@@ -240,7 +272,7 @@ public class GameView extends JPanel implements Observer {
 				}
 				break;
 			default:
-				throw new AssertionError("Joueur inconnu " + game.getPlayerTurn());		
+				throw new AssertionError("Joueur inconnu " + snapshot.getPlayerTurn());		
 		}
 	}
 
@@ -1,8 +1,6 @@
 package fr.univ_lorraine.battleship.view;
 
-import java.util.Observable;
-
-import fr.univ_lorraine.battleship.model.Game;
+import fr.univ_lorraine.battleship.model.GameSnapshot;
 import fr.univ_lorraine.battleship.model.Game.PlayerId;
 
 
@@ -15,7 +13,7 @@ public class PlayerSeaView extends SeaView {
 	}
 	
 	@Override
-	protected boolean canTilesDisplayHoverImage(Game game) {
+	protected boolean canTilesDisplayHoverImage(GameSnapshot snapshot) {
 		return false;	// jamais pour la grille du joueur
 	}
 	
@@ -25,11 +23,9 @@ public class PlayerSeaView extends SeaView {
 	}
 
 	@Override
-	public void update(Observable o, Object arg) {
-		super.update(o, arg);
-		Game game = (Game) o;
-		this.active = game.getPlayerTurn() == PlayerId.PLAYER && !game.getPlayer(PlayerId.PLAYER).getSelfGrid().areShipsAllPlaced()
-				|| game.getPlayerTurn() == PlayerId.COMPUTER && game.getPlayer(PlayerId.PLAYER).getSelfGrid().areShipsAllPlaced();
+	protected boolean isActive(GameSnapshot snapshot) {
+		return snapshot.getPlayerTurn() == PlayerId.PLAYER && !snapshot.areShipsAllPlaced(PlayerId.PLAYER)
+				|| snapshot.getPlayerTurn() == PlayerId.COMPUTER && snapshot.areShipsAllPlaced(PlayerId.PLAYER);
 	}
 	
 }
@@ -6,19 +6,26 @@ import java.awt.Graphics;
 import java.awt.GridLayout;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Observable;
-import java.util.Observer;
 
 import javax.swing.JPanel;
 
 
 
 import fr.univ_lorraine.battleship.controller.EndShotAnimationListener;
+import fr.univ_lorraine.battleship.controller.EngineListener;
+import fr.univ_lorraine.battleship.controller.GameEngine;
 import fr.univ_lorraine.battleship.controller.GridTileListener;
 import fr.univ_lorraine.battleship.model.Game;
+import fr.univ_lorraine.battleship.model.GameSnapshot;
 import fr.univ_lorraine.battleship.model.Sea;
-import fr.univ_lorraine.battleship.model.Ship;
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
+import fr.univ_lorraine.battleship.model.ShipSnapshot;
 import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.event.GameEvent;
+import fr.univ_lorraine.battleship.model.event.PlacementChanged;
+import fr.univ_lorraine.battleship.model.event.ShipPlaced;
+import fr.univ_lorraine.battleship.model.event.ShipSunk;
+import fr.univ_lorraine.battleship.model.event.ShotResolved;
 import fr.univ_lorraine.battleship.view.graphics.Animation;
 import fr.univ_lorraine.battleship.view.graphics.AnimationWithCallback.Callback;
 
@@ -29,13 +36,21 @@ import fr.univ_lorraine.battleship.view.graphics.AnimationWithCallback.Callback;
  * et les vues des bateaux qui ne sont pas des composants et délègue ainsi l'affichage
  * de ces données du modèle à ces vues.
  * 
- * Passe les mises à jour de la grille (modèle) aux vues de la grille
- * alors que les vues des bateaux reçoivent eux-mêmes les mises à jour des bateaux (modèle).
+ * Passe les mises à jour de la grille (modèle) aux seules vues concernées :
+ * la case visée par un tir, le bateau détruit, le bateau placé.
+ * Les mises à jour ne lisent que les événements et l'état transmis par le moteur de jeu,
+ * jamais la grille elle-même, que le moteur peut modifier au même moment.
  * 
- * Observer de Game.
+ * Ecouteur du moteur de jeu.
  */
 @SuppressWarnings("serial")
-public abstract class SeaView extends JPanel implements Observer {
+public abstract class SeaView extends JPanel implements EngineListener {
+	
+	/**
+	 * La grille représentée.
+	 * Sert seulement à reconnaître les événements qui la concernent : elle n'est lue qu'à l'initialisation.
+	 */
+	protected Sea sea;
 		
 	/**
 	 * Les vues de chaque case de la grille.
@@ -55,18 +70,17 @@ public abstract class SeaView extends JPanel implements Observer {
 	 */
 	protected ShipOnPlacingView shipOnPlacingView;
 	
-	/**
-	 * Le dernier bateau en cours de positionnement.
-	 * Permet de gérer les changements de bateau.
-	 */
-	protected Ship lastShipOnPlacing;
-	
 	/**
 	 * Indique si cette grille est active.
 	 * C'est-à-dire si elle attend une action (selon le tour du joueur).
 	 */
 	protected boolean active;
 	
+	/**
+	 * Indique si les cases peuvent afficher le viseur, tel que transmis aux vues des cases.
+	 */
+	private boolean tilesCanDisplayHoverImage;
+	
 	/**
 	 * Animation de fond de la mer.
 	 */
@@ -78,18 +92,20 @@ public abstract class SeaView extends JPanel implements Observer {
 	private static final Dimension DIMENSION = new Dimension(263, 263);
 	
 	/**
-	 * Initialise la vue de la grille à l'aide du modèle de la partie. 
-	 * @param game Le modèle de la partie.
+	 * Initialise la vue de la grille à l'aide du modèle de la partie,
+	 * lu directement avant que le moteur ne reçoive d'action. 
+	 * @param engine Le moteur de la partie.
 	 */
-	public void initialize(Game game) {
-		game.addObserver(this);
+	public void initialize(GameEngine engine) {
+		Game game = engine.getGame();
+		engine.addListener(this);
 		// Récupère la grille, différent selon s'il s'agit de la vue de la grille du joueur ou de l'ordinateur
-		Sea sea = getSelfSea(game);
+		sea = getSelfSea(game);
 		
 		removeAll();	// On enlève les éventuels composants (pour la réinitialisation)
 		
 		// Listener de fin d'animation de tir
-		final EndShotAnimationListener endShotAnimListener = new EndShotAnimationListener(game);
+		final EndShotAnimationListener endShotAnimListener = new EndShotAnimationListener(engine);
 		// Crée le callback pour les animations de tir en les liant au listener de fin d'animation
 		Callback tirAnimCallback = new Callback() {
 			@Override
@@ -106,13 +122,21 @@ public abstract class SeaView extends JPanel implements Observer {
 		for (int y = 0 ; y < gridTileViews[0].length ; y++) {
 			for (int x = 0 ; x < gridTileViews.length ; x++) {
 				gridTileViews[x][y] = new GridTileView(getPlayerOwner(), sea.getGridTileState(x, y), tirAnimCallback);
-				gridTileViews[x][y].addMouseListener(new GridTileListener(game, x, y, gridTileViews[x][y]));		
+				gridTileViews[x][y].addMouseListener(new GridTileListener(engine, x, y, gridTileViews[x][y]));		
 				this.add(gridTileViews[x][y]);
 			}
 		}
 		
 		// Initialisation de la vue des bateaux placés
 		shipViews = new ArrayList<ShipView>(sea.getShipsToPlace().size());
+		for (ShipSnapshot ship : sea.getShipSnapshots()) {
+			addShipView(ship);
+		}
+		shipOnPlacingView = null;
+		GameSnapshot snapshot = engine.getSnapshot();
+		updateShipOnPlacingView(snapshot);
+		tilesCanDisplayHoverImage = false;
+		updateActivity(snapshot);
 		
 		// Animation de la mer en fond
 		switch(game.getEpoch().getEpochName()) {
@@ -148,10 +172,17 @@ public abstract class SeaView extends JPanel implements Observer {
 	
 	/**
 	 * Indique si le viseur peut-être affiché si une case de la grille est hover.
-	 * @param game Le jeu.
+	 * @param snapshot L'état du jeu.
 	 * @return Booléen indiquant si le viseur peut-être affiché si une case de la grille est hover.
 	 */
-	protected abstract boolean canTilesDisplayHoverImage(Game game);
+	protected abstract boolean canTilesDisplayHoverImage(GameSnapshot snapshot);
+	
+	/**
+	 * Indique si la grille est active, c'est-à-dire si elle attend une action.
+	 * @param snapshot L'état du jeu.
+	 * @return Vrai si la grille est active.
+	 */
+	protected abstract boolean isActive(GameSnapshot snapshot);
 	
 	/**
 	 * Change les conditions de visibilité du bateau
@@ -229,39 +260,95 @@ public abstract class SeaView extends JPanel implements Observer {
 	}
 
 	/**
-	 * Met à jour la vue.
-	 * Crée les vues des bateaux qui viennent d'être placés.
+	 * Met à jour la vue à partir des événements d'une action :
+	 * seules les cases visées et les bateaux concernés sont mis à jour.
 	 */
 	@Override
-	public void update(Observable o, Object arg) {
-		Game game = (Game) o;
-		Sea sea = getSelfSea(game);
-
-		// Met à jour les vues des cases de la grille
-		for (int row = 0 ; row < gridTileViews.length ; row++) {
-			for (int col = 0 ; col < gridTileViews[0].length ; col++) {
-				gridTileViews[row][col].setState(sea.getGridTileState(row, col));
-				gridTileViews[row][col].setCanDisplayHoverImage(canTilesDisplayHoverImage(game));
+	public void onGameUpdate(List<GameEvent> events, GameSnapshot snapshot) {
+		boolean placementChanged = false;
+		for (GameEvent event : events) {
+			if (event instanceof ShotResolved) {
+				ShotResolved shot = (ShotResolved) event;
+				if (shot.getSea() == sea) {
+					gridTileViews[shot.getX()][shot.getY()].setState(shot.isHit() ? SeaTileState.TOUCHED : SeaTileState.SHOT);
+				}
+			}
+			else if (event instanceof ShipSunk) {
+				ShipSunk sunk = (ShipSunk) event;
+				if (sunk.getSea() == sea) {
+					for (ShipView shipView : shipViews) {
+						if (shipView.getShip().getIndex() == sunk.getShip().getIndex()) {
+							shipView.update(sunk.getShip());
+						}
+					}
+				}
+			}
+			else if (event instanceof ShipPlaced) {
+				ShipPlaced placed = (ShipPlaced) event;
+				if (placed.getSea() == sea) {
+					addShipView(placed.getShip());
+					placementChanged = true;
+				}
+			}
+			else if (event instanceof PlacementChanged) {
+				placementChanged |= ((PlacementChanged) event).getSea() == sea;
 			}
 		}
-		
-		// Pour chaque bateau placé dans le modèle qui n'a pas de vue associée
-		for (int i = shipViews.size() ; sea.getShips().size() != shipViews.size() ; i++) {
-			sea.getShips().get(i).deleteObserver(shipOnPlacingView);
-			ShipView shipView = new ShipView(sea.getShips().get(i));
-			setShipVisiblity(shipView);	// on change les conditions d'affichage du bateau
-			shipViews.add(shipView);
+		if (placementChanged) {
+			updateShipOnPlacingView(snapshot);
 		}
-		
-		if (sea.getShipOnPlacing() == null) {
+		updateActivity(snapshot);
+	}
+	
+	/**
+	 * Ne fait rien : la grille reste affichée telle quelle pendant que l'ordinateur réfléchit.
+	 */
+	@Override
+	public void onThinking(boolean thinking) {
+	}
+	
+	/**
+	 * Crée la vue d'un bateau qui vient d'être placé.
+	 * @param ship L'état du bateau.
+	 */
+	private void addShipView(ShipSnapshot ship) {
+		ShipView shipView = new ShipView(ship);
+		setShipVisiblity(shipView);	// on change les conditions d'affichage du bateau
+		shipViews.add(shipView);
+	}
+	
+	/**
+	 * Met à jour la vue du bateau en cours de positionnement.
+	 * @param snapshot L'état du jeu.
+	 */
+	private void updateShipOnPlacingView(GameSnapshot snapshot) {
+		ShipSnapshot shipOnPlacing = snapshot.getShipOnPlacing(getPlayerOwner());
+		if (shipOnPlacing == null) {
 			shipOnPlacingView = null;
 		}
-		else if (sea.getShipOnPlacing() != lastShipOnPlacing) {
-				shipOnPlacingView = new ShipOnPlacingView(sea.getShipOnPlacing());
+		else {
+			shipOnPlacingView = new ShipOnPlacingView(shipOnPlacing);	// l'état du bateau a pu changer
 		}
 		
 		if (shipOnPlacingView != null) {
-			shipOnPlacingView.setValidPlacement(sea.isShipOnPlacingInValidPosition());
+			shipOnPlacingView.setValidPlacement(snapshot.isShipOnPlacingValid(getPlayerOwner()));
+		}
+	}
+	
+	/**
+	 * Met à jour l'activité de la grille et, s'il a changé, l'affichage du viseur sur les cases.
+	 * @param snapshot L'état du jeu.
+	 */
+	private void updateActivity(GameSnapshot snapshot) {
+		active = isActive(snapshot);
+		boolean canDisplayHoverImage = canTilesDisplayHoverImage(snapshot);
+		if (canDisplayHoverImage != tilesCanDisplayHoverImage) {
+			tilesCanDisplayHoverImage = canDisplayHoverImage;
+			for (int x = 0 ; x < gridTileViews.length ; x++) {
+				for (int y = 0 ; y < gridTileViews[0].length ; y++) {
+					gridTileViews[x][y].setCanDisplayHoverImage(canDisplayHoverImage);
+				}
+			}
 		}
 	}
 
@@ -2,15 +2,13 @@ package fr.univ_lorraine.battleship.view;
 
 import java.awt.Graphics;
 
-import fr.univ_lorraine.battleship.model.Ship;
+import fr.univ_lorraine.battleship.model.ShipSnapshot;
 
 
 
 /**
  * Vue spécifique du bateau en cours de placement.
  * N'hérite pas de JComponent afin de pouvoir être dessiné à la position souhaitée sur la grille.
- * 
- * Observer de Ship.
  */
 public class ShipOnPlacingView extends ShipView {
 	
@@ -20,7 +18,7 @@ public class ShipOnPlacingView extends ShipView {
 	 */
 	private boolean validPlacement;
 	
-	public ShipOnPlacingView(Ship ship) {
+	public ShipOnPlacingView(ShipSnapshot ship) {
 		super(ship);
 	}
 	
@@ -46,7 +44,7 @@ public class ShipOnPlacingView extends ShipView {
 		}
 		
 		ImageFactory imgFac = ImageFactory.getInstance();
-		switch(ship.getEpoch().getEpochName()) {
+		switch(ship.getEpochName()) {
 		case X_SIECLE:
 			switch(ship.getSize()) {
 			case 5: 
@@ -160,7 +158,7 @@ public class ShipOnPlacingView extends ShipView {
 				}
 				break;
 			default:
-				throw new AssertionError("Epoque inconnu " + ship.getEpoch().getEpochName());
+				throw new AssertionError("Epoque inconnu " + ship.getEpochName());
 		}
 	}
 
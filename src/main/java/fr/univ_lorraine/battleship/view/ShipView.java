@@ -4,25 +4,24 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
-import java.util.Observable;
-import java.util.Observer;
 
-import fr.univ_lorraine.battleship.model.Ship;
+import fr.univ_lorraine.battleship.model.ShipSnapshot;
+import fr.univ_lorraine.battleship.model.Ship.Orientation;
 
 
 
 /**
  * Vue d'un bateau.
  * N'hérite pas de JComponent afin de pouvoir être dessiné à la position souhaitée sur la grille.
- * 
- * Observer de Ship.
+ * Dessine l'état du bateau transmis par le moteur de jeu, jamais le bateau lui-même :
+ * la vue de la grille lui transmet le nouvel état lorsque le bateau est détruit.
  */
-public class ShipView implements Observer {
+public class ShipView {
 	
 	/**
-	 * Le bateau modèle de cette vue.
+	 * L'état du bateau dessiné.
 	 */
-	protected Ship ship;
+	protected ShipSnapshot ship;
 	
 	/**
 	 * L'image du bateau.
@@ -36,13 +35,11 @@ public class ShipView implements Observer {
 	
 	/**
 	 * Construit la vue d'un bateau
-	 * en prenant son image selon son époque et ses caractéristiques
-	 * et se place en tant qu'observer du bateau.
-	 * @param ship Le bateau modèle.
+	 * en prenant son image selon son époque et ses caractéristiques.
+	 * @param ship L'état du bateau.
 	 */
-	public ShipView(Ship ship) {
+	public ShipView(ShipSnapshot ship) {
 		this.ship = ship;
-		ship.addObserver(this);
 		attachImage();
 		this.shipOnlyVisibleWhenDead = false;
 	}
@@ -57,7 +54,7 @@ public class ShipView implements Observer {
 			return;
 		}
 		ImageFactory imgFac = ImageFactory.getInstance();
-		switch(ship.getEpoch().getEpochName()) {
+		switch(ship.getEpochName()) {
 			case X_SIECLE:
 				switch(ship.getSize()) {
 				case 5: 
@@ -171,7 +168,7 @@ public class ShipView implements Observer {
 				break;
 			
 			default:
-				throw new AssertionError("Epoque inconnu " + ship.getEpoch().getEpochName());
+				throw new AssertionError("Epoque inconnu " + ship.getEpochName());
 		}
 	}
 	
@@ -196,7 +193,7 @@ public class ShipView implements Observer {
 			int yPos = ship.getPosition().getY() * seaTileViewSize;
 			Graphics2D g2d = (Graphics2D) g;
 			// Si il faut faire une rotation
-			if (ship.getOrientation() == Ship.Orientation.VERTICAL) {
+			if (ship.getOrientation() == Orientation.VERTICAL) {
 			    double sin = Math.abs(Math.sin(Math.toRadians(90))), cos = Math.abs(Math.cos(Math.toRadians(90)));
 			    int w = shipImage.getWidth(), h = shipImage.getHeight();
 			    int neww = (int)Math.floor(w*cos+h*sin), newh = (int) Math.floor(h * cos + w * sin);
@@ -213,10 +210,19 @@ public class ShipView implements Observer {
 	}
 
 	/**
-	 * Met à jour l'image du bateau.
+	 * Retourne l'état du bateau dessiné.
+	 * @return L'état du bateau.
 	 */
-	@Override
-	public void update(Observable o, Object arg) {
+	public ShipSnapshot getShip() {
+		return ship;
+	}
+	
+	/**
+	 * Met à jour l'état du bateau et son image.
+	 * @param ship Le nouvel état du bateau.
+	 */
+	public void update(ShipSnapshot ship) {
+		this.ship = ship;
 		attachImage();
 	}
 	
@@ -0,0 +1,81 @@
+package fr.univ_lorraine.battleship;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.EpochXX;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.network.NetworkMatch;
+import fr.univ_lorraine.battleship.network.NetworkPeer;
+import fr.univ_lorraine.battleship.network.NetworkMatch.MatchState;
+
+public class TestNetworkGameRunner {
+
+	/**
+	 * Crée une entrée tirant sur toutes les cases de la grille, colonne par colonne,
+	 * précédée d'une ligne mal formée.
+	 */
+	private static BufferedReader allTiles() {
+		StringBuilder lines = new StringBuilder("pas un tir\n");
+		for (int x = 0 ; x < 10 ; x++) {
+			for (int y = 0 ; y < 10 ; y++) {
+				lines.append(x).append(' ').append(y).append('\n');
+			}
+		}
+		return new BufferedReader(new StringReader(lines.toString()));
+	}
+
+	/**
+	 * Joue un côté de la partie dans un autre thread.
+	 */
+	private static Future<MatchState> play(ExecutorService executor, final NetworkGameRunner runner, final NetworkPeer peer) {
+		return executor.submit(new Callable<MatchState>() {
+			@Override
+			public MatchState call() throws Exception {
+				return runner.play(peer);
+			}
+		});
+	}
+
+	@Test
+	public void testTwoPlayersOverLoopback() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			ByteArrayOutputStream hostOutput = new ByteArrayOutputStream();
+			NetworkGameRunner hostRunner = new NetworkGameRunner(allTiles(), new PrintStream(hostOutput, true, "UTF-8"));
+			NetworkPeer host = NetworkPeer.host(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+					new NetworkMatch(new EpochXX(), new GameRules(), true), hostRunner);
+			NetworkGameRunner guestRunner = new NetworkGameRunner(allTiles(), new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+			NetworkPeer guest = NetworkPeer.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), host.getLocalPort()),
+					new NetworkMatch(new EpochXX(), new GameRules(), false), guestRunner);
+
+			Future<MatchState> hostResult = play(executor, hostRunner, host);
+			Future<MatchState> guestResult = play(executor, guestRunner, guest);
+			MatchState hostState = hostResult.get(30, TimeUnit.SECONDS);
+			MatchState guestState = guestResult.get(30, TimeUnit.SECONDS);
+			// Les flottes sont placées au hasard : l'un ou l'autre peut gagner
+			assertTrue("La partie devrait être terminée (" + hostState + ")", hostState == MatchState.WON || hostState == MatchState.LOST);
+			assertEquals("Un seul joueur devrait gagner", hostState == MatchState.WON ? MatchState.LOST : MatchState.WON, guestState);
+			String output = hostOutput.toString("UTF-8");
+			assertTrue("La ligne mal formée devrait être signalée", output.contains("Tir mal formé"));
+			assertTrue("La fin de la partie devrait être affichée",
+					output.contains(hostState == MatchState.WON ? "Vous avez gagné" : "Vous avez perdu"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+package fr.univ_lorraine.battleship;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.TournamentRunner.LatencyHistogram;
+import fr.univ_lorraine.battleship.TournamentRunner.Report;
+import fr.univ_lorraine.battleship.TournamentRunner.StrategyReport;
+import fr.univ_lorraine.battleship.model.DecisionCache;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+public class TestTournamentRunner {
+
+	@Test
+	public void testRun() throws InterruptedException {
+		ExecutorService executor = Executors.newWorkStealingPool(2);
+		try {
+			Report report = new TournamentRunner(ShootingStrategyName.RANDOM, ShootingStrategyName.SEEK_THEN_DESTROY_CROSS,
+					EpochName.XX_SIECLE, new GameRules(), 100, 1).run(executor);
+			assertEquals(100, report.getNumberOfGames());
+			assertTrue(report.getFirstWins() >= 0 && report.getFirstWins() <= 100);
+			assertEquals(report.getFirstWins(), report.getFirst().getWins());
+			assertEquals("Chaque partie devrait avoir un vainqueur", 100, report.getFirst().getWins() + report.getSecond().getWins());
+			for (StrategyReport side : new StrategyReport[] { report.getFirst(), report.getSecond() }) {
+				if (side.getWins() > 0) {
+					assertTrue("Il faut au moins 17 tirs pour couler la flotte", side.getShotsToWinPercentile(0) >= 17);
+					assertTrue("Il y a au plus 100 tirs sur la grille", side.getShotsToWinPercentile(100) <= 100);
+					assertTrue(side.getShotsToWinPercentile(50) <= side.getShotsToWinPercentile(99));
+				}
+				assertTrue("Les temps de décision de chaque stratégie devraient être mesurés", side.getMeanTurnLatency() > 0);
+			}
+			assertTrue(report.getGamesPerSecond() > 0);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testShotsToWinKeptPerStrategy() throws InterruptedException {
+		ExecutorService executor = Executors.newWorkStealingPool(2);
+		try {
+			// La recherche puis destruction gagne presque toujours contre le hasard, et avec bien moins de tirs
+			Report report = new TournamentRunner(ShootingStrategyName.SEEK_THEN_DESTROY_CROSS, ShootingStrategyName.RANDOM,
+					EpochName.XX_SIECLE, new GameRules(), 200, 4).run(executor);
+			assertTrue(report.getFirst().getWins() > report.getSecond().getWins());
+			if (report.getSecond().getWins() > 0) {
+				assertTrue("Les tirs pour gagner ne devraient pas mélanger les deux stratégies ("
+						+ report.getFirst().getMeanShotsToWin() + " contre " + report.getSecond().getMeanShotsToWin() + ")",
+						report.getFirst().getMeanShotsToWin() < report.getSecond().getMeanShotsToWin());
+			}
+			assertEquals(0, new Report(new int[0], new LatencyHistogram(), new LatencyHistogram(), 1).getSecond().getShotsToWinPercentile(50));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testVirtualThreadsOrFallback() throws InterruptedException {
+		ExecutorService executor = Utils.newVirtualThreadPerTaskExecutor();
+		if (executor == null) {	// JVM antérieure à Java 21
+			executor = Executors.newCachedThreadPool();
+		}
+		try {
+			Report report = new TournamentRunner(ShootingStrategyName.SEEK_THEN_DESTROY_RANDOM, ShootingStrategyName.RANDOM,
+					EpochName.XVI_SIECLE, new GameRules(), 10, 2).run(executor);
+			assertEquals(10, report.getNumberOfGames());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testCacheOnlyForCacheableStrategies() throws InterruptedException {
+		ExecutorService executor = Executors.newWorkStealingPool(2);
+		try {
+			DecisionCache cache = new DecisionCache();
+			TournamentRunner tournament = new TournamentRunner(ShootingStrategyName.RANDOM, ShootingStrategyName.SEEK_THEN_DESTROY_CROSS,
+					EpochName.XX_SIECLE, new GameRules(), 10, 3);
+			tournament.setDecisionCache(cache);
+			tournament.run(executor);
+			assertEquals("Les stratégies aléatoires ne devraient pas consulter le cache", 0, cache.getHitCount() + cache.getMissCount());
+
+			tournament = new TournamentRunner(ShootingStrategyName.RANDOM, ShootingStrategyName.PROBABILITY_DENSITY,
+					EpochName.XX_SIECLE, new GameRules(), 10, 3);
+			tournament.setDecisionCache(cache);
+			tournament.run(executor);
+			assertTrue("La densité de probabilité devrait consulter le cache", cache.getHitCount() + cache.getMissCount() > 0);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testLatencyHistogramPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1 ; i <= 1000 ; i++) {
+			histogram.record(i * 1000L);
+		}
+		long p50 = histogram.percentile(50);
+		long p99 = histogram.percentile(99);
+		assertTrue("p50 = " + p50, p50 <= 500000 && p50 > 500000 * 0.93);
+		assertTrue("p99 = " + p99, p99 <= 990000 && p99 > 990000 * 0.93);
+		assertEquals(500500.0, histogram.mean(), 1e-6);
+	}
+
+}
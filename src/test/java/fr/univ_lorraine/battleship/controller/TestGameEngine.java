@@ -0,0 +1,180 @@
+package fr.univ_lorraine.battleship.controller;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.EpochXX;
+import fr.univ_lorraine.battleship.model.Game;
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.GameSnapshot;
+import fr.univ_lorraine.battleship.model.RandomPlacement;
+import fr.univ_lorraine.battleship.model.RandomShooting;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+import fr.univ_lorraine.battleship.model.event.GameEvent;
+import fr.univ_lorraine.battleship.model.event.GameListener;
+
+public class TestGameEngine {
+
+	private Game game;
+	
+	private GameEngine engine;
+	
+	private List<GameSnapshot> snapshots;
+	
+	private List<Boolean> thinking;
+	
+	private boolean updatesOnEdt;
+	
+	@Before
+	public void setUp() {
+		game = new Game(new EpochXX(), new RandomShooting(), new RandomPlacement(), new GameRules(), 5);
+		game.setEndTurnAfterShotAnimation(false);
+		engine = new GameEngine(game);
+		snapshots = new ArrayList<GameSnapshot>();
+		thinking = new ArrayList<Boolean>();
+		updatesOnEdt = true;
+		engine.addListener(new EngineListener() {
+			@Override
+			public void onGameUpdate(List<GameEvent> events, GameSnapshot snapshot) {
+				updatesOnEdt &= SwingUtilities.isEventDispatchThread();
+				snapshots.add(snapshot);
+			}
+			
+			@Override
+			public void onThinking(boolean b) {
+				updatesOnEdt &= SwingUtilities.isEventDispatchThread();
+				thinking.add(b);
+			}
+		});
+	}
+	
+	@After
+	public void tearDown() {
+		engine.shutdown();
+	}
+	
+	/**
+	 * Attend que le moteur ait exécuté les actions soumises et que l'EDT ait reçu leurs mises à jour.
+	 */
+	private void awaitEngine() throws Exception {
+		final CountDownLatch done = new CountDownLatch(1);
+		engine.execute(new Runnable() {
+			@Override
+			public void run() {
+				done.countDown();
+			}
+		});
+		assertTrue("Le moteur devrait exécuter les actions", done.await(10, TimeUnit.SECONDS));
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+			}
+		});
+	}
+	
+	@Test
+	public void testActionsRunInEngineThread() throws Exception {
+		final List<Thread> threads = new ArrayList<Thread>();
+		game.getEventBus().addListener(new GameListener() {
+			@Override
+			public void onEvents(List<GameEvent> events) {
+				threads.add(Thread.currentThread());
+			}
+		});
+		engine.start(PlayerId.COMPUTER);
+		awaitEngine();
+		assertFalse("La partie devrait avoir avancé", threads.isEmpty());
+		for (Thread thread : threads) {
+			assertNotSame("Les actions ne devraient pas être exécutées par l'appelant", Thread.currentThread(), thread);
+			assertFalse("Les actions ne devraient pas être exécutées par l'EDT", SwingUtilities.isEventDispatchThread() || thread.getName().startsWith("AWT"));
+		}
+		assertTrue("Les mises à jour devraient être reçues dans l'EDT", updatesOnEdt);
+		GameSnapshot last = snapshots.get(snapshots.size() - 1);
+		assertEquals("Cela devait être le tour du joueur", PlayerId.PLAYER, last.getPlayerTurn());
+		assertTrue("Les bateaux de l'ordinateur devraient être placés", last.areShipsAllPlaced(PlayerId.COMPUTER));
+		assertEquals("L'ordinateur devrait réfléchir pendant le démarrage", 2, thinking.size());
+		assertTrue(thinking.get(0));
+		assertFalse(thinking.get(1));
+	}
+	
+	@Test
+	public void testFullTurnThroughEngine() throws Exception {
+		engine.start(PlayerId.PLAYER);
+		for (int i = 0 ; i < 5 ; i++) {		// bateaux horizontaux, une ligne sur deux
+			engine.receiveClickEventOnPlayerGrid(0, i * 2);
+		}
+		engine.receiveClickEventOnComputerGrid(3, 3);
+		awaitEngine();
+		GameSnapshot last = snapshots.get(snapshots.size() - 1);
+		assertTrue("La phase de positionnement devrait être terminée", last.isPositionningPhaseOver());
+		assertEquals("Cela devait être le tour du joueur", PlayerId.PLAYER, last.getPlayerTurn());
+		assertFalse("Le joueur devrait pouvoir tirer à nouveau", last.areAllShotsDone());
+	}
+	
+	@Test
+	public void testEndTurnAfterShotAnimationReadByEngine() throws Exception {
+		engine.start(PlayerId.PLAYER);
+		for (int i = 0 ; i < 5 ; i++) {
+			engine.receiveClickEventOnPlayerGrid(0, i * 2);
+		}
+		awaitEngine();
+		thinking.clear();
+		final CountDownLatch release = new CountDownLatch(1);
+		engine.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		engine.execute(new Runnable() {
+			@Override
+			public void run() {
+				game.setEndTurnAfterShotAnimation(true);
+			}
+		});
+		// Le changement n'est pas encore exécuté quand le clic est soumis
+		engine.receiveClickEventOnComputerGrid(3, 3);
+		release.countDown();
+		awaitEngine();
+		assertTrue("L'ordinateur ne joue qu'à la fin des animations : le clic ne devrait pas le faire réfléchir", thinking.isEmpty());
+		assertTrue("Le tir devrait être effectué", engine.getSnapshot().areAllShotsDone());
+	}
+	
+	@Test
+	public void testComputerShootingStrategyChangedByEngine() throws Exception {
+		assertEquals(ShootingStrategyName.RANDOM, engine.getSnapshot().getComputerShootingStrategy());
+		engine.setComputerShootingStrategy(ShootingStrategyName.PROBABILITY_DENSITY);
+		awaitEngine();
+		assertEquals("L'état du moteur devrait montrer la nouvelle stratégie",
+				ShootingStrategyName.PROBABILITY_DENSITY, engine.getSnapshot().getComputerShootingStrategy());
+	}
+	
+	@Test
+	public void testNoUpdateAfterShutdown() throws Exception {
+		engine.shutdown();
+		engine.start(PlayerId.PLAYER);
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+			}
+		});
+		assertTrue("Un moteur arrêté ne devrait plus rien transmettre", snapshots.isEmpty());
+		assertNull("La partie ne devrait pas avoir démarré", game.getPlayerTurn());
+	}
+	
+}
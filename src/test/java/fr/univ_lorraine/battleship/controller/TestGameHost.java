@@ -0,0 +1,161 @@
+package fr.univ_lorraine.battleship.controller;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.EpochXX;
+import fr.univ_lorraine.battleship.model.Game;
+import fr.univ_lorraine.battleship.model.Game.GameState;
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.GameSnapshot;
+import fr.univ_lorraine.battleship.model.RandomPlacement;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+public class TestGameHost {
+
+	private static final int GAMES = 200;
+	
+	private GameHost host;
+	
+	@Before
+	public void setUp() {
+		host = new GameHost();
+	}
+	
+	@After
+	public void tearDown() {
+		host.shutdown();
+	}
+	
+	private static Game newGame(long seed) {
+		return new Game(new EpochXX(), ShootingStrategyName.SEEK_THEN_DESTROY_CROSS.createShootingStrategy(),
+				new RandomPlacement(), new GameRules(), seed);
+	}
+	
+	/**
+	 * Renvoie un résumé de l'état des grilles d'une partie.
+	 */
+	private static long fingerprint(Game game) {
+		return game.getPlayer(PlayerId.PLAYER).getSelfGrid().getZobristHash() * 31
+				+ game.getPlayer(PlayerId.COMPUTER).getSelfGrid().getZobristHash();
+	}
+	
+	@Test
+	public void testConcurrentGamesMatchSequentialGames() throws Exception {
+		long[] ids = new long[GAMES];
+		List<Future<GameSnapshot>> lastShots = new ArrayList<Future<GameSnapshot>>(GAMES);
+		for (int i = 0 ; i < GAMES ; i++) {
+			ids[i] = host.open(newGame(i));
+			host.start(ids[i], PlayerId.PLAYER);
+			host.rotate(ids[i]);
+			host.rotate(ids[i]);
+			for (int s = 0 ; s < 5 ; s++) {		// bateaux horizontaux, une ligne sur deux
+				host.place(ids[i], 0, s * 2);
+			}
+			Future<GameSnapshot> lastShot = null;
+			for (int x = 0 ; x < 10 ; x++) {
+				for (int y = 0 ; y < 10 ; y++) {
+					lastShot = host.shoot(ids[i], x, y);
+				}
+			}
+			lastShots.add(lastShot);
+		}
+		assertEquals("Toutes les parties devraient être hébergées", GAMES, host.getGameCount());
+		for (int i = 0 ; i < GAMES ; i++) {
+			GameSnapshot snapshot = lastShots.get(i).get(30, TimeUnit.SECONDS);
+			assertNotEquals("La partie " + i + " devrait être terminée", GameState.RUNNING, snapshot.getGameState());
+			
+			Game expected = newGame(i);
+			expected.setEndTurnAfterShotAnimation(false);
+			expected.start(PlayerId.PLAYER);
+			expected.receiveRotateShipEvent();
+			expected.receiveRotateShipEvent();
+			for (int s = 0 ; s < 5 ; s++) {
+				expected.receiveClickEventOnPlayerGrid(0, s * 2);
+			}
+			for (int x = 0 ; x < 10 ; x++) {
+				for (int y = 0 ; y < 10 ; y++) {
+					expected.receiveClickEventOnComputerGrid(x, y);
+				}
+			}
+			assertEquals("La partie " + i + " devrait se terminer comme hors de l'hôte",
+					expected.getGameState(), snapshot.getGameState());
+			long hostedFingerprint = host.execute(ids[i], new GameHost.Command<Long>() {
+				@Override
+				public Long apply(Game game) {
+					return fingerprint(game);
+				}
+			}).get(30, TimeUnit.SECONDS);
+			assertEquals("Les grilles de la partie " + i + " devraient être identiques à celles hors de l'hôte",
+					fingerprint(expected), hostedFingerprint);
+		}
+	}
+	
+	@Test
+	public void testCommandFailureDoesNotStopGame() throws Exception {
+		long id = host.open(newGame(1));
+		Future<Void> failing = host.execute(id, new GameHost.Command<Void>() {
+			@Override
+			public Void apply(Game game) {
+				throw new IllegalStateException("Erreur de test");
+			}
+		});
+		try {
+			failing.get(10, TimeUnit.SECONDS);
+			fail("L'erreur de la commande devrait être transmise");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		GameSnapshot snapshot = host.start(id, PlayerId.PLAYER).get(10, TimeUnit.SECONDS);
+		assertEquals("La partie devrait continuer après l'erreur", PlayerId.PLAYER, snapshot.getPlayerTurn());
+	}
+	
+	@Test
+	public void testCloseRunsPendingCommands() throws Exception {
+		long id = host.open(newGame(1));
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		Future<Void> running = host.execute(id, new GameHost.Command<Void>() {
+			@Override
+			public Void apply(Game game) {
+				blocked.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return null;
+			}
+		});
+		assertTrue(blocked.await(10, TimeUnit.SECONDS));
+		Future<GameSnapshot> beforeClose = host.start(id, PlayerId.PLAYER);
+		host.close(id);
+		assertEquals("La partie ne devrait plus être hébergée", 0, host.getGameCount());
+		try {
+			host.shoot(id, 0, 0);
+			fail("Une partie fermée ne devrait plus recevoir de commandes");
+		} catch (IllegalArgumentException e) {
+			// attendu
+		}
+		release.countDown();
+		running.get(10, TimeUnit.SECONDS);
+		try {
+			beforeClose.get(10, TimeUnit.SECONDS);
+		} catch (CancellationException e) {
+			fail("Les commandes envoyées avant la fermeture devraient être exécutées");
+		}
+	}
+	
+}
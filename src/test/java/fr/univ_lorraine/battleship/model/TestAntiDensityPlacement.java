@@ -0,0 +1,78 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.AntiDensityPlacement.HitStatistics;
+
+public class TestAntiDensityPlacement {
+
+	private AntiDensityPlacement placementStrategy;
+	
+	private Sea sea;
+	
+	@Before
+	public void setUp() {
+		placementStrategy = new AntiDensityPlacement();
+		sea = new Sea(new EpochXX());
+		sea.putNextShipToPlace();
+	}
+	
+	@Test
+	public void testPlaceShipsValid() {
+		List<ShipPlacement> placements = placementStrategy.placeShips(sea, new Random(42));
+		assertEquals("Tous les bateaux devraient être placés", sea.getShipsSizes().length, placements.size());
+		Set<Position> occupied = new HashSet<Position>();
+		for (ShipPlacement placement : placements) {
+			for (int i = 0 ; i < placement.getSize() ; i++) {
+				Position tile = placement.getTile(i);
+				assertFalse("Le bateau " + placement + " devrait être dans la grille",
+						tile.isOutOfBounds(0, sea.getGridWidth() - 1, 0, sea.getGridHeight() - 1));
+				assertTrue("Les bateaux ne devraient pas se chevaucher en " + tile, occupied.add(tile));
+			}
+		}
+	}
+	
+	@Test
+	public void testStatistics() {
+		HitStatistics statistics = AntiDensityPlacement.getStatistics(new GameRules(10, 10, new int[] { 5 }, 1));
+		assertEquals("Un coin est recouvert par un placement dans chaque sens", 2, statistics.getHeat(0, 0));
+		assertEquals("Le centre est recouvert par cinq placements dans chaque sens", 10, statistics.getHeat(4, 4));
+		assertSame("Les statistiques devraient être mises en cache",
+				statistics, AntiDensityPlacement.getStatistics(new GameRules(10, 10, new int[] { 5 }, 1)));
+	}
+	
+	@Test
+	public void testLessExposedThanRandom() {
+		HitStatistics statistics = AntiDensityPlacement.getStatistics(sea.getRules());
+		FleetLayoutGenerator generator = new FleetLayoutGenerator(new Random(42));
+		long antiDensityHeat = 0, randomHeat = 0;
+		for (int i = 0 ; i < 200 ; i++) {
+			antiDensityHeat += statistics.getHeat(placementStrategy.placeShips(sea, new Random(42)));
+			randomHeat += statistics.getHeat(generator.generate(sea));
+		}
+		assertTrue("Les bateaux devraient être moins exposés qu'avec un placement aléatoire", antiDensityHeat < randomHeat);
+	}
+	
+	@Test
+	public void testPlaceShipsUnderOneMillisecond() {
+		for (int i = 0 ; i < 1000 ; i++) {	// préchauffage
+			placementStrategy.placeShips(sea, new Random(42));
+		}
+		int layouts = 1000;
+		long start = System.nanoTime();
+		for (int i = 0 ; i < layouts ; i++) {
+			placementStrategy.placeShips(sea, new Random(42));
+		}
+		long averageNanos = (System.nanoTime() - start) / layouts;
+		assertTrue("Un placement devrait prendre moins d'une milliseconde (" + averageNanos + " ns)", averageNanos < 1000000);
+	}
+	
+}
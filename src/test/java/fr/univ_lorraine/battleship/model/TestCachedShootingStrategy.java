@@ -0,0 +1,75 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+public class TestCachedShootingStrategy extends TestShootingStrategy {
+
+	/**
+	 * Stratégie comptant ses appels.
+	 */
+	private static class CountingShooting extends ProbabilityDensityShooting {
+
+		private static final long serialVersionUID = 1L;
+
+		int calls;
+
+		@Override
+		public Position playShoot(Sea sea) {
+			calls++;
+			return super.playShoot(sea);
+		}
+
+	}
+
+	@Override
+	protected ShootingStrategy createShootingStrategy() {
+		return new CachedShootingStrategy(new ProbabilityDensityShooting(), new DecisionCache());
+	}
+
+	@Test
+	public void testSameStateUsesCache() {
+		DecisionCache cache = new DecisionCache();
+		CountingShooting counting = new CountingShooting();
+		CachedShootingStrategy cached = new CachedShootingStrategy(counting, cache);
+		Position first = cached.playShoot(sea);
+		Position second = cached.playShoot(sea);
+		assertEquals("La décision devrait être rejouée", first, second);
+		assertEquals("La stratégie ne devrait être appelée qu'une fois", 1, counting.calls);
+		assertEquals("Le cache devrait compter un succès", 1, cache.getHitCount());
+	}
+
+	@Test
+	public void testCopySharesCache() {
+		DecisionCache cache = new DecisionCache();
+		CachedShootingStrategy cached = new CachedShootingStrategy(new ProbabilityDensityShooting(), cache);
+		Position first = cached.playShoot(sea);
+		assertEquals("La copie devrait rejouer la décision mémorisée", first, cached.copy().playShoot(sea));
+		assertEquals("Le cache devrait compter un succès", 1, cache.getHitCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRandomStrategyRejected() {
+		new CachedShootingStrategy(new RandomShooting(), new DecisionCache());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testStatefulStrategyRejected() {
+		new CachedShootingStrategy(new SeekThenDestroyCrossShooting(), new DecisionCache());
+	}
+
+	@Test
+	public void testStaleDecisionIgnored() {
+		DecisionCache cache = new DecisionCache();
+		Position shot = new Position(0, 0);
+		sea.receiveShot(shot);
+		cache.put(ShootingStrategyName.PROBABILITY_DENSITY, EpochName.XX_SIECLE, sea.getZobristHash(), shot);
+		Position position = new CachedShootingStrategy(new ProbabilityDensityShooting(), cache).playShoot(sea);
+		assertTrue("Une décision invalide ne devrait pas être rejouée", sea.isTileNormal(position));
+	}
+
+}
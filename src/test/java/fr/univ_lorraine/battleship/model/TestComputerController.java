@@ -32,6 +32,37 @@ public class TestComputerController {
 		assertTrue("Les bateaux devraient tous être placés", computer.getSelfGrid().areShipsAllPlaced());
 	}
 	
+	@Test
+	public void testPlaceAllShipsAntiDensity() {
+		computerController.setPlacementStrategy(new AntiDensityPlacement());
+		computerController.placeAllShips();
+		assertTrue("Les bateaux devraient tous être placés", computer.getSelfGrid().areShipsAllPlaced());
+	}
+	
+	@Test
+	public void testPlaceAllShipsLargeGrid() {
+		int[] shipsSizes = new int[48];
+		for (int i = 0 ; i < shipsSizes.length ; i++) {
+			shipsSizes[i] = 2 + i % 24;
+		}
+		GameRules rules = new GameRules(1000, 1000, shipsSizes, 1);
+		Player largeComputer = new Player(new Sea(new EpochXX(), rules), new Sea(new EpochXX(), rules));
+		largeComputer.getSelfGrid().putNextShipToPlace();
+		new ComputerController(largeComputer).placeAllShips();
+		assertTrue("Les bateaux devraient tous être placés", largeComputer.getSelfGrid().areShipsAllPlaced());
+		assertEquals(shipsSizes.length, largeComputer.getSelfGrid().getShips().size());
+	}
+	
+	@Test
+	public void testPlaceAllShipsCrowdedGrid() {
+		// La flotte remplit exactement la grille
+		GameRules rules = new GameRules(4, 4, new int[] { 4, 4, 4, 4 }, 1);
+		Player crowdedComputer = new Player(new Sea(new EpochXX(), rules), new Sea(new EpochXX(), rules));
+		crowdedComputer.getSelfGrid().putNextShipToPlace();
+		new ComputerController(crowdedComputer).placeAllShips();
+		assertTrue("Les bateaux devraient tous être placés", crowdedComputer.getSelfGrid().areShipsAllPlaced());
+	}
+	
 	/**
 	 * On place d'abord tous les bateaux en se servant de placeAllShips pour les deux joueurs
 	 * (donc en utilisant deux computerController) puis on effectue un tir et on vérifie
@@ -50,4 +81,137 @@ public class TestComputerController {
 		assertTrue("Un tir devrait avoir été effectué", nbOfNormalTilesBefore - 1 == nbOfNormalTilesAfter);
 	}
 
+	
+	/**
+	 * Crée un joueur dont les deux flottes sont placées à partir d'une graine.
+	 */
+	private Player newPlacedPlayer(long seed) {
+		Epoch epoch = new EpochXX();
+		Player player = new Player(new Sea(epoch), new Sea(epoch));
+		player.getSelfGrid().putNextShipToPlace();
+		player.getOpponentGrid().putNextShipToPlace();
+		new ComputerController(player, new GameRandom(seed)).placeAllShips();
+		new ComputerController(new Player(player.getOpponentGrid(), player.getSelfGrid()), new GameRandom(seed + 1)).placeAllShips();
+		return player;
+	}
+	
+	/**
+	 * Crée un ordinateur tirant selon la densité de probabilité à partir d'une graine.
+	 */
+	private ComputerController newShootingController(Player player, long seed, boolean speculative) {
+		ComputerController controller = new ComputerController(player, new GameRandom(seed));
+		controller.setShootingStrategy(new ProbabilityDensityShooting());
+		controller.setSpeculative(speculative);
+		return controller;
+	}
+	
+	@Test
+	public void testSpeculatedShotsSameAsDirectShots() {
+		Player directPlayer = newPlacedPlayer(7);
+		Player speculativePlayer = newPlacedPlayer(7);
+		ComputerController direct = newShootingController(directPlayer, 7, false);
+		ComputerController speculative = newShootingController(speculativePlayer, 7, true);
+		for (int i = 0 ; i < 30 ; i++) {
+			speculative.speculate(1);
+			direct.playShoot();
+			speculative.playShoot();
+			assertEquals("Les tirs calculés à l'avance devraient être ceux de la stratégie",
+					directPlayer.getOpponentGrid().getZobristHash(), speculativePlayer.getOpponentGrid().getZobristHash());
+		}
+		speculative.speculate(3);
+		assertEquals("La salve calculée à l'avance devrait être celle de la stratégie",
+				direct.playShoots(3), speculative.playShoots(3));
+		assertEquals("La salve calculée à l'avance devrait être celle de la stratégie",
+				directPlayer.getOpponentGrid().getZobristHash(), speculativePlayer.getOpponentGrid().getZobristHash());
+	}
+	
+	@Test
+	public void testSpeculationDiscardedWhenSeaChanged() {
+		Player directPlayer = newPlacedPlayer(11);
+		Player speculativePlayer = newPlacedPlayer(11);
+		ComputerController direct = newShootingController(directPlayer, 11, false);
+		ComputerController speculative = newShootingController(speculativePlayer, 11, true);
+		Sea sea = speculativePlayer.getOpponentGrid();
+		speculative.speculate(1);
+		// La case calculée à l'avance est visée entre-temps
+		direct.playShoot();
+		for (int x = 0 ; x < sea.getGridWidth() ; x++) {
+			for (int y = 0 ; y < sea.getGridHeight() ; y++) {
+				if (directPlayer.getOpponentGrid().isTileShot(Position.of(x, y))) {
+					sea.receiveShot(Position.of(x, y));
+				}
+			}
+		}
+		int normalTilesBefore = sea.getAllNormalPositions().size();
+		speculative.playShoot();
+		assertEquals("Le tir calculé à l'avance devrait être abandonné pour un tir valide",
+				normalTilesBefore - 1, sea.getAllNormalPositions().size());
+	}
+	
+	@Test
+	public void testSpeculationDiscardedWhenShotCountChanged() {
+		Player player = newPlacedPlayer(13);
+		ComputerController speculative = newShootingController(player, 13, true);
+		Sea sea = player.getOpponentGrid();
+		speculative.speculate(1);
+		int normalTilesBefore = sea.getAllNormalPositions().size();
+		assertEquals("Le nombre de tirs demandé devrait être effectué", 3, speculative.playShoots(3));
+		assertEquals("Le nombre de tirs demandé devrait être effectué",
+				normalTilesBefore - 3, sea.getAllNormalPositions().size());
+	}
+	
+	@Test
+	public void testDiscardedSpeculationKeepsDeterminism() {
+		// La stratégie tire au hasard à chaque tir : un calcul abandonné ne doit consommer aucun tirage
+		Player directPlayer = newPlacedPlayer(19);
+		Player speculativePlayer = newPlacedPlayer(19);
+		ComputerController direct = new ComputerController(directPlayer, new GameRandom(19));
+		ComputerController speculative = new ComputerController(speculativePlayer, new GameRandom(19));
+		direct.setShootingStrategy(new SeekThenDestroyRandomShooting());
+		speculative.setShootingStrategy(new SeekThenDestroyRandomShooting());
+		speculative.setSpeculative(true);
+		for (int i = 0 ; i < 20 ; i++) {
+			speculative.speculate(1);
+			// La grille change avant le tour de l'ordinateur (tir identique sur les deux grilles)
+			Position shot = directPlayer.getOpponentGrid().getAllNormalPositions().get(0);
+			directPlayer.getOpponentGrid().receiveShot(shot);
+			speculativePlayer.getOpponentGrid().receiveShot(shot);
+			direct.playShoot();
+			speculative.playShoot();
+			assertEquals("Un calcul abandonné ne devrait pas modifier les tirs suivants",
+					directPlayer.getOpponentGrid().getZobristHash(), speculativePlayer.getOpponentGrid().getZobristHash());
+		}
+	}
+	
+	@Test
+	public void testStrategyChangedDuringSpeculation() {
+		Player directPlayer = newPlacedPlayer(23);
+		Player speculativePlayer = newPlacedPlayer(23);
+		ComputerController direct = newShootingController(directPlayer, 23, false);
+		ComputerController speculative = newShootingController(speculativePlayer, 23, true);
+		speculative.speculate(1);
+		direct.setShootingStrategy(new SeekThenDestroyRandomShooting());
+		speculative.setShootingStrategy(new SeekThenDestroyRandomShooting());
+		for (int i = 0 ; i < 10 ; i++) {
+			direct.playShoot();
+			speculative.playShoot();
+			assertEquals("Le calcul de l'ancienne stratégie devrait être abandonné",
+					directPlayer.getOpponentGrid().getZobristHash(), speculativePlayer.getOpponentGrid().getZobristHash());
+			speculative.speculate(1);
+		}
+	}
+	
+	@Test
+	public void testSpeculationCopiedWithController() {
+		Player player = newPlacedPlayer(17);
+		ComputerController speculative = newShootingController(player, 17, true);
+		speculative.speculate(1);
+		ComputerController copy = new ComputerController(speculative, player);
+		assertTrue("L'option devrait être copiée", copy.isSpeculative());
+		int normalTilesBefore = player.getOpponentGrid().getAllNormalPositions().size();
+		speculative.playShoot();
+		assertEquals("Un tir devrait avoir été effectué",
+				normalTilesBefore - 1, player.getOpponentGrid().getAllNormalPositions().size());
+	}
+
 }
@@ -0,0 +1,43 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+public class TestDecisionCache {
+
+	private static final ShootingStrategyName STRATEGY = ShootingStrategyName.PROBABILITY_DENSITY;
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new DecisionCache(0);
+	}
+
+	@Test
+	public void testKeyIncludesStrategyAndEpoch() {
+		DecisionCache cache = new DecisionCache();
+		cache.put(STRATEGY, EpochName.XX_SIECLE, 42L, new Position(1, 2));
+		assertEquals("La décision devrait être retrouvée", new Position(1, 2), cache.get(STRATEGY, EpochName.XX_SIECLE, 42L));
+		assertNull("Une autre époque ne devrait pas partager la décision", cache.get(STRATEGY, EpochName.X_SIECLE, 42L));
+		assertNull("Une autre stratégie ne devrait pas partager la décision",
+				cache.get(ShootingStrategyName.EPOCH_AWARE, EpochName.XX_SIECLE, 42L));
+		assertEquals("Le cache devrait compter un succès", 1, cache.getHitCount());
+		assertEquals("Le cache devrait compter deux échecs", 2, cache.getMissCount());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() {
+		DecisionCache cache = new DecisionCache(2);
+		cache.put(STRATEGY, EpochName.XX_SIECLE, 1L, new Position(0, 1));
+		cache.put(STRATEGY, EpochName.XX_SIECLE, 2L, new Position(0, 2));
+		cache.get(STRATEGY, EpochName.XX_SIECLE, 1L);
+		cache.put(STRATEGY, EpochName.XX_SIECLE, 3L, new Position(0, 3));
+		assertEquals("Le cache ne devrait pas dépasser sa capacité", 2, cache.size());
+		assertNotNull("La décision récemment utilisée devrait être conservée", cache.get(STRATEGY, EpochName.XX_SIECLE, 1L));
+		assertNull("La décision la moins récemment utilisée devrait être oubliée", cache.get(STRATEGY, EpochName.XX_SIECLE, 2L));
+	}
+
+}
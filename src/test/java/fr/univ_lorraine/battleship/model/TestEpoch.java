@@ -41,4 +41,13 @@ public abstract class TestEpoch {
 		assertTrue("Devrait être détruit", res);
 	}
 	
+	@Test
+	public void testGetHitsToSink() {
+		for (int size = 1 ; size <= 6 ; size++) {
+			int hitsToSink = epoch.getHitsToSink(size);
+			assertTrue("Devrait être détruit après " + hitsToSink + " touchés", epoch.takeDamage(size, hitsToSink));
+			assertFalse("Devrait être en vie avant " + hitsToSink + " touchés", epoch.takeDamage(size, hitsToSink - 1));
+		}
+	}
+	
 }
@@ -0,0 +1,70 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestEpochAwareShooting extends TestShootingStrategy {
+
+	@Override
+	protected ShootingStrategy createShootingStrategy() {
+		return new EpochAwareShooting();
+	}
+
+	/**
+	 * Crée une grille dont tous les bateaux sont placés aléatoirement.
+	 * @param epoch L'époque.
+	 * @return La grille.
+	 */
+	private static Sea createPlacedSea(Epoch epoch) {
+		Player player = new Player(new Sea(epoch), new Sea(epoch));
+		player.getSelfGrid().putNextShipToPlace();
+		new ComputerController(player).placeAllShips();
+		return player.getSelfGrid();
+	}
+
+	/**
+	 * Joue une partie complète contre une grille et renvoie le nombre de tirs.
+	 * @param strategy La stratégie de tir.
+	 * @param placedSea La grille.
+	 * @return Le nombre de tirs nécessaires pour couler tous les bateaux.
+	 */
+	private static int playUntilAllDead(ShootingStrategy strategy, Sea placedSea) {
+		int shots = 0;
+		while (!placedSea.areShipsAllDead()) {
+			assertTrue("Le tir devrait être valide", placedSea.receiveShot(strategy.playShoot(placedSea)));
+			shots++;
+		}
+		return shots;
+	}
+
+	@Test
+	public void testNeverShootsDeadShips() {
+		Sea placedSea = createPlacedSea(new EpochX());
+		while (!placedSea.areShipsAllDead()) {
+			Position shot = shootingStrategy.playShoot(placedSea);
+			for (Ship ship : placedSea.getShips()) {
+				if (ship.isDead()) {
+					for (Position p : ship.getSeaTilesOccupied()) {
+						assertNotEquals("Le tir ne devrait pas viser un bateau coulé", p, shot);
+					}
+				}
+			}
+			placedSea.receiveShot(shot);
+		}
+	}
+
+	@Test
+	public void testFewerShotsThanCrossShootingOnOlderEpochs() {
+		for (Epoch epoch : new Epoch[] { new EpochX(), new EpochXVI() }) {
+			int epochAwareShots = 0, crossShots = 0;
+			for (int i = 0 ; i < 300 ; i++) {
+				epochAwareShots += playUntilAllDead(shootingStrategy, createPlacedSea(epoch));
+				crossShots += playUntilAllDead(new SeekThenDestroyCrossShooting(), createPlacedSea(epoch));
+			}
+			assertTrue("Moins de tirs devraient être nécessaires à l'époque " + epoch.getEpochName()
+					+ " (" + epochAwareShots + " contre " + crossShots + ")", epochAwareShots < crossShots);
+		}
+	}
+
+}
@@ -1,5 +1,9 @@
 package fr.univ_lorraine.battleship.model;
 
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
 import fr.univ_lorraine.battleship.model.Epoch;
 import fr.univ_lorraine.battleship.model.EpochXVI;
 
@@ -10,4 +14,11 @@ public class TestEpochXVI extends TestEpoch {
 		return new EpochXVI();
 	}
 
+	@Test
+	public void testGetHitsToSinkXVI() {
+		assertEquals(3, epoch.getHitsToSink(5));
+		assertEquals(2, epoch.getHitsToSink(3));
+		assertEquals(1, epoch.getHitsToSink(2));
+	}
+
 }
@@ -1,5 +1,9 @@
 package fr.univ_lorraine.battleship.model;
 
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
 import fr.univ_lorraine.battleship.model.Epoch;
 import fr.univ_lorraine.battleship.model.EpochXX;
 
@@ -10,4 +14,10 @@ public class TestEpochXX extends TestEpoch {
 		return new EpochXX();
 	}
 
+	@Test
+	public void testGetHitsToSinkXX() {
+		assertEquals(5, epoch.getHitsToSink(5));
+		assertEquals(2, epoch.getHitsToSink(2));
+	}
+
 }
@@ -0,0 +1,142 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.Ship.Orientation;
+
+public class TestFleetLayoutGenerator {
+
+	private FleetLayoutGenerator generator;
+
+	@Before
+	public void setUp() {
+		generator = new FleetLayoutGenerator(new Random(42));
+	}
+
+	/**
+	 * Vérifie que les placements sont dans la grille, sans chevauchement et de la bonne taille.
+	 */
+	private static void assertValidLayout(GameRules rules, List<ShipPlacement> placements) {
+		int[] sizes = rules.getShipsSizes();
+		assertEquals(sizes.length, placements.size());
+		Set<Position> occupied = new HashSet<Position>();
+		for (int i = 0 ; i < sizes.length ; i++) {
+			ShipPlacement placement = placements.get(i);
+			assertEquals("La taille du bateau " + i + " devrait être respectée", sizes[i], placement.getSize());
+			for (int j = 0 ; j < placement.getSize() ; j++) {
+				Position tile = placement.getTile(j);
+				assertFalse("Le bateau " + placement + " devrait être dans la grille",
+						tile.isOutOfBounds(0, rules.getGridWidth() - 1, 0, rules.getGridHeight() - 1));
+				assertTrue("Les bateaux ne devraient pas se chevaucher en " + tile, occupied.add(tile));
+			}
+		}
+	}
+
+	@Test
+	public void testGenerateClassicFleet() {
+		GameRules rules = new GameRules();
+		for (int i = 0 ; i < 100 ; i++) {
+			assertValidLayout(rules, generator.generate(rules));
+		}
+	}
+
+	@Test
+	public void testGenerateCrowdedGrid() {
+		// La flotte remplit exactement la grille
+		GameRules rules = new GameRules(5, 5, new int[] { 5, 5, 4, 4, 3, 2, 1, 1 }, 1);
+		for (int i = 0 ; i < 100 ; i++) {
+			assertValidLayout(rules, generator.generate(rules));
+		}
+	}
+
+	@Test
+	public void testGenerateLargeGrid() {
+		int[] shipsSizes = new int[500];
+		for (int i = 0 ; i < shipsSizes.length ; i++) {
+			shipsSizes[i] = 2 + i % 6;
+		}
+		GameRules rules = new GameRules(1000, 1000, shipsSizes, 1);
+		assertValidLayout(rules, generator.generate(rules));
+	}
+
+	@Test
+	public void testGenerateAroundPlacedShips() {
+		Sea sea = new Sea(new EpochXX());
+		sea.putNextShipToPlace();
+		sea.getShipOnPlacing().setPosition(Position.of(0, 0));	// bateau de taille 5 de (0, 0) à (4, 0)
+		sea.validateShipPlacement();
+		List<ShipPlacement> placements = generator.generate(sea);
+		assertEquals("Il devrait rester 4 bateaux à placer", 4, placements.size());
+		assertEquals("La grille ne devrait pas être modifiée", 1, sea.getShips().size());
+		for (ShipPlacement placement : placements) {
+			for (int j = 0 ; j < placement.getSize() ; j++) {
+				assertTrue("Le bateau " + placement + " ne devrait pas chevaucher le bateau placé",
+						sea.isSeaTileFree(placement.getTile(j)));
+			}
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testGenerateImpossible() {
+		// Le premier bateau coupe la ligne en deux cases isolées
+		Sea sea = new Sea(new EpochXX(), new GameRules(4, 1, new int[] { 2, 2 }, 1));
+		sea.putNextShipToPlace();
+		sea.getShipOnPlacing().setPosition(Position.of(1, 0));
+		sea.validateShipPlacement();
+		generator.generate(sea);
+	}
+
+	@Test
+	public void testGenerateImpossibleFailsFast() {
+		// 9 bateaux de taille 4 couvriraient exactement la grille de 6x6, ce qui est impossible
+		GameRules rules = new GameRules(6, 6, new int[] { 4, 4, 4, 4, 4, 4, 4, 4, 4 }, 1);
+		long start = System.nanoTime();
+		try {
+			generator.generate(rules);
+			fail("La flotte ne devrait pas pouvoir être placée");
+		} catch (IllegalStateException e) {
+			long elapsedMillis = (System.nanoTime() - start) / 1000000;
+			assertTrue("Le générateur devrait échouer rapidement (" + elapsedMillis + " ms)", elapsedMillis < 2000);
+		}
+	}
+
+	@Test
+	public void testGenerateIdenticalShipsByBacktracking() {
+		// 8 bateaux de taille 4 sur 6x6 : les tirages aléatoires échouent souvent, la recherche doit conclure
+		GameRules rules = new GameRules(6, 6, new int[] { 4, 4, 4, 4, 4, 4, 4, 4 }, 1);
+		for (int i = 0 ; i < 10 ; i++) {
+			assertValidLayout(rules, generator.generate(rules));
+		}
+	}
+
+	@Test
+	public void testGenerateUniform() {
+		// Un bateau de taille 5 a 60 emplacements horizontaux et 60 verticaux sur une grille de 10x10
+		GameRules rules = new GameRules(10, 10, new int[] { 5 }, 1);
+		Map<ShipPlacement, Integer> counts = new HashMap<ShipPlacement, Integer>();
+		int samples = 120000;
+		for (int i = 0 ; i < samples ; i++) {
+			ShipPlacement placement = generator.generate(rules).get(0);
+			Integer count = counts.get(placement);
+			counts.put(placement, count == null ? 1 : count + 1);
+		}
+		assertEquals("Tous les emplacements devraient être tirés", 120, counts.size());
+		for (Map.Entry<ShipPlacement, Integer> entry : counts.entrySet()) {
+			assertTrue("L'emplacement " + entry.getKey() + " devrait être tiré environ 1000 fois (" + entry.getValue() + ")",
+					entry.getValue() > 850 && entry.getValue() < 1150);
+		}
+		assertTrue(counts.containsKey(new ShipPlacement(Position.of(5, 9), Orientation.HORIZONTAL, 5)));
+		assertTrue(counts.containsKey(new ShipPlacement(Position.of(9, 5), Orientation.VERTICAL, 5)));
+	}
+
+}
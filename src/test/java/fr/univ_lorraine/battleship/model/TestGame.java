@@ -2,6 +2,8 @@ package fr.univ_lorraine.battleship.model;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -10,7 +12,14 @@ import fr.univ_lorraine.battleship.model.EpochXX;
 import fr.univ_lorraine.battleship.model.Game;
 import fr.univ_lorraine.battleship.model.RandomShooting;
 import fr.univ_lorraine.battleship.model.Ship;
+import fr.univ_lorraine.battleship.model.Game.GameState;
 import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.event.GameEvent;
+import fr.univ_lorraine.battleship.model.event.GameOver;
+import fr.univ_lorraine.battleship.model.event.GameListener;
+import fr.univ_lorraine.battleship.model.event.ShipPlaced;
+import fr.univ_lorraine.battleship.model.event.ShotResolved;
+import fr.univ_lorraine.battleship.model.event.TurnChanged;
 
 public class TestGame {
 
@@ -40,4 +49,159 @@ public class TestGame {
 		assertEquals("Cela devait être le tour du joueur",PlayerId.PLAYER, game.getPlayerTurn());
 	}
 	
+	@Test
+	public void testStartComputerLargeGrid() {
+		int[] shipsSizes = new int[30];
+		for (int i = 0 ; i < shipsSizes.length ; i++) {
+			shipsSizes[i] = 2 + i % 6;
+		}
+		GameRules rules = new GameRules(200, 100, shipsSizes, 3);
+		game = new Game(new EpochXX(), new RandomShooting(), rules);
+		game.start(PlayerId.COMPUTER);
+		Sea computerSea = game.getPlayer(PlayerId.COMPUTER).getSelfGrid();
+		assertSame(rules, game.getRules());
+		assertEquals(200, computerSea.getGridWidth());
+		assertEquals(100, computerSea.getGridHeight());
+		assertEquals("Les bateaux de l'ordinateur devraient être placés", shipsSizes.length, computerSea.getShips().size());
+		assertFalse("Aucun tir ne devrait avoir été effectué", game.areAllShotsDone());
+	}
+	
+	@Test
+	public void testSalvoComputerShotsPerAliveShip() {
+		game = new Game(new EpochXX(), new SeekThenDestroyCrossShooting(), new RandomPlacement(), GameRules.salvo(), 42);
+		game.setEndTurnAfterShotAnimation(false);
+		game.start(PlayerId.PLAYER);
+		Sea playerSea = game.getPlayer(PlayerId.PLAYER).getSelfGrid();
+		for (int i = 0 ; i < 5 ; i++) {		// bateaux horizontaux, une ligne sur deux
+			game.receiveClickEventOnPlayerGrid(0, i * 2);
+		}
+		assertEquals("Le joueur devrait avoir 5 tirs", 5, game.getNumberOfShotsThisTurn());
+		for (int i = 0 ; i < 5 ; i++) {
+			game.receiveClickEventOnComputerGrid(9, i);
+		}
+		int aliveShips = game.getPlayer(PlayerId.COMPUTER).getSelfGrid().getAliveShipCount();
+		assertEquals("L'ordinateur devrait avoir tiré une salve d'un tir par bateau en vie", aliveShips,
+				playerSea.getGridWidth() * playerSea.getGridHeight() - playerSea.countTiles(Sea.SeaTileState.NORMAL));
+		assertEquals("Cela devait être le tour du joueur", PlayerId.PLAYER, game.getPlayerTurn());
+	}
+	
+	@Test
+	public void testResumeFinishedGamePostsGameOver() {
+		game.setEndTurnAfterShotAnimation(false);
+		game.start(PlayerId.PLAYER);
+		for (int i = 0 ; i < 5 ; i++) {		// bateaux horizontaux, une ligne sur deux
+			game.receiveClickEventOnPlayerGrid(0, i * 2);
+		}
+		Sea computerSea = game.getPlayer(PlayerId.PLAYER).getOpponentGrid();
+		for (int x = 0 ; x < computerSea.getGridWidth() && game.getGameState() == GameState.RUNNING ; x++) {
+			for (int y = 0 ; y < computerSea.getGridHeight() && game.getGameState() == GameState.RUNNING ; y++) {
+				game.receiveClickEventOnComputerGrid(x, y);
+			}
+		}
+		assertNotEquals("La partie devrait être terminée", GameState.RUNNING, game.getGameState());
+		
+		final List<GameEvent> received = new ArrayList<GameEvent>();
+		game.getEventBus().addListener(new GameListener() {
+			@Override
+			public void onEvents(List<GameEvent> events) {
+				received.addAll(events);
+			}
+		});
+		game.resume();
+		assertEquals("La reprise d'une partie terminée devrait transmettre sa fin", 1, received.size());
+		assertEquals(game.getGameState(), ((GameOver) received.get(0)).getGameState());
+	}
+	
+	@Test
+	public void testEventsCoalescedPerAction() {
+		final List<List<GameEvent>> received = new ArrayList<List<GameEvent>>();
+		game.getEventBus().addListener(new GameListener() {
+			@Override
+			public void onEvents(List<GameEvent> events) {
+				received.add(events);
+			}
+		});
+		game.setEndTurnAfterShotAnimation(false);
+		game.start(PlayerId.PLAYER);
+		assertEquals("Le début de partie devrait être transmis en une fois", 1, received.size());
+		for (int i = 0 ; i < 5 ; i++) {		// bateaux horizontaux, une ligne sur deux
+			game.receiveClickEventOnPlayerGrid(0, i * 2);
+		}
+		List<GameEvent> lastPlacement = received.get(received.size() - 1);
+		assertTrue(lastPlacement.get(0) instanceof ShipPlaced);
+		received.clear();
+		
+		// Un clic : le tir du joueur, la fin de tour, le placement et le tir de l'ordinateur, le retour au joueur
+		game.receiveClickEventOnComputerGrid(3, 4);
+		assertEquals("Un clic devrait provoquer un seul envoi", 1, received.size());
+		List<GameEvent> events = received.get(0);
+		ShotResolved shot = (ShotResolved) events.get(0);
+		assertEquals(3, shot.getX());
+		assertEquals(4, shot.getY());
+		int turnChanges = 0;
+		int shots = 0;
+		for (GameEvent event : events) {
+			turnChanges += event instanceof TurnChanged ? 1 : 0;
+			shots += event instanceof ShotResolved ? 1 : 0;
+		}
+		assertEquals("Le tour devrait changer deux fois", 2, turnChanges);
+		assertEquals("Chaque joueur devrait avoir tiré une fois", 2, shots);
+		assertTrue(events.get(events.size() - 1) instanceof TurnChanged);
+	}
+	
+	@Test
+	public void testForkIndependent() {
+		game.start(PlayerId.COMPUTER);
+		Game fork = game.fork();
+		Sea forkPlayerSea = fork.getPlayer(PlayerId.PLAYER).getSelfGrid();
+		Sea playerSea = game.getPlayer(PlayerId.PLAYER).getSelfGrid();
+		assertNotSame(playerSea, forkPlayerSea);
+		assertSame("Les joueurs de la copie devraient partager leurs grilles",
+				forkPlayerSea, fork.getPlayer(PlayerId.COMPUTER).getOpponentGrid());
+		assertNotSame(game.getComputerController().getShootingStrategy(), fork.getComputerController().getShootingStrategy());
+		fork.getPlayer(PlayerId.COMPUTER).getSelfGrid().receiveShot(new Position(0, 0));
+		assertTrue("La grille de l'original ne devrait pas être modifiée",
+				game.getPlayer(PlayerId.COMPUTER).getSelfGrid().isTileNormal(new Position(0, 0)));
+		assertEquals(game.getPlayerTurn(), fork.getPlayerTurn());
+		assertEquals(game.getGameState(), fork.getGameState());
+	}
+	
+	/**
+	 * Joue le début d'une partie : le joueur place ses bateaux puis tire sur les premières cases de la grille.
+	 * @param seededGame La partie.
+	 */
+	private static void playOpening(Game seededGame) {
+		seededGame.setEndTurnAfterShotAnimation(false);
+		seededGame.start();
+		new ComputerController(seededGame.getPlayer(PlayerId.PLAYER), seededGame.splitRandom()).placeAllShips();
+		seededGame.endTurn();
+		for (int i = 0 ; i < 30 && seededGame.getGameState() == Game.GameState.RUNNING ; i++) {
+			seededGame.receiveClickEventOnComputerGrid(i % 10, i / 10);
+		}
+	}
+	
+	@Test
+	public void testSameSeedSameGame() {
+		Game first = new Game(new EpochXX(), new SeekThenDestroyCrossShooting(), new AntiDensityPlacement(), new GameRules(), 1234);
+		Game second = new Game(new EpochXX(), new SeekThenDestroyCrossShooting(), new AntiDensityPlacement(), new GameRules(), 1234);
+		playOpening(first);
+		playOpening(second);
+		assertEquals(1234, first.getSeed());
+		for (PlayerId id : PlayerId.values()) {
+			Sea firstSea = first.getPlayer(id).getSelfGrid();
+			Sea secondSea = second.getPlayer(id).getSelfGrid();
+			for (int i = 0 ; i < firstSea.getShips().size() ; i++) {
+				assertEquals("Les bateaux devraient être placés de la même manière",
+						firstSea.getShips().get(i).getPosition(), secondSea.getShips().get(i).getPosition());
+				assertEquals(firstSea.getShips().get(i).getOrientation(), secondSea.getShips().get(i).getOrientation());
+			}
+			for (int x = 0 ; x < 10 ; x++) {
+				for (int y = 0 ; y < 10 ; y++) {
+					assertEquals("Les tirs devraient être les mêmes en " + Position.of(x, y),
+							firstSea.getGridTileState(x, y), secondSea.getGridTileState(x, y));
+				}
+			}
+		}
+	}
+	
 }
@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URISyntaxException;
 
 import org.junit.After;
 import org.junit.Before;
@@ -13,6 +14,8 @@ import fr.univ_lorraine.battleship.model.EpochXX;
 import fr.univ_lorraine.battleship.model.Game;
 import fr.univ_lorraine.battleship.model.GameLoader;
 import fr.univ_lorraine.battleship.model.RandomShooting;
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
 
 public class TestGameLoader {
 
@@ -55,4 +58,84 @@ public class TestGameLoader {
 		assertNotNull("La partie devrait être ok", testGame);
 	}
 	
+	/**
+	 * Retourne une sauvegarde des ressources de test.
+	 * Les sauvegardes "version1-*" ont été écrites par la première version du jeu (grille en matrice d'états).
+	 */
+	private static File resource(String name) throws URISyntaxException {
+		return new File(TestGameLoader.class.getResource(name).toURI());
+	}
+	
+	/**
+	 * Vérifie l'état des cases d'une grille, donné ligne par ligne (0 : normale, 1 : manquée, 2 : touchée).
+	 */
+	private static void assertTiles(String[] rows, Sea sea) {
+		for (int y = 0 ; y < rows.length ; y++) {
+			for (int x = 0 ; x < rows[y].length() ; x++) {
+				assertEquals("Case (" + x + ", " + y + ")", SeaTileState.values()[rows[y].charAt(x) - '0'], sea.getGridTileState(x, y));
+			}
+		}
+	}
+	
+	/**
+	 * Vérifie que les compteurs et les bateaux blessés d'une grille chargée correspondent à ses bateaux.
+	 */
+	private static void assertFleetStatus(Sea sea) {
+		int dead = 0;
+		int harmed = 0;
+		for (Ship ship : sea.getShips()) {
+			dead += ship.isDead() ? 1 : 0;
+			harmed += !ship.isDead() && ship.getHitCount() > 0 ? 1 : 0;
+			for (Position tile : ship.getSeaTilesOccupied()) {
+				assertFalse("La case " + tile + " devrait être occupée", sea.isSeaTileFree(tile));
+			}
+		}
+		assertEquals(dead, sea.getDeadShipCount());
+		assertEquals(harmed, sea.getHarmedShipCount());
+	}
+	
+	@Test
+	public void testLoadVersion1GameInShootingPhase() throws Exception {
+		Game loaded = GameLoader.loadGame(resource("version1-shooting.sav"));
+		Sea playerSea = loaded.getPlayer(PlayerId.PLAYER).getSelfGrid();
+		Sea computerSea = loaded.getPlayer(PlayerId.COMPUTER).getSelfGrid();
+		assertEquals("Les règles devraient être les règles classiques", new GameRules(), playerSea.getRules());
+		assertTiles(new String[] { "0121200000", "0021210000", "2000200000", "2101000101", "2000000010",
+				"0001000000", "1000000000", "0100000000", "0000000010", "0000000000" }, playerSea);
+		assertTiles(new String[] { "0000000000", "1111000000", "0000000000", "2122000000", "0000000000",
+				"2222000000", "0000000000", "2111000000", "0000000000", "1111000000" }, computerSea);
+		assertEquals(8, playerSea.countTiles(SeaTileState.TOUCHED));
+		assertEquals(12, computerSea.countTiles(SeaTileState.SHOT));
+		assertEquals(3, playerSea.getDeadShipCount());
+		assertEquals(3, computerSea.getDeadShipCount());
+		assertFleetStatus(playerSea);
+		assertFleetStatus(computerSea);
+		
+		loaded.setEndTurnAfterShotAnimation(false);
+		loaded.resume();
+		for (int i = 0 ; i < 100 && loaded.getGameState() == Game.GameState.RUNNING ; i++) {
+			loaded.receiveClickEventOnComputerGrid(i % 10, i / 10);
+		}
+		assertNotEquals("La partie chargée devrait pouvoir être terminée", Game.GameState.RUNNING, loaded.getGameState());
+	}
+	
+	@Test
+	public void testLoadVersion1GameInPlacingPhase() throws Exception {
+		Game loaded = GameLoader.loadGame(resource("version1-placing.sav"));
+		Sea playerSea = loaded.getPlayer(PlayerId.PLAYER).getSelfGrid();
+		assertEquals("Deux bateaux devraient être placés", 2, playerSea.getShips().size());
+		assertEquals(3, playerSea.getShipOnPlacing().getSize());
+		assertFalse(playerSea.isSeaTileFree(Position.of(4, 0)));
+		assertTrue(playerSea.isSeaTileFree(Position.of(0, 1)));
+		assertFleetStatus(playerSea);
+		
+		loaded.setEndTurnAfterShotAnimation(false);
+		loaded.resume();
+		for (int y = 4 ; y <= 8 ; y += 2) {
+			loaded.receiveClickEventOnPlayerGrid(0, y);
+		}
+		assertTrue("Le placement devrait pouvoir être terminé", loaded.isPositionningPhaseOver());
+		assertEquals(5, loaded.getPlayer(PlayerId.COMPUTER).getSelfGrid().getShips().size());
+	}
+	
 }
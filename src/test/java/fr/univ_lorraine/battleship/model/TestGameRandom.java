@@ -0,0 +1,66 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+public class TestGameRandom {
+
+	@Test
+	public void testSameSeedSameSequence() {
+		GameRandom first = new GameRandom(42), second = new GameRandom(42);
+		for (int i = 0 ; i < 1000 ; i++) {
+			assertEquals(first.nextLong(), second.nextLong());
+			assertEquals(first.nextInt(17), second.nextInt(17));
+		}
+	}
+
+	@Test
+	public void testSplitDeterministicAndIndependent() {
+		GameRandom first = new GameRandom(42), second = new GameRandom(42);
+		GameRandom firstChild = first.split(), secondChild = second.split();
+		int sameAsParent = 0;
+		for (int i = 0 ; i < 1000 ; i++) {
+			long value = firstChild.nextLong();
+			assertEquals("Les générateurs dérivés d'une même graine devraient être identiques", value, secondChild.nextLong());
+			if (value == first.nextLong()) {
+				sameAsParent++;
+			}
+		}
+		assertEquals("Le générateur dérivé devrait être indépendant de son parent", 0, sameAsParent);
+	}
+
+	@Test
+	public void testNextIntBounds() {
+		GameRandom random = new GameRandom(7);
+		int[] counts = new int[10];
+		for (int i = 0 ; i < 100000 ; i++) {
+			counts[random.nextInt(10)]++;
+		}
+		for (int count : counts) {
+			assertTrue("Les valeurs devraient être uniformes (" + count + ")", count > 9500 && count < 10500);
+		}
+	}
+
+	@Test
+	public void testSerializationKeepsState() throws Exception {
+		GameRandom random = new GameRandom(42);
+		random.nextLong();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(random);
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		GameRandom loaded = (GameRandom) in.readObject();
+		in.close();
+		for (int i = 0 ; i < 100 ; i++) {
+			assertEquals("La suite devrait reprendre après le chargement", random.nextLong(), loaded.nextLong());
+		}
+	}
+
+}
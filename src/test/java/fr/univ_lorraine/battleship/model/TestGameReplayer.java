@@ -0,0 +1,192 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+import fr.univ_lorraine.battleship.model.GameLog.EventType;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+public class TestGameReplayer {
+
+	private Game game;
+	
+	@Before
+	public void setUp() {
+		game = playedGame(new GameRules(), 7);
+	}
+	
+	/**
+	 * Joue une partie entière : l'ordinateur commence, le joueur place ses bateaux
+	 * puis tire case après case jusqu'à la fin de la partie.
+	 */
+	private static Game playedGame(GameRules rules, long seed) {
+		Game played = new Game(new EpochXVI(), ShootingStrategyName.SEEK_THEN_DESTROY_CROSS.createShootingStrategy(),
+				new RandomPlacement(), rules, seed);
+		played.setEndTurnAfterShotAnimation(false);
+		played.start(PlayerId.COMPUTER);
+		for (int i = 0 ; i < rules.getNumberOfShips() ; i++) {		// bateaux verticaux, une colonne sur deux
+			played.receiveRotateShipEvent();
+			played.receiveClickEventOnPlayerGrid(i * 2, 0);
+		}
+		for (int x = 0 ; x < rules.getGridWidth() && played.getGameState() == Game.GameState.RUNNING ; x++) {
+			for (int y = 0 ; y < rules.getGridHeight() ; y++) {
+				played.receiveClickEventOnComputerGrid(x, y);
+			}
+		}
+		return played;
+	}
+	
+	/**
+	 * Vérifie que deux parties sont dans le même état.
+	 */
+	private static void assertSameState(String message, Game expected, Game actual) {
+		for (PlayerId id : PlayerId.values()) {
+			assertEquals(message + " : grille " + id, expected.getPlayer(id).getSelfGrid().getZobristHash(),
+					actual.getPlayer(id).getSelfGrid().getZobristHash());
+		}
+		assertEquals(message + " : état", expected.getGameState(), actual.getGameState());
+		assertEquals(message + " : tour", expected.getPlayerTurn(), actual.getPlayerTurn());
+		assertEquals(message + " : tirs restants", expected.getRemainingShotsThisTurn(), actual.getRemainingShotsThisTurn());
+	}
+	
+	@Test
+	public void testLogRecordsActions() {
+		GameLog log = game.getLog();
+		assertNotEquals("La partie devrait être terminée", Game.GameState.RUNNING, game.getGameState());
+		assertEquals(EventType.START, log.getType(0));
+		assertEquals(PlayerId.COMPUTER, log.getPlayer(0));
+		int placements = 0;
+		int shots = 0;
+		for (int i = 0 ; i < log.size() ; i++) {
+			placements += log.getType(i) == EventType.PLACEMENT ? 1 : 0;
+			shots += log.getType(i) == EventType.SHOT ? 1 : 0;
+		}
+		assertEquals("Chaque bateau devrait être placé une fois", 10, placements);
+		int shotTiles = 0;
+		for (PlayerId id : PlayerId.values()) {
+			shotTiles += 100 - game.getPlayer(id).getSelfGrid().countTiles(Sea.SeaTileState.NORMAL);
+		}
+		assertEquals("Chaque tir devrait être journalisé", shotTiles, shots);
+	}
+	
+	@Test
+	public void testReplayRebuildsGame() {
+		Game replayed = new GameReplayer(game.getLog()).replay();
+		assertSameState("La partie rejouée devrait être identique", game, replayed);
+		assertEquals("La partie rejouée devrait avoir le même journal", game.getLog().size(), replayed.getLog().size());
+	}
+	
+	@Test
+	public void testReplaySalvo() {
+		Game salvo = playedGame(GameRules.salvo(), 11);
+		assertSameState("La partie rejouée devrait être identique", salvo, new GameReplayer(salvo.getLog()).replay());
+	}
+	
+	@Test
+	public void testReplayFromSnapshots() {
+		GameLog log = game.getLog();
+		GameReplayer withSnapshots = new GameReplayer(log, 16);
+		withSnapshots.replay();
+		assertEquals("Un instantané devrait être gardé tous les 16 événements", log.size() / 16, withSnapshots.getSnapshotCount());
+		for (int count = 0 ; count <= log.size() ; count += 7) {
+			assertSameState("La partie rejouée depuis un instantané devrait être identique (" + count + " événements)",
+					new GameReplayer(log).replay(count), withSnapshots.replay(count));
+		}
+	}
+	
+	@Test
+	public void testSnapshotsKeptWhileReplaying() {
+		GameLog log = game.getLog();
+		GameReplayer replayer = new GameReplayer(log, 16);
+		assertEquals(0, replayer.getSnapshotCount());
+		replayer.replay(15);
+		assertEquals("Aucun instantané avant 16 événements", 0, replayer.getSnapshotCount());
+		replayer.replay(40);
+		assertEquals("Un instantané tous les 16 événements", 2, replayer.getSnapshotCount());
+		replayer.replay(20);
+		assertEquals("Rejouer moins d'événements ne devrait pas retirer d'instantané", 2, replayer.getSnapshotCount());
+		replayer.replay();
+		assertEquals(log.size() / 16, replayer.getSnapshotCount());
+		assertEquals("Sans intervalle, aucun instantané", 0, new GameReplayer(log).getSnapshotCount());
+	}
+	
+	@Test
+	public void testRestoredGameMatchesFullReplay() {
+		GameLog log = game.getLog();
+		GameReplayer withSnapshots = new GameReplayer(log, 16);
+		withSnapshots.replay();
+		Game fromStart = new GameReplayer(log).replay(100);
+		Game restored = withSnapshots.replay(100);		// depuis l'instantané après 96 événements
+		assertSameState("La partie reconstruite depuis un instantané devrait être celle rejouée depuis le début", fromStart, restored);
+		assertEquals("Le journal devrait être celui des événements rejoués", 100, restored.getLog().size());
+		for (int i = 0 ; i < 100 ; i++) {
+			assertEquals("Evénement " + i, log.getType(i), restored.getLog().getType(i));
+			assertEquals("Evénement " + i, log.getPlayer(i), restored.getLog().getPlayer(i));
+		}
+		assertEquals("La stratégie devrait être recréée depuis l'en-tête du journal", log.getShootingStrategyName(),
+				restored.getComputerController().getShootingStrategy().getShootingStrategyName());
+		restored.setEndTurnAfterShotAnimation(false);
+		restored.resume();
+		restored.endTurn();		// le joueur a tiré tous ses tirs : l'ordinateur joue
+		for (int x = 0 ; x < 10 ; x++) {
+			restored.receiveClickEventOnComputerGrid(x, 9);
+		}
+		assertNotEquals("La partie reconstruite devrait avoir avancé", fromStart.getLog().size(), restored.getLog().size());
+		assertSameState("Jouer la partie reconstruite ne devrait pas modifier l'instantané", fromStart, withSnapshots.replay(100));
+	}
+	
+	@Test
+	public void testReplayedGameCanBeResumed() {
+		Game started = new Game(new EpochXX(), new RandomShooting(), new RandomPlacement(), new GameRules(), 3);
+		started.setEndTurnAfterShotAnimation(false);
+		started.start(PlayerId.PLAYER);
+		Game replayed = new GameReplayer(started.getLog()).replay();
+		replayed.setEndTurnAfterShotAnimation(false);
+		for (int i = 0 ; i < 5 ; i++) {
+			replayed.receiveClickEventOnPlayerGrid(0, i * 2);
+		}
+		assertTrue("La partie rejouée devrait pouvoir continuer",
+				replayed.getPlayer(PlayerId.COMPUTER).getSelfGrid().areShipsAllPlaced());
+		assertEquals(PlayerId.PLAYER, replayed.getPlayerTurn());
+	}
+	
+	@Test
+	public void testWriteThenRead() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		game.getLog().write(out);
+		game.getLog().write(out);		// plusieurs journaux à la suite
+		out.flush();
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		for (int i = 0 ; i < 2 ; i++) {
+			GameLog read = GameLog.read(in);
+			assertEquals(game.getLog().size(), read.size());
+			assertEquals(game.getSeed(), read.getSeed());
+			assertSameState("La partie rejouée depuis le journal lu devrait être identique",
+					game, new GameReplayer(read).replay());
+		}
+	}
+	
+	@Test(expected = IOException.class)
+	public void testReadNotALog() throws IOException {
+		GameLog.read(new DataInputStream(new ByteArrayInputStream(new byte[16])));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testIncoherentLog() {
+		GameLog log = new GameLog(Epoch.EpochName.XX_SIECLE, new GameRules(), 1, null, null);
+		log.appendStart(PlayerId.PLAYER);
+		log.appendShot(PlayerId.COMPUTER, Position.of(0, 0), true);		// aucun bateau n'est placé
+		new GameReplayer(log).replay();
+	}
+	
+}
@@ -0,0 +1,62 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestGameRules {
+
+	// Tests constructeurs
+	@Test
+	public void testDefaultRules() {
+		GameRules rules = new GameRules();
+		assertEquals(10, rules.getGridWidth());
+		assertEquals(10, rules.getGridHeight());
+		assertArrayEquals(new int[] { 5, 4, 3, 3, 2 }, rules.getShipsSizes());
+		assertEquals(1, rules.getNumberOfShotsPerTurn());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidGridSize() {
+		new GameRules(0, 10, new int[] { 2 }, 1);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testShipLargerThanGrid() {
+		new GameRules(5, 5, new int[] { 6 }, 1);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testFleetLargerThanGrid() {
+		new GameRules(3, 3, new int[] { 3, 3, 3, 2 }, 1);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidNumberOfShotsPerTurn() {
+		new GameRules(10, 10, new int[] { 2 }, 0);
+	}
+	
+	@Test
+	public void testShipsSizesDefensiveCopy() {
+		int[] sizes = { 4, 2 };
+		GameRules rules = new GameRules(10, 10, sizes, 1);
+		sizes[0] = 9;
+		rules.getShipsSizes()[1] = 9;
+		assertArrayEquals(new int[] { 4, 2 }, rules.getShipsSizes());
+	}
+	
+	@Test
+	public void testEquals() {
+		assertEquals(new GameRules(), new GameRules(10, 10, new int[] { 5, 4, 3, 3, 2 }, 1));
+		assertEquals(new GameRules().hashCode(), new GameRules(10, 10, new int[] { 5, 4, 3, 3, 2 }, 1).hashCode());
+		assertFalse(new GameRules().equals(new GameRules(10, 10, new int[] { 5, 4, 3, 3, 2 }, 2)));
+		assertFalse(new GameRules().equals(GameRules.salvo()));
+	}
+	
+	@Test
+	public void testSalvoShotsPerTurn() {
+		assertEquals("En salve, un tir par bateau en vie", 3, GameRules.salvo().getNumberOfShotsPerTurn(3));
+		assertEquals("Hors salve, le nombre de tirs est fixe", 1, new GameRules().getNumberOfShotsPerTurn(3));
+	}
+
+}
@@ -0,0 +1,66 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestMonteCarloShooting extends TestShootingStrategy {
+
+	@Override
+	protected ShootingStrategy createShootingStrategy() {
+		return new MonteCarloShooting(2);
+	}
+
+	@Override
+	protected boolean isDeterministic() {
+		return false;	// le nombre d'échantillons dépend du temps
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeTimeBudget() {
+		new MonteCarloShooting(-1);
+	}
+
+	@Test
+	public void testShootNextToHarmedShip() {
+		Sea smallSea = new Sea(new EpochXX(), new GameRules(10, 10, new int[] { 2 }, 1));
+		smallSea.putNextShipToPlace();
+		smallSea.getShipOnPlacing().setPosition(Position.of(4, 4));	// bateau de (4, 4) à (5, 4)
+		smallSea.validateShipPlacement();
+		smallSea.receiveShot(Position.of(4, 4));
+		Position shotPos = shootingStrategy.playShoot(smallSea);
+		assertTrue("Le tir devrait être à côté de la case touchée", shotPos.nextTo(Position.of(4, 4)));
+	}
+
+	@Test
+	public void testTiesBrokenAtRandom() {
+		// Un seul placement possible : les deux cases sont toujours occupées autant l'une que l'autre
+		Sea tiedSea = new Sea(new EpochXX(), new GameRules(2, 1, new int[] { 2 }, 1));
+		tiedSea.putNextShipToPlace();
+		tiedSea.validateShipPlacement();
+		java.util.Set<Position> shots = new java.util.HashSet<Position>();
+		for (int seed = 0 ; seed < 32 ; seed++) {
+			ShootingStrategy strategy = createShootingStrategy();
+			strategy.setRandom(new GameRandom(seed));
+			shots.add(strategy.playShoot(tiedSea));
+		}
+		assertEquals("Les deux cases ex aequo devraient être visées", 2, shots.size());
+	}
+
+	@Test
+	public void testTimeBudget() {
+		Sea largeSea = new Sea(new EpochXX(), new GameRules(300, 200, new int[] { 5, 4, 3, 3, 2 }, 1));
+		largeSea.putNextShipToPlace();
+		long start = System.nanoTime();
+		shootingStrategy.playShoot(largeSea);
+		long elapsedMillis = (System.nanoTime() - start) / 1000000;
+		assertTrue("Le tir ne devrait pas dépasser largement le budget (" + elapsedMillis + " ms)", elapsedMillis < 500);
+	}
+
+	@Test
+	public void testZeroTimeBudget() {
+		Position shotPos = new MonteCarloShooting(0).playShoot(sea);
+		assertTrue("Le tir devrait être valide", sea.receiveShot(shotPos));
+	}
+
+}
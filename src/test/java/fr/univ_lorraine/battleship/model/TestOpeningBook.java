@@ -0,0 +1,98 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.Epoch.EpochName;
+import fr.univ_lorraine.battleship.model.ShootingStrategy.ShootingStrategyName;
+
+public class TestOpeningBook {
+
+	private File file;
+
+	private Sea sea;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("opening", ".book");
+		sea = new Sea(new EpochXX());
+		sea.putNextShipToPlace();
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	/**
+	 * Écrit un livre contenant un tir pour la grille vide et un tir après le premier.
+	 */
+	private OpeningBook writeBook() throws IOException {
+		Map<Long, Position> shots = new HashMap<Long, Position>();
+		shots.put(sea.getZobristHash(), new Position(4, 5));
+		Sea afterFirstShot = sea.fork();
+		afterFirstShot.receiveShot(new Position(4, 5));
+		shots.put(afterFirstShot.getZobristHash(), new Position(6, 5));
+		OpeningBook.write(file, ShootingStrategyName.PROBABILITY_DENSITY, EpochName.XX_SIECLE, new GameRules(), 2, shots);
+		return OpeningBook.open(file);
+	}
+
+	@Test
+	public void testLookupAfterWriteAndOpen() throws IOException {
+		OpeningBook book = writeBook();
+		assertEquals("Le livre devrait contenir deux entrées", 2, book.size());
+		assertEquals("Le livre devrait garder les règles", new GameRules(), book.getRules());
+		assertEquals("Le premier tir devrait venir du livre", new Position(4, 5), book.lookup(sea));
+		sea.receiveShot(new Position(4, 5));
+		assertEquals("Le second tir devrait venir du livre", new Position(6, 5), book.lookup(sea));
+		sea.receiveShot(new Position(6, 5));
+		assertNull("La grille devrait être hors du livre", book.lookup(sea));
+	}
+
+	@Test
+	public void testOtherEpochNotCovered() throws IOException {
+		OpeningBook book = writeBook();
+		Sea other = new Sea(new EpochXVI());
+		other.putNextShipToPlace();
+		assertFalse("Une autre époque ne devrait pas être couverte", book.covers(other));
+	}
+
+	@Test
+	public void testShootingFallsBackOutOfBook() throws IOException {
+		ShootingStrategy strategy = new OpeningBookShooting(new ProbabilityDensityShooting(), writeBook());
+		assertEquals("Le premier tir devrait venir du livre", new Position(4, 5), strategy.playShoot(sea));
+		sea.receiveShot(new Position(4, 5));
+		sea.receiveShot(new Position(0, 0));
+		Position shot = strategy.playShoot(sea);
+		assertTrue("Hors du livre, le tir devrait rester valide", sea.isTileNormal(shot));
+	}
+
+	@Test
+	public void testCopyKeepsBook() throws IOException {
+		ShootingStrategy strategy = new OpeningBookShooting(new ProbabilityDensityShooting(), writeBook());
+		assertEquals("La copie devrait jouer dans le livre", new Position(4, 5), strategy.copy().playShoot(sea));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOtherStrategyRejected() throws IOException {
+		new OpeningBookShooting(new RandomShooting(), writeBook());
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidFile() throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[] { 1, 2, 3 });
+		out.close();
+		OpeningBook.open(file);
+	}
+
+}
@@ -41,5 +41,39 @@ public class TestPosition {
 		Position pos2 = new Position(2, 0);
 		assertFalse(pos1.equals(pos2));
 	}
+	
+	@Test
+	public void testEqualsOtherType() {
+		assertFalse(new Position(0, 0).equals("(0, 0)"));
+	}
+	
+	// Tests hashCode
+	@Test
+	public void testHashCodeConsistentWithEquals() {
+		Position pos1 = new Position(4, 7);
+		Position pos2 = new Position(4, 7);
+		assertEquals("Des positions égales doivent avoir le même hashCode", pos1.hashCode(), pos2.hashCode());
+	}
+	
+	// Tests of
+	@Test
+	public void testOfReturnsCanonicalInstance() {
+		assertSame("La position devrait être partagée", Position.of(3, 9), Position.of(3, 9));
+		assertEquals(new Position(3, 9), Position.of(3, 9));
+	}
+	
+	@Test
+	public void testOfOutsideTable() {
+		assertEquals(new Position(-1, 500), Position.of(-1, 500));
+	}
+	
+	// Tests pack/unpack
+	@Test
+	public void testPackUnpack() {
+		Position[] positions = { new Position(0, 0), new Position(999, 999), new Position(-1, 0), new Position(5, -1) };
+		for (Position pos : positions) {
+			assertEquals("La position devrait être retrouvée", pos, Position.unpack(pos.pack()));
+		}
+	}
 
 }
@@ -0,0 +1,88 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestProbabilityDensityShooting extends TestShootingStrategy {
+
+	@Override
+	protected ShootingStrategy createShootingStrategy() {
+		return new ProbabilityDensityShooting();
+	}
+
+	/**
+	 * Crée une grille dont tous les bateaux sont placés aléatoirement.
+	 * @param epoch L'époque.
+	 * @param rules Les règles.
+	 * @return La grille.
+	 */
+	private static Sea createPlacedSea(Epoch epoch, GameRules rules) {
+		Player player = new Player(new Sea(epoch, rules), new Sea(epoch, rules));
+		player.getSelfGrid().putNextShipToPlace();
+		new ComputerController(player).placeAllShips();
+		return player.getSelfGrid();
+	}
+
+	@Test
+	public void testInitialDensity() {
+		GameRules rules = new GameRules(10, 10, new int[] { 5 }, 1);
+		Sea emptySea = createPlacedSea(new EpochXX(), rules);
+		ProbabilityDensityShooting strategy = new ProbabilityDensityShooting();
+		strategy.update(emptySea);
+		assertEquals("Un coin est recouvert par un placement dans chaque sens", 2, strategy.getDensity(0, 0));
+		assertEquals("Le centre est recouvert par cinq placements dans chaque sens", 10, strategy.getDensity(4, 4));
+	}
+
+	@Test
+	public void testIncrementalUpdateMatchesRebuild() {
+		Random rand = new Random(42);
+		Sea placedSea = createPlacedSea(new EpochXVI(), new GameRules(23, 17, new int[] { 6, 5, 4, 3, 3, 2 }, 1));
+		ProbabilityDensityShooting incremental = new ProbabilityDensityShooting();
+		incremental.update(placedSea);
+		for (int i = 0 ; i < 150 && !placedSea.areShipsAllDead() ; i++) {
+			placedSea.receiveShot(Position.of(rand.nextInt(23), rand.nextInt(17)));
+			incremental.update(placedSea);
+			ProbabilityDensityShooting rebuilt = new ProbabilityDensityShooting();
+			rebuilt.update(placedSea);
+			for (int x = 0 ; x < 23 ; x++) {
+				for (int y = 0 ; y < 17 ; y++) {
+					assertEquals("La densité incrémentale devrait être celle recalculée en " + Position.of(x, y),
+							rebuilt.getDensity(x, y), incremental.getDensity(x, y));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSinksAllShips() {
+		Sea placedSea = createPlacedSea(new EpochXX(), new GameRules());
+		int shots = 0;
+		while (!placedSea.areShipsAllDead()) {
+			assertTrue("Le tir devrait être valide", placedSea.receiveShot(shootingStrategy.playShoot(placedSea)));
+			shots++;
+		}
+		assertTrue("Tous les bateaux devraient être coulés en moins de 100 tirs", shots < 100);
+	}
+
+	@Test
+	public void testNewGameRebuildsDensity() {
+		Sea firstSea = createPlacedSea(new EpochXX(), new GameRules());
+		for (int i = 0 ; i < 20 ; i++) {
+			firstSea.receiveShot(shootingStrategy.playShoot(firstSea));
+		}
+		Sea secondSea = createPlacedSea(new EpochXX(), new GameRules());
+		ProbabilityDensityShooting strategy = (ProbabilityDensityShooting) shootingStrategy;
+		strategy.update(secondSea);
+		ProbabilityDensityShooting rebuilt = new ProbabilityDensityShooting();
+		rebuilt.update(secondSea);
+		for (int x = 0 ; x < 10 ; x++) {
+			for (int y = 0 ; y < 10 ; y++) {
+				assertEquals(rebuilt.getDensity(x, y), strategy.getDensity(x, y));
+			}
+		}
+	}
+
+}
@@ -2,6 +2,14 @@ package fr.univ_lorraine.battleship.model;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -10,6 +18,13 @@ import fr.univ_lorraine.battleship.model.EpochXVI;
 import fr.univ_lorraine.battleship.model.Position;
 import fr.univ_lorraine.battleship.model.Sea;
 import fr.univ_lorraine.battleship.model.Ship;
+import fr.univ_lorraine.battleship.model.Sea.SeaTileState;
+import fr.univ_lorraine.battleship.model.Ship.Orientation;
+import fr.univ_lorraine.battleship.model.event.EventBus;
+import fr.univ_lorraine.battleship.model.event.GameEvent;
+import fr.univ_lorraine.battleship.model.event.GameListener;
+import fr.univ_lorraine.battleship.model.event.ShipPlaced;
+import fr.univ_lorraine.battleship.model.event.ShipSunk;
 
 public class TestSea {
 
@@ -42,6 +57,20 @@ public class TestSea {
 		assertFalse("La case devrait être occupée", sea.isSeaTileFree(new Position(0, 0)));
 	}
 	
+	@Test
+	public void testIsSeaTileFreeTileOccupiedBySecondShip() {
+		sea.getShipOnPlacing().setPosition(new Position(0, 0));
+		sea.validateShipPlacement();
+		sea.getShipOnPlacing().setOrientation(Orientation.VERTICAL);
+		sea.getShipOnPlacing().setPosition(new Position(6, 2));
+		sea.validateShipPlacement();
+		assertFalse("La case devrait être occupée", sea.isSeaTileFree(new Position(6, 5)));
+		assertTrue("La case devrait être libre", sea.isSeaTileFree(new Position(6, 6)));
+		sea.receiveShot(new Position(6, 5));
+		assertEquals("Le second bateau devrait être touché", 1, sea.getShips().get(1).getHitCount());
+		assertEquals("Le premier bateau ne devrait pas être touché", 0, sea.getShips().get(0).getHitCount());
+	}
+	
 	// Tests receiveShot
 	public void testReceiveShotOutOfBounds() {
 		boolean res = sea.receiveShot(new Position(100, 200));
@@ -60,6 +89,167 @@ public class TestSea {
 		assertTrue("Doit être déclaré valide", res);
 	}
 	
+	// Tests compteurs de la flotte
+	@Test
+	public void testFleetCountersAfterShots() {
+		sea.getShipOnPlacing().setPosition(new Position(0, 0));	// bateau de taille 5, détruit en 3 tirs au XVIème siècle
+		sea.validateShipPlacement();
+		sea.receiveShot(new Position(0, 0));
+		assertTrue("Un bateau devrait être blessé", sea.isAnyShipHarmed());
+		assertEquals("Un bateau devrait être blessé", 1, sea.getHarmedShipCount());
+		assertEquals("Le bateau devrait avoir une position touchée", 1, sea.harmedShipPositions().size());
+		sea.receiveShot(new Position(1, 0));
+		sea.receiveShot(new Position(2, 0));
+		assertFalse("Aucun bateau ne devrait être blessé", sea.isAnyShipHarmed());
+		assertEquals("Un bateau devrait être détruit", 1, sea.getDeadShipCount());
+		assertEquals("Aucun bateau ne devrait être en vie", 0, sea.getAliveShipCount());
+		assertTrue("Aucune position touchée ne devrait être renvoyée", sea.harmedShipPositions().isEmpty());
+		assertFalse("Il reste des bateaux à placer", sea.areShipsAllDead());
+	}
+	
+	// Tests grandes grilles
+	@Test
+	public void testShipEventsCarrySnapshots() {
+		final List<GameEvent> received = new ArrayList<GameEvent>();
+		EventBus bus = new EventBus();
+		bus.addListener(new GameListener() {
+			@Override
+			public void onEvents(List<GameEvent> events) {
+				received.addAll(events);
+			}
+		});
+		sea.setEventBus(bus);
+		sea.getShipOnPlacing().setPosition(new Position(0, 0));	// bateau de taille 5, détruit en 3 tirs au XVIème siècle
+		sea.validateShipPlacement();
+		ShipSnapshot placed = ((ShipPlaced) received.get(0)).getShip();
+		for (int x = 0 ; x < 3 ; x++) {
+			sea.receiveShot(new Position(x, 0));
+		}
+		ShipSnapshot sunk = ((ShipSunk) received.get(received.size() - 1)).getShip();
+		assertFalse("L'état transmis au placement ne devrait pas suivre le bateau", placed.isDead());
+		assertTrue("L'état transmis à la destruction devrait être détruit", sunk.isDead());
+		assertEquals("Les deux états devraient désigner le même bateau", placed.getIndex(), sunk.getIndex());
+		assertEquals(5, sunk.getSize());
+		assertEquals(new Position(0, 0), sunk.getPosition());
+		assertEquals(Orientation.HORIZONTAL, sunk.getOrientation());
+	}
+	
+	@Test
+	public void testLargeSea() {
+		int[] shipsSizes = new int[40];
+		for (int i = 0 ; i < shipsSizes.length ; i++) {
+			shipsSizes[i] = 2 + i % 20;
+		}
+		Sea largeSea = new Sea(EPOCH, new GameRules(1000, 1000, shipsSizes, 1));
+		largeSea.putNextShipToPlace();
+		assertEquals(1000, largeSea.getGridWidth());
+		assertEquals(1000, largeSea.getGridHeight());
+		
+		// Un bateau par ligne, les uns sous les autres
+		for (int i = 0 ; i < shipsSizes.length ; i++) {
+			largeSea.getShipOnPlacing().setPosition(new Position(900, 10 * i));
+			assertTrue("La position devrait être valide", largeSea.isShipOnPlacingInValidPosition());
+			largeSea.validateShipPlacement();
+		}
+		assertTrue("Les bateaux devraient tous être placés", largeSea.areShipsAllPlaced());
+		assertFalse("La case devrait être occupée", largeSea.isSeaTileFree(new Position(901, 390)));
+		
+		// On coule le dernier bateau (taille 21) et on rate un tir
+		for (int x = 900 ; x < 900 + shipsSizes[39] ; x++) {
+			assertTrue("Le tir devrait être valide", largeSea.receiveShot(new Position(x, 390)));
+		}
+		largeSea.receiveShot(new Position(999, 999));
+		assertEquals(SeaTileState.SHOT, largeSea.getGridTileState(999, 999));
+		assertEquals("Un bateau devrait être détruit", 1, largeSea.getDeadShipCount());
+		assertEquals(1000 * 1000 - shipsSizes[39] - 1, largeSea.getAllNormalPositions().size());
+	}
+	
+	// Tests countTiles, forEachTile et nthTileWithState
+	@Test
+	public void testCountTiles() {
+		sea.getShipOnPlacing().setPosition(new Position(0, 0));
+		sea.validateShipPlacement();
+		sea.receiveShot(new Position(0, 0));
+		sea.receiveShot(new Position(5, 5));
+		sea.receiveShot(new Position(6, 5));
+		assertEquals(sea.getGridWidth()*sea.getGridHeight()-3, sea.countTiles(SeaTileState.NORMAL));
+		assertEquals(2, sea.countTiles(SeaTileState.SHOT));
+		assertEquals(1, sea.countTiles(SeaTileState.TOUCHED));
+	}
+	
+	@Test
+	public void testForEachTileVisitsTilesInState() {
+		sea.receiveShot(new Position(7, 1));
+		sea.receiveShot(new Position(2, 9));
+		final List<Position> visited = new ArrayList<Position>();
+		sea.forEachTile(SeaTileState.SHOT, new Sea.TileVisitor() {
+			@Override
+			public void visitTile(int x, int y) {
+				visited.add(new Position(x, y));
+			}
+		});
+		assertEquals(Arrays.asList(new Position(2, 9), new Position(7, 1)), visited);
+	}
+	
+	@Test
+	public void testNthTileWithStateMatchesGetAllNormalPositions() {
+		sea.receiveShot(new Position(0, 0));
+		sea.receiveShot(new Position(3, 3));
+		List<Position> normalPositions = sea.getAllNormalPositions();
+		for (int k = 0 ; k < normalPositions.size() ; k++) {
+			assertEquals(normalPositions.get(k), sea.nthTileWithState(SeaTileState.NORMAL, k));
+		}
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testNthTileWithStateOutOfRange() {
+		sea.nthTileWithState(SeaTileState.TOUCHED, 0);
+	}
+	
+	// Tests des masques de cases
+	@Test
+	public void testNeighbourTilesStayInColumn() {
+		TileMask tiles = sea.newTileMask();
+		tiles.set(sea.tileIndex(0, 9));	// bas de la première colonne
+		tiles.set(sea.tileIndex(5, 0));	// haut d'une colonne
+		List<Position> neighbours = new ArrayList<Position>();
+		TileMask mask = sea.neighbourTiles(tiles);
+		for (int i = mask.nextSetBit(0) ; i != -1 ; i = mask.nextSetBit(i + 1)) {
+			neighbours.add(sea.tilePosition(i));
+		}
+		assertEquals("Les voisines ne doivent pas déborder sur la colonne suivante",
+				Arrays.asList(new Position(0, 8), new Position(1, 9), new Position(4, 0),
+						new Position(5, 1), new Position(6, 0)), neighbours);
+	}
+	
+	@Test
+	public void testHarmedAndUntouchedTiles() {
+		sea.getShipOnPlacing().setPosition(new Position(0, 0));
+		sea.validateShipPlacement();
+		sea.receiveShot(new Position(1, 0));
+		sea.receiveShot(new Position(1, 1));
+		TileMask harmed = sea.harmedTiles();
+		assertEquals(1, harmed.cardinality());
+		assertTrue(harmed.get(sea.tileIndex(1, 0)));
+		TileMask targets = sea.neighbourTiles(harmed);
+		targets.and(sea.untouchedTiles());
+		assertEquals("Les voisines libres du touché sont (0, 0) et (2, 0)", 2, targets.cardinality());
+		assertTrue(targets.get(sea.tileIndex(0, 0)));
+		assertTrue(targets.get(sea.tileIndex(2, 0)));
+	}
+	
+	// Tests getGridTileState
+	@Test
+	public void testGetGridTileStateAfterShots() {
+		sea.getShipOnPlacing().setPosition(new Position(0, 0));
+		sea.validateShipPlacement();
+		sea.receiveShot(new Position(1, 0));
+		sea.receiveShot(new Position(1, 1));
+		assertEquals("La case devrait être touchée", SeaTileState.TOUCHED, sea.getGridTileState(1, 0));
+		assertEquals("La case devrait être manquée", SeaTileState.SHOT, sea.getGridTileState(1, 1));
+		assertEquals("La case devrait être normale", SeaTileState.NORMAL, sea.getGridTileState(2, 1));
+	}
+	
 	// Tests getAllNormalPositions
 	@Test
 	public void testGetAllNormalPositionsAtBeginning() {
@@ -124,5 +314,98 @@ public class TestSea {
 		boolean validPos = sea.isShipOnPlacingInValidPosition();
 		assertFalse("La position devrait être invalide", validPos);
 	}
+	
+	@Test
+	public void testPlaceShipVerticalCrossingOtherShip() {
+		sea.getShipOnPlacing().setPosition(new Position(0, 4));	// bateau horizontal de (0, 4) à (4, 4)
+		sea.validateShipPlacement();
+		sea.putNextShipToPlace();
+		sea.getShipOnPlacing().setOrientation(Orientation.VERTICAL);
+		sea.getShipOnPlacing().setPosition(new Position(2, 2));	// bateau vertical de (2, 2) à (2, 5)
+		assertFalse("La position devrait être invalide", sea.isShipOnPlacingInValidPosition());
+		sea.getShipOnPlacing().setPosition(new Position(2, 5));	// bateau vertical de (2, 5) à (2, 8)
+		assertTrue("La position devrait être valide", sea.isShipOnPlacingInValidPosition());
+	}
+	
+	@Test
+	public void testPlaceShipVerticalOutOfGrid() {
+		sea.getShipOnPlacing().setOrientation(Orientation.VERTICAL);
+		sea.getShipOnPlacing().setPosition(new Position(0, sea.getGridHeight()-2));
+		assertFalse("La position devrait être invalide", sea.isShipOnPlacingInValidPosition());
+	}
+
+	@Test
+	public void testForkIndependent() {
+		sea.getShipOnPlacing().setPosition(new Position(0, 0));
+		sea.validateShipPlacement();
+		Sea fork = sea.fork();
+		fork.receiveShot(new Position(0, 0));
+		fork.receiveShot(new Position(5, 5));
+		assertTrue("La case de la copie devrait être touchée", fork.isTileTouched(new Position(0, 0)));
+		assertTrue("La case de l'original devrait être intacte", sea.isTileNormal(new Position(0, 0)));
+		assertTrue("La case de l'original devrait être intacte", sea.isTileNormal(new Position(5, 5)));
+		assertEquals("Le bateau de l'original ne devrait pas être touché", 0, sea.getShips().get(0).getHitCount());
+		assertFalse("L'original ne devrait pas avoir de bateau touché", sea.isAnyShipHarmed());
+		assertTrue("La copie devrait avoir un bateau touché", fork.isAnyShipHarmed());
+	}
+	
+	@Test
+	public void testForkPlacementIndependent() {
+		sea.getShipOnPlacing().setPosition(new Position(0, 0));
+		sea.validateShipPlacement();
+		sea.putNextShipToPlace();
+		Sea fork = sea.fork();
+		fork.getShipOnPlacing().setPosition(new Position(0, 1));
+		fork.validateShipPlacement();
+		assertFalse("La case devrait être occupée dans la copie", fork.isSeaTileFree(new Position(0, 1)));
+		assertTrue("La case devrait être libre dans l'original", sea.isSeaTileFree(new Position(0, 1)));
+		sea.getShipOnPlacing().setPosition(new Position(0, 2));
+		sea.validateShipPlacement();
+		assertTrue("La case devrait être libre dans la copie", fork.isSeaTileFree(new Position(0, 2)));
+	}
+	
+	// Tests getZobristHash
+	@Test
+	public void testZobristHashChangesOnShot() {
+		long before = sea.getZobristHash();
+		sea.receiveShot(new Position(5, 5));
+		assertNotEquals("Le hash devrait changer après un tir", before, sea.getZobristHash());
+	}
+	
+	@Test
+	public void testZobristHashIndependentOfShotOrder() {
+		Sea other = new Sea(EPOCH);
+		other.putNextShipToPlace();
+		sea.receiveShot(new Position(1, 1));
+		sea.receiveShot(new Position(2, 3));
+		other.receiveShot(new Position(2, 3));
+		other.receiveShot(new Position(1, 1));
+		assertEquals("Le même état devrait avoir le même hash", sea.getZobristHash(), other.getZobristHash());
+	}
+	
+	@Test
+	public void testZobristHashCountsPlacedShips() {
+		long before = sea.getZobristHash();
+		sea.getShipOnPlacing().setPosition(new Position(0, 0));
+		sea.validateShipPlacement();
+		assertNotEquals("Le hash devrait changer après un placement", before, sea.getZobristHash());
+	}
+	
+	@Test
+	public void testZobristHashKeptByForkAndSerialization() throws Exception {
+		sea.getShipOnPlacing().setPosition(new Position(0, 0));
+		sea.validateShipPlacement();
+		sea.receiveShot(new Position(0, 0));
+		sea.receiveShot(new Position(5, 5));
+		assertEquals("La copie devrait avoir le même hash", sea.getZobristHash(), sea.fork().getZobristHash());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(sea);
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		Sea loaded = (Sea) in.readObject();
+		in.close();
+		assertEquals("Le hash devrait être recalculé au chargement", sea.getZobristHash(), loaded.getZobristHash());
+	}
 
 }
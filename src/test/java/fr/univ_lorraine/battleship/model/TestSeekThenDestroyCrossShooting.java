@@ -1,5 +1,14 @@
 package fr.univ_lorraine.battleship.model;
 
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
 public class TestSeekThenDestroyCrossShooting extends TestShootingStrategy {
 
 	@Override
@@ -7,4 +16,57 @@ public class TestSeekThenDestroyCrossShooting extends TestShootingStrategy {
 		return new SeekThenDestroyCrossShooting();
 	}
 
+	/**
+	 * Crée une grille avec un seul bateau horizontal de taille 5 de (2, 4) à (6, 4).
+	 * @return La grille.
+	 */
+	private static Sea createSeaWithOneShip() {
+		Sea oneShipSea = new Sea(new EpochXX(), new GameRules(10, 10, new int[] { 5 }, 1));
+		oneShipSea.putNextShipToPlace();
+		oneShipSea.getShipOnPlacing().setPosition(Position.of(2, 4));
+		oneShipSea.validateShipPlacement();
+		return oneShipSea;
+	}
+
+	/**
+	 * Tire jusqu'à toucher le bateau.
+	 * @param strategy La stratégie de tir.
+	 * @param oneShipSea La grille.
+	 */
+	private static void shootUntilHit(ShootingStrategy strategy, Sea oneShipSea) {
+		while (!oneShipSea.isAnyShipHarmed()) {
+			oneShipSea.receiveShot(strategy.playShoot(oneShipSea));
+		}
+	}
+
+	@Test
+	public void testDestroyPhaseSinksInLine() {
+		Sea oneShipSea = createSeaWithOneShip();
+		shootUntilHit(shootingStrategy, oneShipSea);
+		int shots = 0;
+		while (!oneShipSea.areShipsAllDead()) {
+			oneShipSea.receiveShot(shootingStrategy.playShoot(oneShipSea));
+			shots++;
+		}
+		// 4 touchés, au plus 3 tirs manqués autour du premier touché et 2 aux bouts de la ligne
+		assertTrue("Le bateau devrait être coulé en au plus 9 tirs (" + shots + ")", shots <= 9);
+	}
+
+	@Test
+	public void testDestroyStateSurvivesSerialization() throws Exception {
+		Sea oneShipSea = createSeaWithOneShip();
+		shootUntilHit(shootingStrategy, oneShipSea);
+		Position hit = oneShipSea.harmedShipPositions().get(0);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(shootingStrategy);
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		ShootingStrategy loaded = (ShootingStrategy) in.readObject();
+		in.close();
+
+		assertTrue("Le tir suivant devrait viser une voisine du touché", loaded.playShoot(oneShipSea).nextTo(hit));
+	}
+
 }
@@ -54,6 +54,17 @@ public class TestShip {
 				&& positionsExpected.length == results.length);
 	}
 
+	// Tests getTileOffset
+	@Test
+	public void testGetTileOffsetVertical() {
+		ship.setPosition(new Position(2, 3));
+		ship.setOrientation(Orientation.VERTICAL);
+		assertEquals("La proue devrait être à l'indice 0", 0, ship.getTileOffset(new Position(2, 3)));
+		assertEquals("La poupe devrait être à l'indice " + (SIZE-1), SIZE-1, ship.getTileOffset(new Position(2, 3+SIZE-1)));
+		assertEquals("La case ne devrait pas être occupée", -1, ship.getTileOffset(new Position(2, 3+SIZE)));
+		assertEquals("La case ne devrait pas être occupée", -1, ship.getTileOffset(new Position(3, 3)));
+	}
+	
 	// Tests checkShot
 	@Test
 	public void testCheckShotNotTouched() {
@@ -2,6 +2,9 @@ package fr.univ_lorraine.battleship.model;
 
 import static org.junit.Assert.*;
 
+import java.util.HashSet;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -25,6 +28,14 @@ public abstract class TestShootingStrategy {
 	 */
 	protected abstract ShootingStrategy createShootingStrategy();
 	
+	/**
+	 * Indique si la stratégie fait toujours les mêmes choix à générateur aléatoire égal.
+	 * @return Vrai si la stratégie est déterministe.
+	 */
+	protected boolean isDeterministic() {
+		return true;
+	}
+	
 	@Before
 	public void setUp() {
 		shootingStrategy = createShootingStrategy();
@@ -37,4 +48,64 @@ public abstract class TestShootingStrategy {
 		assertTrue("Le tir devrait être valide", sea.receiveShot(shotPos));
 	}
 	
+	@Test
+	public void testPlayShootsDistinctValidPositions() {
+		sea.putNextShipToPlace();
+		sea.getShipOnPlacing().setPosition(new Position(3, 3));
+		sea.validateShipPlacement();
+		sea.receiveShot(new Position(3, 3));	// un bateau touché
+		List<Position> shots = shootingStrategy.playShoots(sea, 6);
+		assertEquals("La salve devrait compter 6 tirs", 6, shots.size());
+		assertEquals("Les tirs de la salve devraient être différents", 6, new HashSet<Position>(shots).size());
+		for (Position shot : shots) {
+			assertTrue("Le tir devrait être valide", sea.receiveShot(shot));
+		}
+		Position next = shootingStrategy.playShoot(sea);
+		assertTrue("Le tir suivant la salve devrait être valide", sea.receiveShot(next));
+	}
+	
+	@Test
+	public void testPlayShootsLimitedToFreeTiles() {
+		Sea smallSea = new Sea(new EpochXX(), new GameRules(2, 2, new int[] { 2 }, 1));
+		smallSea.putNextShipToPlace();
+		smallSea.validateShipPlacement();
+		smallSea.receiveShot(new Position(1, 1));
+		List<Position> shots = shootingStrategy.playShoots(smallSea, 5);
+		assertEquals("La salve devrait se limiter aux cases libres", 3, shots.size());
+		assertEquals("Les tirs de la salve devraient être différents", 3, new HashSet<Position>(shots).size());
+	}
+	
+	@Test
+	public void testCopyPlaysLikeOriginal() {
+		shootingStrategy.setRandom(new GameRandom(7));
+		sea.putNextShipToPlace();
+		sea.getShipOnPlacing().setPosition(new Position(3, 3));
+		sea.validateShipPlacement();
+		for (int i = 0 ; i < 5 ; i++) {
+			sea.receiveShot(shootingStrategy.playShoot(sea));
+		}
+		sea.receiveShot(new Position(3, 3));	// un bateau touché
+		ShootingStrategy copy = shootingStrategy.copy();
+		Sea copySea = sea.fork();
+		for (int i = 0 ; i < 10 ; i++) {
+			Position shot = shootingStrategy.playShoot(sea);
+			Position copyShot = copy.playShoot(copySea);
+			if (isDeterministic()) {
+				assertEquals("La copie devrait tirer comme l'original", shot, copyShot);
+			}
+			assertTrue("Le tir devrait être valide", sea.receiveShot(shot));
+			assertTrue("Le tir de la copie devrait être valide", copySea.receiveShot(copyShot));
+		}
+	}
+	
+	@Test
+	public void testPlayShootValidPositionLargeGrid() {
+		Sea largeSea = new Sea(new EpochXX(), new GameRules(300, 200, new int[] { 5, 4, 3, 3, 2, 2, 8 }, 1));
+		largeSea.putNextShipToPlace();
+		for (int i = 0 ; i < 50 ; i++) {
+			Position shotPos = shootingStrategy.playShoot(largeSea);
+			assertTrue("Le tir devrait être valide", largeSea.receiveShot(shotPos));
+		}
+	}
+	
 }
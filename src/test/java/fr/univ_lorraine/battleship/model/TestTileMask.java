@@ -0,0 +1,91 @@
+package fr.univ_lorraine.battleship.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestTileMask {
+
+	// Tests nextSetBit et nextClearBit
+	@Test
+	public void testNextSetBit() {
+		TileMask mask = new TileMask(200);
+		mask.set(3);
+		mask.set(130);
+		assertEquals(3, mask.nextSetBit(0));
+		assertEquals(130, mask.nextSetBit(4));
+		assertEquals(-1, mask.nextSetBit(131));
+	}
+	
+	@Test
+	public void testNextClearBitStopsAtSize() {
+		TileMask mask = new TileMask(100);
+		for (int i = 0 ; i < 99 ; i++) {
+			mask.set(i);
+		}
+		assertEquals(99, mask.nextClearBit(0));
+		mask.set(99);
+		assertEquals("Les bits au-delà de la taille ne doivent pas être renvoyés", -1, mask.nextClearBit(0));
+	}
+	
+	// Tests cardinality et copie
+	@Test
+	public void testCardinalityAndCopy() {
+		TileMask mask = new TileMask(100);
+		mask.set(0);
+		mask.set(64);
+		mask.set(99);
+		TileMask copy = new TileMask(mask);
+		mask.clear(64);
+		assertEquals(2, mask.cardinality());
+		assertEquals("La copie doit être indépendante", 3, copy.cardinality());
+	}
+	
+	// Tests shift
+	@Test
+	public void testShiftAcrossWords() {
+		TileMask mask = new TileMask(130);
+		mask.set(1);
+		mask.set(63);
+		mask.set(129);
+		mask.shift(65);
+		assertEquals(66, mask.nextSetBit(0));
+		assertEquals(128, mask.nextSetBit(67));
+		assertEquals("Le bit sortant du masque doit être perdu", 2, mask.cardinality());
+		mask.shift(-66);
+		assertEquals(0, mask.nextSetBit(0));
+		assertEquals(62, mask.nextSetBit(1));
+	}
+	
+	// Tests and, or, andNot, not et nthSetBit
+	@Test
+	public void testSetOperations() {
+		TileMask a = new TileMask(100);
+		TileMask b = new TileMask(100);
+		a.set(3);
+		a.set(70);
+		b.set(70);
+		b.set(99);
+		TileMask union = new TileMask(a);
+		union.or(b);
+		assertEquals(3, union.cardinality());
+		TileMask difference = new TileMask(a);
+		difference.andNot(b);
+		assertEquals(3, difference.nthSetBit(0));
+		a.and(b);
+		assertEquals(70, a.nthSetBit(0));
+		b.not();
+		assertEquals("Le complément ne doit pas dépasser la taille", 98, b.cardinality());
+		assertEquals(98, b.nthSetBit(97));
+	}
+	
+	// Tests selectInWord
+	@Test
+	public void testSelectInWord() {
+		long word = (1L << 2) | (1L << 17) | (1L << 63);
+		assertEquals(2, TileMask.selectInWord(word, 0));
+		assertEquals(17, TileMask.selectInWord(word, 1));
+		assertEquals(63, TileMask.selectInWord(word, 2));
+	}
+
+}
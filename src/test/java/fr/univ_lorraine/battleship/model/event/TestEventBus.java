@@ -0,0 +1,76 @@
+package fr.univ_lorraine.battleship.model.event;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.Game.PlayerId;
+
+public class TestEventBus {
+
+	private EventBus bus;
+	
+	private List<List<GameEvent>> received;
+	
+	@Before
+	public void setUp() {
+		bus = new EventBus();
+		received = new ArrayList<List<GameEvent>>();
+		bus.addListener(new GameListener() {
+			@Override
+			public void onEvents(List<GameEvent> events) {
+				received.add(events);
+			}
+		});
+	}
+	
+	@Test
+	public void testPostOutsideBatchDispatchedImmediately() {
+		bus.post(new TurnChanged(PlayerId.PLAYER));
+		assertEquals("L'événement devrait être transmis immédiatement", 1, received.size());
+		assertEquals(1, received.get(0).size());
+	}
+	
+	@Test
+	public void testNestedBatchesDispatchedOnce() {
+		GameEvent first = new TurnChanged(PlayerId.COMPUTER);
+		GameEvent second = new TurnChanged(PlayerId.PLAYER);
+		bus.beginBatch();
+		bus.post(first);
+		bus.beginBatch();
+		bus.post(second);
+		bus.endBatch();
+		assertTrue("Rien ne devrait être transmis avant la fin du lot externe", received.isEmpty());
+		bus.endBatch();
+		assertEquals("Les événements devraient être transmis en une fois", 1, received.size());
+		assertSame(first, received.get(0).get(0));
+		assertSame(second, received.get(0).get(1));
+	}
+	
+	@Test
+	public void testEmptyBatchNotDispatched() {
+		bus.beginBatch();
+		bus.endBatch();
+		assertTrue("Un lot vide ne devrait pas être transmis", received.isEmpty());
+	}
+	
+	@Test
+	public void testNoListenerIgnoresEvents() {
+		bus.removeAllListeners();
+		assertFalse(bus.hasListeners());
+		bus.beginBatch();
+		bus.post(new TurnChanged(PlayerId.PLAYER));
+		bus.endBatch();
+		assertTrue(received.isEmpty());
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testEndBatchWithoutBegin() {
+		bus.endBatch();
+	}
+	
+}
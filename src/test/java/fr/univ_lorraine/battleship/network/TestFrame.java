@@ -0,0 +1,46 @@
+package fr.univ_lorraine.battleship.network;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.network.Frame.Type;
+
+public class TestFrame {
+
+	@Test
+	public void testWriteThenRead() {
+		Frame[] frames = {
+				new Frame(Type.HELLO, 0, 10, 10, 5),
+				new Frame(Type.SHOT, 0, 65535, 0, 0),
+				new Frame(Type.RESULT, Frame.SUNK, 3, 7, 4),
+				new Frame(Type.END_OF_TURN)
+		};
+		ByteBuffer buffer = ByteBuffer.allocate(frames.length * Frame.SIZE);
+		for (Frame frame : frames) {
+			frame.write(buffer);
+		}
+		assertEquals("Les trames devraient avoir une taille fixe", frames.length * Frame.SIZE, buffer.position());
+		buffer.flip();
+		for (Frame frame : frames) {
+			assertEquals("La trame lue devrait être celle écrite", frame, Frame.read(buffer));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testFieldOutOfRange() {
+		new Frame(Type.SHOT, 0, 65536, 0, 0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownType() {
+		ByteBuffer buffer = ByteBuffer.allocate(Frame.SIZE);
+		buffer.put((byte) 100);
+		buffer.position(Frame.SIZE);
+		buffer.flip();
+		Frame.read(buffer);
+	}
+	
+}
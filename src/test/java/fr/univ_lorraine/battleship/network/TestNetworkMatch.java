@@ -0,0 +1,168 @@
+package fr.univ_lorraine.battleship.network;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.EpochXX;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.RandomPlacement;
+import fr.univ_lorraine.battleship.network.Frame.Type;
+import fr.univ_lorraine.battleship.network.NetworkMatch.MatchState;
+
+public class TestNetworkMatch {
+
+	private NetworkMatch host;
+	
+	private NetworkMatch guest;
+	
+	/**
+	 * Transmet des trames à une partie et renvoie ses réponses.
+	 */
+	private static List<Frame> deliver(List<Frame> frames, NetworkMatch to) {
+		List<Frame> replies = new ArrayList<Frame>();
+		for (Frame frame : frames) {
+			replies.addAll(to.receive(frame));
+		}
+		return replies;
+	}
+	
+	private void connect(GameRules rules) {
+		host = new NetworkMatch(new EpochXX(), rules, true);
+		guest = new NetworkMatch(new EpochXX(), rules, false);
+		deliver(host.open(), guest);
+		deliver(guest.open(), host);
+		deliver(host.placeShips(new RandomPlacement(), new Random(1)), guest);
+		deliver(guest.placeShips(new RandomPlacement(), new Random(2)), host);
+	}
+	
+	/**
+	 * Choisit les premières cases libres de la grille adverse.
+	 */
+	private static List<Position> firstFreeTiles(NetworkMatch match) {
+		RemoteSea sea = match.getOpponentSea();
+		List<Position> shots = new ArrayList<Position>();
+		for (int x = 0 ; x < sea.getGridWidth() && shots.size() < match.getNumberOfShotsThisTurn() ; x++) {
+			for (int y = 0 ; y < sea.getGridHeight() && shots.size() < match.getNumberOfShotsThisTurn() ; y++) {
+				if (sea.isTileNormal(Position.of(x, y))) {
+					shots.add(Position.of(x, y));
+				}
+			}
+		}
+		return shots;
+	}
+	
+	@Before
+	public void setUp() {
+		connect(new GameRules());
+	}
+	
+	@Test
+	public void testHostShootsFirst() {
+		assertEquals("L'hôte devrait tirer en premier", MatchState.SHOOTING, host.getState());
+		assertEquals("L'invité devrait attendre", MatchState.OPPONENT_SHOOTING, guest.getState());
+	}
+	
+	@Test
+	public void testShotResolvedByDefender() {
+		Position shot = Position.of(4, 6);
+		List<Frame> results = deliver(host.shoot(Arrays.asList(shot)), guest);
+		assertEquals("Le résultat et la fin du tour devraient être renvoyés", 2, results.size());
+		assertTrue("Le tir devrait être résolu sur la grille de l'invité", !guest.getSea().isTileNormal(shot));
+		assertEquals(MatchState.WAITING_RESULTS, host.getState());
+		assertTrue(deliver(results, host).isEmpty());
+		assertEquals("Le résultat devrait correspondre à la grille de l'invité",
+				guest.getSea().getGridTileState(4, 6), host.getOpponentSea().getGridTileState(4, 6));
+		assertEquals(MatchState.SHOOTING, guest.getState());
+		assertEquals(MatchState.OPPONENT_SHOOTING, host.getState());
+	}
+	
+	@Test
+	public void testSalvoFramesBatched() {
+		connect(GameRules.salvo());
+		List<Position> shots = firstFreeTiles(host);
+		assertEquals("Autant de tirs que de bateaux en vie", 5, shots.size());
+		List<Frame> frames = host.shoot(shots);
+		assertEquals("Les tirs devraient être envoyés ensemble avec la fin du tour", 6, frames.size());
+		assertEquals(Type.END_OF_TURN, frames.get(5).getType());
+		List<Frame> results = deliver(frames, guest);
+		assertEquals("Les résultats devraient être renvoyés ensemble avec la fin du tour", 6, results.size());
+	}
+	
+	@Test
+	public void testFullSalvoMatch() {
+		connect(GameRules.salvo());
+		NetworkMatch shooter = host;
+		NetworkMatch defender = guest;
+		int turns = 0;
+		while (host.getState() != MatchState.WON && host.getState() != MatchState.LOST) {
+			deliver(deliver(shooter.shoot(firstFreeTiles(shooter)), defender), shooter);
+			NetworkMatch swap = shooter;
+			shooter = defender;
+			defender = swap;
+			assertTrue("La partie devrait se terminer", ++turns < 200);
+		}
+		NetworkMatch winner = host.getState() == MatchState.WON ? host : guest;
+		NetworkMatch loser = winner == host ? guest : host;
+		assertEquals(MatchState.LOST, loser.getState());
+		assertTrue("La flotte du perdant devrait être détruite", loser.getSea().areShipsAllDead());
+		assertTrue("Le gagnant devrait le savoir", winner.getOpponentSea().areShipsAllDead());
+		assertFalse(winner.getSea().areShipsAllDead());
+		assertEquals("Les deux côtés devraient s'accorder sur la flotte du gagnant",
+				winner.getSea().getAliveShipCount(), loser.getOpponentSea().getAliveShipCount());
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testShootOutOfTurn() {
+		guest.shoot(Arrays.asList(Position.of(0, 0)));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongNumberOfShots() {
+		host.shoot(Arrays.asList(Position.of(0, 0), Position.of(0, 1)));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testShotFrameOutOfTurn() {
+		guest.receive(new Frame(Type.SHOT, 0, 0, 0, 0));
+		host.receive(new Frame(Type.SHOT, 0, 0, 0, 0));
+	}
+	
+	@Test
+	public void testFleetSentAfterRules() {
+		List<Frame> frames = host.open();
+		assertEquals("Les règles puis une trame par bateau", 6, frames.size());
+		assertEquals(Type.HELLO, frames.get(0).getType());
+		assertEquals(new Frame(Type.FLEET, 0, 5, 0, 0), frames.get(1));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testIncompatibleFleet() {
+		// Même nombre de bateaux, de tailles différentes
+		NetworkMatch classic = new NetworkMatch(new EpochXX(), new GameRules(), true);
+		NetworkMatch other = new NetworkMatch(new EpochXX(), new GameRules(10, 10, new int[] { 5, 4, 3, 3, 3 }, 1), false);
+		deliver(classic.open(), other);
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testReadyBeforeFleet() {
+		NetworkMatch classic = new NetworkMatch(new EpochXX(), new GameRules(), true);
+		classic.receive(new NetworkMatch(new EpochXX(), new GameRules(), false).open().get(0));
+		classic.receive(new Frame(Type.READY));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testIncompatibleRules() {
+		NetworkMatch classic = new NetworkMatch(new EpochXX(), new GameRules(), true);
+		NetworkMatch salvo = new NetworkMatch(new EpochXX(), GameRules.salvo(), false);
+		deliver(classic.open(), salvo);
+	}
+	
+}
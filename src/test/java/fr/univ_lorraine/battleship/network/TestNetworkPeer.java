@@ -0,0 +1,113 @@
+package fr.univ_lorraine.battleship.network;
+
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import fr.univ_lorraine.battleship.model.EpochXVI;
+import fr.univ_lorraine.battleship.model.GameRules;
+import fr.univ_lorraine.battleship.model.Position;
+import fr.univ_lorraine.battleship.model.RandomPlacement;
+import fr.univ_lorraine.battleship.network.NetworkMatch.MatchState;
+
+public class TestNetworkPeer {
+
+	/**
+	 * Joueur tirant sur les premières cases libres dès que c'est son tour.
+	 */
+	private static class Bot implements NetworkListener {
+		
+		NetworkPeer peer;
+		
+		final CountDownLatch connected = new CountDownLatch(1);
+		
+		final CountDownLatch over = new CountDownLatch(1);
+		
+		final CountDownLatch closed = new CountDownLatch(1);
+		
+		final AtomicReference<MatchState> finalState = new AtomicReference<MatchState>();
+		
+		final AtomicReference<Exception> closeCause = new AtomicReference<Exception>();
+		
+		@Override
+		public void onMatchUpdate(NetworkMatch match) {
+			connected.countDown();
+			switch (match.getState()) {
+				case SHOOTING:
+					RemoteSea sea = match.getOpponentSea();
+					List<Position> shots = new ArrayList<Position>();
+					for (int x = 0 ; x < sea.getGridWidth() && shots.size() < match.getNumberOfShotsThisTurn() ; x++) {
+						for (int y = 0 ; y < sea.getGridHeight() && shots.size() < match.getNumberOfShotsThisTurn() ; y++) {
+							if (sea.isTileNormal(Position.of(x, y))) {
+								shots.add(Position.of(x, y));
+							}
+						}
+					}
+					peer.shoot(shots);
+					break;
+				case WON:
+				case LOST:
+					finalState.set(match.getState());
+					over.countDown();
+					break;
+				default:
+					break;
+			}
+		}
+		
+		@Override
+		public void onClosed(Exception cause) {
+			closeCause.set(cause);
+			closed.countDown();
+		}
+		
+	}
+	
+	@Test
+	public void testMatchOverLoopback() throws Exception {
+		InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+		Bot hostBot = new Bot();
+		Bot guestBot = new Bot();
+		NetworkMatch hostMatch = new NetworkMatch(new EpochXVI(), GameRules.salvo(), true);
+		NetworkMatch guestMatch = new NetworkMatch(new EpochXVI(), GameRules.salvo(), false);
+		hostBot.peer = NetworkPeer.host(loopback, hostMatch, hostBot);
+		hostBot.peer.placeShips(new RandomPlacement(), new Random(1));		// avant la connexion de l'invité
+		guestBot.peer = NetworkPeer.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+				hostBot.peer.getLocalPort()), guestMatch, guestBot);
+		guestBot.peer.placeShips(new RandomPlacement(), new Random(2));
+		
+		assertTrue("La partie de l'hôte devrait se terminer", hostBot.over.await(30, TimeUnit.SECONDS));
+		assertTrue("La partie de l'invité devrait se terminer", guestBot.over.await(30, TimeUnit.SECONDS));
+		assertNotEquals("Un seul des deux joueurs devrait gagner", hostBot.finalState.get(), guestBot.finalState.get());
+		
+		hostBot.peer.close();
+		assertTrue(hostBot.closed.await(10, TimeUnit.SECONDS));
+		assertTrue(guestBot.closed.await(10, TimeUnit.SECONDS));
+		assertNull("La fermeture de l'hôte devrait être normale", hostBot.closeCause.get());
+		assertNull("La fermeture après la fin de la partie devrait être normale", guestBot.closeCause.get());
+	}
+	
+	@Test
+	public void testOpponentLeavingDuringMatch() throws Exception {
+		InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+		Bot hostBot = new Bot();
+		Bot guestBot = new Bot();
+		hostBot.peer = NetworkPeer.host(loopback, new NetworkMatch(new EpochXVI(), new GameRules(), true), hostBot);
+		guestBot.peer = NetworkPeer.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+				hostBot.peer.getLocalPort()), new NetworkMatch(new EpochXVI(), new GameRules(), false), guestBot);
+		assertTrue(guestBot.connected.await(10, TimeUnit.SECONDS));
+		guestBot.peer.close();
+		assertTrue(hostBot.closed.await(10, TimeUnit.SECONDS));
+		assertNotNull("Le départ de l'adversaire en cours de partie devrait être une erreur", hostBot.closeCause.get());
+	}
+	
+}